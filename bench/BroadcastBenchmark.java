@@ -0,0 +1,232 @@
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 전체 채팅(CHAT_ALL) 브로드캐스트 벤치마크
+ * 같은 프로세스에 NioServer를 띄우고 클라이언트 N명(기본 10000명, 바이너리 코덱)을 접속시킨 뒤
+ * 전체 채팅 하나를 모든 연결에 보내는 두 방식을 비교한다.
+ * - 공유 프레임: SharedFrame으로 코덱당 한 번 인코딩하고 같은 배열을 모든 연결에 전송 (handleAllChat)
+ * - 수신자별 인코딩: 연결마다 send(Message)로 다시 인코딩 (이전 방식)
+ * 브로드캐스트 호출 시간(인코딩 + 대기열 추가)과 호출 스레드의 할당량,
+ * 모든 클라이언트가 받기까지의 지연(p50/p99)을 출력한다.
+ * 클라이언트와 서버 소켓을 모두 이 프로세스가 열므로 파일 디스크립터가 2N개 넘게 필요하다 (ulimit -n 확인).
+ *
+ * 사용법: java BroadcastBenchmark [클라이언트 수] [방식별 브로드캐스트 횟수]
+ */
+public class BroadcastBenchmark {
+
+    private static final int NIO_IO_THREADS = Math.max(2, Runtime.getRuntime().availableProcessors());
+    private static final int WARMUP_ROUNDS = 50;
+    private static final long DELIVERY_TIMEOUT_MS = 30_000;
+
+    enum Mode { SHARED_FRAME, PER_RECIPIENT }
+
+    // 서버 쪽 연결 목록 (핸드셰이크가 끝난 연결)
+    private static final ConcurrentLinkedQueue<NioServer.Connection> serverConnections = new ConcurrentLinkedQueue<>();
+
+    // 클라이언트 수신 측: 프레임 수만 센다
+    private static final AtomicLong delivered = new AtomicLong();
+    private static volatile long target = Long.MAX_VALUE;
+    private static volatile CountDownLatch roundDone;
+
+    public static void main(String[] args) throws Exception {
+        int clientCount = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+
+        NioServer server = new NioServer(0, NIO_IO_THREADS, () -> new OutboundQueue(64 * 1024, 256 * 1024, 4 * 1024 * 1024, 5000),
+                new NioServer.Handler() {
+                    @Override
+                    public void onOpen(NioServer.Connection connection) {
+                        serverConnections.add(connection);
+                    }
+
+                    @Override
+                    public void onMessage(NioServer.Connection connection, Message msg) {
+                    }
+
+                    @Override
+                    public void onClose(NioServer.Connection connection) {
+                        serverConnections.remove(connection);
+                    }
+                }, System.out::println);
+        server.start();
+        Selector clientSelector = Selector.open();
+        List<SocketChannel> clients = new ArrayList<>(clientCount);
+        try {
+            long start = System.nanoTime();
+            try {
+                for (int i = 0; i < clientCount; i++) {
+                    clients.add(connect(server.getLocalPort(), clientSelector));
+                }
+            } catch (IOException e) {
+                System.out.println("클라이언트 " + clients.size() + "명에서 접속 실패: " + e.getMessage()
+                        + " (파일 디스크립터 한도 ulimit -n 확인)");
+                return;
+            }
+            System.out.printf(Locale.US, "클라이언트 %d명 접속 %.1f초, CPU %d개, I/O 스레드 %d개%n", clients.size(),
+                    (System.nanoTime() - start) / 1e9, Runtime.getRuntime().availableProcessors(), NIO_IO_THREADS);
+
+            Thread reader = new Thread(() -> readLoop(clientSelector), "broadcast-reader");
+            reader.setDaemon(true);
+            reader.start();
+
+            List<NioServer.Connection> recipients = new ArrayList<>(serverConnections);
+            for (Mode mode : Mode.values()) {
+                run(mode, recipients, WARMUP_ROUNDS, false);
+            }
+            for (Mode mode : Mode.values()) {
+                run(mode, recipients, rounds, true);
+            }
+            System.out.println("송신 대기열 초과로 끊긴 연결 " + server.getEvictedCount() + "개");
+        } finally {
+            for (SocketChannel client : clients) {
+                try {
+                    client.close();
+                } catch (IOException ignored) {
+                }
+            }
+            clientSelector.close();
+            server.stop();
+        }
+    }
+
+    // 접속 + 바이너리 코덱 핸드셰이크 후 논블로킹으로 바꿔 수신 셀렉터에 등록
+    private static SocketChannel connect(int port, Selector selector) throws IOException {
+        SocketChannel channel = SocketChannel.open(new InetSocketAddress("127.0.0.1", port));
+        channel.socket().setTcpNoDelay(true);
+        DataOutputStream out = new DataOutputStream(channel.socket().getOutputStream());
+        DataInputStream in = new DataInputStream(channel.socket().getInputStream());
+        FrameCodec.writeRawFrame(out, FrameCodec.createHandshake(BinaryMessageCodec.INSTANCE));
+        FrameCodec.readRawFrame(in);
+        channel.configureBlocking(false);
+        channel.register(selector, SelectionKey.OP_READ, new int[3]);   // 프레임 경계 추적 (countFrames)
+        return channel;
+    }
+
+    private static void run(Mode mode, List<NioServer.Connection> recipients, int rounds, boolean report)
+            throws InterruptedException, IOException {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+        long[] callNanos = new long[rounds];
+        long[] deliveryNanos = new long[rounds];
+        long allocated = 0;
+        int timedOut = 0;
+
+        for (int r = 0; r < rounds; r++) {
+            Message chat = Message.createChatMessage(Message.MessageType.CHAT_ALL, "player01",
+                    String.format("전체 채팅 %05d", r), null);
+            CountDownLatch done = new CountDownLatch(1);
+            target = delivered.get() + recipients.size();
+            roundDone = done;
+
+            long allocBefore = threads.getThreadAllocatedBytes(threadId);
+            long start = System.nanoTime();
+            broadcast(mode, chat, recipients);
+            long called = System.nanoTime();
+            allocated += threads.getThreadAllocatedBytes(threadId) - allocBefore;
+
+            if (!done.await(DELIVERY_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                timedOut++;
+            }
+            callNanos[r] = called - start;
+            deliveryNanos[r] = System.nanoTime() - start;
+        }
+        roundDone = null;
+        if (!report) {
+            return;
+        }
+        Arrays.sort(callNanos);
+        Arrays.sort(deliveryNanos);
+        System.out.printf(Locale.US, "%s: 호출 p50 %.2fms / p99 %.2fms, 호출 스레드 할당 %.0fKB/회, 전원 수신 p50 %.1fms / p99 %.1fms, 시간 초과 %d회%n",
+                mode, callNanos[rounds / 2] / 1e6, callNanos[(int) (rounds * 0.99)] / 1e6,
+                allocated / 1024.0 / rounds, deliveryNanos[rounds / 2] / 1e6, deliveryNanos[(int) (rounds * 0.99)] / 1e6, timedOut);
+    }
+
+    private static void broadcast(Mode mode, Message chat, List<NioServer.Connection> recipients) throws IOException {
+        if (mode == Mode.SHARED_FRAME) {
+            SharedFrame frame = new SharedFrame(chat);
+            for (NioServer.Connection c : recipients) {
+                c.sendFrame(frame.frameFor(c.getCodec()), frame.isDroppable());
+            }
+        } else {
+            for (NioServer.Connection c : recipients) {
+                c.send(chat);
+            }
+        }
+    }
+
+    // 모든 클라이언트 소켓을 읽어 완성된 프레임 수를 셈
+    private static void readLoop(Selector selector) {
+        ByteBuffer buf = ByteBuffer.allocateDirect(64 * 1024);
+        try {
+            while (selector.isOpen()) {
+                selector.select();
+                Iterator<SelectionKey> it = selector.selectedKeys().iterator();
+                while (it.hasNext()) {
+                    SelectionKey key = it.next();
+                    it.remove();
+                    int[] state = (int[]) key.attachment();
+                    buf.clear();
+                    int n = ((SocketChannel) key.channel()).read(buf);
+                    if (n < 0) {
+                        key.cancel();
+                        continue;
+                    }
+                    buf.flip();
+                    countFrames(buf, state);
+                }
+                CountDownLatch done = roundDone;
+                if (done != null && delivered.get() >= target) {
+                    done.countDown();
+                }
+            }
+        } catch (IOException | java.nio.channels.ClosedSelectorException e) {
+            // 종료
+        }
+    }
+
+    // state: [읽은 헤더 바이트 수, 헤더 값, 남은 본문 길이]
+    private static void countFrames(ByteBuffer buf, int[] state) {
+        while (buf.hasRemaining()) {
+            if (state[2] > 0) {
+                int skip = Math.min(state[2], buf.remaining());
+                buf.position(buf.position() + skip);
+                state[2] -= skip;
+                if (state[2] == 0) {
+                    delivered.incrementAndGet();
+                }
+                continue;
+            }
+            // 길이 헤더 (4바이트, 나뉘어 올 수 있음)
+            while (state[0] < FrameCodec.HEADER_SIZE && buf.hasRemaining()) {
+                state[1] = (state[1] << 8) | (buf.get() & 0xFF);
+                state[0]++;
+            }
+            if (state[0] < FrameCodec.HEADER_SIZE) {
+                return;
+            }
+            state[2] = state[1];
+            state[0] = 0;
+            state[1] = 0;
+            if (state[2] == 0) {
+                delivered.incrementAndGet();
+            }
+        }
+    }
+}
@@ -0,0 +1,158 @@
+import java.io.IOException;
+import java.util.Hashtable;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Vector;
+
+/**
+ * 메시지 코덱 벤치마크
+ * 서버가 실제로 보내는 모양의 메시지를 메시지 타입별로 만들어 Java 직렬화와 바이너리 코덱의
+ * 인코딩 크기, 인코딩/디코딩 ns/op를 출력한다.
+ *
+ * 사용법: java CodecBenchmark [타입당 측정 시간(ms)]
+ */
+public class CodecBenchmark {
+
+    private static final MessageCodec[] CODECS = {JavaSerializationCodec.INSTANCE, BinaryMessageCodec.INSTANCE};
+
+    private static long sink;   // 결과를 버리지 않도록 누적
+
+    public static void main(String[] args) throws IOException {
+        long measureMillis = args.length > 0 ? Long.parseLong(args[0]) : 500;
+
+        System.out.printf(Locale.US, "%-26s %8s %8s %10s %10s %10s %10s%n", "타입", "Java(B)", "바이너리",
+                "Java 인코딩", "Java 디코딩", "바이너리 인코딩", "바이너리 디코딩");
+        for (Map.Entry<String, Message> sample : samples().entrySet()) {
+            Message msg = sample.getValue();
+            StringBuilder sizes = new StringBuilder();
+            StringBuilder times = new StringBuilder();
+            for (MessageCodec codec : CODECS) {
+                byte[] encoded = codec.encode(msg);
+                sizes.append(String.format(Locale.US, " %8d", encoded.length));
+                times.append(String.format(Locale.US, " %8.0fns %8.0fns",
+                        measure(() -> sink += codec.encode(msg).length, measureMillis),
+                        measure(() -> sink += codec.decode(encoded, 0, encoded.length).getRound(), measureMillis)));
+            }
+            System.out.printf(Locale.US, "%-26s%s%s%n", sample.getKey(), sizes, times);
+        }
+        if (sink == 42) {
+            System.out.println();
+        }
+    }
+
+    private interface Op {
+        void run() throws IOException;
+    }
+
+    // 예열 후 measureMillis 동안 반복한 평균 ns/op
+    private static double measure(Op op, long measureMillis) throws IOException {
+        long warmupEnd = System.nanoTime() + measureMillis * 1_000_000 / 2;
+        while (System.nanoTime() < warmupEnd) {
+            for (int i = 0; i < 100; i++) op.run();
+        }
+        long ops = 0;
+        long start = System.nanoTime();
+        long end = start + measureMillis * 1_000_000;
+        long now;
+        do {
+            for (int i = 0; i < 100; i++) op.run();
+            ops += 100;
+            now = System.nanoTime();
+        } while (now < end);
+        return (double) (now - start) / ops;
+    }
+
+    // 메시지 타입별 대표 메시지 (서버의 응답 구성과 같은 모양)
+    private static Map<String, Message> samples() {
+        Map<String, Message> samples = new LinkedHashMap<>();
+
+        Message guess = new Message(Message.MessageType.GUESS, "player01");
+        guess.setGuess("4721");
+        samples.put("GUESS", guess);
+
+        Message result = new Message(Message.MessageType.GUESS_RESULT, "player01");
+        result.setGuess("4721");
+        result.setStrike(2);
+        result.setBall(1);
+        result.setRound(3);
+        result.setTop(true);
+        samples.put("GUESS_RESULT", result);
+
+        Message turn = new Message(Message.MessageType.TURN_INFO, "SERVER", "3회 초 - player02의 차례");
+        turn.setRound(3);
+        turn.setTop(true);
+        turn.setCurrentTurnPlayer("player02");
+        samples.put("TURN_INFO", turn);
+
+        Message chat = Message.createChatMessage(Message.MessageType.CHAT_ALL, "player01", "안녕하세요 한 판 하실 분?", null);
+        samples.put("CHAT_ALL", chat);
+
+        Message room = new Message(Message.MessageType.ROOM_INFO_UPDATE, "SERVER", "player03님이 입장하셨습니다.");
+        room.setRoomId(17);
+        room.setRoomName("초보만");
+        room.setRoomMaster("player01");
+        room.setGameMode(Message.GameMode.TWO_VS_TWO);
+        room.setDifficulty(Message.Difficulty.MEDIUM);
+        room.setTurnTimeLimit(Message.TurnTimeLimit.THIRTY);
+        room.setRoomStatus(Message.RoomStatus.WAITING);
+        room.setCurrentPlayers(3);
+        room.setMaxPlayers(4);
+        Hashtable<String, java.io.Serializable> roomData = new Hashtable<>();
+        Vector<String> players = new Vector<>();
+        Hashtable<String, Boolean> ready = new Hashtable<>();
+        for (int i = 1; i <= 3; i++) {
+            players.add("player0" + i);
+            ready.put("player0" + i, i != 3);
+        }
+        roomData.put("players", players);
+        roomData.put("readyStatus", ready);
+        room.setData(roomData);
+        samples.put("ROOM_INFO_UPDATE", room);
+
+        Vector<Message> rooms = new Vector<>();
+        for (int i = 1; i <= 20; i++) {
+            Message info = new Message(Message.MessageType.ROOM_LIST_RESPONSE, "master" + i);
+            info.setRoomId(i);
+            info.setRoomName("방 " + i);
+            info.setRoomStatus(i % 3 == 0 ? Message.RoomStatus.IN_GAME : Message.RoomStatus.WAITING);
+            info.setCurrentPlayers(1 + i % 2);
+            info.setMaxPlayers(2);
+            info.setGameMode(Message.GameMode.ONE_VS_ONE);
+            info.setDifficulty(Message.Difficulty.values()[i % 3]);
+            info.setRoomMaster("master" + i);
+            rooms.add(info);
+        }
+        Message roomList = new Message(Message.MessageType.ROOM_LIST_RESPONSE, "SERVER");
+        roomList.setData(rooms);
+        samples.put("ROOM_LIST_RESPONSE(20)", roomList);
+
+        Hashtable<String, String> stats = new Hashtable<>();
+        stats.put("userId", "player01");
+        stats.put("wins", "42");
+        stats.put("losses", "17");
+        stats.put("draws", "3");
+        stats.put("winRate", "67.7%");
+        Message statsResponse = new Message(Message.MessageType.STATS_RESPONSE, "SERVER");
+        statsResponse.setData(stats);
+        samples.put("STATS_RESPONSE", statsResponse);
+
+        Vector<Hashtable<String, String>> records = new Vector<>();
+        for (int i = 0; i < 20; i++) {
+            Hashtable<String, String> record = new Hashtable<>();
+            record.put("gameId", "G" + (1700000000000L + i));
+            record.put("timestamp", "2026-10-17 12:" + (10 + i) + ":00");
+            record.put("participants", "player01;player0" + (2 + i % 7));
+            record.put("gameMode", "ONE_VS_ONE");
+            record.put("difficulty", "MEDIUM");
+            record.put("winner", i % 2 == 0 ? "player01" : "player0" + (2 + i % 7));
+            records.add(record);
+        }
+        Message history = new Message(Message.MessageType.GAME_HISTORY_RESPONSE, "SERVER");
+        history.setData(records);
+        history.setContent("120");
+        samples.put("GAME_HISTORY_RESPONSE(20)", history);
+
+        return samples;
+    }
+}
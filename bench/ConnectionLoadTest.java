@@ -0,0 +1,301 @@
+import java.io.*;
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 서버 연결 부하 테스트
+ * 서버 실행 모드별로 같은 프로세스 안에 에코 서버를 띄우고 연결 N개를 맺은 뒤 다음을 출력한다.
+ * - 모든 연결이 핸드셰이크 후 메시지 하나를 주고받기까지 걸린 시간
+ * - 연결당 힙 / RSS 증가량과 플랫폼 스레드 수 (스레드 모드의 스택은 힙이 아니라 RSS로 잡힘)
+ * - 한 연결에 잘못된 프레임(1MB 가까이 중첩된 data)을 보낸 뒤 그 연결만 끊기고 나머지는 계속 응답하는지
+ * 서버 쪽은 BaseballServerGUI와 같은 프레임/핸드셰이크/NioServer를 쓰고, 게임 처리 대신 받은 메시지를 돌려준다.
+ * 클라이언트 소켓도 같은 프로세스에 있으므로 메모리 수치는 모드끼리 비교하는 용도.
+ * (RSS는 앞 모드가 돌려준 메모리가 섞이므로 모드를 하나씩 따로 실행해야 정확하다)
+ *
+ * 사용법: java ConnectionLoadTest [연결 수] [모드: THREAD|VIRTUAL|NIO|ALL]
+ */
+public class ConnectionLoadTest {
+
+    private static final int SO_TIMEOUT_MS = 10_000;
+    private static final int NIO_IO_THREADS = Math.max(2, Runtime.getRuntime().availableProcessors());
+    private static final int SAMPLE_AFTER_BAD_FRAME = 100;   // 잘못된 프레임 후 확인할 다른 연결 수
+
+    enum Mode { THREAD, VIRTUAL, NIO }
+
+    // 테스트용 에코 서버
+    private interface EchoServer {
+        int start() throws IOException;   // 바인드한 포트 반환
+        void stop();
+    }
+
+    // 블로킹 소켓 + 연결마다 스레드 하나 (플랫폼 또는 가상)
+    private static final class BlockingEchoServer implements EchoServer {
+        private final boolean virtual;
+        private ServerSocket serverSocket;
+        private ExecutorService executor;
+
+        BlockingEchoServer(boolean virtual) {
+            this.virtual = virtual;
+        }
+
+        @Override
+        public int start() throws IOException {
+            serverSocket = new ServerSocket(0, 1024, InetAddress.getLoopbackAddress());
+            executor = virtual ? Executors.newVirtualThreadPerTaskExecutor() : null;
+            Runnable acceptLoop = () -> {
+                while (!serverSocket.isClosed()) {
+                    try {
+                        Socket socket = serverSocket.accept();
+                        Runnable handler = () -> serve(socket);
+                        if (executor != null) {
+                            executor.execute(handler);
+                        } else {
+                            new Thread(handler).start();
+                        }
+                    } catch (IOException e) {
+                        return;
+                    }
+                }
+            };
+            Thread accept = virtual ? Thread.ofVirtual().unstarted(acceptLoop) : new Thread(acceptLoop, "accept");
+            accept.start();
+            return serverSocket.getLocalPort();
+        }
+
+        // ClientHandler.run과 같은 흐름 (핸드셰이크 → 프레임 수신 루프)
+        private void serve(Socket socket) {
+            try (Socket s = socket) {
+                DataInputStream in = new DataInputStream(new BufferedInputStream(s.getInputStream()));
+                DataOutputStream out = new DataOutputStream(new BufferedOutputStream(s.getOutputStream()));
+                MessageCodec codec = JavaSerializationCodec.INSTANCE;
+                byte[] first = FrameCodec.readRawFrame(in);
+                if (FrameCodec.isHandshake(first)) {
+                    codec = FrameCodec.negotiate(first);
+                    FrameCodec.writeRawFrame(out, FrameCodec.createHandshakeReply(codec));
+                } else {
+                    FrameCodec.writeFrame(out, codec.decode(first, 0, first.length), codec);
+                }
+                while (true) {
+                    FrameCodec.writeFrame(out, FrameCodec.readFrame(in, codec), codec);
+                }
+            } catch (IOException | RuntimeException e) {
+                // 연결 종료 또는 잘못된 프레임 → 이 연결만 종료
+            }
+        }
+
+        @Override
+        public void stop() {
+            try {
+                serverSocket.close();
+            } catch (IOException ignored) {
+            }
+            if (executor != null) {
+                executor.shutdownNow();
+            }
+        }
+    }
+
+    // NioServer (서버의 NIO 모드와 같은 엔진과 송신 대기열)
+    private static final class NioEchoServer implements EchoServer {
+        private NioServer server;
+
+        @Override
+        public int start() throws IOException {
+            server = new NioServer(0, NIO_IO_THREADS, () -> new OutboundQueue(64 * 1024, 256 * 1024, 4 * 1024 * 1024, 5000),
+                    new NioServer.Handler() {
+                        @Override
+                        public void onOpen(NioServer.Connection connection) {
+                        }
+
+                        @Override
+                        public void onMessage(NioServer.Connection connection, Message msg) {
+                            connection.send(msg);
+                        }
+
+                        @Override
+                        public void onClose(NioServer.Connection connection) {
+                        }
+                    }, System.out::println);
+            server.start();
+            return server.getLocalPort();
+        }
+
+        @Override
+        public void stop() {
+            server.stop();
+        }
+    }
+
+    // 클라이언트 연결 하나 (버퍼 없이 프레임 단위로 읽고 씀)
+    private static final class Client {
+        final Socket socket;
+        final DataInputStream in;
+        final DataOutputStream out;
+
+        Client(int port) throws IOException {
+            socket = new Socket(InetAddress.getLoopbackAddress(), port);
+            socket.setSoTimeout(SO_TIMEOUT_MS);
+            socket.setTcpNoDelay(true);
+            in = new DataInputStream(socket.getInputStream());
+            out = new DataOutputStream(socket.getOutputStream());
+        }
+
+        void handshake() throws IOException {
+            FrameCodec.writeRawFrame(out, FrameCodec.createHandshake(BinaryMessageCodec.INSTANCE));
+            FrameCodec.readRawFrame(in);
+        }
+
+        // 메시지 하나를 보내고 같은 메시지가 돌아오는지
+        boolean echo(Message msg) throws IOException {
+            FrameCodec.writeFrame(out, msg, BinaryMessageCodec.INSTANCE);
+            Message reply = FrameCodec.readFrame(in, BinaryMessageCodec.INSTANCE);
+            return reply.getType() == msg.getType() && msg.getUserId().equals(reply.getUserId());
+        }
+
+        // 서버가 연결을 끊었는지 (제한 시간 안에 EOF)
+        boolean isClosedByServer() {
+            try {
+                return in.read() < 0;
+            } catch (SocketTimeoutException e) {
+                return false;
+            } catch (IOException e) {
+                return true; // 연결 재설정
+            }
+        }
+
+        void close() {
+            try {
+                socket.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int connections = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        String modeArg = args.length > 1 ? args[1].toUpperCase(Locale.ROOT) : "ALL";
+        List<Mode> modes = new ArrayList<>();
+        for (Mode mode : Mode.values()) {
+            if (modeArg.equals("ALL") || modeArg.equals(mode.name())) {
+                modes.add(mode);
+            }
+        }
+
+        System.out.println("연결 " + connections + "개, CPU " + Runtime.getRuntime().availableProcessors() + "개");
+        for (Mode mode : modes) {
+            run(mode, connections);
+        }
+    }
+
+    private static void run(Mode mode, int connections) throws Exception {
+        EchoServer server = (mode == Mode.NIO) ? new NioEchoServer() : new BlockingEchoServer(mode == Mode.VIRTUAL);
+        int port = server.start();
+        List<Client> clients = new ArrayList<>(connections);
+        try {
+            settle();
+            long heapBefore = usedHeap();
+            long rssBefore = rss();
+            int threadsBefore = ManagementFactory.getThreadMXBean().getThreadCount();
+
+            // 연결 + 핸드셰이크 + 메시지 하나 주고받기
+            long start = System.nanoTime();
+            int failed = 0;
+            for (int i = 0; i < connections; i++) {
+                Client client = new Client(port);
+                clients.add(client);
+                client.handshake();
+                if (!client.echo(new Message(Message.MessageType.GUESS, "load-" + i))) {
+                    failed++;
+                }
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            settle();
+            long heapPer = (usedHeap() - heapBefore) / connections;
+            long rssPer = (rss() - rssBefore) / connections;
+            int threads = ManagementFactory.getThreadMXBean().getThreadCount() - threadsBefore;
+            System.out.printf(Locale.US, "%s: %d개 연결 %.2f초 (응답 실패 %d), 연결당 힙 %.1fKB / RSS %.1fKB, 플랫폼 스레드 +%d%n",
+                    mode, connections, seconds, failed, heapPer / 1024.0, rssPer / 1024.0, threads);
+
+            // 잘못된 프레임: 그 연결만 끊기고 다른 연결은 계속 응답해야 함
+            Client bad = clients.get(0);
+            FrameCodec.writeRawFrame(bad.out, deeplyNestedPayload());
+            boolean badClosed = bad.isClosedByServer();
+            int sample = Math.min(SAMPLE_AFTER_BAD_FRAME, clients.size() - 1);
+            int alive = 0;
+            for (int k = 1; k <= sample; k++) {
+                Client other = clients.get(k * (clients.size() - 1) / sample);
+                try {
+                    if (other.echo(new Message(Message.MessageType.CHAT_ALL, "after-" + k))) {
+                        alive++;
+                    }
+                } catch (IOException e) {
+                    // 응답 없음
+                }
+            }
+            System.out.println("  잘못된 프레임: 보낸 연결 " + (badClosed ? "종료됨" : "종료 안 됨")
+                    + ", 다른 연결 응답 " + alive + "/" + sample);
+        } finally {
+            for (Client client : clients) {
+                client.close();
+            }
+            server.stop();
+        }
+    }
+
+    // 바이너리 코덱 data에 빈 Vector를 최대한 깊게 중첩한 페이로드 (한 단계에 2바이트)
+    private static byte[] deeplyNestedPayload() {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        bos.write(0);                               // 타입
+        long mask = 1L << 35;                       // data 필드만 존재
+        while ((mask & ~0x7FL) != 0) {
+            bos.write((int) ((mask & 0x7F) | 0x80));
+            mask >>>= 7;
+        }
+        bos.write((int) mask);
+        bos.write(0);                               // 타임스탬프
+        int levels = (FrameCodec.MAX_FRAME_LENGTH - 16) / 2;
+        for (int i = 0; i < levels; i++) {
+            bos.write(6);                           // T_VECTOR
+            bos.write(1);                           // 원소 1개
+        }
+        bos.write(0);                               // T_NULL
+        return bos.toByteArray();
+    }
+
+    private static void settle() throws InterruptedException {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(200);
+        }
+    }
+
+    private static long usedHeap() {
+        Runtime rt = Runtime.getRuntime();
+        return rt.totalMemory() - rt.freeMemory();
+    }
+
+    // 프로세스 RSS (리눅스 /proc, 없으면 0)
+    private static long rss() {
+        try {
+            for (String line : Files.readAllLines(Paths.get("/proc/self/status"), StandardCharsets.US_ASCII)) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.replaceAll("[^0-9]", "")) * 1024;
+                }
+            }
+        } catch (IOException | NumberFormatException ignored) {
+        }
+        return 0;
+    }
+}
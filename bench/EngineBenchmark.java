@@ -0,0 +1,178 @@
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * 게임 엔진 처리량 벤치마크
+ * 네트워크/파일 없이 GameEngine만으로 게임을 반복 진행해 스레드 수별 초당 게임 수와 추측 수,
+ * 게임당 할당량을 출력한다. 스레드마다 자기 엔진과 난수를 쓰므로 공유 상태가 없다.
+ * 전략 계산이 아니라 엔진 비용을 재기 위해 추측은 후보 공간에서 무작위로 고르고,
+ * 매 추측마다 일정 확률로 상대의 정답을 그대로 내서 게임이 여러 회차에서 끝나도록 한다.
+ * (BalanceSimulator는 같은 엔진에 후보 제거 전략을 붙여 밸런스를 보는 도구)
+ *
+ * 사용법: java EngineBenchmark [설정당 측정 시간(ms)] [최대 스레드 수] [정답을 낼 확률]
+ */
+public class EngineBenchmark {
+
+    private static final Message.GameMode[] MODES = {Message.GameMode.ONE_VS_ONE, Message.GameMode.TWO_VS_TWO};
+    private static final Message.Difficulty[] DIFFICULTIES = {Message.Difficulty.EASY, Message.Difficulty.MEDIUM, Message.Difficulty.HARD};
+
+    // 스레드 하나가 게임을 이어서 진행하는 테이블
+    private static final class Table implements GameEngine.Listener {
+        private final Message.GameMode mode;
+        private final AnswerSpace space;
+        private final GameEngine engine;
+        private final SplittableRandom random;
+        private final double hitRate;
+        private final String[] ids;
+        private final String[] opponents;   // 자리별로 맞혀야 하는 정답의 주인
+        private final int[] teams;
+        long games;
+        long guesses;
+
+        Table(Message.GameMode mode, Message.Difficulty difficulty, long seed, double hitRate) {
+            this.mode = mode;
+            this.space = AnswerSpace.forDifficulty(difficulty);
+            this.engine = new GameEngine(mode, difficulty, this);
+            this.random = new SplittableRandom(seed);
+            this.hitRate = hitRate;
+            int seats = mode.getMaxPlayers();
+            ids = new String[seats];
+            opponents = new String[seats];
+            teams = new int[seats];
+            for (int i = 0; i < seats; i++) {
+                ids[i] = "P" + i;
+                teams[i] = (mode == Message.GameMode.TWO_VS_TWO) ? (i < 2 ? 1 : 2) : 0;
+            }
+            for (int i = 0; i < seats; i++) {
+                opponents[i] = ids[(mode == Message.GameMode.TWO_VS_TWO) ? (i + 2) % seats : (i + 1) % seats];
+            }
+        }
+
+        void play() {
+            engine.start(ids, teams, random);
+            while (engine.isRunning()) {
+                if (mode == Message.GameMode.TWO_VS_TWO) {
+                    int team = engine.getAttackingTeam();
+                    for (int seat = 0; seat < ids.length && engine.isRunning() && engine.getAttackingTeam() == team; seat++) {
+                        if (teams[seat] == team) {
+                            guess(seat);
+                        }
+                    }
+                } else {
+                    String turn = engine.getTurnPlayerId();
+                    guess(turn.charAt(1) - '0');
+                }
+            }
+        }
+
+        private void guess(int seat) {
+            long packed = random.nextDouble() < hitRate ? engine.getAnswer(opponents[seat])
+                    : space.candidateAt(random.nextInt(space.size()));
+            engine.guess(ids[seat], packed);
+            guesses++;
+        }
+
+        @Override
+        public void onStart() {
+        }
+
+        @Override
+        public void onTurn(int round, boolean top, String turnPlayerId) {
+        }
+
+        @Override
+        public void onGuess(String playerId, long packedGuess, int score, int round) {
+        }
+
+        @Override
+        public void onBatch(int team, int round, String[] playerIds, long[] guesses, int[] scores, int count) {
+        }
+
+        @Override
+        public void onTimeout(int round, boolean top, String turnPlayerId) {
+        }
+
+        @Override
+        public void onEnd(String winnerId, boolean isDraw, int winnerTeam) {
+            games++;
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        long measureMillis = args.length > 0 ? Long.parseLong(args[0]) : 1000;
+        int maxThreads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        double hitRate = args.length > 2 ? Double.parseDouble(args[2]) : 0.1;
+
+        List<Integer> threadCounts = new ArrayList<>();
+        for (int t = 1; t < maxThreads; t *= 2) {
+            threadCounts.add(t);
+        }
+        threadCounts.add(maxThreads);
+
+        System.out.println("CPU " + Runtime.getRuntime().availableProcessors() + "개, 설정당 " + measureMillis
+                + "ms, 정답을 낼 확률 " + hitRate);
+        for (Message.GameMode mode : MODES) {
+            for (Message.Difficulty difficulty : DIFFICULTIES) {
+                run(mode, difficulty, 1, measureMillis / 2, hitRate, false);   // 예열
+                for (int threads : threadCounts) {
+                    run(mode, difficulty, threads, measureMillis, hitRate, true);
+                }
+            }
+        }
+    }
+
+    private static void run(Message.GameMode mode, Message.Difficulty difficulty, int threadCount, long measureMillis,
+                            double hitRate, boolean report) throws InterruptedException {
+        com.sun.management.ThreadMXBean mx = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        Table[] tables = new Table[threadCount];
+        long[] allocated = new long[threadCount];
+        CountDownLatch startGate = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threadCount; t++) {
+            int index = t;
+            tables[t] = new Table(mode, difficulty, 42 + t, hitRate);
+            Thread worker = new Thread(() -> {
+                Table table = tables[index];
+                try {
+                    startGate.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                long allocBefore = mx.getCurrentThreadAllocatedBytes();
+                long end = System.nanoTime() + measureMillis * 1_000_000;
+                do {
+                    for (int i = 0; i < 256; i++) {
+                        table.play();
+                    }
+                } while (System.nanoTime() < end);
+                allocated[index] = mx.getCurrentThreadAllocatedBytes() - allocBefore;
+            }, "engine-" + t);
+            workers.add(worker);
+            worker.start();
+        }
+        long start = System.nanoTime();
+        startGate.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        if (!report) {
+            return;
+        }
+        long games = 0;
+        long guesses = 0;
+        long bytes = 0;
+        for (int t = 0; t < threadCount; t++) {
+            games += tables[t].games;
+            guesses += tables[t].guesses;
+            bytes += allocated[t];
+        }
+        System.out.printf(Locale.US, "%s %s, 스레드 %d개: %,.0f게임/초 (스레드당 %,.0f), %,.0f추측/초, 게임당 추측 %.1f번, 게임당 할당 %.0fB%n",
+                mode.getDisplayName(), difficulty.getDisplayName(), threadCount, games / seconds, games / seconds / threadCount,
+                guesses / seconds, (double) guesses / games, (double) bytes / games);
+    }
+}
@@ -0,0 +1,188 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 방 목록 저장소 벤치마크
+ * 방 N개(기본 100000개)를 여러 스레드에서 동시에 만들고, 번호 조회 / 로비 조건 조회 / 상태 변경 / 삭제 시간을 잰다.
+ * 번호 조회와 로비 조회는 RoomRegistry 도입 전 방식(CopyOnWriteArrayList 선형 탐색,
+ * 요청마다 방 요약 메시지를 새로 만듦)과 비교한다.
+ * 동시 생성 뒤 방 번호가 겹치지 않는지, 정원을 넘지 않는지도 확인한다.
+ *
+ * 사용법: java RoomRegistryBenchmark [방 수] [스레드 수]
+ */
+public class RoomRegistryBenchmark {
+
+    private static final int LOOKUPS = 1_000_000;
+    private static final int SCAN_LOOKUPS = 1_000;   // 선형 탐색은 느리므로 조금만
+    private static final int QUERIES = 200;
+
+    private static long sink;
+
+    // 벤치마크용 방 (GameRoom의 로비 표시 필드만)
+    private static final class Room {
+        final int roomId;
+        final Message.GameMode mode;
+        final Message.Difficulty difficulty;
+        volatile Message.RoomStatus status = Message.RoomStatus.WAITING;
+
+        Room(int roomId, Message.GameMode mode, Message.Difficulty difficulty) {
+            this.roomId = roomId;
+            this.mode = mode;
+            this.difficulty = difficulty;
+        }
+
+        Message summary() {
+            Message info = new Message(Message.MessageType.ROOM_LIST_RESPONSE, "master" + roomId);
+            info.setRoomId(roomId);
+            info.setRoomName("방 " + roomId);
+            info.setRoomStatus(status);
+            info.setCurrentPlayers(1);
+            info.setMaxPlayers(mode.getMaxPlayers());
+            info.setGameMode(mode);
+            info.setDifficulty(difficulty);
+            info.setRoomMaster("master" + roomId);
+            return info;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int roomCount = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Math.max(2, Runtime.getRuntime().availableProcessors());
+        System.out.println("방 " + roomCount + "개, 생성 스레드 " + threads + "개, CPU " + Runtime.getRuntime().availableProcessors() + "개");
+
+        // 정원보다 많이 동시에 생성 요청 → 정원까지만 생성되어야 함
+        RoomRegistry<Room> registry = new RoomRegistry<>(roomCount);
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch startGate = new CountDownLatch(1);
+        List<Thread> creators = new ArrayList<>();
+        int perThread = (roomCount + roomCount / 10) / threads + 1;
+        for (int t = 0; t < threads; t++) {
+            int seed = t;
+            Thread creator = new Thread(() -> {
+                SplittableRandom random = new SplittableRandom(seed);
+                try {
+                    startGate.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < perThread; i++) {
+                    Message.GameMode mode = Message.GameMode.values()[random.nextInt(Message.GameMode.values().length)];
+                    Message.Difficulty difficulty = Message.Difficulty.values()[random.nextInt(Message.Difficulty.values().length)];
+                    Room room = registry.create(id -> new Room(id, mode, difficulty));
+                    if (room == null) {
+                        rejected.incrementAndGet();
+                        continue;
+                    }
+                    registry.publish(room.roomId, room.status, mode, difficulty, room.summary());
+                }
+            }, "creator-" + t);
+            creators.add(creator);
+            creator.start();
+        }
+        long start = System.nanoTime();
+        startGate.countDown();
+        for (Thread creator : creators) {
+            creator.join();
+        }
+        double createMillis = (System.nanoTime() - start) / 1e6;
+        List<Room> all = new ArrayList<>(registry.getAll());
+        long distinct = all.stream().mapToInt(r -> r.roomId).distinct().count();
+        System.out.printf(Locale.US, "동시 생성: %.0fms (%.0fns/방), 생성 %d개 / 정원 초과 거절 %d개, 번호 중복 %d개%n",
+                createMillis, createMillis * 1e6 / all.size(), registry.size(), rejected.get(), all.size() - distinct);
+
+        // 이전 방식의 방 목록 (생성 순서대로)
+        all.sort((a, b) -> Integer.compare(a.roomId, b.roomId));
+        CopyOnWriteArrayList<Room> oldRooms = new CopyOnWriteArrayList<>(all);
+        int maxId = all.get(all.size() - 1).roomId;
+
+        // 번호 조회
+        SplittableRandom random = new SplittableRandom(7);
+        for (int i = 0; i < LOOKUPS; i++) {
+            Room r = registry.get(1 + random.nextInt(maxId));
+            sink += r != null ? r.roomId : 0;
+        }
+        start = System.nanoTime();
+        for (int i = 0; i < LOOKUPS; i++) {
+            Room r = registry.get(1 + random.nextInt(maxId));
+            sink += r != null ? r.roomId : 0;
+        }
+        double getNanos = (double) (System.nanoTime() - start) / LOOKUPS;
+        start = System.nanoTime();
+        for (int i = 0; i < SCAN_LOOKUPS; i++) {
+            Room r = findRoomLinear(oldRooms, 1 + random.nextInt(maxId));
+            sink += r != null ? r.roomId : 0;
+        }
+        double scanNanos = (double) (System.nanoTime() - start) / SCAN_LOOKUPS;
+        System.out.printf(Locale.US, "번호 조회: RoomRegistry %.0fns, 이전 선형 탐색 %.0fns%n", getNanos, scanNanos);
+
+        // 게임 중으로 바뀐 방을 일부 만들어 두고 로비 조회
+        start = System.nanoTime();
+        for (Room room : all) {
+            if (room.roomId % 10 == 0) {
+                room.status = Message.RoomStatus.IN_GAME;
+                registry.publish(room.roomId, room.status, room.mode, room.difficulty, room.summary());
+            }
+        }
+        double publishMicros = (System.nanoTime() - start) / 1e3 / (all.size() / 10);
+        System.out.printf(Locale.US, "상태 변경(publish): %.2fus/방%n", publishMicros);
+
+        query(registry, oldRooms, "전체", null, null, null);
+        query(registry, oldRooms, "게임 중", Message.RoomStatus.IN_GAME, null, null);
+        query(registry, oldRooms, "대기 + 2v2 + HARD", Message.RoomStatus.WAITING, Message.GameMode.TWO_VS_TWO, Message.Difficulty.HARD);
+
+        // 삭제
+        start = System.nanoTime();
+        for (Room room : all) {
+            registry.remove(room.roomId);
+        }
+        double removeNanos = (double) (System.nanoTime() - start) / all.size();
+        System.out.printf(Locale.US, "삭제: %.0fns/방, 남은 방 %d개, 남은 대기방 색인 %d개%n", removeNanos, registry.size(),
+                registry.find(Message.RoomStatus.WAITING, null, null).size());
+        if (sink == 42) {
+            System.out.println();
+        }
+    }
+
+    // 조건별 로비 조회: 색인 + 캐시된 요약 vs 전체 탐색 + 요약 새로 만들기
+    private static void query(RoomRegistry<Room> registry, List<Room> oldRooms, String label, Message.RoomStatus status,
+                              Message.GameMode mode, Message.Difficulty difficulty) {
+        int matched = 0;
+        for (int i = 0; i < QUERIES; i++) {
+            matched = registry.find(status, mode, difficulty).size();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < QUERIES; i++) {
+            sink += registry.find(status, mode, difficulty).size();
+        }
+        double indexedMicros = (System.nanoTime() - start) / 1e3 / QUERIES;
+        start = System.nanoTime();
+        for (int i = 0; i < QUERIES; i++) {
+            List<Message> list = new ArrayList<>();
+            for (Room room : oldRooms) {
+                if ((status == null || room.status == status) && (mode == null || room.mode == mode)
+                        && (difficulty == null || room.difficulty == difficulty)) {
+                    list.add(room.summary());
+                }
+            }
+            sink += list.size();
+        }
+        double scanMicros = (System.nanoTime() - start) / 1e3 / QUERIES;
+        System.out.printf(Locale.US, "로비 조회 [%s] %d개: RoomRegistry %.0fus, 이전 전체 탐색 %.0fus%n",
+                label, matched, indexedMicros, scanMicros);
+    }
+
+    // RoomRegistry 도입 전의 findRoom
+    private static Room findRoomLinear(List<Room> rooms, int roomId) {
+        for (Room room : rooms) {
+            if (room.roomId == roomId) {
+                return room;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,119 @@
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * 스트라이크/볼 판정 벤치마크
+ * 난이도별로 무작위 정답/추측 쌍을 만들어 다음 방식의 ns/op와 판정당 할당량을 출력한다.
+ * - 이전 방식: 문자열 두 개를 받아 자리마다 indexOf, 결과는 새 int[] (ScoringKernel 도입 전 calculateResult)
+ * - 문자열 어댑터: ScoringKernel.calculateResult (압축 후 판정, 결과 배열은 그대로 생성)
+ * - 압축 + 판정: 추측 문자열만 압축하고 미리 압축해 둔 정답과 판정 (서버의 추측 처리 경로)
+ * - 판정만: 압축 값끼리 ScoringKernel.score (봇/후보 공간 필터링 경로)
+ * 측정 전에 모든 쌍에서 세 방식의 결과가 같은지 확인한다.
+ * (결과 배열이 호출 안에서만 쓰이면 JIT가 배열 생성을 없앨 수 있어 할당량이 0으로 나올 수 있다)
+ *
+ * 사용법: java ScoringBenchmark [방식당 측정 시간(ms)]
+ */
+public class ScoringBenchmark {
+
+    private static final int PAIRS = 4096;   // 난이도별 정답/추측 쌍 수
+
+    private static long sink;   // 결과를 버리지 않도록 누적
+
+    private interface Op {
+        void run(int i);
+    }
+
+    public static void main(String[] args) {
+        long measureMillis = args.length > 0 ? Long.parseLong(args[0]) : 1000;
+
+        System.out.printf(Locale.US, "%-18s %16s %16s %16s %16s%n", "난이도", "이전(indexOf)", "문자열 어댑터", "압축+판정", "판정만");
+        for (Message.Difficulty difficulty : Message.Difficulty.values()) {
+            SplittableRandom random = new SplittableRandom(difficulty.ordinal());
+            String[] answers = new String[PAIRS];
+            String[] guesses = new String[PAIRS];
+            long[] packedAnswers = new long[PAIRS];
+            long[] packedGuesses = new long[PAIRS];
+            for (int i = 0; i < PAIRS; i++) {
+                answers[i] = randomNumber(random, difficulty);
+                guesses[i] = randomNumber(random, difficulty);
+                packedAnswers[i] = ScoringKernel.pack(answers[i]);
+                packedGuesses[i] = ScoringKernel.pack(guesses[i]);
+
+                int[] expected = calculateResultIndexOf(answers[i], guesses[i]);
+                int[] adapted = ScoringKernel.calculateResult(answers[i], guesses[i]);
+                int score = ScoringKernel.score(packedAnswers[i], packedGuesses[i]);
+                if (expected[0] != adapted[0] || expected[1] != adapted[1]
+                        || expected[0] != ScoringKernel.strikes(score) || expected[1] != ScoringKernel.balls(score)) {
+                    throw new IllegalStateException("판정 불일치: " + answers[i] + " / " + guesses[i]);
+                }
+            }
+
+            String old = measure(i -> sink += calculateResultIndexOf(answers[i], guesses[i])[0], measureMillis);
+            String adapter = measure(i -> sink += ScoringKernel.calculateResult(answers[i], guesses[i])[0], measureMillis);
+            String packAndScore = measure(i -> sink += ScoringKernel.score(packedAnswers[i], ScoringKernel.pack(guesses[i])),
+                    measureMillis);
+            String scoreOnly = measure(i -> sink += ScoringKernel.score(packedAnswers[i], packedGuesses[i]), measureMillis);
+            System.out.printf(Locale.US, "%-18s %16s %16s %16s %16s%n", difficulty.name() + "(" + difficulty.getDigitCount() + ")",
+                    old, adapter, packAndScore, scoreOnly);
+        }
+        if (sink == 42) {
+            System.out.println();
+        }
+    }
+
+    // 예열 후 measureMillis 동안 반복한 평균 ns/op와 판정당 할당 바이트
+    private static String measure(Op op, long measureMillis) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+        long warmupEnd = System.nanoTime() + measureMillis * 1_000_000 / 2;
+        while (System.nanoTime() < warmupEnd) {
+            for (int i = 0; i < PAIRS; i++) op.run(i);
+        }
+        long ops = 0;
+        long allocBefore = threads.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        long end = start + measureMillis * 1_000_000;
+        long now;
+        do {
+            for (int i = 0; i < PAIRS; i++) op.run(i);
+            ops += PAIRS;
+            now = System.nanoTime();
+        } while (now < end);
+        double allocated = (double) (threads.getThreadAllocatedBytes(threadId) - allocBefore) / ops;
+        return String.format(Locale.US, "%5.1fns %4.0fB", (double) (now - start) / ops, allocated);
+    }
+
+    // 난이도 조건(자릿수, 0 허용 여부)에 맞는 중복 없는 숫자
+    private static String randomNumber(SplittableRandom random, Message.Difficulty difficulty) {
+        StringBuilder sb = new StringBuilder();
+        int used = 0;
+        int min = difficulty.isAllowZero() ? 0 : 1;
+        while (sb.length() < difficulty.getDigitCount()) {
+            int d = min + random.nextInt(10 - min);
+            if ((used & (1 << d)) == 0) {
+                used |= 1 << d;
+                sb.append((char) ('0' + d));
+            }
+        }
+        return sb.toString();
+    }
+
+    // ScoringKernel 도입 전의 calculateResult
+    private static int[] calculateResultIndexOf(String target, String guess) {
+        int strike = 0;
+        int ball = 0;
+
+        for (int i = 0; i < target.length(); i++) {
+            char targetChar = target.charAt(i);
+            char guessChar = guess.charAt(i);
+
+            if (targetChar == guessChar) {
+                strike++;
+            } else if (target.indexOf(guessChar) >= 0) {
+                ball++;
+            }
+        }
+        return new int[]{strike, ball};
+    }
+}
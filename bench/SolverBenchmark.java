@@ -0,0 +1,101 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * 후보 공간/힌트 지연 벤치마크
+ * 난이도별로 후보 공간을 처음 만드는 시간을 재고, 무작위 정답으로 게임을 진행하며
+ * 매 턴 서버의 힌트 처리와 같은 순서(복사 → suggest → adopt)로 추천 추측을 받아 그대로 추측한다.
+ * - 복사: 방 액터에서 걸리는 시간 (남은 후보 비트셋 복사)
+ * - suggest: 방 밖에서 걸리는 시간 (밀린 판정 반영 + minimax 탐색), 시간 제한을 1ms 넘게 넘긴 횟수
+ * - 맞히기까지 평균/최대 추측 수
+ *
+ * 사용법: java SolverBenchmark [난이도,...|ALL] [난이도별 게임 수] [힌트 시간 제한(ms)]
+ * (난이도를 생략하면 EASY,MEDIUM,HARD)
+ */
+public class SolverBenchmark {
+
+    private static final int MAX_TURNS = 30;
+    private static final long DEADLINE_SLACK_NANOS = 1_000_000;   // 탐색은 추측 16개마다 시간을 확인하므로 약간 넘을 수 있음
+
+    public static void main(String[] args) {
+        List<Message.Difficulty> difficulties = new ArrayList<>();
+        if (args.length > 0 && !args[0].equalsIgnoreCase("ALL")) {
+            for (String name : args[0].split(",")) {
+                difficulties.add(Message.Difficulty.valueOf(name.trim().toUpperCase(Locale.ROOT)));
+            }
+        } else if (args.length > 0) {
+            difficulties.addAll(Arrays.asList(Message.Difficulty.values()));
+        } else {
+            difficulties.addAll(List.of(Message.Difficulty.EASY, Message.Difficulty.MEDIUM, Message.Difficulty.HARD));
+        }
+        int games = args.length > 1 ? Integer.parseInt(args[1]) : 50;
+        long budgetMillis = args.length > 2 ? Long.parseLong(args[2]) : 200;
+
+        System.out.println("게임 " + games + "판/난이도, 힌트 시간 제한 " + budgetMillis + "ms, CPU "
+                + Runtime.getRuntime().availableProcessors() + "개");
+        for (Message.Difficulty difficulty : difficulties) {
+            run(difficulty, games, budgetMillis);
+        }
+    }
+
+    private static void run(Message.Difficulty difficulty, int games, long budgetMillis) {
+        long start = System.nanoTime();
+        AnswerSpace space = AnswerSpace.forDifficulty(difficulty);
+        double buildMillis = (System.nanoTime() - start) / 1e6;
+
+        SplittableRandom random = new SplittableRandom(difficulty.ordinal());
+        List<Long> copyNanos = new ArrayList<>();
+        List<Long> suggestNanos = new ArrayList<>();
+        long overBudget = 0;
+        long totalTurns = 0;
+        int maxTurns = 0;
+        int unsolved = 0;
+        long budgetNanos = budgetMillis * 1_000_000;
+
+        for (int game = 0; game < games; game++) {
+            long answer = space.candidateAt(random.nextInt(space.size()));
+            AnswerSpace.CandidateSet candidates = space.newCandidateSet();
+            int turns = 0;
+            boolean solved = false;
+            while (!solved && turns < MAX_TURNS) {
+                long t = System.nanoTime();
+                AnswerSpace.CandidateSet snapshot = candidates.copy();
+                copyNanos.add(System.nanoTime() - t);
+
+                t = System.nanoTime();
+                long guess = snapshot.suggest(budgetMillis);
+                long elapsed = System.nanoTime() - t;
+                suggestNanos.add(elapsed);
+                if (elapsed > budgetNanos + DEADLINE_SLACK_NANOS) {
+                    overBudget++;
+                }
+                candidates.adopt(snapshot);
+
+                int score = ScoringKernel.score(answer, guess);
+                candidates.apply(guess, score);
+                turns++;
+                solved = ScoringKernel.strikes(score) == difficulty.getDigitCount();
+            }
+            if (!solved) {
+                unsolved++;
+            }
+            totalTurns += turns;
+            maxTurns = Math.max(maxTurns, turns);
+        }
+
+        System.out.printf(Locale.US, "%s: 후보 %,d개 (공간 생성 %.1fms), 복사 %s, suggest %s (제한 초과 %d/%d), "
+                        + "평균 %.2f번 / 최대 %d번에 맞힘%s%n",
+                difficulty.name(), space.size(), buildMillis, percentiles(copyNanos), percentiles(suggestNanos),
+                overBudget, suggestNanos.size(), (double) totalTurns / games, maxTurns,
+                unsolved > 0 ? " (" + MAX_TURNS + "번 안에 못 맞힘 " + unsolved + "판)" : "");
+    }
+
+    private static String percentiles(List<Long> nanos) {
+        long[] sorted = nanos.stream().mapToLong(Long::longValue).sorted().toArray();
+        return String.format(Locale.US, "p50 %.2fms / p99 %.2fms / 최대 %.2fms", sorted[sorted.length / 2] / 1e6,
+                sorted[(int) (sorted.length * 0.99)] / 1e6, sorted[sorted.length - 1] / 1e6);
+    }
+}
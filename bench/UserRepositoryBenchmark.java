@@ -0,0 +1,112 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * 로그인 지연 벤치마크
+ * 회원 수별로 임시 users.csv를 만들어 UserRepository로 읽은 뒤 authenticate 지연(p50/p99)을 재고,
+ * 같은 파일을 매번 처음부터 읽던 이전 방식(선형 탐색)과 비교한다.
+ * 조회는 있는 ID 절반, 없는 ID 절반으로 섞는다.
+ *
+ * 사용법: java UserRepositoryBenchmark [회원 수,...] [조회 수]
+ * (회원 수를 생략하면 1000, 100000, 1000000)
+ */
+public class UserRepositoryBenchmark {
+
+    private static final int SCAN_LOOKUPS = 20;   // 선형 탐색은 느리므로 몇 번만
+
+    private static long sink;
+
+    public static void main(String[] args) throws Exception {
+        int[] sizes = {1_000, 100_000, 1_000_000};
+        if (args.length > 0) {
+            sizes = Arrays.stream(args[0].split(",")).mapToInt(v -> Integer.parseInt(v.trim())).toArray();
+        }
+        int lookups = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+
+        Path dir = Files.createTempDirectory("user-bench");
+        try {
+            for (int size : sizes) {
+                run(dir.resolve("users-" + size + ".csv"), size, lookups);
+            }
+        } finally {
+            try (var files = Files.list(dir)) {
+                for (Path p : (Iterable<Path>) files::iterator) {
+                    Files.deleteIfExists(p);
+                }
+            }
+            Files.deleteIfExists(dir);
+        }
+        if (sink == 42) {
+            System.out.println();
+        }
+    }
+
+    private static void run(Path file, int size, int lookups) throws IOException {
+        try (BufferedWriter w = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            w.write("user_id,password,character\n");
+            for (int i = 0; i < size; i++) {
+                w.write("user" + i + ",pw" + i + ",char" + (i % 4) + "\n");
+            }
+        }
+
+        long start = System.nanoTime();
+        UserRepository repository = new UserRepository(file.toString(), msg -> { });
+        repository.load();
+        double loadMillis = (System.nanoTime() - start) / 1e6;
+
+        // 예열 후 조회마다 시간 기록
+        SplittableRandom random = new SplittableRandom(size);
+        for (int i = 0; i < 200_000; i++) {
+            sink += repository.authenticate(randomId(random, size), "pw") ? 1 : 0;
+        }
+        long[] nanos = new long[lookups];
+        for (int i = 0; i < lookups; i++) {
+            String userId = randomId(random, size);
+            String password = "pw" + userId.substring(4);
+            long t = System.nanoTime();
+            sink += repository.authenticate(userId, password) ? 1 : 0;
+            nanos[i] = System.nanoTime() - t;
+        }
+        Arrays.sort(nanos);
+
+        // 이전 방식: 로그인마다 파일 전체를 읽으며 split
+        long scanStart = System.nanoTime();
+        for (int i = 0; i < SCAN_LOOKUPS; i++) {
+            String userId = randomId(random, size);
+            sink += scanAuthenticate(file, userId, "pw" + userId.substring(4)) ? 1 : 0;
+        }
+        double scanMicros = (System.nanoTime() - scanStart) / 1e3 / SCAN_LOOKUPS;
+
+        System.out.printf(Locale.US, "회원 %,d명: 로드 %.0fms, authenticate p50 %dns / p99 %dns / 최대 %.1fus, 이전 선형 탐색 평균 %.0fus%n",
+                size, loadMillis, nanos[lookups / 2], nanos[(int) (lookups * 0.99)], nanos[lookups - 1] / 1e3, scanMicros);
+        Files.delete(file);
+    }
+
+    // 있는 ID와 없는 ID를 반씩
+    private static String randomId(SplittableRandom random, int size) {
+        int n = random.nextInt(size * 2);
+        return n < size ? "user" + n : "user-missing" + n;
+    }
+
+    // 인덱스 도입 전의 authenticateUser (users.csv 선형 탐색)
+    private static boolean scanAuthenticate(Path file, String userId, String password) throws IOException {
+        try (BufferedReader br = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            br.readLine();
+            String line;
+            while ((line = br.readLine()) != null) {
+                String[] parts = line.split(",");
+                if (parts.length >= 2 && parts[0].trim().equals(userId)) {
+                    return parts[1].trim().equals(password);
+                }
+            }
+        }
+        return false;
+    }
+}
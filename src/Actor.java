@@ -0,0 +1,72 @@
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 메일박스 기반 액터
+ * 여러 스레드가 post로 작업을 넣으면, 공유 실행기 위에서 한 번에 하나의 논리 스레드만 순서대로 처리한다.
+ * 따라서 액터 내부 상태는 락 없이 다뤄도 되고, 액터끼리는 서로 독립적으로 여러 코어에서 실행된다.
+ * 한 번에 처리하는 작업 수를 제한해서 바쁜 액터가 실행기를 독점하지 않게 한다.
+ */
+public abstract class Actor {
+
+    private static final int MAX_BATCH = 64;
+
+    private final Executor executor;
+    private final ConcurrentLinkedQueue<Runnable> mailbox = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger mailboxSize = new AtomicInteger();
+    private final AtomicBoolean scheduled = new AtomicBoolean(false);
+
+    protected Actor(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * 작업을 메일박스에 넣음 (스레드 안전, 바로 반환)
+     */
+    public final void post(Runnable task) {
+        mailbox.add(task);
+        mailboxSize.incrementAndGet();
+        schedule();
+    }
+
+    public int getMailboxSize() {
+        return mailboxSize.get();
+    }
+
+    // 처리 중이 아니면 실행기에 처리 작업 등록
+    private void schedule() {
+        if (scheduled.compareAndSet(false, true)) {
+            executor.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        try {
+            Runnable task;
+            int processed = 0;
+            while (processed < MAX_BATCH && (task = mailbox.poll()) != null) {
+                mailboxSize.decrementAndGet();
+                processed++;
+                try {
+                    task.run();
+                } catch (RuntimeException e) {
+                    onError(e);
+                }
+            }
+        } finally {
+            // Error가 나도 예약 표시를 풀어야 이후 작업이 처리됨 (Error 자체는 실행기로 전파)
+            scheduled.set(false);
+            // 처리 도중 들어온 작업이 남아 있으면 다시 예약
+            if (!mailbox.isEmpty()) {
+                schedule();
+            }
+        }
+    }
+
+    /**
+     * 작업 처리 중 예외 (액터는 계속 동작)
+     */
+    protected abstract void onError(RuntimeException e);
+}
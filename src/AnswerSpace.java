@@ -0,0 +1,441 @@
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 난이도별 정답 후보 공간과 힌트 계산
+ * 가능한 정답(9P3 = 504 ~ 10P10 = 3,628,800개)은 사전순 순열 순위(0 ~ size-1)로 다룬다.
+ * - 순위 ↔ 압축 값(ScoringKernel)은 자리별 가중치로 바로 변환 (공간이 작으면 압축 값 배열을 미리 만들어 둠)
+ * - 판정 표: 후보 수가 FEEDBACK_TABLE_LIMIT 이하면 (후보 x 후보) 판정을 byte 표로 미리 계산,
+ *   그보다 크면 표가 수백 MB 이상이 되므로 ScoringKernel로 그때그때 계산
+ * 플레이어마다 "지금까지의 판정과 모순되지 않는 후보"를 순위 비트셋으로 관리한다 (10자리도 약 450KB).
+ * 판정은 기록만 해 두고 후보 수나 추천이 필요할 때 한 번에 걸러서, 방 처리 스레드에서는 가볍게 유지한다.
+ * - 추천 추측: 남은 후보를 판정별로 나눴을 때 가장 큰 묶음이 가장 작은 추측 (minimax),
+ *   시간 제한 안에서 찾은 가장 좋은 값을 돌려주고, 후보 공간이 크면 fork-join으로 나눠 탐색
+ */
+public final class AnswerSpace {
+
+    private static final int FEEDBACK_TABLE_LIMIT = 4096;
+    private static final int CANDIDATE_ARRAY_LIMIT = 1 << 16;  // 이하면 압축 값 배열 보관
+    private static final int FULL_SEARCH_LIMIT = 1 << 16;      // 이하면 후보가 아닌 추측까지 평가
+    private static final int SEARCH_SAMPLE_LIMIT = 1 << 14;    // 남은 후보가 이보다 많으면 간격을 두고 표본으로 평가
+    private static final int PARALLEL_THRESHOLD = 4096;        // 이 이상이면 fork-join 탐색
+    private static final int SPLIT_SIZE = 256;                 // fork-join 작업 하나가 평가할 추측 수
+
+    private static final AtomicReferenceArray<AnswerSpace> SPACES =
+            new AtomicReferenceArray<>(2 * (ScoringKernel.MAX_DIGITS + 1));
+
+    private final int digitCount;
+    private final int alphabet;      // 사용 가능한 숫자 마스크 (1~9 또는 0~9)
+    private final int size;
+    private final int[] weights;     // 자리 i의 순위 가중치 = 뒤에 남은 자리의 순열 수
+    private final long[] candidates; // 순위 → 압축 값 (공간이 크면 null, 그때그때 변환)
+    private final byte[] feedback;   // [answer * size + guess] = 판정 번호 (없으면 null)
+
+    /**
+     * 난이도의 후보 공간 (처음 요청 시 계산, 동시에 처음 요청되면 먼저 게시된 것 하나만 사용)
+     */
+    public static AnswerSpace forDifficulty(Message.Difficulty difficulty) {
+        return forDigits(difficulty.getDigitCount(), difficulty.isAllowZero());
+    }
+
+    public static AnswerSpace forDigits(int digitCount, boolean allowZero) {
+        int key = digitCount * 2 + (allowZero ? 1 : 0);
+        AnswerSpace space = SPACES.get(key);
+        if (space == null) {
+            space = new AnswerSpace(digitCount, allowZero);
+            if (!SPACES.compareAndSet(key, null, space)) {
+                space = SPACES.get(key);
+            }
+        }
+        return space;
+    }
+
+    private AnswerSpace(int digitCount, boolean allowZero) {
+        int digits = allowZero ? 10 : 9;
+        if (digitCount < 1 || digitCount > digits) {
+            throw new IllegalArgumentException("자릿수 범위 오류: " + digitCount);
+        }
+        this.digitCount = digitCount;
+        this.alphabet = allowZero ? 0x3FF : 0x3FE;
+
+        weights = new int[digitCount];
+        int w = 1;
+        for (int i = digitCount - 1; i >= 0; i--) {
+            weights[i] = w;
+            w *= digits - i;
+        }
+        this.size = w;
+
+        if (size <= CANDIDATE_ARRAY_LIMIT) {
+            long[] buf = new long[size];
+            forEach((index, packed) -> buf[index] = packed);
+            candidates = buf;
+        } else {
+            candidates = null;
+        }
+
+        if (size <= FEEDBACK_TABLE_LIMIT) {
+            feedback = new byte[size * size];
+            for (int a = 0; a < size; a++) {
+                for (int g = 0; g < size; g++) {
+                    feedback[a * size + g] = (byte) code(ScoringKernel.score(candidates[a], candidates[g]));
+                }
+            }
+        } else {
+            feedback = null;
+        }
+    }
+
+    // 모든 후보를 순위 순서로 방문
+    private interface Visitor {
+        void visit(int index, long packed);
+    }
+
+    private void forEach(Visitor visitor) {
+        enumerate(0, 0L, 0, new int[1], visitor);
+    }
+
+    private void enumerate(int position, long digits, int used, int[] next, Visitor visitor) {
+        if (position == digitCount) {
+            visitor.visit(next[0]++, ScoringKernel.of(digits, used));
+            return;
+        }
+        for (int free = alphabet & ~used; free != 0; free &= free - 1) {
+            int d = Integer.numberOfTrailingZeros(free);
+            enumerate(position + 1, digits | ((long) d << (4 * position)), used | (1 << d), next, visitor);
+        }
+    }
+
+    // 판정(strike << 4 | ball) → 판정 번호 (10자리여도 byte 범위)
+    private int code(int score) {
+        return ScoringKernel.strikes(score) * (digitCount + 1) + ScoringKernel.balls(score);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 압축 값 → 순위 (이 공간의 후보가 아니면 -1)
+     */
+    public int indexOf(long packed) {
+        if (packed == ScoringKernel.INVALID || ScoringKernel.digitCount(packed) != digitCount) {
+            return -1;
+        }
+        int free = alphabet;
+        int index = 0;
+        for (int i = 0; i < digitCount; i++) {
+            int d = ScoringKernel.digitAt(packed, i);
+            if ((free & (1 << d)) == 0) {
+                return -1;
+            }
+            index += Integer.bitCount(free & ((1 << d) - 1)) * weights[i];
+            free &= ~(1 << d);
+        }
+        return index;
+    }
+
+    /**
+     * 순위 → 압축 값
+     */
+    public long candidateAt(int index) {
+        if (candidates != null) {
+            return candidates[index];
+        }
+        int free = alphabet;
+        int used = 0;
+        long digits = 0;
+        for (int i = 0; i < digitCount; i++) {
+            int k = index / weights[i];
+            index %= weights[i];
+            int rest = free;
+            for (int j = 0; j < k; j++) {
+                rest &= rest - 1;
+            }
+            int d = Integer.numberOfTrailingZeros(rest);
+            digits |= (long) d << (4 * i);
+            used |= 1 << d;
+            free &= ~(1 << d);
+        }
+        return ScoringKernel.of(digits, used);
+    }
+
+    /**
+     * 새 후보 집합 (전체 후보)
+     */
+    public CandidateSet newCandidateSet() {
+        return new CandidateSet(this);
+    }
+
+    /**
+     * 플레이어 한 명(또는 팀)의 남은 후보 (한 스레드에서만 사용)
+     * apply는 판정을 기록만 하고, 후보 수/추천이 필요할 때 기록을 한꺼번에 반영한다.
+     * 아직 걸러낸 적이 없으면 비트셋도 만들지 않는다.
+     * 다른 스레드에서 복사본으로 걸러냈다면 adopt로 그 결과를 넘겨받아 같은 계산을 반복하지 않는다.
+     */
+    public static final class CandidateSet {
+        private final AnswerSpace space;
+        private long[] bits;            // 순위 비트셋 (null이면 아직 전체 후보)
+        private int remaining;
+        private long[] pendingGuesses;  // 아직 반영하지 않은 추측과 판정
+        private int[] pendingScores;
+        private int pendingCount;
+        private long reflected;         // bits/remaining에 반영된 판정 수 (지금까지 기록된 판정 수 = reflected + pendingCount)
+
+        private CandidateSet(AnswerSpace space) {
+            this.space = space;
+            this.remaining = space.size;
+            this.pendingGuesses = new long[4];
+            this.pendingScores = new int[4];
+        }
+
+        private CandidateSet(CandidateSet other) {
+            this.space = other.space;
+            this.bits = (other.bits != null) ? other.bits.clone() : null;
+            this.remaining = other.remaining;
+            this.pendingGuesses = other.pendingGuesses.clone();
+            this.pendingScores = other.pendingScores.clone();
+            this.pendingCount = other.pendingCount;
+            this.reflected = other.reflected;
+        }
+
+        // 다른 스레드에서 힌트를 계산할 수 있도록 복사
+        public CandidateSet copy() {
+            return new CandidateSet(this);
+        }
+
+        public int getRemaining() {
+            refresh();
+            return remaining;
+        }
+
+        /**
+         * 이 집합의 복사본이 더 많이 걸러졌으면 그 결과를 넘겨받음 (복사 후 새로 기록된 판정은 그대로 남김)
+         * 넘겨준 복사본은 이후에 쓰지 않아야 한다 (비트셋을 공유함).
+         */
+        public void adopt(CandidateSet refreshed) {
+            long gained = refreshed.reflected - reflected;
+            if (refreshed.space != space || gained <= 0 || gained > pendingCount) {
+                return;
+            }
+            int drop = (int) gained;
+            System.arraycopy(pendingGuesses, drop, pendingGuesses, 0, pendingCount - drop);
+            System.arraycopy(pendingScores, drop, pendingScores, 0, pendingCount - drop);
+            pendingCount -= drop;
+            reflected = refreshed.reflected;
+            bits = refreshed.bits;
+            remaining = refreshed.remaining;
+        }
+
+        /**
+         * 추측과 판정 결과를 기록 (이 공간의 후보가 아닌 추측은 무시)
+         */
+        public void apply(long packedGuess, int score) {
+            if (space.indexOf(packedGuess) < 0) {
+                return;
+            }
+            if (pendingCount == pendingGuesses.length) {
+                pendingGuesses = Arrays.copyOf(pendingGuesses, pendingCount * 2);
+                pendingScores = Arrays.copyOf(pendingScores, pendingCount * 2);
+            }
+            pendingGuesses[pendingCount] = packedGuess;
+            pendingScores[pendingCount] = score;
+            pendingCount++;
+        }
+
+        // 기록된 판정을 모두 반영 (처음이면 전체 공간을 한 번 훑어서 비트셋 생성)
+        private void refresh() {
+            if (pendingCount == 0) {
+                return;
+            }
+            if (bits == null) {
+                long[] fresh = new long[(space.size + 63) >>> 6];
+                int[] count = {0};
+                space.forEach((index, packed) -> {
+                    if (consistent(packed)) {
+                        fresh[index >>> 6] |= 1L << index;
+                        count[0]++;
+                    }
+                });
+                bits = fresh;
+                remaining = count[0];
+            } else {
+                int count = 0;
+                for (int w = 0; w < bits.length; w++) {
+                    long word = bits[w];
+                    long keep = word;
+                    while (word != 0) {
+                        int bit = Long.numberOfTrailingZeros(word);
+                        word &= word - 1;
+                        if (!consistent(space.candidateAt((w << 6) | bit))) {
+                            keep &= ~(1L << bit);
+                        }
+                    }
+                    bits[w] = keep;
+                    count += Long.bitCount(keep);
+                }
+                remaining = count;
+            }
+            reflected += pendingCount;
+            pendingCount = 0;
+        }
+
+        private boolean consistent(long candidate) {
+            for (int j = 0; j < pendingCount; j++) {
+                if (ScoringKernel.score(candidate, pendingGuesses[j]) != pendingScores[j]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * 남은 후보 중 k번째 (0 <= k < getRemaining(), 압축 값)
+         */
+        public long pick(int k) {
+            refresh();
+            if (bits == null) {
+                return space.candidateAt(k);
+            }
+            for (int w = 0; w < bits.length; w++) {
+                int count = Long.bitCount(bits[w]);
+                if (k < count) {
+                    long word = bits[w];
+                    for (int j = 0; j < k; j++) {
+                        word &= word - 1;
+                    }
+                    return space.candidateAt((w << 6) | Long.numberOfTrailingZeros(word));
+                }
+                k -= count;
+            }
+            return ScoringKernel.INVALID;
+        }
+
+        // 남은 후보 순위 (stride개마다 하나씩)
+        private int[] toIndexes(int stride) {
+            int[] out = new int[(remaining + stride - 1) / stride];
+            int k = 0;
+            int seen = 0;
+            for (int w = 0; w < bits.length; w++) {
+                long word = bits[w];
+                while (word != 0) {
+                    if (seen++ % stride == 0) {
+                        out[k++] = (w << 6) | Long.numberOfTrailingZeros(word);
+                    }
+                    word &= word - 1;
+                }
+            }
+            return out;
+        }
+
+        /**
+         * 추천 추측 (압축 값, 후보가 없으면 INVALID)
+         * 남은 후보가 하나면 그 값, 아직 아무 판정도 없으면 첫 후보 (대칭이라 모두 같음)
+         * 그 외에는 시간 제한 안에서 minimax가 가장 작은 추측
+         * 밀린 판정 반영도 시간 제한에 포함 (반영이 제한을 넘기면 탐색 없이 남은 후보 하나를 돌려줌)
+         */
+        public long suggest(long budgetMillis) {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(budgetMillis);
+            refresh();
+            if (remaining == 0) {
+                return ScoringKernel.INVALID;
+            }
+            if (bits == null || remaining == space.size) {
+                return space.candidateAt(0);
+            }
+            // 남은 후보가 너무 많으면 일정 간격의 표본으로 묶음 크기를 추정
+            int stride = Math.max(1, remaining / SEARCH_SAMPLE_LIMIT);
+            int[] alive = toIndexes(stride);
+            if (remaining == 1) {
+                return space.candidateAt(alive[0]);
+            }
+            long[] alivePacked = new long[alive.length];
+            for (int k = 0; k < alive.length; k++) {
+                alivePacked[k] = space.candidateAt(alive[k]);
+            }
+
+            // 남은 후보를 먼저 평가 (맞힐 가능성이 있는 추측 우선), 공간이 작으면 그다음 나머지 전체
+            int[] order;
+            if (space.size <= FULL_SEARCH_LIMIT) {
+                order = new int[alive.length + space.size - remaining];
+                int k = 0;
+                for (int i : alive) order[k++] = i;
+                for (int i = 0; i < space.size && k < order.length; i++) {
+                    if ((bits[i >>> 6] & (1L << i)) == 0) order[k++] = i;
+                }
+            } else {
+                order = alive;
+            }
+
+            long best;
+            if (order.length >= PARALLEL_THRESHOLD) {
+                best = ForkJoinPool.commonPool().invoke(new SearchTask(space, alive, alivePacked, order, 0, order.length, deadline));
+            } else {
+                best = search(space, alive, alivePacked, order, 0, order.length, deadline);
+            }
+            return best == Long.MAX_VALUE ? alivePacked[0] : space.candidateAt(order[(int) best]);
+        }
+    }
+
+    // [from, to) 범위의 추측 중 minimax 최솟값 (상위 32비트 = 최대 묶음 크기, 하위 = 순서 번호로 동률 처리)
+    private static long search(AnswerSpace space, int[] alive, long[] alivePacked, int[] order,
+                               int from, int to, long deadline) {
+        int[] buckets = new int[(space.digitCount + 1) * (space.digitCount + 1)];
+        long best = Long.MAX_VALUE;
+        for (int o = from; o < to; o++) {
+            // 작업마다 시작 위치가 16의 배수가 아닐 수 있으므로 시작점 기준으로 확인
+            if (((o - from) & 15) == 0 && System.nanoTime() > deadline) {
+                break;
+            }
+            int g = order[o];
+            long guess = space.candidateAt(g);
+            Arrays.fill(buckets, 0);
+            int worst = 0;
+            for (int k = 0; k < alive.length; k++) {
+                int f = (space.feedback != null) ? space.feedback[alive[k] * space.size + g]
+                        : space.code(ScoringKernel.score(alivePacked[k], guess));
+                int c = ++buckets[f];
+                if (c > worst) worst = c;
+            }
+            long key = ((long) worst << 32) | o;
+            if (key < best) best = key;
+        }
+        return best;
+    }
+
+    private static final class SearchTask extends RecursiveTask<Long> {
+        private static final long serialVersionUID = 1L;
+
+        private final transient AnswerSpace space;   // 작업은 직렬화되지 않음 (ForkJoinTask가 Serializable일 뿐)
+        private final int[] alive;
+        private final long[] alivePacked;
+        private final int[] order;
+        private final int from, to;
+        private final long deadline;
+
+        SearchTask(AnswerSpace space, int[] alive, long[] alivePacked, int[] order, int from, int to, long deadline) {
+            this.space = space;
+            this.alive = alive;
+            this.alivePacked = alivePacked;
+            this.order = order;
+            this.from = from;
+            this.to = to;
+            this.deadline = deadline;
+        }
+
+        @Override
+        protected Long compute() {
+            if (to - from <= SPLIT_SIZE) {
+                return search(space, alive, alivePacked, order, from, to, deadline);
+            }
+            int mid = (from + to) >>> 1;
+            SearchTask left = new SearchTask(space, alive, alivePacked, order, from, mid, deadline);
+            left.fork();
+            long right = new SearchTask(space, alive, alivePacked, order, mid, to, deadline).compute();
+            return Math.min(left.join(), right);
+        }
+    }
+}
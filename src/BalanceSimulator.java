@@ -0,0 +1,248 @@
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * 밸런스 시뮬레이터 (서버와 별도로 실행하는 도구)
+ * GameEngine으로 봇끼리의 게임을 모드 x 난이도별로 대량 진행하고 다음을 출력한다.
+ * - 선공(1회 초를 치는 자리/팀)과 후공의 승률
+ * - 맞히기까지 걸린 평균 회차
+ * - 무승부 비율: 같은 회에 양쪽이 모두 맞힌 무승부(2v2)와 9회말까지 못 맞힌 무승부를 따로
+ * 게임 범위를 fork-join으로 나눠 여러 코어에서 돌리며, 범위마다 시드를 나눠 쓰므로
+ * 같은 시드면 결과가 같다 (MINIMAX는 시간 제한 탐색이라 예외).
+ *
+ * 사용법: java BalanceSimulator [게임 수] [전략: RANDOM|ELIMINATION|MINIMAX] [시드] [난이도,...]
+ * (난이도를 생략하면 EASY, MEDIUM, HARD)
+ */
+public class BalanceSimulator {
+
+    private static final int SPLIT_SIZE = 2048;         // fork-join 작업 하나가 진행할 게임 수
+    private static final long MINIMAX_BUDGET_MS = 5;    // MINIMAX 추측 하나의 탐색 시간
+
+    /**
+     * 봇 추측 전략
+     */
+    public enum Strategy {
+        RANDOM,         // 지금까지의 결과와 상관없이 아무 숫자
+        ELIMINATION,    // 남은 후보 중 무작위
+        MINIMAX;        // 남은 후보를 가장 많이 줄이는 추측
+
+        long choose(AnswerSpace space, AnswerSpace.CandidateSet candidates, SplittableRandom random) {
+            if (this == RANDOM || candidates.getRemaining() == 0) {
+                return space.candidateAt(random.nextInt(space.size()));
+            }
+            if (this == MINIMAX) {
+                return candidates.suggest(MINIMAX_BUDGET_MS);
+            }
+            return candidates.pick(random.nextInt(candidates.getRemaining()));
+        }
+    }
+
+    /**
+     * 집계 결과 (작업끼리 합침)
+     */
+    static final class Result {
+        long games;
+        final long[] sideWins = new long[2];   // 0: 선공, 1: 후공
+        long sameInningDraws;                  // 같은 회에 양쪽 모두 맞힘 (2v2)
+        long roundLimitDraws;                  // 9회말까지 아무도 못 맞힘
+        long solvedRounds;                     // 맞힌 게임의 종료 회차 합
+
+        long draws() {
+            return sameInningDraws + roundLimitDraws;
+        }
+
+        void merge(Result other) {
+            games += other.games;
+            sideWins[0] += other.sideWins[0];
+            sideWins[1] += other.sideWins[1];
+            sameInningDraws += other.sameInningDraws;
+            roundLimitDraws += other.roundLimitDraws;
+            solvedRounds += other.solvedRounds;
+        }
+    }
+
+    // 게임 한 판씩 이어서 진행하는 테이블 (작업 하나 전용)
+    private static final class Table implements GameEngine.Listener {
+        private final Message.GameMode mode;
+        private final Strategy strategy;
+        private final SplittableRandom random;
+        private final AnswerSpace space;
+        private final GameEngine engine;
+        private final String[] ids;
+        private final int[] teams;
+        private final AnswerSpace.CandidateSet[] candidates; // 자리별 (2v2는 팀원끼리 공유)
+        private final Result result = new Result();
+
+        Table(Message.GameMode mode, Message.Difficulty difficulty, Strategy strategy, SplittableRandom random) {
+            this.mode = mode;
+            this.strategy = strategy;
+            this.random = random;
+            this.space = AnswerSpace.forDifficulty(difficulty);
+            this.engine = new GameEngine(mode, difficulty, this);
+            int seats = mode.getMaxPlayers();
+            ids = new String[seats];
+            teams = new int[seats];
+            for (int i = 0; i < seats; i++) {
+                ids[i] = String.valueOf(i);
+                teams[i] = (mode == Message.GameMode.TWO_VS_TWO) ? (i < 2 ? 1 : 2) : 0;
+            }
+            candidates = new AnswerSpace.CandidateSet[seats];
+        }
+
+        void play() {
+            engine.start(ids, teams, random);
+            while (engine.isRunning()) {
+                if (mode == Message.GameMode.TWO_VS_TWO) {
+                    // 공격 팀원이 모두 추측하면 반 이닝이 한 번에 판정됨
+                    int team = engine.getAttackingTeam();
+                    for (int seat = 0; seat < ids.length && engine.isRunning() && engine.getAttackingTeam() == team; seat++) {
+                        if (teams[seat] == team) {
+                            engine.guess(ids[seat], strategy.choose(space, candidates[seat], random));
+                        }
+                    }
+                } else {
+                    int seat = seatOf(engine.getTurnPlayerId());
+                    engine.guess(ids[seat], strategy.choose(space, candidates[seat], random));
+                }
+            }
+        }
+
+        private static int seatOf(String id) {
+            return id.charAt(0) - '0';
+        }
+
+        // 선공 = 1회 초를 치는 0번 자리 (2v2는 초를 공격하는 Team 1)
+        private int sideOf(int seat) {
+            return (mode == Message.GameMode.TWO_VS_TWO) ? teams[seat] - 1 : seat;
+        }
+
+        @Override
+        public void onStart() {
+            for (int i = 0; i < ids.length; i++) {
+                // 2v2 팀원은 같은 결과를 보므로 후보 집합 공유
+                boolean shared = mode == Message.GameMode.TWO_VS_TWO && i % 2 == 1;
+                candidates[i] = shared ? candidates[i - 1] : space.newCandidateSet();
+            }
+        }
+
+        @Override
+        public void onTurn(int round, boolean top, String turnPlayerId) {
+        }
+
+        @Override
+        public void onGuess(String playerId, long packedGuess, int score, int round) {
+            candidates[seatOf(playerId)].apply(packedGuess, score);
+        }
+
+        @Override
+        public void onBatch(int team, int round, String[] playerIds, long[] guesses, int[] scores, int count) {
+            for (int k = 0; k < count; k++) {
+                candidates[seatOf(playerIds[k])].apply(guesses[k], scores[k]);
+            }
+        }
+
+        @Override
+        public void onTimeout(int round, boolean top, String turnPlayerId) {
+        }
+
+        @Override
+        public void onEnd(String winnerId, boolean isDraw, int winnerTeam) {
+            result.games++;
+            if (isDraw) {
+                // 9회말이 끝나서 비기면 회차가 MAX_ROUNDS를 넘은 상태
+                if (engine.getRound() <= GameEngine.MAX_ROUNDS) {
+                    result.sameInningDraws++;
+                } else {
+                    result.roundLimitDraws++;
+                }
+                return;
+            }
+            result.sideWins[sideOf(seatOf(winnerId))]++;
+            result.solvedRounds += engine.getRound();
+        }
+    }
+
+    // [from, to) 범위의 게임 진행 (범위가 크면 반으로 나눔)
+    private static final class SimulationTask extends RecursiveTask<Result> {
+        private static final long serialVersionUID = 1L;
+
+        private final Message.GameMode mode;
+        private final Message.Difficulty difficulty;
+        private final Strategy strategy;
+        private final transient SplittableRandom random;   // 작업은 직렬화되지 않음 (ForkJoinTask가 Serializable일 뿐)
+        private final long from, to;
+
+        SimulationTask(Message.GameMode mode, Message.Difficulty difficulty, Strategy strategy,
+                       SplittableRandom random, long from, long to) {
+            this.mode = mode;
+            this.difficulty = difficulty;
+            this.strategy = strategy;
+            this.random = random;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Result compute() {
+            if (to - from <= SPLIT_SIZE) {
+                Table table = new Table(mode, difficulty, strategy, random);
+                for (long g = from; g < to; g++) {
+                    table.play();
+                }
+                return table.result;
+            }
+            long mid = (from + to) >>> 1;
+            // 나누는 순서가 정해져 있으므로 시드가 같으면 범위별 난수도 같음
+            SimulationTask left = new SimulationTask(mode, difficulty, strategy, random.split(), from, mid);
+            SimulationTask right = new SimulationTask(mode, difficulty, strategy, random.split(), mid, to);
+            left.fork();
+            Result result = right.compute();
+            result.merge(left.join());
+            return result;
+        }
+    }
+
+    /**
+     * 모드/난이도 하나를 시뮬레이션
+     */
+    public static Result simulate(Message.GameMode mode, Message.Difficulty difficulty, Strategy strategy,
+                                  long games, long seed) {
+        return ForkJoinPool.commonPool().invoke(
+                new SimulationTask(mode, difficulty, strategy, new SplittableRandom(seed), 0, games));
+    }
+
+    public static void main(String[] args) {
+        long games = args.length > 0 ? Long.parseLong(args[0]) : 100_000;
+        Strategy strategy = args.length > 1 ? Strategy.valueOf(args[1].toUpperCase(Locale.ROOT)) : Strategy.ELIMINATION;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 42;
+        Message.Difficulty[] difficulties = {Message.Difficulty.EASY, Message.Difficulty.MEDIUM, Message.Difficulty.HARD};
+        if (args.length > 3) {
+            String[] names = args[3].split(",");
+            difficulties = new Message.Difficulty[names.length];
+            for (int i = 0; i < names.length; i++) {
+                difficulties[i] = Message.Difficulty.valueOf(names[i].trim().toUpperCase(Locale.ROOT));
+            }
+        }
+
+        System.out.println("전략 " + strategy + ", 게임 " + games + "판씩, 시드 " + seed
+                + ", 병렬 " + ForkJoinPool.commonPool().getParallelism());
+        // 배틀로얄은 턴 방식이 아니라 제외
+        for (Message.GameMode mode : new Message.GameMode[]{Message.GameMode.ONE_VS_ONE, Message.GameMode.TWO_VS_TWO}) {
+            for (Message.Difficulty difficulty : difficulties) {
+                long start = System.nanoTime();
+                Result r = simulate(mode, difficulty, strategy, games, seed);
+                double seconds = (System.nanoTime() - start) / 1e9;
+                long solved = r.games - r.draws();
+                System.out.printf(Locale.US, "%s %s: 선공 %.2f%% / 후공 %.2f%%, 무승부 %.2f%% (같은 회 %.2f%% / 9회 종료 %.2f%%), "
+                                + "평균 %.2f회에 맞힘 (%.0f게임/초)%n",
+                        mode.getDisplayName(), difficulty.getDisplayName(),
+                        100.0 * r.sideWins[0] / r.games, 100.0 * r.sideWins[1] / r.games,
+                        100.0 * r.draws() / r.games, 100.0 * r.sameInningDraws / r.games, 100.0 * r.roundLimitDraws / r.games,
+                        solved > 0 ? (double) r.solvedRounds / solved : 0,
+                        r.games / seconds);
+            }
+        }
+    }
+}
@@ -3,6 +3,8 @@ import java.awt.*;
 import java.awt.event.ActionListener;
 import java.io.*;
 import java.net.Socket;
+import java.util.Hashtable;
+import java.util.Vector;
 
 public class BaseballClientGUI extends JFrame {
 
@@ -35,10 +37,13 @@ public class BaseballClientGUI extends JFrame {
     JButton b_send;
     JButton b_exit;
     JButton b_submit;
+    JButton b_hint;
     Socket socket;
-    ObjectOutputStream out;
-    ObjectInputStream in;
+    DataOutputStream out;
+    DataInputStream in;
+    MessageCodec codec = JavaSerializationCodec.INSTANCE; // 서버와 협상된 메시지 코덱
     JLabel[] selectedNumbers;
+    JButton[] numberButtons = new JButton[10];  // 숫자 0~9 버튼 (0은 난이도에 따라 비활성화)
     int currentPosition = 0;
     JButton b_backSpace;
 
@@ -79,19 +84,21 @@ public class BaseballClientGUI extends JFrame {
     // Lobby screen components
     private JTable roomListTable;
     private javax.swing.table.DefaultTableModel roomListTableModel;
-    private JButton b_createRoom, b_joinRoom, b_refreshRoomList;
+    private JButton b_createRoom, b_joinRoom, b_refreshRoomList, b_quickMatch;
+    private boolean isMatching = false;
     private JButton b_viewStats, b_viewHistory;
+    private long lobbyVersion = -1; // last applied room list version (-1: not subscribed)
 
     // Room waiting screen components
     private JLabel l_roomTitle;
     private JLabel l_roomSettings;
     private javax.swing.DefaultListModel<String> roomPlayerListModel;
     private JList<String> roomPlayerList;
-    private JButton b_ready, b_cancelReady, b_startGame, b_leaveRoom;
+    private JButton b_ready, b_cancelReady, b_startGame, b_leaveRoom, b_addBot;
 
     // ========== Game State ==========
     private String currentGameId = null;
-    private int digitCount = 3;  // from Difficulty (3, 4, or 5)
+    private int digitCount = 3;  // from Difficulty (3 ~ 10)
     private int turnTimeLimitSeconds = 30;  // from TurnTimeLimit
     private int currentRound = 0;
     private boolean isCurrentlyTopInning = true;  // 초(true) or 말(false)
@@ -103,6 +110,7 @@ public class BaseballClientGUI extends JFrame {
     private JLabel l_roundInfo;  // "N회 초/말"
     private JLabel l_turnInfo;   // "Your turn" or "Waiting..."
     private JLabel l_timerDisplay;  // Turn countdown
+    private JLabel l_royaleRank;    // 배틀로얄 순위 요약 (툴팁: 상위 목록)
     private Timer turnTimer;
     private int remainingSeconds;
 
@@ -300,6 +308,11 @@ public class BaseballClientGUI extends JFrame {
         gameInfoPanel.add(l_roundInfo);
         gameInfoPanel.add(l_turnInfo);
         gameInfoPanel.add(l_timerDisplay);
+        l_royaleRank = new JLabel();
+        l_royaleRank.setFont(new Font("Arial", Font.BOLD, 14));
+        l_royaleRank.setForeground(Color.CYAN);
+        l_royaleRank.setVisible(false);
+        gameInfoPanel.add(l_royaleRank);
         topPanel.add(gameInfoPanel, BorderLayout.CENTER);
 
         gamePanel.add(topPanel, BorderLayout.NORTH);
@@ -424,6 +437,12 @@ public class BaseballClientGUI extends JFrame {
 
             numberDisplayPanel.add(b_submit);
 
+            b_hint = new JButton("Hint");
+            b_hint.setFont(new Font("Arial", Font.BOLD, 12));
+            b_hint.setPreferredSize(new Dimension(70, 60));
+            b_hint.addActionListener(e -> requestHint());
+            numberDisplayPanel.add(b_hint);
+
 
     
 
@@ -494,6 +513,9 @@ public class BaseballClientGUI extends JFrame {
                 numberButton.addActionListener(e -> onNumberClick(number));
 
 
+                numberButtons[i] = numberButton;
+
+
                 numberCardPanel.add(numberButton);
 
 
@@ -614,7 +636,8 @@ public class BaseballClientGUI extends JFrame {
                 selectedNumbers[i] = new JLabel("_");
 
 
-                selectedNumbers[i].setFont(new Font("Arial", Font.BOLD, 36));
+                // 6자리 이상은 한 줄에 들어가도록 칸을 줄임
+                selectedNumbers[i].setFont(new Font("Arial", Font.BOLD, digitCount > 5 ? 24 : 36));
 
 
                 selectedNumbers[i].setForeground(Color.WHITE);
@@ -623,7 +646,7 @@ public class BaseballClientGUI extends JFrame {
                 selectedNumbers[i].setBorder(BorderFactory.createLineBorder(Color.WHITE, 2));
 
 
-                selectedNumbers[i].setPreferredSize(new Dimension(50, 50));
+                selectedNumbers[i].setPreferredSize(digitCount > 5 ? new Dimension(36, 40) : new Dimension(50, 50));
 
 
                 selectedNumbers[i].setHorizontalAlignment(SwingConstants.CENTER);
@@ -647,6 +670,18 @@ public class BaseballClientGUI extends JFrame {
     
 
 
+            // 0을 쓰지 않는 난이도면 0 버튼 비활성화
+
+
+            boolean allowZero = currentDifficulty != null && currentDifficulty.isAllowZero();
+
+
+            numberButtons[0].setEnabled(allowZero);
+
+
+    
+
+
             // UI 갱신
 
 
@@ -666,44 +701,41 @@ public class BaseballClientGUI extends JFrame {
 
         // Validate guess
         if (!isValidGuess(guess)) {
-            showToast(String.format("중복 없이 %d자리 숫자만 입력하세요 (0~9)", digitCount));
+            showToast(String.format("중복 없이 %d자리 숫자만 입력하세요 (%s)", digitCount, digitRangeText()));
             return;
         }
 
         Message guessMsg = Message.createGuessMessage(currentUserId != null ? currentUserId : "guest", guess);
         try {
-            out.writeObject(guessMsg);
-            out.flush();
+            FrameCodec.writeFrame(out, guessMsg, codec);
             // 모든 선택된 숫자를 초기화
             for (int i = 0; i < digitCount; i++) {
                 selectedNumbers[i].setText("_");
             }
             currentPosition = 0;
+            // 배틀로얄/2v2는 라운드(반 이닝)마다 한 번만 추측 가능 (다음 TURN_INFO에서 다시 활성화)
+            if (isRoyale() || currentGameMode == Message.GameMode.TWO_VS_TWO) {
+                b_submit.setEnabled(false);
+                l_turnInfo.setText(isRoyale() ? "추측 완료" : "팀원 대기");
+                l_turnInfo.setForeground(Color.WHITE);
+            }
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
     }
 
-    private boolean isValidGuess(String guess) {
-        // Check length
-        if (guess.contains("_") || guess.length() != digitCount) {
-            return false;
-        }
-
-        // Check if all digits
-        if (!guess.matches("\\d+")) {
-            return false;
-        }
+    private boolean isRoyale() {
+        return currentGameMode == Message.GameMode.BATTLE_ROYALE;
+    }
 
-        // Check for duplicates
-        java.util.Set<Character> seen = new java.util.HashSet<>();
-        for (char c : guess.toCharArray()) {
-            if (!seen.add(c)) {
-                return false;
-            }
-        }
+    // 서버와 같은 규칙으로 검증 (자릿수, 0 허용 여부, 중복 없음)
+    private boolean isValidGuess(String guess) {
+        return currentDifficulty != null && ScoringKernel.isValidGuess(guess, currentDifficulty);
+    }
 
-        return true;
+    // 난이도별 사용 숫자 범위 (안내 문구용)
+    private String digitRangeText() {
+        return currentDifficulty != null && currentDifficulty.isAllowZero() ? "0~9" : "1~9";
     }
 
     private String getSelectedNumStr() {
@@ -739,10 +771,9 @@ public class BaseballClientGUI extends JFrame {
     }
 
     private void receiveMessage() {
-        Message message;
         try {
-            while ((message = (Message) in.readObject()) != null) {
-                final Message msg = message;
+            while (true) {
+                final Message msg = FrameCodec.readFrame(in, codec);
                 // Handle different message types
                 SwingUtilities.invokeLater(() -> {
                     handleIncomingMessage(msg);
@@ -759,8 +790,6 @@ public class BaseballClientGUI extends JFrame {
                     switchToLoginScreen();
                 }
             });
-        } catch (ClassNotFoundException e) {
-            System.out.println("ClassNotFoundException: " + e.getMessage());
         }
     }
 
@@ -805,6 +834,10 @@ public class BaseballClientGUI extends JFrame {
                 updateRoomListTable(msg);
                 break;
 
+            case ROOM_LIST_DELTA:
+                applyRoomListDelta(msg);
+                break;
+
             case CREATE_ROOM_RESPONSE:
                 if (msg.isSuccess()) {
                     currentRoomId = msg.getRoomId();
@@ -826,6 +859,23 @@ public class BaseballClientGUI extends JFrame {
                 }
                 break;
 
+            case MATCH_FOUND:
+                setMatching(false);
+                if (msg.isSuccess()) {
+                    currentRoomId = msg.getRoomId();
+                    currentRoomName = msg.getRoomName();
+                    roomMasterUserId = msg.getRoomMaster();
+                    isRoomMaster = currentUserId.equals(roomMasterUserId);
+                    currentGameMode = msg.getGameMode();
+                    currentDifficulty = msg.getDifficulty();
+                    currentTurnTimeLimit = msg.getTurnTimeLimit();
+                    currentRoomIsPrivate = false;
+                    currentRoomPassword = null;
+                    currentRoomAllowSpectators = msg.isAllowSpectators();
+                    switchToRoomWaitingScreen();
+                }
+                break;
+
             case JOIN_ROOM_RESPONSE:
                 if (msg.isSuccess()) {
                     currentRoomId = msg.getRoomId();
@@ -880,14 +930,25 @@ public class BaseballClientGUI extends JFrame {
                 if (msg.getTurnTimeLimit() != null) {
                     turnTimeLimitSeconds = msg.getTurnTimeLimit().getSeconds();
                 }
+                if (msg.getGameMode() != null) {
+                    currentGameMode = msg.getGameMode();
+                }
                 displayMessage("게임 시작! " + msg.getContent());
 
                 // 게임 난이도에 맞게 UI 설정
                 setupGameUI(digitCount);
+                l_royaleRank.setText("");
+                l_royaleRank.setVisible(isRoyale());
+                b_hint.setEnabled(!isRoyale()); // 배틀로얄은 힌트 없음
 
                 // 게임 화면으로 전환
                 switchToGameScreen();
 
+                // 배틀로얄은 모두가 서버의 정답 하나를 맞히므로 정답 입력 없음
+                if (isRoyale()) {
+                    break;
+                }
+
                 // 정답 입력 다이얼로그
                 myAnswerKey = promptForAnswerKey();
                 displayMessage("정답이 설정되었습니다: " + myAnswerKey);
@@ -904,8 +965,23 @@ public class BaseballClientGUI extends JFrame {
                 currentTurnPlayerId = msg.getCurrentTurnPlayer();
 
                 // Update round and turn displays
-                l_roundInfo.setText(msg.getRoundInfo());
-                if (currentUserId.equals(currentTurnPlayerId)) {
+                l_roundInfo.setText(isRoyale() ? currentRound + "라운드" : msg.getRoundInfo());
+                if (isRoyale()) {
+                    // 배틀로얄: 턴 없이 라운드마다 한 번씩 추측
+                    l_turnInfo.setText("모두 추측");
+                    l_turnInfo.setForeground(Color.YELLOW);
+                    b_submit.setEnabled(true);
+                } else if (msg.getTeamNumber() > 0) {
+                    // 2v2: 공격 팀원 모두가 한 번씩 추측 (팀원이 모두 내면 한꺼번에 판정)
+                    boolean attacking = msg.getData() instanceof java.util.List
+                            && ((java.util.List<?>) msg.getData()).contains(currentUserId);
+                    if (attacking) {
+                        myTeamNumber = msg.getTeamNumber();
+                    }
+                    l_turnInfo.setText(attacking ? "우리 팀 공격" : "Team " + msg.getTeamNumber() + " 공격 중");
+                    l_turnInfo.setForeground(attacking ? Color.YELLOW : Color.WHITE);
+                    b_submit.setEnabled(attacking);
+                } else if (currentUserId.equals(currentTurnPlayerId)) {
                     l_turnInfo.setText("Your Turn");
                     l_turnInfo.setForeground(Color.YELLOW);
                     b_submit.setEnabled(true); // 내 턴일 때만 제출 버튼 활성화
@@ -937,10 +1013,35 @@ public class BaseballClientGUI extends JFrame {
                 displayMessage(msg.toString());
                 break;
 
+            case TEAM_GUESS_RESULT:
+                // 2v2: 팀원들의 이번 반 이닝 추측 결과를 한꺼번에 표시
+                if (msg.getData() instanceof java.util.List) {
+                    for (Object result : (java.util.List<?>) msg.getData()) {
+                        displayMessage(result.toString());
+                    }
+                }
+                break;
+
             case TURN_TIMEOUT:
                 showToast("Turn timeout!");
                 break;
 
+            case HINT_RESPONSE:
+                displayMessage("[힌트] " + msg.getContent());
+                break;
+
+            case ROYALE_LEADERBOARD:
+                // 주기적으로 오는 순위표: 요약은 라벨에, 상위 목록은 툴팁에
+                l_royaleRank.setText(msg.getContent());
+                if (msg.getData() instanceof java.util.List) {
+                    StringBuilder tip = new StringBuilder("<html>");
+                    for (Object line : (java.util.List<?>) msg.getData()) {
+                        tip.append(line).append("<br>");
+                    }
+                    l_royaleRank.setToolTipText(tip.append("</html>").toString());
+                }
+                break;
+
             case END_GAME:
             case GAME_RESULT:
                 // 게임 종료 처리
@@ -960,10 +1061,23 @@ public class BaseballClientGUI extends JFrame {
                     turnTimer.stop();
                 }
 
+                // 이번 게임 리플레이 요청 (결과 화면 요약에 표시)
+                t_gameRecap.setText("");
+                String endedGameId = msg.getGameId() != null ? msg.getGameId() : currentGameId;
+                if (endedGameId != null) {
+                    Message replayRequest = new Message(Message.MessageType.REPLAY_REQUEST, currentUserId);
+                    replayRequest.setGameId(endedGameId);
+                    sendMessage(replayRequest);
+                }
+
                 // 결과 화면으로 전환
                 switchToResultScreen();
                 break;
 
+            case REPLAY_RESPONSE:
+                showReplay(msg);
+                break;
+
             // Chat messages
             case CHAT_ALL:
                 displayMessage(msg.toString(), Color.RED);
@@ -995,6 +1109,7 @@ public class BaseballClientGUI extends JFrame {
 
             // Error handling
             case ERROR:
+                setMatching(false);
                 Message.ErrorCode errorCode = msg.getErrorCode();
                 String errorMessage = msg.getErrorMessage();
                 JOptionPane.showMessageDialog(this,
@@ -1102,8 +1217,7 @@ public class BaseballClientGUI extends JFrame {
             // Send logout message to server
             if (out != null && socket != null && socket.isConnected() && currentUserId != null) {
                 Message logoutMsg = new Message(Message.MessageType.LOGOUT, currentUserId);
-                out.writeObject(logoutMsg);
-                out.flush();
+                FrameCodec.writeFrame(out, logoutMsg, codec);
             }
 
             // Close streams
@@ -1146,9 +1260,21 @@ public class BaseballClientGUI extends JFrame {
     private void connectToServer() {
         try {
             socket = new Socket(serverAddress, serverPort);
-            out = new ObjectOutputStream(socket.getOutputStream());
-            out.flush();
-            in = new ObjectInputStream(socket.getInputStream());
+            out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+
+            // 코덱 협상 (바이너리 우선, Java 직렬화 폴백)
+            codec = JavaSerializationCodec.INSTANCE;
+            FrameCodec.writeRawFrame(out, FrameCodec.createHandshake(
+                    BinaryMessageCodec.INSTANCE, JavaSerializationCodec.INSTANCE));
+            byte[] reply = FrameCodec.readRawFrame(in);
+            if (FrameCodec.isHandshake(reply)) {
+                codec = FrameCodec.parseHandshakeReply(reply);
+            } else {
+                // 핸드셰이크 대신 바로 메시지가 온 경우 (예: 서버 정원 초과)
+                Message first = codec.decode(reply, 0, reply.length);
+                SwingUtilities.invokeLater(() -> handleIncomingMessage(first));
+            }
 
             // Start receive thread
             Thread receiveThread = new Thread(() -> {
@@ -1173,7 +1299,7 @@ public class BaseballClientGUI extends JFrame {
         while (true) {
             String answer = JOptionPane.showInputDialog(
                 this,
-                String.format("정답 숫자를 입력하세요 (%d자리, 0~9, 중복 불가)", digitCount),
+                String.format("정답 숫자를 입력하세요 (%d자리, %s, 중복 불가)", digitCount, digitRangeText()),
                 "정답 입력",
                 JOptionPane.PLAIN_MESSAGE
             );
@@ -1183,12 +1309,12 @@ public class BaseballClientGUI extends JFrame {
                 return generateRandomAnswer();
             }
 
-            if (isValidAnswerKey(answer)) {
+            if (isValidGuess(answer)) {
                 return answer;
             } else {
                 JOptionPane.showMessageDialog(
                     this,
-                    String.format("%d자리 숫자여야 하며, 중복 없이 0~9 범위여야 합니다", digitCount),
+                    String.format("%d자리 숫자여야 하며, 중복 없이 %s 범위여야 합니다", digitCount, digitRangeText()),
                     "잘못된 입력",
                     JOptionPane.ERROR_MESSAGE
                 );
@@ -1200,39 +1326,9 @@ public class BaseballClientGUI extends JFrame {
      * 랜덤 정답 생성
      */
     private String generateRandomAnswer() {
-        java.util.List<Integer> digits = new java.util.ArrayList<>();
-        for (int i = 0; i <= 9; i++) {
-            digits.add(i);
-        }
-        java.util.Collections.shuffle(digits);
-
-        StringBuilder answer = new StringBuilder();
-        for (int i = 0; i < digitCount; i++) {
-            answer.append(digits.get(i));
-        }
-        return answer.toString();
-    }
-
-    private boolean isValidAnswerKey(String key) {
-        // Check length
-        if (key.length() != digitCount) {
-            return false;
-        }
-
-        // Check if all characters are digits
-        if (!key.matches("\\d+")) {
-            return false;
-        }
-
-        // Check for duplicates
-        java.util.Set<Character> seen = new java.util.HashSet<>();
-        for (char c : key.toCharArray()) {
-            if (!seen.add(c)) {
-                return false;
-            }
-        }
-
-        return true;
+        // 서버와 같은 후보 공간에서 순열 순위를 뽑아 만듦
+        AnswerSpace space = AnswerSpace.forDifficulty(currentDifficulty);
+        return ScoringKernel.unpack(space.candidateAt(java.util.concurrent.ThreadLocalRandom.current().nextInt(space.size())));
     }
 
     private void showToast(String message) {
@@ -1388,10 +1484,16 @@ public class BaseballClientGUI extends JFrame {
         b_refreshRoomList = new JButton("새로고침");
         b_refreshRoomList.setFont(new Font("Arial", Font.BOLD, 16));
         b_refreshRoomList.setPreferredSize(new Dimension(120, 40));
-        b_refreshRoomList.addActionListener(e -> requestRoomList());
+        b_refreshRoomList.addActionListener(e -> subscribeLobby());
+
+        b_quickMatch = new JButton("빠른 시작");
+        b_quickMatch.setFont(new Font("Arial", Font.BOLD, 16));
+        b_quickMatch.setPreferredSize(new Dimension(120, 40));
+        b_quickMatch.addActionListener(e -> handleQuickMatch());
 
         bottomPanel.add(b_createRoom);
         bottomPanel.add(b_joinRoom);
+        bottomPanel.add(b_quickMatch);
         bottomPanel.add(b_refreshRoomList);
 
         lobbyPanel.add(bottomPanel, BorderLayout.SOUTH);
@@ -1462,7 +1564,7 @@ public class BaseballClientGUI extends JFrame {
         roomPanel.add(centerPanel, BorderLayout.CENTER);
 
         // 하단 패널 (버튼들)
-        JPanel bottomPanel = new JPanel(new GridLayout(2, 2, 10, 10));
+        JPanel bottomPanel = new JPanel(new GridLayout(3, 2, 10, 10));
         bottomPanel.setOpaque(false);
         bottomPanel.setBorder(BorderFactory.createEmptyBorder(10, 40, 10, 40));
 
@@ -1501,6 +1603,13 @@ public class BaseballClientGUI extends JFrame {
         });
         bottomPanel.add(b_editRoom);
 
+        // 봇 추가 버튼 (방장만)
+        b_addBot = new JButton("봇 추가");
+        b_addBot.setFont(new Font("Arial", Font.BOLD, 16));
+        b_addBot.setEnabled(false);
+        b_addBot.addActionListener(e -> handleAddBot());
+        bottomPanel.add(b_addBot);
+
         // 방 나가기 버튼 (별도 패널)
         JPanel bottomWrapper = new JPanel(new BorderLayout());
         bottomWrapper.setOpaque(false);
@@ -1545,10 +1654,12 @@ public class BaseballClientGUI extends JFrame {
             b_ready.setEnabled(false);
             b_cancelReady.setEnabled(false);
             b_startGame.setEnabled(true);
+            b_addBot.setEnabled(true);
         } else {
             b_ready.setEnabled(true);
             b_cancelReady.setEnabled(false);
             b_startGame.setEnabled(false);
+            b_addBot.setEnabled(false);
         }
     }
 
@@ -1578,6 +1689,14 @@ public class BaseballClientGUI extends JFrame {
         l_resultMessage.setForeground(Color.YELLOW);
         resultPanel.add(l_resultMessage, BorderLayout.CENTER);
 
+        // 게임 요약 (턴별 리플레이)
+        t_gameRecap = new JTextArea();
+        t_gameRecap.setEditable(false);
+        t_gameRecap.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 13));
+        JScrollPane recapScroll = new JScrollPane(t_gameRecap);
+        recapScroll.setPreferredSize(new Dimension(260, 0));
+        resultPanel.add(recapScroll, BorderLayout.EAST);
+
         // 하단 버튼 패널
         JPanel bottomPanel = new JPanel(new FlowLayout(FlowLayout.CENTER, 20, 20));
         bottomPanel.setOpaque(false);
@@ -1605,6 +1724,27 @@ public class BaseballClientGUI extends JFrame {
         return resultPanel;
     }
 
+    // 리플레이 응답을 결과 화면 요약에 표시
+    @SuppressWarnings("unchecked")
+    private void showReplay(Message msg) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("게임 ").append(msg.getGameId()).append("\n\n");
+        if (msg.isSuccess() && msg.getData() instanceof Vector) {
+            for (Hashtable<String, String> turn : (Vector<Hashtable<String, String>>) msg.getData()) {
+                sb.append(turn.get("round")).append("회 ")
+                  .append(turn.get("playerId")).append(" : ")
+                  .append(turn.get("guess")).append(" → ")
+                  .append(turn.get("result")).append("\n");
+            }
+        } else {
+            sb.append(msg.getContent());
+        }
+        SwingUtilities.invokeLater(() -> {
+            t_gameRecap.setText(sb.toString());
+            t_gameRecap.setCaretPosition(0);
+        });
+    }
+
     // ========== Screen Transition Methods ==========
 
     private void switchToLoginScreen() {
@@ -1618,14 +1758,15 @@ public class BaseballClientGUI extends JFrame {
         currentState = UIState.LOBBY_SCREEN;
         SwingUtilities.invokeLater(() -> {
             cardLayout.show(mainPanel, LOBBY_PANEL);
-            // Request room list when entering lobby
-            requestRoomList();
+            // Subscribe to room list updates when entering lobby
+            subscribeLobby();
         });
     }
 
     private void switchToRoomWaitingScreen() {
         currentState = UIState.ROOM_WAITING_SCREEN;
         SwingUtilities.invokeLater(() -> {
+            unsubscribeLobby();
             updateRoomWaitingScreen();
             cardLayout.show(mainPanel, ROOM_WAITING_PANEL);
         });
@@ -1657,19 +1798,87 @@ public class BaseballClientGUI extends JFrame {
     private void sendMessage(Message msg) {
         try {
             if (out != null) {
-                out.writeObject(msg);
-                out.flush();
+                FrameCodec.writeFrame(out, msg, codec);
             }
         } catch (IOException e) {
             System.err.println("Failed to send message: " + e.getMessage());
         }
     }
 
+    // Ask the server for remaining candidates and a suggested guess
+    private void requestHint() {
+        Message msg = new Message(Message.MessageType.HINT_REQUEST, currentUserId);
+        msg.setRoomId(currentRoomId);
+        sendMessage(msg);
+    }
+
     // ========== Lobby Methods ==========
 
-    private void requestRoomList() {
-        Message msg = new Message(Message.MessageType.ROOM_LIST_REQUEST, currentUserId);
+    // Server sends a full snapshot, then pushes deltas while subscribed
+    private void subscribeLobby() {
+        Message msg = new Message(Message.MessageType.LOBBY_SUBSCRIBE, currentUserId);
+        sendMessage(msg);
+    }
+
+    private void unsubscribeLobby() {
+        if (lobbyVersion < 0) return;
+        lobbyVersion = -1;
+        Message msg = new Message(Message.MessageType.LOBBY_UNSUBSCRIBE, currentUserId);
+        sendMessage(msg);
+    }
+
+    // 난이도 콤보박스 항목 (Difficulty 순서와 같음, withDigits면 "하 (3자리)" 형식)
+    private static String[] difficultyNames(boolean withDigits) {
+        Message.Difficulty[] difficulties = Message.Difficulty.values();
+        String[] names = new String[difficulties.length];
+        for (int i = 0; i < difficulties.length; i++) {
+            Message.Difficulty d = difficulties[i];
+            boolean named = d.ordinal() <= Message.Difficulty.HARD.ordinal();
+            names[i] = (withDigits && named) ? d.getDisplayName() + " (" + d.getDigitCount() + "자리)" : d.getDisplayName();
+        }
+        return names;
+    }
+
+    // Toggle: pick options and enter the queue, or cancel while waiting
+    private void handleQuickMatch() {
+        if (isMatching) {
+            sendMessage(new Message(Message.MessageType.QUICK_MATCH_CANCEL, currentUserId));
+            setMatching(false);
+            return;
+        }
+
+        JComboBox<String> cb_mode = new JComboBox<>(new String[]{"1v1", "2v2"});
+        JComboBox<String> cb_difficulty = new JComboBox<>(difficultyNames(true));
+        JComboBox<String> cb_timeLimit = new JComboBox<>(new String[]{"15초", "30초", "60초"});
+        cb_timeLimit.setSelectedIndex(1);
+        JPanel panel = new JPanel(new GridLayout(3, 2, 5, 5));
+        panel.add(new JLabel("게임 모드:"));
+        panel.add(cb_mode);
+        panel.add(new JLabel("난이도:"));
+        panel.add(cb_difficulty);
+        panel.add(new JLabel("턴 제한 시간:"));
+        panel.add(cb_timeLimit);
+
+        int choice = JOptionPane.showConfirmDialog(this, panel, "빠른 시작", JOptionPane.OK_CANCEL_OPTION);
+        if (choice != JOptionPane.OK_OPTION) {
+            return;
+        }
+
+        Message msg = new Message(Message.MessageType.QUICK_MATCH_REQUEST, currentUserId);
+        msg.setGameMode(Message.GameMode.values()[cb_mode.getSelectedIndex()]);
+        msg.setDifficulty(Message.Difficulty.values()[cb_difficulty.getSelectedIndex()]);
+        msg.setTurnTimeLimit(Message.TurnTimeLimit.values()[cb_timeLimit.getSelectedIndex()]);
         sendMessage(msg);
+        setMatching(true);
+    }
+
+    private void setMatching(boolean matching) {
+        isMatching = matching;
+        if (b_quickMatch != null) {
+            b_quickMatch.setText(matching ? "매칭 취소" : "빠른 시작");
+        }
+        if (b_createRoom != null) b_createRoom.setEnabled(!matching);
+        if (b_joinRoom != null) b_joinRoom.setEnabled(!matching);
     }
 
     private void handleJoinRoom() {
@@ -1769,10 +1978,10 @@ public class BaseballClientGUI extends JFrame {
         JLabel l_gameMode = new JLabel("게임 모드:");
         l_gameMode.setFont(new Font("Arial", Font.BOLD, 16));
         l_gameMode.setForeground(Color.WHITE);
-        JComboBox<String> cb_gameMode = new JComboBox<>(new String[]{"1v1", "2v2"});
+        JComboBox<String> cb_gameMode = new JComboBox<>(new String[]{"1v1", "2v2", "배틀로얄"});
         cb_gameMode.setFont(new Font("Arial", Font.PLAIN, 14));
         if (isEditMode && currentGameMode != null) {
-            cb_gameMode.setSelectedIndex(currentGameMode == Message.GameMode.ONE_VS_ONE ? 0 : 1);
+            cb_gameMode.setSelectedIndex(currentGameMode.ordinal());
         }
         gameModePanel.add(l_gameMode);
         gameModePanel.add(cb_gameMode);
@@ -1783,7 +1992,7 @@ public class BaseballClientGUI extends JFrame {
         JLabel l_difficulty = new JLabel("난이도:");
         l_difficulty.setFont(new Font("Arial", Font.BOLD, 16));
         l_difficulty.setForeground(Color.WHITE);
-        JComboBox<String> cb_difficulty = new JComboBox<>(new String[]{"하", "중", "상"});
+        JComboBox<String> cb_difficulty = new JComboBox<>(difficultyNames(false));
         cb_difficulty.setFont(new Font("Arial", Font.PLAIN, 14));
         if (isEditMode && currentDifficulty != null) {
             cb_difficulty.setSelectedIndex(currentDifficulty.ordinal());
@@ -1893,9 +2102,7 @@ public class BaseballClientGUI extends JFrame {
             }
 
             // Enum 변환
-            Message.GameMode gameMode = cb_gameMode.getSelectedIndex() == 0
-                ? Message.GameMode.ONE_VS_ONE
-                : Message.GameMode.TWO_VS_TWO;
+            Message.GameMode gameMode = Message.GameMode.values()[cb_gameMode.getSelectedIndex()];
 
             Message.Difficulty difficulty = Message.Difficulty.values()[cb_difficulty.getSelectedIndex()];
 
@@ -1990,25 +2197,80 @@ public class BaseballClientGUI extends JFrame {
         // Clear existing rows
         roomListTableModel.setRowCount(0);
 
+        // Snapshot from a lobby subscription carries its version in content
+        String content = msg.getContent();
+        if (content != null && content.matches("\\d+")) {
+            lobbyVersion = Long.parseLong(content);
+        }
+
         // Get room list from message data
         if (msg.getData() != null && msg.getData() instanceof java.util.List) {
             @SuppressWarnings("unchecked")
             java.util.List<Message> roomList = (java.util.List<Message>) msg.getData();
 
             for (Message roomInfo : roomList) {
-                Object[] row = new Object[7];
-                row[0] = roomInfo.getRoomId();
-                row[1] = roomInfo.getRoomName();
-                row[2] = roomInfo.getRoomMaster();
-                row[3] = roomInfo.getRoomStatus() == Message.RoomStatus.WAITING ? "대기 중" : "게임 중";
-                row[4] = roomInfo.getCurrentPlayers() + "/" + roomInfo.getMaxPlayers();
-                row[5] = roomInfo.getGameMode() != null ? roomInfo.getGameMode().getDisplayName() : "";
-                row[6] = roomInfo.getDifficulty() != null ? roomInfo.getDifficulty().getDisplayName() : "";
-                roomListTableModel.addRow(row);
+                roomListTableModel.addRow(toRoomRow(roomInfo));
             }
         }
     }
 
+    private Object[] toRoomRow(Message roomInfo) {
+        Object[] row = new Object[7];
+        row[0] = roomInfo.getRoomId();
+        row[1] = roomInfo.getRoomName();
+        row[2] = roomInfo.getRoomMaster();
+        row[3] = roomInfo.getRoomStatus() == Message.RoomStatus.WAITING ? "대기 중" : "게임 중";
+        row[4] = roomInfo.getCurrentPlayers() + "/" + roomInfo.getMaxPlayers();
+        row[5] = roomInfo.getGameMode() != null ? roomInfo.getGameMode().getDisplayName() : "";
+        row[6] = roomInfo.getDifficulty() != null ? roomInfo.getDifficulty().getDisplayName() : "";
+        return row;
+    }
+
+    private void applyRoomListDelta(Message msg) {
+        if (lobbyVersion < 0 || !(msg.getData() instanceof java.util.Map)) return;
+        @SuppressWarnings("unchecked")
+        java.util.Map<String, Object> delta = (java.util.Map<String, Object>) msg.getData();
+
+        // Missed a delta: resync with a fresh snapshot
+        long baseVersion = (Long) delta.get("baseVersion");
+        if (baseVersion != lobbyVersion) {
+            subscribeLobby();
+            return;
+        }
+
+        @SuppressWarnings("unchecked")
+        java.util.List<Integer> removed = (java.util.List<Integer>) delta.get("removed");
+        for (Integer roomId : removed) {
+            int row = findRoomRow(roomId);
+            if (row >= 0) roomListTableModel.removeRow(row);
+        }
+
+        @SuppressWarnings("unchecked")
+        java.util.List<Message> upserts = (java.util.List<Message>) delta.get("upserts");
+        for (Message roomInfo : upserts) {
+            Object[] values = toRoomRow(roomInfo);
+            int row = findRoomRow(roomInfo.getRoomId());
+            if (row < 0) {
+                roomListTableModel.addRow(values);
+            } else {
+                for (int col = 0; col < values.length; col++) {
+                    roomListTableModel.setValueAt(values[col], row, col);
+                }
+            }
+        }
+
+        lobbyVersion = (Long) delta.get("version");
+    }
+
+    private int findRoomRow(int roomId) {
+        for (int row = 0; row < roomListTableModel.getRowCount(); row++) {
+            if (Integer.valueOf(roomId).equals(roomListTableModel.getValueAt(row, 0))) {
+                return row;
+            }
+        }
+        return -1;
+    }
+
     // ========== Room Waiting Helper Methods ==========
 
     private void handleReady() {
@@ -2040,6 +2302,22 @@ public class BaseballClientGUI extends JFrame {
         sendMessage(msg);
     }
 
+    private void handleAddBot() {
+        if (!isRoomMaster) {
+            showToast("방장만 봇을 추가할 수 있습니다");
+            return;
+        }
+
+        String[] levels = {"초급", "중급", "고급"};
+        String level = (String) JOptionPane.showInputDialog(this, "봇 수준을 선택하세요", "봇 추가",
+                JOptionPane.PLAIN_MESSAGE, null, levels, levels[1]);
+        if (level == null) return;
+
+        Message msg = new Message(Message.MessageType.ADD_BOT, currentUserId, level);
+        msg.setRoomId(currentRoomId);
+        sendMessage(msg);
+    }
+
     private void handleLeaveRoom() {
         Message msg = new Message(Message.MessageType.LEAVE_ROOM, currentUserId);
         msg.setRoomId(currentRoomId);
@@ -3,27 +3,72 @@ import java.awt.*;
 import java.io.*;
 import java.net.ServerSocket;
 import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Hashtable;
 import java.util.Vector;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 import java.util.stream.Collectors;
 
-public class BaseballServerGUI extends JFrame {
+public class BaseballServerGUI {
     private int port = 54321;
     private ServerSocket serverSocket;
     private Thread acceptThread;
+    private ExecutorService clientExecutor; // 가상 스레드 모드에서 ClientHandler 실행
+    private NioServer nioServer;
+
+    // 서버 실행 모드
+    enum ServerMode {
+        THREAD_PER_CLIENT("스레드 모드", 100, 20),         // 접속자마다 플랫폼 스레드 1개 (블로킹 소켓)
+        VIRTUAL_THREAD("가상 스레드 모드", 10000, 5000),   // 접속자마다 가상 스레드 1개 (블로킹 소켓)
+        NIO("NIO 모드", 50000, 25000);                    // Selector + 고정 I/O 스레드 풀
+
+        final String displayName;
+        final int maxClients; // 최대 동시 접속자 수
+        final int maxRooms;   // 최대 방 개수
+
+        ServerMode(String displayName, int maxClients, int maxRooms) {
+            this.displayName = displayName;
+            this.maxClients = maxClients;
+            this.maxRooms = maxRooms;
+        }
+
+        @Override
+        public String toString() { return displayName; }
+    }
 
+    private static final int NIO_IO_THREADS = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+    private final boolean headless; // 화면 없이 실행 (로그는 표준 출력, 부하 테스트용)
+    private JFrame frame;
     private JTextArea t_display;
-    private JButton b_start, b_stop;
+    private JButton b_start, b_stop, b_status, b_recomputeRatings, b_botGames, b_royaleLoadTest, b_roomStressTest;
+    private JComboBox<ServerMode> cb_mode;
 
-    // 접속한 클라이언트 관리
-    private final Vector<ClientHandler> clients = new Vector<>();
-    private final int maxClients = 100; // 최대 동시 접속자 수
+    // 접속한 클라이언트 관리 (userId -> 핸들러)
+    // 가상 스레드가 캐리어에 고정(pinning)되지 않도록 synchronized 컬렉션 대신 동시성 컬렉션 사용
+    private final ConcurrentHashMap<String, ClientHandler> clients = new ConcurrentHashMap<>();
+    private ServerMode serverMode = ServerMode.THREAD_PER_CLIENT;
+    private int maxClients = serverMode.maxClients; // 최대 동시 접속자 수
 
     // 방 관리
-    private final Vector<GameRoom> rooms = new Vector<>();
-    private int nextRoomId = 1;
-    private final int maxRooms = 20;
+    private final RoomRegistry<GameRoom> roomRegistry = new RoomRegistry<>(serverMode.maxRooms);
+
+    // 로비 방 목록 변경분 전송 (이 시간 동안 모인 변경을 한 번에 전송)
+    private static final long LOBBY_COALESCE_MS = 100;
+    private final LobbyFeed lobbyFeed = new LobbyFeed(roomRegistry, LOBBY_COALESCE_MS);
 
     // CSV 파싱을 위한 정규 표현식
     private static final String CSV_SPLIT_REGEX = ",(?=([^\"]*\"[^\"]*\")*[^\"]*$)";
@@ -33,17 +78,138 @@ public class BaseballServerGUI extends JFrame {
     private static final String STATS_FILE = "server_data/user_stats.csv";
     private static final String HISTORY_FILE = "server_data/game_history.csv";
     private static final String DETAILS_FILE = "server_data/game_details.csv";
-
-    public BaseballServerGUI(int port) {
-        super("Baseball Game Server");
+    private static final String HISTORY_INDEX_FILE = "server_data/game_history.idx";
+    private static final String RATINGS_FILE = "server_data/ratings.csv";
+
+    private UserRepository userRepository;
+
+    // 게임 기록 저널 설정 (큐 크기, flush 주기, 배치 크기)
+    private static final int JOURNAL_CAPACITY = 10000;
+    private static final long JOURNAL_FLUSH_INTERVAL_MS = 50;
+    private static final int JOURNAL_BATCH_SIZE = 256;
+    private GameJournal gameJournal;
+
+    // 게임 기록 조회 (한 페이지 크기)
+    private static final int HISTORY_PAGE_SIZE = 20;
+    private GameHistoryStore historyStore;
+    private ReplayStore replayStore;
+    // 기록/리플레이 조회는 파일을 읽으므로 NIO I/O 스레드가 아닌 이 실행기에서 처리하고 응답 (가상 스레드)
+    private final ExecutorService storageExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    // 전적 스냅샷 주기 (초)
+    private static final long STATS_SNAPSHOT_INTERVAL_SEC = 10;
+    private StatsService statsService;
+    private RatingService ratingService;
+
+    // 힌트 계산 시간 제한 (추천 추측 탐색)
+    private static final long HINT_BUDGET_MS = 200;
+
+    // 배틀로얄 순위표 전송 주기와 인원 (추측마다 보내지 않고 모아서 방 전체에 한 번)
+    private static final long ROYALE_LEADERBOARD_INTERVAL_MS = 1000;
+    private static final int ROYALE_LEADERBOARD_SIZE = 10;
+
+    // 턴 제한 시간 타이머 (모든 방이 휠 하나를 공유, 100ms tick x 512 슬롯)
+    private static final long TURN_TIMER_TICK_MS = 100;
+    private static final int TURN_TIMER_WHEEL_SIZE = 512;
+    private static final long TURN_TIMEOUT_GRACE_MS = 1000; // 네트워크 지연 여유
+    // 만료 작업은 방 메일박스에 넣기만 하므로 휠 스레드에서 바로 실행
+    private final TurnTimerWheel turnTimer = new TurnTimerWheel(TURN_TIMER_TICK_MS, TURN_TIMER_WHEEL_SIZE,
+            Runnable::run, this::printDisplay);
+
+    // 모든 방(액터)이 공유하는 실행기 (가상 스레드)
+    private final ExecutorService roomExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    // 연결별 송신 대기열 (저수위/고수위/한도 바이트, 혼잡 상태 허용 시간)
+    // 보내는 쪽은 대기열에 넣고 바로 반환하므로 느린 클라이언트가 방 브로드캐스트나 전체 채팅을 막지 않음
+    private static final long OUTBOUND_LOW_WATERMARK = 64 * 1024;
+    private static final long OUTBOUND_HIGH_WATERMARK = 256 * 1024;
+    private static final long OUTBOUND_LIMIT = 4 * 1024 * 1024;
+    private static final long SLOW_CLIENT_TIMEOUT_MS = 5000;
+    private static final long SLOW_CLIENT_SWEEP_MS = 1000;   // 블로킹 모드 느린 연결 점검 주기
+    // 블로킹 모드 송신 대기열을 비우는 실행기 (NIO 모드는 I/O 스레드가 비움)
+    private final ExecutorService senderExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final AtomicLong evictedClients = new AtomicLong(); // 블로킹 모드에서 종료된 느린 연결 수
+
+    // 랭킹 (내 순위 조회 시 위아래로 보여줄 인원)
+    private static final int RANKING_AROUND = 5;
+    private final Leaderboard leaderboard = new Leaderboard();
+
+    // 빠른 시작 매칭 (200ms마다 매칭, 레이팅 차이 50까지 허용하고 1초에 25씩 넓힘)
+    private static final long MATCH_TICK_MS = 200;
+    private static final double MATCH_SKILL_WINDOW = 50;
+    private static final double MATCH_WINDOW_WIDEN_PER_SEC = 25;
+    private static final double MATCH_MAX_WINDOW = 400;
+    private final MatchmakingService<ClientHandler> matchmaking = new MatchmakingService<>(MATCH_TICK_MS,
+            MATCH_SKILL_WINDOW, MATCH_WINDOW_WIDEN_PER_SEC, MATCH_MAX_WINDOW, this::onMatch, this::printDisplay);
+
+    // 봇 (모든 봇이 공유하는 작은 스케줄러 위에서 동작, 봇마다 스레드를 만들지 않음)
+    private static final int BOT_THREADS = 2;
+    private final ScheduledExecutorService botScheduler = Executors.newScheduledThreadPool(BOT_THREADS,
+            Thread.ofPlatform().name("bot-", 0).daemon().factory());
+    // 봇의 후보 걸러내기/추천 탐색 (큰 자릿수는 수십 ms 걸리므로 스케줄러와 분리하고 스레드 수로 총량 제한)
+    private static final int BOT_THINK_THREADS = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+    private final ExecutorService botThinkExecutor = Executors.newFixedThreadPool(BOT_THINK_THREADS,
+            Thread.ofPlatform().name("bot-think-", 0).daemon().factory());
+    private final AtomicInteger botSeq = new AtomicInteger();
+    private final AtomicInteger activeBots = new AtomicInteger();
+    private final AtomicLong roomErrors = new AtomicLong(); // 방 액터 처리 중 예외 수 (스트레스 테스트 확인용)
+
+    // 방 스트레스 테스트 (요청을 보내는 스레드 수, 플레이어당 요청 수, 정리 대기 시간)
+    private static final int STRESS_THREADS = 8;
+    private static final int STRESS_OPS_PER_PLAYER = 50;
+    private static final long STRESS_SETTLE_TIMEOUT_MS = 30_000;
+
+    public BaseballServerGUI(int port, boolean headless) {
         this.port = port;
+        this.headless = headless;
 
         initDataFiles();
 
-        buildGUI();
-        setSize(700, 500);
-        setDefaultCloseOperation(EXIT_ON_CLOSE);
-        setVisible(true);
+        if (!headless) {
+            buildGUI();
+        }
+
+        // 회원 정보는 시작 시 한 번만 읽어서 메모리 인덱스로 사용
+        userRepository = new UserRepository(USERS_FILE, this::printDisplay);
+        userRepository.load();
+
+        // 게임 기록 조회용 위치 색인 (새 기록 위치는 저널에서 전달받음)
+        historyStore = new GameHistoryStore(HISTORY_FILE, HISTORY_INDEX_FILE, this::printDisplay);
+        historyStore.load();
+
+        // 리플레이용 gameId 색인 (상세 기록 파일을 매핑해서 구성)
+        replayStore = new ReplayStore(DETAILS_FILE, this::printDisplay);
+        replayStore.load();
+
+        // 게임 기록은 저널 스레드가 모아서 기록 (프로세스 종료 시 남은 기록 반영)
+        gameJournal = new GameJournal(JOURNAL_CAPACITY, JOURNAL_FLUSH_INTERVAL_MS, JOURNAL_BATCH_SIZE, this::printDisplay);
+        gameJournal.setListener(HISTORY_FILE, historyStore::onAppended);
+        gameJournal.setListener(DETAILS_FILE, replayStore);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            gameJournal.close();
+            historyStore.close();
+            replayStore.close();
+        }));
+
+        // 전적은 메모리에서 증분 갱신하고 주기적으로 스냅샷 저장
+        statsService = new StatsService(STATS_FILE, STATS_SNAPSHOT_INTERVAL_SEC, this::printDisplay);
+        statsService.load();
+        Runtime.getRuntime().addShutdownHook(new Thread(statsService::close));
+
+        // 레이팅 (파일이 없으면 게임 기록으로 재계산), 랭킹은 레이팅 순
+        ratingService = new RatingService(RATINGS_FILE, STATS_SNAPSHOT_INTERVAL_SEC, this::printDisplay);
+        ratingService.load(HISTORY_FILE);
+        Runtime.getRuntime().addShutdownHook(new Thread(ratingService::close));
+        statsService.forEach(this::updateRanking);
+
+        // 방 요약이 바뀌면 로비 구독자에게 변경분 전송
+        roomRegistry.setListener(lobbyFeed);
+
+        if (frame != null) {
+            frame.setSize(700, 500);
+            frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+            frame.setVisible(true);
+        }
     }
 
     // 데이터 파일 초기화
@@ -76,35 +242,69 @@ public class BaseballServerGUI extends JFrame {
     }
 
     private void buildGUI() {
+        frame = new JFrame("Baseball Game Server");
+
         // 로그 출력 영역
         t_display = new JTextArea();
         t_display.setEditable(false);
-        add(new JScrollPane(t_display), BorderLayout.CENTER);
+        frame.add(new JScrollPane(t_display), BorderLayout.CENTER);
 
         // 버튼 패널
         JPanel btnPanel = new JPanel();
+        cb_mode = new JComboBox<>(ServerMode.values());
         b_start = new JButton("서버 시작");
         b_stop = new JButton("서버 중지");
         b_stop.setEnabled(false);
+        b_status = new JButton("상태 보기");
+        b_recomputeRatings = new JButton("레이팅 재계산");
+        b_botGames = new JButton("봇 대전");
+        b_royaleLoadTest = new JButton("배틀로얄 부하");
+        b_roomStressTest = new JButton("방 스트레스");
 
         b_start.addActionListener(e -> startServer());
         b_stop.addActionListener(e -> stopServer());
+        b_status.addActionListener(e -> printStatus());
+        b_recomputeRatings.addActionListener(e -> recomputeRatings());
+        b_botGames.addActionListener(e -> startBotGames());
+        b_royaleLoadTest.addActionListener(e -> startRoyaleLoadTest());
+        b_roomStressTest.addActionListener(e -> startRoomStressTest());
 
+        btnPanel.add(cb_mode);
         btnPanel.add(b_start);
         btnPanel.add(b_stop);
-        add(btnPanel, BorderLayout.SOUTH);
+        btnPanel.add(b_status);
+        btnPanel.add(b_recomputeRatings);
+        btnPanel.add(b_botGames);
+        btnPanel.add(b_royaleLoadTest);
+        btnPanel.add(b_roomStressTest);
+        frame.add(btnPanel, BorderLayout.SOUTH);
     }
 
     // 서버 시작
     private void startServer() {
-        Thread acceptThread = new Thread(() -> {
+        serverMode = (ServerMode) cb_mode.getSelectedItem();
+        maxClients = serverMode.maxClients;
+        roomRegistry.setCapacity(serverMode.maxRooms);
+
+        if (serverMode == ServerMode.NIO) {
+            startNioServer();
+            return;
+        }
+
+        if (serverMode == ServerMode.VIRTUAL_THREAD) {
+            clientExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        }
+
+        Runnable acceptLoop = () -> {
             try {
                 serverSocket = new ServerSocket(port);
-                printDisplay("서버 시작 (포트: " + port + ")");
+                printDisplay("서버 시작 (포트: " + port + ", " + serverMode + ")");
+                scheduleSlowClientSweep(serverSocket);
 
                 SwingUtilities.invokeLater(() -> {
                     b_start.setEnabled(false);
                     b_stop.setEnabled(true);
+                    cb_mode.setEnabled(false);
                 });
 
                 // 클라이언트 접속 대기
@@ -114,9 +314,9 @@ public class BaseballServerGUI extends JFrame {
                     // 최대 접속자 수 체크
                     if(clients.size() >= maxClients) {
                         printDisplay("최대 접속자 수 초과. 연결 거부: " + socket.getInetAddress());
-                        ObjectOutputStream tempOut = new ObjectOutputStream(socket.getOutputStream());
-                        tempOut.writeObject(Message.createErrorMessage(Message.ErrorCode.SERVER_FULL));
-                        tempOut.flush();
+                        DataOutputStream tempOut = new DataOutputStream(socket.getOutputStream());
+                        FrameCodec.writeFrame(tempOut, Message.createErrorMessage(Message.ErrorCode.SERVER_FULL),
+                                JavaSerializationCodec.INSTANCE);
                         socket.close();
                         continue;
                     }
@@ -124,20 +324,90 @@ public class BaseballServerGUI extends JFrame {
                     printDisplay("클라이언트 연결: " + socket.getInetAddress());
 
                     ClientHandler handler = new ClientHandler(socket);
-                    new Thread(handler).start();
+                    if (clientExecutor != null) {
+                        clientExecutor.execute(handler);
+                    } else {
+                        new Thread(handler).start();
+                    }
                 }
             } catch(IOException e) {
                 printDisplay("서버 종료됨");
             }
-        });
+        };
+
+        if (serverMode == ServerMode.VIRTUAL_THREAD) {
+            acceptThread = Thread.ofVirtual().name("accept").unstarted(acceptLoop);
+        } else {
+            acceptThread = new Thread(acceptLoop, "accept");
+        }
         acceptThread.start();
     }
 
+    // 블로킹 모드: 송신 스레드가 소켓 기록에서 막히면 더 보낼 메시지가 없는 한 offer가 불리지 않으므로
+    // 주기적으로 혼잡 시간이 지난 연결을 찾아 종료 (서버 소켓이 닫히면 중단)
+    private void scheduleSlowClientSweep(ServerSocket listening) {
+        turnTimer.schedule(SLOW_CLIENT_SWEEP_MS, () -> senderExecutor.execute(() -> {
+            if (listening.isClosed()) {
+                return;
+            }
+            for (ClientHandler client : clients.values()) {
+                client.evictIfOverdue();
+            }
+            scheduleSlowClientSweep(listening);
+        }));
+    }
+
+    // NIO 서버 시작 (Selector + 고정 I/O 스레드 풀)
+    private void startNioServer() {
+        nioServer = new NioServer(port, NIO_IO_THREADS, this::newOutboundQueue, new NioServer.Handler() {
+            @Override
+            public void onOpen(NioServer.Connection connection) {
+                // 최대 접속자 수 체크
+                if (clients.size() >= maxClients) {
+                    printDisplay("최대 접속자 수 초과. 연결 거부: " + connection.getRemoteAddress());
+                    connection.send(Message.createErrorMessage(Message.ErrorCode.SERVER_FULL));
+                    connection.close();
+                    return;
+                }
+                connection.setAttachment(new ClientHandler(connection));
+            }
+
+            @Override
+            public void onMessage(NioServer.Connection connection, Message msg) {
+                ClientHandler handler = (ClientHandler) connection.getAttachment();
+                if (handler != null) {
+                    handler.onMessage(msg);
+                }
+            }
+
+            @Override
+            public void onClose(NioServer.Connection connection) {
+                ClientHandler handler = (ClientHandler) connection.getAttachment();
+                if (handler != null) {
+                    handler.close();
+                }
+            }
+        }, this::printDisplay);
+
+        try {
+            nioServer.start();
+            printDisplay("서버 시작 (포트: " + port + ", " + serverMode + ", I/O 스레드 " + NIO_IO_THREADS + "개)");
+            SwingUtilities.invokeLater(() -> {
+                b_start.setEnabled(false);
+                b_stop.setEnabled(true);
+                cb_mode.setEnabled(false);
+            });
+        } catch (IOException e) {
+            nioServer = null;
+            printDisplay("서버 시작 실패: " + e.getMessage());
+        }
+    }
+
     // 서버 중지
     private void stopServer() {
         try {
             // 모든 클라이언트 연결 종료
-            for (ClientHandler client : clients) {
+            for (ClientHandler client : clients.values()) {
                 client.close();
             }
             clients.clear();
@@ -146,19 +416,77 @@ public class BaseballServerGUI extends JFrame {
             if (serverSocket != null && !serverSocket.isClosed()) {
                 serverSocket.close();
             }
+            if (clientExecutor != null) {
+                clientExecutor.shutdown();
+                clientExecutor = null;
+            }
+            if (nioServer != null) {
+                nioServer.stop();
+                nioServer = null;
+            }
+
+            // 대기 중인 게임 기록 및 전적 모두 반영
+            gameJournal.flush();
+            statsService.snapshot();
+            printDisplay(gameJournal.getMetricsSummary());
 
             printDisplay("서버 중지");
             SwingUtilities.invokeLater(() -> {
                 b_stop.setEnabled(false);
                 b_start.setEnabled(true);
+                cb_mode.setEnabled(true);
             });
         } catch (IOException e) {
             printDisplay("서버 종료 오류: " + e.getMessage());
         }
     }
 
+    // 서버 상태 지표 출력
+    private void printStatus() {
+        printDisplay("접속자 " + clients.size() + "명"
+                + (nioServer != null ? ", 연결 " + nioServer.getConnectionCount() + "개" : "")
+                + ", 방 " + roomRegistry.size() + "/" + roomRegistry.getCapacity() + "개"
+                + ", 로비 구독 " + lobbyFeed.getSubscriberCount() + "명"
+                + ", 봇 " + activeBots.get() + "명");
+        printDisplay(gameJournal.getMetricsSummary());
+        printDisplay("턴 타이머 대기 " + turnTimer.getPendingCount() + "개, 시간 초과 " + turnTimer.getExpiredCount() + "회");
+        printDisplay(matchmaking.getWaitTimeSummary());
+
+        // 송신 대기열: 합계, 가장 밀린 연결, 혼잡으로 버린 메시지, 느린 연결 종료
+        long queuedBytes = 0;
+        long dropped = 0;
+        int pressured = 0;
+        ClientHandler deepest = null;
+        for (ClientHandler client : clients.values()) {
+            OutboundQueue q = client.getOutbound();
+            if (q == null) continue;
+            queuedBytes += q.getQueuedBytes();
+            dropped += q.getDroppedCount();
+            if (q.isPressured()) pressured++;
+            if (deepest == null || q.getQueuedBytes() > deepest.getOutbound().getQueuedBytes()) {
+                deepest = client;
+            }
+        }
+        long evicted = evictedClients.get() + (nioServer != null ? nioServer.getEvictedCount() : 0);
+        printDisplay("송신 대기 " + (queuedBytes / 1024) + "KB, 혼잡 연결 " + pressured + "개, 버린 메시지 "
+                + dropped + "개, 느린 연결 종료 " + evicted + "개");
+        if (deepest != null && deepest.getOutbound().getQueuedFrames() > 0) {
+            OutboundQueue q = deepest.getOutbound();
+            printDisplay("가장 밀린 연결: " + deepest.userId + " (" + q.getQueuedFrames() + "개, "
+                    + (q.getQueuedBytes() / 1024) + "KB)");
+        }
+    }
+
+    private OutboundQueue newOutboundQueue() {
+        return new OutboundQueue(OUTBOUND_LOW_WATERMARK, OUTBOUND_HIGH_WATERMARK, OUTBOUND_LIMIT, SLOW_CLIENT_TIMEOUT_MS);
+    }
+
     // 로그 출력
     private void printDisplay(String msg) {
+        if (headless) {
+            System.out.println(msg);
+            return;
+        }
         SwingUtilities.invokeLater(() -> {
             t_display.append(msg + "\n");
             t_display.setCaretPosition(t_display.getDocument().getLength());
@@ -167,208 +495,371 @@ public class BaseballServerGUI extends JFrame {
 
     // --- 인증 관련 메서드 ---
 
-    // 회원가입
-    private boolean registerUser(String userId, String password, String character) {
-        if (isUserExists(userId)) {
-            return false;
-        }
-
-        // users.csv에 저장
-        try {
-            FileWriter fw = new FileWriter(USERS_FILE, true);
-            fw.write(userId + "," + password + "," + character + "\n");
-            fw.close();
+    // 회원가입 (디스크 반영이 끝나면 결과가 완료됨)
+    private CompletableFuture<Boolean> registerUser(String userId, String password, String character) {
+        return userRepository.register(userId, password, character).thenApply(success -> {
+            if (success) {
+                // 전적 초기화 (파일에는 다음 스냅샷 때 반영)
+                statsService.ensureUser(userId);
+            }
+            return success;
+        });
+    }
 
-            // 전적 초기화
-            FileWriter statsFw = new FileWriter(STATS_FILE, true);
-            statsFw.write(userId + ",0,0,0,0.0\n");
-            statsFw.close();
+    // 로그인 인증
+    private boolean authenticateUser(String userId, String password) {
+        return userRepository.authenticate(userId, password);
+    }
 
-            return true;
-        } catch(IOException e) {
-            printDisplay("회원가입 저장 실패: " + e.getMessage());
-            return false;
-        }
+    // 중복 로그인 체크
+    private boolean isAlreadyLoggedIn(String userId) {
+        return clients.containsKey(userId);
     }
 
-    // ID 중복 확인
-    private boolean isUserExists(String userId) {
-        try {
-            File file = new File(USERS_FILE);
-            if (!file.exists()) {
-                return false;
-        }
+    // --- 랭킹 관련 메서드 ---
 
-            BufferedReader br = new BufferedReader(new FileReader(USERS_FILE));
-            br.readLine();
-            String line;
-            while ((line = br.readLine()) != null) {
-                String[] parts = line.split(",");
-                if (parts.length > 0 && parts[0].trim().equals(userId)) {
-                    return true;
-                }
-            }
-        } catch (IOException e) {
-            printDisplay("파일 읽기 오류: " + e.getMessage());
+    // 랭킹 갱신 (한 판 이상 플레이한 유저만 랭킹에 포함)
+    private void updateRanking(String userId, StatsService.Stats stats) {
+        if (stats.getTotal() > 0) {
+            leaderboard.update(userId, ratingService.getRating(userId), stats);
         }
-        return false;
     }
 
-    // 로그인 인증
-    private boolean authenticateUser(String userId, String password) {
-        try {
-            File file = new File(USERS_FILE);
-            if (!file.exists()) {
-                return false;
-            }
-
-            BufferedReader br = new BufferedReader(new FileReader(USERS_FILE));
-            br.readLine();
-            String line;
-            while ((line = br.readLine()) != null) {
-                String[] parts = line.split(",");
-                if (parts.length >= 2 && parts[0].trim().equals(userId) && parts[1].trim().equals(password)) {
-                    return true;
-                }
+    // 매칭 성공: 방을 만들고 방 액터에서 입장 및 게임 시작
+    private void onMatch(Message.GameMode gameMode, Message.Difficulty difficulty, Message.TurnTimeLimit turnTimeLimit,
+                         java.util.List<ClientHandler> matched) {
+        GameRoom room = createRoom("빠른 대전", matched.get(0).userId, gameMode, difficulty, turnTimeLimit, false, null);
+        if (room == null) {
+            for (ClientHandler player : matched) {
+                player.sendMessage(Message.createErrorMessage(Message.ErrorCode.SERVER_FULL,
+                        "방을 만들 수 없어 매칭이 취소되었습니다."));
             }
-        } catch (IOException e) {
-            printDisplay("인증 오류: " + e.getMessage());
+            return;
         }
-        return false;
+        room.post(() -> room.startMatch(matched));
     }
 
-    // 중복 로그인 체크
-    private boolean isAlreadyLoggedIn(String userId) {
-        for(ClientHandler client : clients) {
-            if(client.userId != null && client.userId.equals(userId)){
-                return true;
+    // 게임 기록 전체로 레이팅을 다시 계산하고 랭킹 갱신 (백그라운드)
+    private void recomputeRatings() {
+        b_recomputeRatings.setEnabled(false);
+        Thread t = new Thread(() -> {
+            try {
+                ratingService.recompute(HISTORY_FILE);
+                statsService.forEach(this::updateRanking);
+            } finally {
+                SwingUtilities.invokeLater(() -> b_recomputeRatings.setEnabled(true));
             }
-        }
-        return false;
+        }, "rating-recompute");
+        t.setDaemon(true);
+        t.start();
     }
 
-    // --- 방 관련 메서드 ---
+    // --- 봇 관련 메서드 ---
 
-    // 방 생성
-    private GameRoom createRoom(String roomName, String masterUserId,
-                                Message.GameMode gameMode, Message.Difficulty difficulty,
-                                Message.TurnTimeLimit turnTimeLimit, boolean isPrivate, String roomPassword) {
+    // 봇 생성 (소켓 없는 ClientHandler, 로그인 없이 바로 사용)
+    private ClientHandler newBot(BotPlayer.Level level, boolean leaveAfterGame) {
+        BotPlayer bot = new BotPlayer("BOT-" + botSeq.incrementAndGet(), level, leaveAfterGame,
+                botScheduler, botThinkExecutor, this::printDisplay);
+        activeBots.incrementAndGet();
+        return new ClientHandler(bot);
+    }
 
-        if (rooms.size() >= 5) {
-            return null; // 최대 5개 제한
+    // 봇끼리 1v1 게임을 여러 판 동시에 진행 (부하 발생용, 봇은 한 판 후 퇴장)
+    private void startBotGames() {
+        String input = JOptionPane.showInputDialog(frame, "동시에 진행할 봇 게임 수", "100");
+        if (input == null) return;
+        int count;
+        try {
+            count = Integer.parseInt(input.trim());
+        } catch (NumberFormatException e) {
+            return;
         }
 
-        GameRoom room = new GameRoom(nextRoomId ++, roomName, masterUserId,
-                gameMode, difficulty, turnTimeLimit, isPrivate, roomPassword);
-        rooms.add(room);
-        printDisplay("방 생성: [" + room.roomId + "] " + roomName);
-        return room;
-    }
-
-    // 방 찾기
-    private GameRoom findRoom(int roomId) {
-        for(GameRoom room : rooms) {
-            if (room.roomId == roomId) {
-                return room;
+        // 부하 테스트는 기본 난이도만 (큰 자릿수는 봇마다 수백만 후보를 걸러야 함)
+        Message.Difficulty[] difficulties = {Message.Difficulty.EASY, Message.Difficulty.MEDIUM, Message.Difficulty.HARD};
+        int started = 0;
+        for (int i = 0; i < count; i++) {
+            ClientHandler first = newBot(BotPlayer.Level.NORMAL, true);
+            ClientHandler second = newBot(BotPlayer.Level.NORMAL, true);
+            GameRoom room = createRoom("봇 대전", first.userId, Message.GameMode.ONE_VS_ONE,
+                    difficulties[i % difficulties.length], Message.TurnTimeLimit.THIRTY, false, null);
+            if (room == null) {
+                first.close();
+                second.close();
+                break;
             }
+            room.post(() -> room.startMatch(java.util.List.of(first, second)));
+            started++;
         }
-        return null;
+        printDisplay("봇 대전 " + started + "판 시작");
     }
 
-    // 방 삭제
-    private void removeRoom(GameRoom room) {
-        rooms.remove(room);
-        printDisplay("방 삭제: [" + room.roomId + "]");
+    // 봇 여러 명으로 배틀로얄 한 판 진행 (라운드마다 봇의 추측 → 결과 수신 지연을 로그로 출력, 봇은 한 판 후 퇴장)
+    private void startRoyaleLoadTest() {
+        String input = JOptionPane.showInputDialog(frame, "배틀로얄 참가 봇 수", "500");
+        if (input == null) return;
+        try {
+            startRoyaleLoad(Integer.parseInt(input.trim()));
+        } catch (NumberFormatException e) {
+            // 무시
+        }
     }
 
-    // --- 게임 로직 ---
-    // 정답 생성 (1 ~ 9 중 중복 없이)
-    private String generateAnswer(int digitCount) {
-        Vector<Integer> numbers = new Vector<>();
-        for(int i = 1; i <= 9; i++) {
-            numbers.add(i);
+    // 화면 없이 실행할 때: 배틀로얄 한 판을 시작하고 봇이 모두 나가 방이 정리될 때까지 대기
+    private void runRoyaleLoadTest(int count) throws InterruptedException {
+        long errorsBefore = roomErrors.get();
+        long start = System.nanoTime();
+        if (startRoyaleLoad(count) == null) {
+            return;
         }
+        long deadline = System.currentTimeMillis() + STRESS_SETTLE_TIMEOUT_MS + BattleRoyale.MAX_ROUNDS
+                * (Message.TurnTimeLimit.FIFTEEN.getSeconds() * 1000L + TURN_TIMEOUT_GRACE_MS);
+        while (roomRegistry.size() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(100);
+        }
+        printDisplay(String.format("배틀로얄 부하 테스트 완료: %.1f초, 방 처리 오류 %d개, 남은 방 %d개 / 봇 %d명",
+                (System.nanoTime() - start) / 1e9, roomErrors.get() - errorsBefore, roomRegistry.size(), activeBots.get()));
+    }
 
-        java.util.Collections.shuffle(numbers); // 자바 Collection의 shuffle 사용
+    // 봇 count명(정원까지)으로 배틀로얄 방을 만들고 시작 (방을 만들지 못하면 null)
+    private GameRoom startRoyaleLoad(int requested) {
+        int count = Math.min(requested, Message.GameMode.BATTLE_ROYALE.getMaxPlayers());
+        if (count < Message.GameMode.BATTLE_ROYALE.getMinPlayers()) return null;
+
+        LatencyHistogram latency = new LatencyHistogram();
+        java.util.List<ClientHandler> bots = new java.util.ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ClientHandler bot = newBot(BotPlayer.Level.NORMAL, true);
+            bot.bot.setLatencyProbe(latency);
+            bots.add(bot);
+        }
+        GameRoom room = createRoom("배틀로얄 부하 테스트", bots.get(0).userId, Message.GameMode.BATTLE_ROYALE,
+                Message.Difficulty.HARD, Message.TurnTimeLimit.FIFTEEN, false, null);
+        if (room == null) {
+            bots.forEach(ClientHandler::close);
+            return null;
+        }
+        room.latencyProbe = latency;
+        room.post(() -> room.startMatch(bots));
+        printDisplay("배틀로얄 부하 테스트 시작 (봇 " + count + "명)");
+        return room;
+    }
 
-        // 필요한 자릿수만큼 추출
-        String answer = "";
-        for (int i = 0; i < digitCount; i++) {
-            answer += numbers.get(i);
+    // 방 여러 개에 추측/퇴장/재입장/접속 끊김을 여러 스레드에서 동시에 보내는 스트레스 테스트 (백그라운드)
+    // 방마다 봇 1v1 게임 하나와, 입장 요청 직후 끊기는 플레이어를 받는 대기방 하나를 만든다.
+    // 끝나면 처리 시간, 방 처리 오류, 끊긴 플레이어가 남은 방, 정리 후 남은 방/봇을 출력 (정상이면 뒤의 넷은 0)
+    private void startRoomStressTest() {
+        String input = JOptionPane.showInputDialog(frame, "스트레스 테스트 방 수", "2000");
+        if (input == null) return;
+        int roomCount;
+        try {
+            roomCount = Integer.parseInt(input.trim());
+        } catch (NumberFormatException e) {
+            return;
         }
-        return answer;
+        b_roomStressTest.setEnabled(false);
+        Thread t = new Thread(() -> {
+            try {
+                runRoomStressTest(roomCount);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                SwingUtilities.invokeLater(() -> b_roomStressTest.setEnabled(true));
+            }
+        }, "room-stress");
+        t.setDaemon(true);
+        t.start();
     }
 
-    // 스트라이크, 볼 계산
-    private int[] calculateResult(String target, String guess) {
-        int strike = 0;
-        int ball = 0;
+    private void runRoomStressTest(int roomCount) throws InterruptedException {
+        long errorsBefore = roomErrors.get();
+        java.util.List<ClientHandler> players = new java.util.ArrayList<>();      // 게임방 봇 (방마다 둘)
+        java.util.List<Integer> roomIds = new java.util.ArrayList<>();
+        java.util.List<ClientHandler> waiting = new java.util.ArrayList<>();      // 대기방 방장
+        java.util.List<ClientHandler> lateJoiners = new java.util.ArrayList<>();  // 대기방에 입장 요청 후 바로 끊김
+        java.util.List<Integer> waitingRoomIds = new java.util.ArrayList<>();
+        for (int i = 0; i < roomCount; i++) {
+            ClientHandler first = newBot(BotPlayer.Level.EASY, true);
+            ClientHandler second = newBot(BotPlayer.Level.EASY, true);
+            ClientHandler master = newBot(BotPlayer.Level.EASY, true);
+            GameRoom room = createRoom("스트레스", first.userId, Message.GameMode.ONE_VS_ONE,
+                    Message.Difficulty.EASY, Message.TurnTimeLimit.FIFTEEN, false, null);
+            GameRoom waitingRoom = (room != null) ? createRoom("스트레스 대기", master.userId, Message.GameMode.ONE_VS_ONE,
+                    Message.Difficulty.EASY, Message.TurnTimeLimit.FIFTEEN, false, null) : null;
+            if (waitingRoom == null) {
+                if (room != null) removeRoom(room);
+                first.close();
+                second.close();
+                master.close();
+                break;
+            }
+            room.post(() -> room.startMatch(java.util.List.of(first, second)));
+            waitingRoom.post(() -> waitingRoom.join(master, null, Message.MessageType.CREATE_ROOM_RESPONSE, "방 생성 성공"));
+            players.add(first);
+            players.add(second);
+            roomIds.add(room.roomId);
+            waiting.add(master);
+            lateJoiners.add(newBot(BotPlayer.Level.EASY, true));
+            waitingRoomIds.add(waitingRoom.roomId);
+        }
+        printDisplay("방 스트레스 테스트: 게임방 " + roomIds.size() + "개 + 대기방 " + waitingRoomIds.size()
+                + "개, 요청 스레드 " + STRESS_THREADS + "개");
+
+        // 플레이어를 스레드에 나눠 맡김 (한 플레이어의 요청은 한 스레드에서만, 같은 방의 둘은 서로 다른 스레드)
+        AnswerSpace space = AnswerSpace.forDifficulty(Message.Difficulty.EASY);
+        AtomicLong ops = new AtomicLong();
+        ExecutorService workers = Executors.newFixedThreadPool(STRESS_THREADS);
+        long start = System.nanoTime();
+        for (int w = 0; w < STRESS_THREADS; w++) {
+            int worker = w;
+            workers.execute(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int round = 0; round < STRESS_OPS_PER_PLAYER; round++) {
+                    for (int k = worker; k < players.size(); k += STRESS_THREADS) {
+                        ClientHandler p = players.get(k);
+                        if (p.closed.get()) continue;
+                        int roll = random.nextInt(100);
+                        if (roll < 70) {
+                            Message guess = new Message(Message.MessageType.GUESS, p.userId);
+                            guess.setGuess(ScoringKernel.unpack(space.candidateAt(random.nextInt(space.size()))));
+                            p.onMessage(guess);
+                        } else if (roll < 80) {
+                            p.onMessage(new Message(Message.MessageType.LEAVE_ROOM, p.userId));
+                        } else if (roll < 90) {
+                            Message join = new Message(Message.MessageType.JOIN_ROOM_REQUEST, p.userId);
+                            join.setRoomId(roomIds.get(k / 2));
+                            p.onMessage(join);
+                        } else if (roll < 97) {
+                            p.onMessage(new Message(Message.MessageType.READY, p.userId));
+                        } else {
+                            p.close();
+                        }
+                        ops.incrementAndGet();
+                    }
+                }
+                // 입장 요청이 방 메일박스에 있는 동안 끊김 (자리를 차지하면 안 됨)
+                for (int k = worker; k < lateJoiners.size(); k += STRESS_THREADS) {
+                    ClientHandler late = lateJoiners.get(k);
+                    Message join = new Message(Message.MessageType.JOIN_ROOM_REQUEST, late.userId);
+                    join.setRoomId(waitingRoomIds.get(k));
+                    late.onMessage(join);
+                    late.close();
+                    ops.addAndGet(2);
+                }
+            });
+        }
+        workers.shutdown();
+        workers.awaitTermination(STRESS_SETTLE_TIMEOUT_MS, java.util.concurrent.TimeUnit.MILLISECONDS);
+        awaitRoomMailboxes();
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        // 끊긴 플레이어가 자리를 차지하고 있는 방 (봇이 늦게 보낸 요청 뒤에 퇴장 처리가 남아 있으면 처리될 때까지 다시 셈)
+        int stale = countStaleRooms();
+        long staleDeadline = System.currentTimeMillis() + STRESS_SETTLE_TIMEOUT_MS;
+        while (stale > 0 && System.currentTimeMillis() < staleDeadline) {
+            Thread.sleep(100);
+            awaitRoomMailboxes();
+            stale = countStaleRooms();
+        }
 
-        for(int i = 0; i < target.length(); i++) {
-            char targetChar = target.charAt(i);
-            char guessChar = guess.charAt(i);
+        // 모두 끊고 방/봇이 전부 정리되는지
+        players.forEach(ClientHandler::close);
+        waiting.forEach(ClientHandler::close);
+        long deadline = System.currentTimeMillis() + STRESS_SETTLE_TIMEOUT_MS;
+        while (roomRegistry.size() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(100);
+        }
+        printDisplay(String.format("방 스트레스 테스트 완료: 요청 %d개 %.2f초, 방 처리 오류 %d개, 끊긴 플레이어가 남은 방 %d개, "
+                + "정리 후 남은 방 %d개 / 봇 %d명", ops.get(), seconds, roomErrors.get() - errorsBefore, stale,
+                roomRegistry.size(), activeBots.get()));
+    }
 
-            if(targetChar == guessChar) {
-                strike++;
-            } else if(target.indexOf(guessChar) >= 0) {
-                ball++;
+    private int countStaleRooms() {
+        int stale = 0;
+        for (GameRoom room : roomRegistry.getAll()) {
+            if (room.players.stream().anyMatch(p -> p.closed.get())) {
+                stale++;
             }
         }
-        return new int[]{strike, ball};
+        return stale;
     }
 
-    // 입력 검증
-    private boolean isValidGuess(String guess, int digitCount) {
-        // 길이 체크
-        if(guess == null || guess.length() != digitCount) {
-            return false;
+    // 모든 방의 메일박스가 빌 때까지 대기 (제한 시간까지)
+    private void awaitRoomMailboxes() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + STRESS_SETTLE_TIMEOUT_MS;
+        while (System.currentTimeMillis() < deadline
+                && roomRegistry.getAll().stream().anyMatch(room -> room.getMailboxSize() > 0)) {
+            Thread.sleep(50);
         }
+    }
 
-        // 숫자인지 체크 & 중복 체크
-        boolean[] used = new boolean[10];
-        for (int i = 0; i < guess.length(); i++) {
-            char c = guess.charAt(i);
+    // --- 방 관련 메서드 ---
 
-            // 슷자가 아니거나 0이면 false
-            if (c < '1' || c > '9') {
-                return false;
-            }
+    // 방 생성
+    private GameRoom createRoom(String roomName, String masterUserId,
+                                Message.GameMode gameMode, Message.Difficulty difficulty,
+                                Message.TurnTimeLimit turnTimeLimit, boolean isPrivate, String roomPassword) {
 
-            // 중복 체크
-            int digit = c - '0';
-            if (used[digit]) {
-                return false;
-            }
-            used[digit] = true;
+        // 정원 초과면 null
+        GameRoom room = roomRegistry.create(roomId -> new GameRoom(roomId, roomName, masterUserId,
+                gameMode, difficulty, turnTimeLimit, isPrivate, roomPassword));
+        if (room != null) {
+            printDisplay("방 생성: [" + room.roomId + "] " + roomName);
+        }
+        return room;
+    }
+
+    // 방 찾기
+    private GameRoom findRoom(int roomId) {
+        return roomRegistry.get(roomId);
+    }
+
+    // 방 삭제
+    private void removeRoom(GameRoom room) {
+        if (roomRegistry.remove(room.roomId)) {
+            printDisplay("방 삭제: [" + room.roomId + "]");
         }
-        return true;
     }
 
     // --- 내부 클래스: GameRoom ---
-    class GameRoom {
+    // 방 상태는 방 액터의 메일박스 처리 중에만 변경된다 (외부에서는 post로 요청).
+    // 로비에서 읽는 players / isGameRunning / roomMaster만 다른 스레드에서 읽을 수 있게 유지
+    class GameRoom extends Actor implements GameEngine.Listener {
         int roomId; // 방 번호
         String roomName; // 방 이름
-        String roomMaster; // 방장 ID
+        volatile String roomMaster; // 방장 ID
         Message.GameMode gameMode; // 게임 모드
         Message.Difficulty difficulty; // 난이도
         Message.TurnTimeLimit turnTimeLimit; // 턴 제한 시간
         boolean isPrivate; // 비공개 방 여부
         String roomPassword; // 방 비밀번호
 
-        Vector<ClientHandler> players = new Vector<>();
-        Hashtable<String, Boolean> readyStatus = new Hashtable<>();
+        CopyOnWriteArrayList<ClientHandler> players = new CopyOnWriteArrayList<>();
+        HashMap<String, Boolean> readyStatus = new HashMap<>();
+        boolean isClosed = false; // 방 삭제됨 (이후 들어온 요청은 거절)
 
         // 게임 진행 상태
-        boolean isGameRunning = false;
-        Hashtable<String, String> playerAnswers = new Hashtable<>();
-        Hashtable<String, Integer> playerTeams = new Hashtable<>(); // 플레이어 -> 팀번호
-        int currentRound = 1;
-        boolean isTopHalf = true; // true: 초공, false: 말공
+        volatile boolean isGameRunning = false;
+        HashMap<String, AnswerSpace.CandidateSet> candidateSets = new HashMap<>(); // 힌트용 남은 후보 (플레이어/팀별)
+        HashSet<String> hintsInFlight = new HashSet<>(); // 힌트 탐색이 진행 중인 플레이어 (한 명당 하나만)
+        HashMap<String, Integer> playerTeams = new HashMap<>(); // 플레이어 -> 팀번호
+        GameEngine engine; // 게임 규칙 (게임마다 새로 만듦, 방 액터에서만 호출)
         String gameId; // 게임 기록용 ID
 
+        // 턴 제한 시간: 턴마다 번호를 올려서 지난 턴의 시간 초과는 무시
+        int turnSeq = 0;
+        TurnTimerWheel.Timeout turnTimeout;
+
+        // 배틀로얄: 추측은 받은 스레드에서 바로 처리하고, 라운드/순위표/기록 저장만 방 액터에서
+        volatile BattleRoyale royale;
+        final ConcurrentLinkedQueue<Message> royaleResults = new ConcurrentLinkedQueue<>(); // 기록 대기 중인 추측 결과
+        TurnTimerWheel.Timeout leaderboardTimeout;
+        volatile LatencyHistogram latencyProbe; // 부하 테스트에서만 (라운드마다 봇 응답 지연 출력)
+
         public GameRoom(int roomId, String roomName, String roomMaster,
                         Message.GameMode gameMode, Message.Difficulty difficulty,
                         Message.TurnTimeLimit turnTimeLimit, boolean isPrivate, String roomPassword) {
+            super(roomExecutor);
             this.roomId = roomId;
             this.roomName = roomName;
             this.roomMaster = roomMaster;
@@ -380,7 +871,7 @@ public class BaseballServerGUI extends JFrame {
         }
 
         // 클라이언트가 기대하는 상세 방 정보
-        public Message createRoomUpdateMessage(String content) {
+        private Message createRoomUpdateMessage(String content) {
             Message msg = new Message(Message.MessageType.ROOM_INFO_UPDATE, "SERVER", content);
 
             msg.setRoomId(roomId);
@@ -405,8 +896,188 @@ public class BaseballServerGUI extends JFrame {
             return msg;
         }
 
+        @Override
+        protected void onError(RuntimeException e) {
+            roomErrors.incrementAndGet();
+            printDisplay("방 [" + roomId + "] 처리 오류: " + e);
+        }
+
+        // ===== 메일박스에서 처리되는 요청 =====
+
+        // 입장 요청 (방 생성자도 같은 경로로 입장)
+        void join(ClientHandler player, String password, Message.MessageType responseType, String responseText) {
+            Message.ErrorCode error = null;
+            if (isClosed) {
+                error = Message.ErrorCode.ROOM_NOT_FOUND;
+            } else if (isGameRunning) {
+                error = Message.ErrorCode.ROOM_IN_GAME;
+            } else if (players.size() >= gameMode.getMaxPlayers()) {
+                error = Message.ErrorCode.ROOM_FULL;
+            } else if (isPrivate && (password == null || !password.equals(roomPassword))) {
+                error = Message.ErrorCode.WRONG_PASSWORD;
+            }
+
+            // 연결이 끊긴 뒤 처리되는 입장은 거절 (close가 방을 못 보고 지나갔으면 자리만 차지하게 됨)
+            boolean entered = (error == null) && !player.closed.get() && player.enterRoom(this);
+            if (entered && player.closed.get()) {
+                // 입장 표시와 close가 엇갈림 → 되돌림 (close가 방을 봤다면 disconnect가 뒤따르지만 처리할 것이 없음)
+                player.exitRoom(this);
+                entered = false;
+            }
+            if (!entered) {
+                if (!player.closed.get()) {
+                    player.sendMessage(error != null ? Message.createErrorMessage(error)
+                            : Message.createErrorMessage(Message.ErrorCode.UNKNOWN_ERROR, "이미 다른 방에 있습니다."));
+                }
+                if (players.isEmpty() && !isClosed) {
+                    close(); // 만들자마자 입장 실패한 방
+                }
+                return;
+            }
+
+            addPlayer(player);
+            Message response = createRoomUpdateMessage(responseText);
+            response.setType(responseType);
+            response.setSuccess(true);
+            player.sendMessage(response);
+        }
+
+        // 빠른 시작으로 매칭된 인원 입장 후 모두 준비 상태로 바로 게임 시작
+        void startMatch(java.util.List<ClientHandler> matched) {
+            for (ClientHandler player : matched) {
+                if (!player.closed.get()) {
+                    join(player, roomPassword, Message.MessageType.MATCH_FOUND, "매칭 성공");
+                }
+            }
+            if (players.isEmpty() && !isClosed) {
+                close(); // 매칭된 인원이 모두 그 사이 끊김
+            }
+            if (isClosed) {
+                return;
+            }
+            for (ClientHandler player : players) {
+                setReady(player.userId, true);
+            }
+            if (canStartGame()) {
+                startGame();
+            }
+        }
+
+        // 봇 추가 요청 (방장만, 대기 중일 때만) - 봇은 바로 준비 상태
+        void addBot(ClientHandler master, ClientHandler bot) {
+            if (!players.contains(master) || !master.userId.equals(roomMaster)) {
+                master.sendMessage(Message.createErrorMessage(Message.ErrorCode.NOT_ROOM_MASTER));
+                bot.close();
+                return;
+            }
+            join(bot, roomPassword, Message.MessageType.JOIN_ROOM_RESPONSE, "봇 입장");
+            if (players.contains(bot)) {
+                setReady(bot.userId, true);
+            } else {
+                bot.close();
+            }
+        }
+
+        // 나가기 요청
+        void leave(ClientHandler player) {
+            if (!players.contains(player)) {
+                return;
+            }
+            removePlayer(player);
+            player.sendMessage(new Message(Message.MessageType.LEAVE_ROOM, "SERVER", "방에서 나갔습니다."));
+        }
+
+        // 준비 / 준비 취소 요청
+        void ready(ClientHandler player, boolean ready) {
+            if (!isGameRunning && players.contains(player)) {
+                setReady(player.userId, ready);
+            }
+        }
+
+        // 게임 시작 요청 (방장만)
+        void requestStart(ClientHandler player) {
+            if (!players.contains(player) || isGameRunning) {
+                return;
+            }
+            if (!player.userId.equals(roomMaster)) {
+                player.sendMessage(Message.createErrorMessage(Message.ErrorCode.NOT_ROOM_MASTER));
+                return;
+            }
+            if (!canStartGame()) {
+                player.sendMessage(Message.createErrorMessage(Message.ErrorCode.NOT_ENOUGH_PLAYERS,
+                        "모든 플레이어가 준비되지 않았거나 인원(" + gameMode.getMinPlayers() + "명)이 부족합니다."));
+                return;
+            }
+            startGame();
+        }
+
+        // 강제 퇴장 요청 (방장만)
+        void kick(ClientHandler master, String targetUserId) {
+            if (!master.userId.equals(roomMaster)) {
+                master.sendMessage(Message.createErrorMessage(Message.ErrorCode.NOT_ROOM_MASTER));
+                return;
+            }
+            if (targetUserId == null || targetUserId.equals(master.userId)) {
+                return;
+            }
+            for (ClientHandler p : players) {
+                if (p.userId.equals(targetUserId)) {
+                    // 강퇴 메시지 전송 후 방에서 제거
+                    p.sendMessage(new Message(Message.MessageType.ROOM_INFO_UPDATE, "SERVER",
+                            "방장에 의해 강제 퇴장되었습니다."));
+                    removePlayer(p);
+                    printDisplay(master.userId + "가 " + targetUserId + "를 강제 퇴장시킴");
+                    return;
+                }
+            }
+        }
+
+        // 팀 채팅 (같은 팀에게만)
+        void teamChat(ClientHandler sender, Message chatMsg) {
+            int myTeam = playerTeams.getOrDefault(sender.userId, 0);
+            if (myTeam == 0) return;
+            SharedFrame frame = new SharedFrame(chatMsg);
+            for (ClientHandler p : players) {
+                if (playerTeams.getOrDefault(p.userId, 0) == myTeam) {
+                    p.sendFrame(frame);
+                }
+            }
+        }
+
+        // 접속 끊김: 게임 중이면 몰수패 처리 후 퇴장 (removePlayer에서 기권 처리)
+        void disconnect(ClientHandler player) {
+            if (!players.contains(player)) {
+                return;
+            }
+            removePlayer(player);
+        }
+
+        // 방 삭제
+        private void close() {
+            isClosed = true;
+            BaseballServerGUI.this.removeRoom(this);
+        }
+
+        // ===== 내부 처리 (메일박스 안에서만 호출) =====
+
+        // 로비에 보여줄 방 요약 갱신 (인원/방장/상태가 바뀔 때마다)
+        private void publishSummary() {
+            Message.RoomStatus status = isGameRunning ? Message.RoomStatus.IN_GAME : Message.RoomStatus.WAITING;
+            Message roomInfo = new Message(Message.MessageType.ROOM_LIST_RESPONSE, roomMaster);
+            roomInfo.setRoomId(roomId);
+            roomInfo.setRoomName(roomName + (isPrivate ? " 비공개" : ""));
+            roomInfo.setRoomStatus(status);
+            roomInfo.setCurrentPlayers(players.size());
+            roomInfo.setMaxPlayers(gameMode.getMaxPlayers());
+            roomInfo.setGameMode(gameMode);
+            roomInfo.setDifficulty(difficulty);
+            roomInfo.setRoomMaster(roomMaster);
+            roomInfo.setPrivate(isPrivate);
+            roomRegistry.publish(roomId, status, gameMode, difficulty, roomInfo);
+        }
+
         // 플레이어 추가
-        public boolean addPlayer(ClientHandler player) {
+        private boolean addPlayer(ClientHandler player) {
             if (players.size() >= gameMode.getMaxPlayers()) {
                 return false;
             }
@@ -423,18 +1094,44 @@ public class BaseballServerGUI extends JFrame {
 
             Message updateMsg = createRoomUpdateMessage(player.userId + "님이 입장하셨습니다.");
             broadcastToRoom(updateMsg);
+            publishSummary();
             return true;
         }
 
         // 플레이어 제거
-        public void removePlayer(ClientHandler player) {
+        private void removePlayer(ClientHandler player) {
+            // 게임 중에 빠지면 기권 (1v1은 상대 승리, 2v2는 상대 팀 승리, 배틀로얄은 추측만 못 함)
+            if (isGameRunning && gameMode != Message.GameMode.BATTLE_ROYALE) {
+                engine.forfeit(player.userId);
+            }
+
             players.remove(player);
             readyStatus.remove(player.userId);
             playerTeams.remove(player.userId);
+            player.exitRoom(this);
+
+            // 사람이 모두 나갔으면 남은 봇도 내보냄
+            if (!player.isBot() && !players.isEmpty() && players.stream().allMatch(ClientHandler::isBot)) {
+                for (ClientHandler bot : players) {
+                    removePlayer(bot);
+                    bot.close();
+                }
+                return;
+            }
 
             // 방이 비었으면 삭제
             if (players.isEmpty()) {
-                BaseballServerGUI.this.removeRoom(this);
+                if (isGameRunning) {
+                    isGameRunning = false;
+                    if (gameMode == Message.GameMode.BATTLE_ROYALE) {
+                        royale.abort();
+                        cancelLeaderboard();
+                    } else {
+                        engine.abort();
+                    }
+                    cancelTurnTimeout();
+                }
+                close();
                 return;
             }
 
@@ -447,10 +1144,11 @@ public class BaseballServerGUI extends JFrame {
                 Message msg = createRoomUpdateMessage(player.userId + "님이 퇴장했습니다.");
                 broadcastToRoom(msg);
             }
+            publishSummary();
         }
 
         // 준비 상태 변경
-        public void setReady(String userId, boolean ready) {
+        private void setReady(String userId, boolean ready) {
             readyStatus.put(userId, ready);
             String msg = userId + "님이 " + (ready ? "준비완료" : "준비취소") + " 했습니다.";
 
@@ -460,9 +1158,9 @@ public class BaseballServerGUI extends JFrame {
         }
 
         // 게임 시작 가능한지 체크
-        public boolean canStartGame() {
-            //인원 체크
-            if (players.size() != gameMode.getMaxPlayers()) {
+        private boolean canStartGame() {
+            //인원 체크 (정원은 입장할 때 확인)
+            if (players.size() < gameMode.getMinPlayers()) {
                 return false;
             }
 
@@ -476,190 +1174,444 @@ public class BaseballServerGUI extends JFrame {
             return true;
         }
 
-        // 게임 시작
-        public void startGame() {
+        // 게임 시작 (규칙은 GameEngine이 처리하고, 방은 이벤트를 받아 메시지 전송/기록만 함)
+        private void startGame() {
+            if (gameMode == Message.GameMode.BATTLE_ROYALE) {
+                startRoyale();
+                return;
+            }
+            String[] ids = new String[players.size()];
+            int[] teams = new int[ids.length];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = players.get(i).userId;
+                teams[i] = playerTeams.getOrDefault(ids[i], 0);
+            }
+            engine = new GameEngine(gameMode, difficulty, this);
+            engine.start(ids, teams, ThreadLocalRandom.current());
+        }
+
+        @Override
+        public void onStart() {
             isGameRunning = true;
-            gameId = "G" + System.currentTimeMillis();
+            publishSummary();
+            gameId = "G" + System.currentTimeMillis() + "_" + roomId; // 같은 시각에 시작한 방끼리 겹치지 않도록
 
-            if (gameMode == Message.GameMode.ONE_VS_ONE){
-                // 1v1: 각 플레이어에게 정답 생성
-                for (ClientHandler player : players) {
-                    String answer = BaseballServerGUI.this.generateAnswer(difficulty.getDigitCount());
-                    playerAnswers.put(player.userId, answer);
+            for (ClientHandler player : players) {
+                String answer = ScoringKernel.unpack(engine.getAnswer(player.userId));
+                if (gameMode == Message.GameMode.TWO_VS_TWO) {
+                    BaseballServerGUI.this.printDisplay("게임 시작 - " + player.userId + " (Team "
+                            + playerTeams.get(player.userId) + ")의 정답: " + answer);
+                } else {
                     BaseballServerGUI.this.printDisplay("게임 시작 - " + player.userId + "의 정답: " + answer);
                 }
-            } else{
-                // 2v2: 각 팀에 하나의 정답 생성
-                String team1Answer = BaseballServerGUI.this.generateAnswer(difficulty.getDigitCount());
-                String team2Answer = BaseballServerGUI.this.generateAnswer(difficulty.getDigitCount());
-
-                for (ClientHandler player : players) {
-                    int teamNum = playerTeams.get(player.userId);
-                    String answer = (teamNum == 1) ? team1Answer : team2Answer;
-                    playerAnswers.put(player.userId, answer);
-                    BaseballServerGUI.this.printDisplay("게임 시작 - " + player.userId + " (Team " + teamNum + ")의 정답: " + answer);
-                }
             }
 
-            currentRound = 1;
-            isTopHalf = true;
+            // 힌트용 후보 집합 (1v1은 플레이어별, 2v2는 팀별)
+            AnswerSpace space = AnswerSpace.forDifficulty(difficulty);
+            candidateSets.clear();
+            for (ClientHandler player : players) {
+                candidateSets.putIfAbsent(hintKey(player.userId), space.newCandidateSet());
+            }
 
             // 게임 시작 알림
             Message startMsg = new Message(Message.MessageType.START_GAME, "SERVER");
             startMsg.setGameMode(gameMode);
             startMsg.setDifficulty(difficulty);
             startMsg.setTurnTimeLimit(turnTimeLimit);
+            startMsg.setGameId(gameId);
             startMsg.setContent("게임이 시작되었습니다!");
             broadcastToRoom(startMsg);
+        }
 
-            // 턴 정보 정송
-            sendTurnInfo();
+        // 턴 정보 전송
+        @Override
+        public void onTurn(int round, boolean top, String turnPlayerId) {
+            Message turnMsg = new Message(Message.MessageType.TURN_INFO, "SERVER");
+            turnMsg.setRound(round);
+            turnMsg.setTop(top);
+            turnMsg.setCurrentTurnPlayer(turnPlayerId);
+            turnMsg.setContent(round + "회 " + (top ? "초" : "말"));
+            if (gameMode == Message.GameMode.TWO_VS_TWO) {
+                // 2v2: 공격 팀원 모두가 이번 반 이닝에 한 번씩 추측
+                int team = engine.getAttackingTeam();
+                Vector<String> attackers = new Vector<>();
+                for (ClientHandler p : players) {
+                    if (playerTeams.getOrDefault(p.userId, 0) == team) {
+                        attackers.add(p.userId);
+                    }
+                }
+                turnMsg.setTeamNumber(team);
+                turnMsg.setData(attackers);
+                turnMsg.setContent(round + "회 " + (top ? "초" : "말") + " - Team " + team + " 공격");
+            }
+            broadcastToRoom(turnMsg);
 
+            // 이번 턴 제한 시간 예약
+            int seq = ++turnSeq;
+            turnTimeout = turnTimer.schedule(turnTimeLimit.getSeconds() * 1000L + TURN_TIMEOUT_GRACE_MS,
+                    () -> post(() -> onTurnTimeout(seq)));
         }
 
-        // 턴 정보 전송
-        public void sendTurnInfo() {
-            // 현재 턴 플레이어 결정
-            ClientHandler turnPlayer = null;
-            if(players.size() > 0) {
-                int playerIndex = ((currentRound - 1) * 2 + (isTopHalf ? 0 : 1)) % players.size();
-                turnPlayer = players.get(playerIndex);
+        // 턴 제한 시간 초과: 턴을 건너뜀
+        private void onTurnTimeout(int seq) {
+            if (!isGameRunning || seq != turnSeq) {
+                return; // 이미 추측했거나 게임이 끝남
+            }
+            engine.timeout();
+        }
+
+        @Override
+        public void onTimeout(int round, boolean top, String turnPlayerId) {
+            // 2v2는 공격 팀 단위
+            String who = (turnPlayerId != null) ? turnPlayerId : "Team" + engine.getAttackingTeam();
+            Message timeoutMsg = new Message(Message.MessageType.TURN_TIMEOUT, "SERVER");
+            timeoutMsg.setRound(round);
+            timeoutMsg.setTop(top);
+            timeoutMsg.setCurrentTurnPlayer(turnPlayerId);
+            timeoutMsg.setContent(who + (turnPlayerId != null ? "님" : "") + "의 시간이 초과되었습니다.");
+            broadcastToRoom(timeoutMsg);
+
+            saveGameDetail(gameId, round, who, "-", "TIMEOUT");
+        }
+
+        private void cancelTurnTimeout() {
+            if (turnTimeout != null) {
+                turnTimeout.cancel();
+                turnTimeout = null;
+            }
+        }
+
+        // 추측 처리
+        void handleGuess(ClientHandler player, String guess) {
+            if (!isGameRunning || !players.contains(player)) {
+                player.sendMessage(Message.createErrorMessage(Message.ErrorCode.UNKNOWN_ERROR,
+                        "현재 게임 중이 아니거나 방에 속해있지 않습니다."));
+                return;
             }
 
+            long packedGuess = (guess != null) ? ScoringKernel.pack(guess) : ScoringKernel.INVALID;
+            switch (engine.guess(player.userId, packedGuess)) {
+                case NOT_RUNNING:
+                    player.sendMessage(Message.createErrorMessage(Message.ErrorCode.UNKNOWN_ERROR,
+                            "현재 게임 중이 아니거나 방에 속해있지 않습니다."));
+                    break;
+                case NOT_YOUR_TURN:
+                    player.sendMessage(Message.createErrorMessage(Message.ErrorCode.TURN_TIMEOUT, // 에러 코드 재사용
+                            "당신의 턴이 아닙니다."));
+                    break;
+                case ALREADY_GUESSED:
+                    player.sendMessage(Message.createErrorMessage(Message.ErrorCode.UNKNOWN_ERROR,
+                            "이번 공격에서 이미 추측했습니다. 팀원의 추측을 기다리는 중입니다."));
+                    break;
+                case INVALID:
+                    player.sendMessage(Message.createErrorMessage(Message.ErrorCode.INVALID_INPUT_FORMAT));
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        // 유효한 추측의 결과 전송
+        @Override
+        public void onGuess(String playerId, long packedGuess, int score, int round) {
+            // 이번 턴의 시간 초과 취소
+            turnSeq++;
+            cancelTurnTimeout();
+
+            int strike = ScoringKernel.strikes(score);
+            int ball = ScoringKernel.balls(score);
+            String guess = ScoringKernel.unpack(packedGuess);
+            AnswerSpace.CandidateSet candidates = candidateSets.get(hintKey(playerId));
+            if (candidates != null) {
+                candidates.apply(packedGuess, score);
+            }
+
+            // 결과 전송 (1v1: 모두에게, 2v2는 onBatch에서 팀 단위로)
+            Message resultMsg = Message.createGuessResult(playerId, guess, strike, ball);
+            broadcastToRoom(resultMsg);
+
+            // 게임 상세 기록 저장
+            saveGameDetail(gameId, round, playerId, guess, strike + "S " + ball + "B");
+        }
+
+        // 2v2 반 이닝 묶음 결과: 팀원별 결과를 메시지 하나로 묶어 공격 팀에게만 전송
+        @Override
+        public void onBatch(int team, int round, String[] playerIds, long[] guesses, int[] scores, int count) {
+            // 이번 반 이닝의 시간 초과 취소
+            turnSeq++;
+            cancelTurnTimeout();
+
+            Vector<Message> results = new Vector<>(count);
+            StringBuilder summary = new StringBuilder("Team " + team + " 추측 결과:");
+            AnswerSpace.CandidateSet candidates = candidateSets.get("Team" + team);
+            for (int k = 0; k < count; k++) {
+                int strike = ScoringKernel.strikes(scores[k]);
+                int ball = ScoringKernel.balls(scores[k]);
+                String guess = ScoringKernel.unpack(guesses[k]);
+                if (candidates != null) {
+                    candidates.apply(guesses[k], scores[k]);
+                }
+                results.add(Message.createGuessResult(playerIds[k], guess, strike, ball));
+                summary.append(" ").append(playerIds[k]).append(" ").append(guess)
+                        .append(" → ").append(strike).append("S ").append(ball).append("B");
+                saveGameDetail(gameId, round, playerIds[k], guess, strike + "S " + ball + "B");
+            }
+
+            Message batchMsg = new Message(Message.MessageType.TEAM_GUESS_RESULT, "SERVER", summary.toString());
+            batchMsg.setRound(round);
+            batchMsg.setTeamNumber(team);
+            batchMsg.setData(results);
+            SharedFrame frame = new SharedFrame(batchMsg);
+            for (ClientHandler p : players) {
+                if (playerTeams.getOrDefault(p.userId, 0) == team) {
+                    p.sendFrame(frame);
+                }
+            }
+        }
+
+        // 힌트 요청: 남은 후보를 복사해서 방 밖(공용 풀)에서 추천 추측 계산
+        // 복사본에서 걸러낸 결과는 방 액터로 돌려보내 원본에 반영 (다음 힌트가 전체 공간을 다시 훑지 않도록)
+        void hint(ClientHandler player) {
+            if (!isGameRunning || !players.contains(player)) {
+                return;
+            }
+            AnswerSpace.CandidateSet candidates = candidateSets.get(hintKey(player.userId));
+            if (candidates == null) {
+                return;
+            }
+            // 이미 탐색 중이면 합침 (곧 나갈 응답이 이 요청의 응답, 연타해도 복사/탐색은 한 번)
+            if (!hintsInFlight.add(player.userId)) {
+                return;
+            }
+            AnswerSpace.CandidateSet snapshot = candidates.copy();
+            CompletableFuture.runAsync(() -> {
+                boolean searched = false;
+                try {
+                    long suggestion = snapshot.suggest(HINT_BUDGET_MS);
+                    searched = true;
+                    Message response = new Message(Message.MessageType.HINT_RESPONSE, "SERVER");
+                    Hashtable<String, String> data = new Hashtable<>();
+                    data.put("remaining", String.valueOf(snapshot.getRemaining()));
+                    if (suggestion != ScoringKernel.INVALID) {
+                        data.put("suggestion", ScoringKernel.unpack(suggestion));
+                    }
+                    response.setData(data);
+                    response.setContent("남은 후보 " + snapshot.getRemaining() + "개"
+                            + (suggestion != ScoringKernel.INVALID ? ", 추천: " + ScoringKernel.unpack(suggestion) : ""));
+                    player.sendMessage(response);
+                } finally {
+                    boolean adopt = searched; // 탐색 중 오류가 났으면 반영하지 않고 표시만 해제
+                    post(() -> {
+                        hintsInFlight.remove(player.userId);
+                        // 그 사이 새 게임이 시작됐으면 candidateSets의 집합이 바뀌어 있음
+                        if (adopt && candidateSets.get(hintKey(player.userId)) == candidates) {
+                            candidates.adopt(snapshot);
+                        }
+                    });
+                }
+            });
+        }
+
+        // 후보 집합 키 (2v2는 팀원끼리 같은 정답을 공유)
+        private String hintKey(String userId) {
+            if (gameMode == Message.GameMode.TWO_VS_TWO) {
+                return "Team" + playerTeams.getOrDefault(userId, 0);
+            }
+            return userId;
+        }
+
+        // ===== 배틀로얄 =====
+
+        // 배틀로얄 시작 (참가자 전원이 같은 정답, 라운드마다 한 번씩 동시에 추측)
+        private void startRoyale() {
+            String[] ids = new String[players.size()];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = players.get(i).userId;
+            }
+            BattleRoyale game = new BattleRoyale(difficulty, ids);
+            game.start(ThreadLocalRandom.current());
+
+            isGameRunning = true;
+            gameId = "G" + System.currentTimeMillis() + "_" + roomId;
+            royaleResults.clear();
+            royale = game; // 이후부터 추측 접수
+            publishSummary();
+            printDisplay("배틀로얄 시작 - " + ids.length + "명, 정답: " + ScoringKernel.unpack(game.getAnswer()));
+
+            Message startMsg = new Message(Message.MessageType.START_GAME, "SERVER");
+            startMsg.setGameMode(gameMode);
+            startMsg.setDifficulty(difficulty);
+            startMsg.setTurnTimeLimit(turnTimeLimit);
+            startMsg.setGameId(gameId);
+            startMsg.setContent("배틀로얄 시작! " + ids.length + "명이 같은 정답을 맞힙니다.");
+            broadcastToRoom(startMsg);
+
+            beginRoyaleRound(game);
+            scheduleLeaderboard(game);
+        }
 
+        // 라운드 시작 알림 (턴 플레이어 없이 모두 추측) 후 라운드 마감 예약
+        private void beginRoyaleRound(BattleRoyale game) {
+            int round = game.getRound();
             Message turnMsg = new Message(Message.MessageType.TURN_INFO, "SERVER");
-            turnMsg.setRound(currentRound);
-            turnMsg.setTop(isTopHalf);
-            turnMsg.setCurrentTurnPlayer(turnPlayer != null ? turnPlayer.userId : null);
-            turnMsg.setContent(currentRound + "회 " + (isTopHalf ? "초" : "말"));
+            turnMsg.setRound(round);
+            turnMsg.setTop(true);
+            turnMsg.setContent(round + "라운드 - 모두 한 번씩 추측하세요");
             broadcastToRoom(turnMsg);
+
+            int seq = ++turnSeq;
+            turnTimeout = turnTimer.schedule(turnTimeLimit.getSeconds() * 1000L + TURN_TIMEOUT_GRACE_MS,
+                    () -> post(() -> onRoyaleRoundEnd(game, seq)));
         }
 
-        // 추측 처리
-        public void handleGuess(ClientHandler player, String guess) {
-            if (!isGameRunning) {
+        // 라운드 마감: 다음 라운드 또는 (마지막 라운드까지 아무도 못 맞혔으면) 무승부 종료
+        private void onRoyaleRoundEnd(BattleRoyale game, int seq) {
+            if (!isGameRunning || game != royale || seq != turnSeq) {
                 return;
             }
-
-            // 턴 제약 확인(팀전은 팀원 동시 추측 가능 로직이 복잡하므로 1v1 기준으로 간소화(추후 가능하면 구현)
-            if (gameMode == Message.GameMode.ONE_VS_ONE && !player.userId.equals(getCurrentTurnPlayerId())) {
-                player.sendMessage(Message.createErrorMessage(Message.ErrorCode.TURN_TIMEOUT, // 에러 코드 재사용
-                        "당신의 턴이 아닙니다."));
-                return;
+            reportRoyaleRound(game);
+            if (game.nextRound()) {
+                beginRoyaleRound(game);
+            } else if (game.getWinnerId() == null) {
+                endRoyale(game);
             }
+            // 승자가 있으면 맞힌 쪽에서 보낸 endRoyale이 처리
+        }
 
-            // 입력 검증
-            if (!BaseballServerGUI.this.isValidGuess(guess, difficulty.getDigitCount())) {
-                player.sendMessage(Message.createErrorMessage(
-                        Message.ErrorCode.INVALID_INPUT_FORMAT));
-                return;
+        /**
+         * 배틀로얄 추측 (받은 스레드에서 바로 처리, 방 액터/락 없음)
+         * 결과는 본인에게만 보내고, 기록 저장과 순위표는 방 액터가 주기적으로 모아서 처리한다.
+         */
+        void royaleGuess(ClientHandler player, String guess) {
+            BattleRoyale game = royale;
+            long packedGuess = (guess != null) ? ScoringKernel.pack(guess) : ScoringKernel.INVALID;
+            int result = (game != null && player.currentRoom == this)
+                    ? game.guess(player.userId, packedGuess) : BattleRoyale.NOT_RUNNING;
+            switch (result) {
+                case BattleRoyale.NOT_RUNNING:
+                    player.sendMessage(Message.createErrorMessage(Message.ErrorCode.UNKNOWN_ERROR,
+                            "현재 게임 중이 아니거나 방에 속해있지 않습니다."));
+                    return;
+                case BattleRoyale.ALREADY_GUESSED:
+                    player.sendMessage(Message.createErrorMessage(Message.ErrorCode.UNKNOWN_ERROR,
+                            "이번 라운드에는 이미 추측했습니다."));
+                    return;
+                case BattleRoyale.INVALID:
+                    player.sendMessage(Message.createErrorMessage(Message.ErrorCode.INVALID_INPUT_FORMAT));
+                    return;
+                default:
+                    break;
             }
 
-            // 상대방 정답 찾기
-            String targetAnswer = getTargetAnswer(player);
-            if (targetAnswer == null) return;
-
-            // 결과 계산
-            int[] result = BaseballServerGUI.this.calculateResult(targetAnswer, guess);
-            int strike = result[0];
-            int ball = result[1];
+            int score = result & ~BattleRoyale.WON;
+            Message resultMsg = Message.createGuessResult(player.userId, ScoringKernel.unpack(packedGuess),
+                    ScoringKernel.strikes(score), ScoringKernel.balls(score));
+            resultMsg.setRound(game.getRound());
+            player.sendMessage(resultMsg);
+            royaleResults.add(resultMsg);
 
-            // 결과 전송
-            Message resultMsg = Message.createGuessResult(player.userId, guess, strike, ball);
-
-            if (gameMode == Message.GameMode.TWO_VS_TWO) {
-                // 2v2: 같은 팀원끼리만 공유
-                int myTeam = playerTeams.get(player.userId);
-                for (int i = 0; i < players.size(); i++) {
-                    ClientHandler p = players.get(i);
-                    if (playerTeams.get(p.userId) == myTeam) {
-                        p.sendMessage(resultMsg);
-                    }
-                }
-            } else {
-                // 1v1: 모두에게 전송
-                broadcastToRoom(resultMsg);
+            if ((result & BattleRoyale.WON) != 0) {
+                post(() -> endRoyale(game));
             }
+        }
 
-            // 게임 상세 기록 저장
-            saveGameDetail(gameId, currentRound, player.userId, guess, strike + "S " + ball + "B");
-
-            // 승리 체크
-            if (strike == difficulty.getDigitCount()) {
-                if (gameMode == Message.GameMode.TWO_VS_TWO) {
-                    endGame(player.userId, false, playerTeams.get(player.userId));
-                } else {
-                    endGame(player.userId, false, 0);
-                }
+        // 배틀로얄 종료 (마지막 순위표 전송 후 공통 종료 처리)
+        private void endRoyale(BattleRoyale game) {
+            if (!isGameRunning || game != royale) {
                 return;
             }
+            publishLeaderboard(game);
+            String winnerId = game.getWinnerId();
+            if (winnerId != null) {
+                reportRoyaleRound(game); // 맞힌 라운드는 마감 전에 끝나므로 여기서 출력
+            }
+            onEnd(winnerId, winnerId == null, 0);
+        }
 
-            // 다음 턴
-            nextTurn();
+        // 부하 테스트 중이면 이번 라운드 추측 인원과 봇 응답 지연 출력
+        private void reportRoyaleRound(BattleRoyale game) {
+            LatencyHistogram probe = latencyProbe;
+            if (probe != null) {
+                printDisplay("배틀로얄 [" + roomId + "] " + game.getRound() + "라운드: 추측 " + game.getGuessedThisRound()
+                        + "/" + game.getPlayerCount() + "명, 응답 지연 " + probe.drainSummary());
+            }
         }
 
-        // 현재 천 플레이어 ID 반환
-        public String getCurrentTurnPlayerId() {
-            if (players.isEmpty()) return null;
-            int playerIndex = ((currentRound - 1) * 2 + (isTopHalf ? 0 : 1)) % players.size();
-            return players.get(playerIndex).userId;
+        private void scheduleLeaderboard(BattleRoyale game) {
+            leaderboardTimeout = turnTimer.schedule(ROYALE_LEADERBOARD_INTERVAL_MS,
+                    () -> post(() -> onLeaderboardTick(game)));
         }
 
-        // 상대방의 정답 키를 찾는 헬퍼 메서드
-        private String getTargetAnswer(ClientHandler currentPlayer) {
-            if (gameMode == Message.GameMode.ONE_VS_ONE) {
-                // 1v1: 상대방 정답 찾기
-                for (ClientHandler p : players) {
-                    if (!p.userId.equals(currentPlayer.userId)) {
-                        return playerAnswers.get(p.userId);
-                    }
-                }
-            } else if (gameMode == Message.GameMode.TWO_VS_TWO) {
-                // 2v2: 상대 팀 정답 찾기
-                int myTeam = playerTeams.get(currentPlayer.userId);
-                int targetTeam = (myTeam == 1) ? 2 : 1;
+        private void onLeaderboardTick(BattleRoyale game) {
+            if (!isGameRunning || game != royale) {
+                return;
+            }
+            publishLeaderboard(game);
+            scheduleLeaderboard(game);
+        }
 
-                // 상대 팀원 중 아무나의 정답 (팀은 같은 정답 공유)
-                for (ClientHandler p : players) {
-                    if (playerTeams.get(p.userId) == targetTeam) {
-                        return playerAnswers.get(p.userId);
-                    }
-                }
+        private void cancelLeaderboard() {
+            if (leaderboardTimeout != null) {
+                leaderboardTimeout.cancel();
+                leaderboardTimeout = null;
             }
-            return null;
         }
 
-        // 다음 턴
-        private void nextTurn() {
-            if (isTopHalf) {
-                isTopHalf = false; // 초 -> 말
-            } else {
-                isTopHalf = true; // 말 -> 초
-                currentRound++;
+        // 순위표 전송 (상위 몇 명만 모아서 방 전체에 한 번, 프레임 인코딩도 한 번) + 쌓인 추측 기록 저장
+        private void publishLeaderboard(BattleRoyale game) {
+            Message result;
+            while ((result = royaleResults.poll()) != null) {
+                saveGameDetail(gameId, result.getRound(), result.getUserId(), result.getGuess(),
+                        result.getStrike() + "S " + result.getBall() + "B");
             }
 
-            // 9회말 종료면 무승부
-            if (currentRound > 9) {
-                endGame(null, true, 0);
-            } else {
-                sendTurnInfo();
+            Vector<String> lines = new Vector<>();
+            for (int index : game.ranking(ROYALE_LEADERBOARD_SIZE)) {
+                int best = game.getBestScore(index);
+                if (best < 0) {
+                    break; // 이후는 아직 추측하지 않은 참가자
+                }
+                lines.add((lines.size() + 1) + ". " + game.getPlayerId(index) + " " + ScoringKernel.strikes(best) + "S "
+                        + ScoringKernel.balls(best) + "B (" + game.getGuessCount(index) + "회)");
             }
+
+            Message msg = new Message(Message.MessageType.ROYALE_LEADERBOARD, "SERVER");
+            msg.setRound(game.getRound());
+            msg.setContent(game.getRound() + "라운드 · 추측 " + game.getGuessedThisRound() + "/" + game.getPlayerCount() + "명"
+                    + (lines.isEmpty() ? "" : " · 1위 " + lines.get(0).substring(3)));
+            msg.setData(lines);
+            broadcastToRoom(msg);
         }
 
         // 게임 종료
-        private void endGame(String winnerId, boolean isDraw, int winnerTeam) {
+        @Override
+        public void onEnd(String winnerId, boolean isDraw, int winnerTeam) {
             isGameRunning = false;
+            cancelTurnTimeout();
+            cancelLeaderboard();
+            publishSummary();
 
             // 게임 결과 메시지
             Message endMsg = new Message(Message.MessageType.END_GAME, "SERVER");
+            endMsg.setGameId(gameId);
             if (isDraw) {
                 endMsg.setDraw(true);
-                endMsg.setContent("9회말 종료! 무승부입니다.");
+                if (gameMode == Message.GameMode.BATTLE_ROYALE) {
+                    endMsg.setContent(BattleRoyale.MAX_ROUNDS + "라운드 종료! 아무도 맞히지 못했습니다.");
+                } else if (engine.getRound() <= GameEngine.MAX_ROUNDS) {
+                    endMsg.setContent(engine.getRound() + "회에 두 팀이 모두 맞혀 무승부입니다!");
+                } else {
+                    endMsg.setContent("9회말 종료! 무승부입니다.");
+                }
             } else {
                 endMsg.setWinnerId(winnerId);
                 if (gameMode == Message.GameMode.TWO_VS_TWO) {
                     endMsg.setWinnerTeam(winnerTeam);
-                    endMsg.setContent("Team " + winnerTeam + " 승리! (" + winnerId + "님이 맞춤)");
+                    // 상대 팀 기권(접속 끊김/퇴장)으로 끝나면 맞힌 사람이 없음
+                    endMsg.setContent("Team " + winnerTeam + " 승리! ("
+                            + (winnerId != null ? winnerId + "님이 맞춤" : "Team " + (3 - winnerTeam) + " 기권") + ")");
+                } else if (gameMode == Message.GameMode.BATTLE_ROYALE) {
+                    endMsg.setContent(winnerId + "님이 " + royale.getRound() + "라운드에 가장 먼저 맞혔습니다!");
                 } else {
                     endMsg.setContent(winnerId + "님이 승리했습니다!");
                 }
@@ -667,6 +1619,7 @@ public class BaseballServerGUI extends JFrame {
             broadcastToRoom(endMsg);
 
             // 전적 및 게임 기록 저장
+            updateStats(winnerId, isDraw, winnerTeam);
             saveGameHistory(winnerId, isDraw, winnerTeam);
 
             // 준비 상태 초기화
@@ -675,53 +1628,99 @@ public class BaseballServerGUI extends JFrame {
             }
         }
 
-        // 게임 기록 저장 (game_history.csv 및 user_stats.csv 업데이트)
-        private void saveGameHistory(String winnerId, boolean isDraw, int winnerTeam) {
-            try {
-                String timestamp = new java.text.SimpleDateFormat("yyyy-MM-dd HH:mm:ss").format(new java.util.Date());
-
-                // 참여자 목록
-                String participants = "";
-                for (int i = 0; i < players.size(); i++) {
-                    if (i > 0) participants += ",";
-                    participants += players.get(i).userId;
-                }
+        // 전적 갱신 (승자/패자/무승부 분류 후 StatsService에 반영)
+        private void updateStats(String winnerId, boolean isDraw, int winnerTeam) {
+            Vector<String> winners = new Vector<>();
+            Vector<String> losers = new Vector<>();
+            Vector<String> drawers = new Vector<>();
 
-                String winner;
+            for (ClientHandler player : players) {
                 if (isDraw) {
-                    winner = "Draw";
+                    drawers.add(player.userId);
                 } else if (gameMode == Message.GameMode.TWO_VS_TWO) {
-                    winner = "Team" + winnerTeam;
+                    if (playerTeams.getOrDefault(player.userId, 0) == winnerTeam) {
+                        winners.add(player.userId);
+                    } else {
+                        losers.add(player.userId);
+                    }
+                } else if (player.userId.equals(winnerId)) {
+                    winners.add(player.userId);
                 } else {
-                    winner = winnerId;
+                    losers.add(player.userId);
                 }
+            }
+            statsService.recordResult(winners, losers, drawers);
+            if (gameMode != Message.GameMode.BATTLE_ROYALE) { // 배틀로얄은 레이팅에 반영하지 않음
+                updateRatings(winnerId, isDraw, winnerTeam);
+            }
+            for (ClientHandler player : players) {
+                updateRanking(player.userId, statsService.get(player.userId));
+            }
+        }
 
-                FileWriter fw = new FileWriter(HISTORY_FILE, true);
-                fw.write(gameId + "," + timestamp + ",\"" + participants + "\"," +
-                        gameMode.getDisplayName() + "," + difficulty.getDisplayName() + "," + winner + "\n");
-                fw.close();
+        // 레이팅 갱신 (1v1은 승자 대 나머지, 2v2는 Team1 대 Team2)
+        private void updateRatings(String winnerId, boolean isDraw, int winnerTeam) {
+            Vector<String> teamA = new Vector<>();
+            Vector<String> teamB = new Vector<>();
+            double scoreA;
+            if (gameMode == Message.GameMode.TWO_VS_TWO) {
+                for (ClientHandler player : players) {
+                    (playerTeams.getOrDefault(player.userId, 0) == 1 ? teamA : teamB).add(player.userId);
+                }
+                scoreA = isDraw ? 0.5 : (winnerTeam == 1 ? 1 : 0);
+            } else {
+                for (ClientHandler player : players) {
+                    boolean first = isDraw ? teamA.isEmpty() : player.userId.equals(winnerId);
+                    (first ? teamA : teamB).add(player.userId);
+                }
+                scoreA = isDraw ? 0.5 : 1;
+            }
+            ratingService.recordResult(teamA, teamB, scoreA);
+        }
 
-                BaseballServerGUI.this.printDisplay("게임 기록 저장: " + gameId);
-            } catch (IOException e) {
-                BaseballServerGUI.this.printDisplay("게임 기록 저장 실패: " + e.getMessage());
+        // 게임 기록 저장 (game_history.csv)
+        private void saveGameHistory(String winnerId, boolean isDraw, int winnerTeam) {
+            String timestamp = new java.text.SimpleDateFormat("yyyy-MM-dd HH:mm:ss").format(new java.util.Date());
+
+            // 참여자 목록 (2v2는 Team1, Team2 순 - 레이팅 재계산 시 앞 절반을 Team1로 봄)
+            Vector<ClientHandler> ordered = new Vector<>(players);
+            if (gameMode == Message.GameMode.TWO_VS_TWO) {
+                ordered.sort(java.util.Comparator.comparingInt(p -> playerTeams.getOrDefault(p.userId, 0)));
+            }
+            String participants = "";
+            for (int i = 0; i < ordered.size(); i++) {
+                if (i > 0) participants += ",";
+                participants += ordered.get(i).userId;
+            }
+
+            String winner;
+            if (isDraw) {
+                winner = "Draw";
+            } else if (gameMode == Message.GameMode.TWO_VS_TWO) {
+                winner = "Team" + winnerTeam;
+            } else {
+                winner = winnerId;
             }
+
+            // 파일 기록은 저널 쓰기 스레드가 모아서 처리
+            gameJournal.append(HISTORY_FILE, gameId + "," + timestamp + ",\"" + participants + "\"," +
+                    gameMode.getDisplayName() + "," + difficulty.getDisplayName() + "," + winner + "\n");
+
+            BaseballServerGUI.this.printDisplay("게임 기록 저장: " + gameId);
         }
 
         // 게임 상세 기록 저장 (game_details.csv)
         private void saveGameDetail(String gameId, int round, String playerId, String guess, String result) {
-            try {
-                FileWriter fw = new FileWriter(DETAILS_FILE, true);
-                fw.write(gameId + "," + round + "," + playerId + "," + guess + "," + result + "\n");
-                fw.close();
-            } catch (IOException e) {
-                BaseballServerGUI.this.printDisplay("게임 상세 기록 저장 실패ㅣ " + e.getMessage());
-            }
+            String line = gameId + "," + round + "," + playerId + "," + guess + "," + result + "\n";
+            replayStore.record(gameId, line);
+            gameJournal.append(DETAILS_FILE, line);
         }
 
-        // 방 전체에 메시지 전송
+        // 방 전체에 메시지 전송 (한 번 인코딩한 프레임을 모두에게 공유)
         public void broadcastToRoom(Message msg) {
+            SharedFrame frame = new SharedFrame(msg);
             for (ClientHandler player : players) {
-                player.sendMessage(msg);
+                player.sendFrame(frame);
             }
         }
     }
@@ -729,51 +1728,89 @@ public class BaseballServerGUI extends JFrame {
 
     // --- 내부 클래스: ClientHandler ---
     class ClientHandler implements Runnable {
-        private Socket socket;
-        private ObjectInputStream in;
-        private ObjectOutputStream out;
+        private static final AtomicReferenceFieldUpdater<ClientHandler, GameRoom> CURRENT_ROOM =
+                AtomicReferenceFieldUpdater.newUpdater(ClientHandler.class, GameRoom.class, "currentRoom");
+
+        private Socket socket;                      // 블로킹 모드 소켓
+        private DataInputStream in;
+        private DataOutputStream out;
+        private NioServer.Connection connection;    // NIO 모드 연결 (블로킹 모드에서는 null)
+        private BotPlayer bot;                      // 봇이면 소켓 대신 메시지를 봇에 직접 전달
+        private volatile MessageCodec codec = JavaSerializationCodec.INSTANCE; // 블로킹 모드에서 협상된 코덱
+        private OutboundQueue outbound;             // 블로킹 모드 송신 대기열 (NIO 모드는 연결이 소유)
+        private final AtomicBoolean drainScheduled = new AtomicBoolean(false);
+        private final AtomicBoolean evicted = new AtomicBoolean(false);
+        private final AtomicBoolean closed = new AtomicBoolean(false);
         private String userId;
-        private GameRoom currentRoom;
+        private volatile GameRoom currentRoom;   // 방 입장/퇴장은 방 액터가 CAS로 변경
 
         public ClientHandler(Socket socket) {
             this.socket = socket;
+            this.outbound = newOutboundQueue();
             try {
-                out = new ObjectOutputStream(socket.getOutputStream());
-                out.flush();
-                in = new ObjectInputStream(socket.getInputStream());
+                out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+                in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
             } catch (IOException e) {
                 printDisplay("스트림 생성 오류: " + e.getMessage());
             }
         }
 
+        public ClientHandler(NioServer.Connection connection) {
+            this.connection = connection;
+        }
+
+        public ClientHandler(BotPlayer bot) {
+            this.bot = bot;
+            this.userId = bot.getUserId();
+            bot.connect(this::onMessage);
+        }
+
+        boolean isBot() {
+            return bot != null;
+        }
+
+        // 블로킹 모드 수신 루프 (NIO 모드에서는 I/O 스레드가 onMessage를 직접 호출)
         public void run() {
             try {
-                Message msg;
-                // 초기 로그인/회원가입 요청 처리
-                while (userId == null && (msg = (Message) in.readObject()) != null) {
-                    if(msg.getType() == Message.MessageType.LOGIN_REQUEST || msg.getType() == Message.MessageType.REGISTER_REQUEST) {
-                        handleMessage(msg);
-                    } else {
-                        sendMessage(Message.createErrorMessage(Message.ErrorCode.UNKNOWN_ERROR,
-                                "로그인 또는 회원가입 요청만 가능합니다."));
-                    }
+                // 첫 프레임이 핸드셰이크면 코덱 협상, 아니면 Java 직렬화 클라이언트로 간주
+                byte[] first = FrameCodec.readRawFrame(in);
+                if (FrameCodec.isHandshake(first)) {
+                    // 응답이 대기열에서 먼저 나가므로 이후 프레임은 협상된 코덱으로 인코딩해도 됨
+                    MessageCodec negotiated = FrameCodec.negotiate(first);
+                    enqueue(ByteBuffer.wrap(FrameCodec.frame(FrameCodec.createHandshakeReply(negotiated))), false);
+                    codec = negotiated;
+                } else {
+                    onMessage(codec.decode(first, 0, first.length));
                 }
 
-                // 로그인 후 메인 메시지 처리
-                while (userId != null && (msg = (Message) in.readObject()) != null) {
-                    handleMessage(msg);
+                while (!closed.get()) {
+                    onMessage(FrameCodec.readFrame(in, codec));
                 }
+            } catch (StreamCorruptedException e) {
+                printDisplay("메시지 형식 오류: " + e.getMessage());
             } catch (IOException e) {
                 if (userId != null) {
                     printDisplay(userId + " 연결 종료");
                 }
-            } catch (ClassNotFoundException e) {
-                printDisplay("메시지 클래스 오류: " + e.getMessage());
+            } catch (RuntimeException e) {
+                // 디코딩/처리 중 예상 못 한 오류도 이 연결만 종료 (NIO 모드의 I/O 스레드와 같은 처리)
+                printDisplay("메시지 처리 오류 (" + (userId != null ? userId : "로그인 전") + "): " + e);
             } finally {
                 close();
             }
         }
 
+        // 수신 메시지 처리 (로그인 전에는 로그인/회원가입 요청만 허용)
+        void onMessage(Message msg) {
+            if (userId == null && msg.getType() != Message.MessageType.LOGIN_REQUEST
+                    && msg.getType() != Message.MessageType.REGISTER_REQUEST) {
+                sendMessage(Message.createErrorMessage(Message.ErrorCode.UNKNOWN_ERROR,
+                        "로그인 또는 회원가입 요청만 가능합니다."));
+                return;
+            }
+            handleMessage(msg);
+        }
+
         // 메시지 처리
         private void handleMessage(Message msg) {
             switch (msg.getType()) {
@@ -784,7 +1821,13 @@ public class BaseballServerGUI extends JFrame {
                     handleRegister(msg);
                     break;
                 case ROOM_LIST_REQUEST:
-                    handleRoomListRequest();
+                    handleRoomListRequest(msg);
+                    break;
+                case LOBBY_SUBSCRIBE:
+                    lobbyFeed.subscribe(this, this::sendFrame);
+                    break;
+                case LOBBY_UNSUBSCRIBE:
+                    lobbyFeed.unsubscribe(this);
                     break;
                 case CREATE_ROOM_REQUEST:
                     handleCreateRoom(msg);
@@ -807,6 +1850,9 @@ public class BaseballServerGUI extends JFrame {
                 case KICK_PLAYER:
                     handleKickPlayer(msg);
                     break;
+                case ADD_BOT:
+                    handleAddBot(msg);
+                    break;
                 case GUESS:
                     handleGuess(msg);
                     break;
@@ -829,7 +1875,22 @@ public class BaseballServerGUI extends JFrame {
                     handleStatsRequest(msg);
                     break;
                 case GAME_HISTORY_REQUEST:
-                    handleGameHistoryRequest(msg);
+                    runStorageRequest("게임 기록", () -> handleGameHistoryRequest(msg));
+                    break;
+                case RANKING_REQUEST:
+                    handleRankingRequest(msg);
+                    break;
+                case REPLAY_REQUEST:
+                    runStorageRequest("리플레이", () -> handleReplayRequest(msg));
+                    break;
+                case HINT_REQUEST:
+                    handleHintRequest();
+                    break;
+                case QUICK_MATCH_REQUEST:
+                    handleQuickMatch(msg);
+                    break;
+                case QUICK_MATCH_CANCEL:
+                    matchmaking.cancel(userId);
                     break;
                 default:
                     printDisplay(userId + "로부터 알 수 없는 메시지 타입 수신: " + msg.getType());
@@ -849,8 +1910,12 @@ public class BaseballServerGUI extends JFrame {
 
             // 인증
             if (authenticateUser(userId, password)) {
+                // 동시에 같은 계정으로 로그인하는 경우를 원자적으로 차단
+                if (clients.putIfAbsent(userId, this) != null) {
+                    sendMessage(Message.createErrorMessage(Message.ErrorCode.ALREADY_LOGGED_IN));
+                    return;
+                }
                 this.userId = userId;
-                clients.add(this);
 
                 Message response = new Message(Message.MessageType.LOGIN_RESPONSE, userId);
                 response.setSuccess(true);
@@ -868,35 +1933,27 @@ public class BaseballServerGUI extends JFrame {
             String password = msg.getPassword();
             String character = msg.getCharacter();
 
-            if(registerUser(userId, password, character)) {
-                Message response = new Message(Message.MessageType.REGISTER_RESPONSE, userId);
-                response.setSuccess(true);
-                response.setContent("회원가입 성공");
-                sendMessage(response);
-                printDisplay(userId + " 회원가입 성공");
-            } else {
-                sendMessage(Message.createErrorMessage(Message.ErrorCode.DUPLICATE_ID));
-            }
+            // 디스크 반영이 끝난 뒤 응답 (처리 스레드는 기다리지 않음)
+            registerUser(userId, password, character).whenComplete((success, error) -> {
+                if (error != null) {
+                    sendMessage(Message.createErrorMessage(Message.ErrorCode.UNKNOWN_ERROR,
+                            "회원 정보를 저장하지 못했습니다. 잠시 후 다시 시도해 주세요."));
+                } else if (success) {
+                    Message response = new Message(Message.MessageType.REGISTER_RESPONSE, userId);
+                    response.setSuccess(true);
+                    response.setContent("회원가입 성공");
+                    sendMessage(response);
+                    printDisplay(userId + " 회원가입 성공");
+                } else {
+                    sendMessage(Message.createErrorMessage(Message.ErrorCode.DUPLICATE_ID));
+                }
+            });
         }
 
         // 방 목록 요청 처리
-        private void handleRoomListRequest() {
-            Vector<Message> roomList = new Vector<>();
-
-            for (GameRoom room : rooms) {
-                Message roomInfo = new Message(Message.MessageType.ROOM_LIST_RESPONSE, room.roomMaster);
-                roomInfo.setRoomId(room.roomId);
-                roomInfo.setRoomName(room.roomName + (room.isPrivate ? " 비공개" : ""));
-                roomInfo.setRoomStatus(room.isGameRunning ? Message.RoomStatus.IN_GAME : Message.RoomStatus.WAITING);
-                roomInfo.setCurrentPlayers(room.players.size());
-                roomInfo.setMaxPlayers(room.gameMode.getMaxPlayers());
-                roomInfo.setGameMode(room.gameMode);
-                roomInfo.setDifficulty(room.difficulty);
-                roomInfo.setRoomMaster(room.roomMaster);
-                roomInfo.setPrivate(room.isPrivate);
-
-                roomList.add(roomInfo);
-            }
+        // 상태/모드/난이도가 지정되어 있으면 해당 조건의 방만 (방마다 캐시된 요약 메시지 사용)
+        private void handleRoomListRequest(Message msg) {
+            Vector<Message> roomList = new Vector<>(roomRegistry.find(msg.getRoomStatus(), msg.getGameMode(), msg.getDifficulty()));
 
             Message response = new Message(Message.MessageType.ROOM_LIST_RESPONSE, "SERVER");
             response.setData(roomList);
@@ -907,6 +1964,7 @@ public class BaseballServerGUI extends JFrame {
         private void handleCreateRoom(Message msg) {
             // 이미 방에 있으면 생성 불가
             if (currentRoom != null) return;
+            matchmaking.cancel(userId);
 
             GameRoom room = createRoom(
                     msg.getRoomName(),
@@ -919,21 +1977,17 @@ public class BaseballServerGUI extends JFrame {
             );
 
             if (room != null) {
-                currentRoom = room;
-                room.addPlayer(this);
-
-                Message response = room.createRoomUpdateMessage("방 생성 성공");
-                response.setType(Message.MessageType.CREATE_ROOM_RESPONSE);
-                response.setSuccess(true);
-                sendMessage(response);
+                room.post(() -> room.join(this, room.roomPassword,
+                        Message.MessageType.CREATE_ROOM_RESPONSE, "방 생성 성공"));
             } else {
                 sendMessage(Message.createErrorMessage(Message.ErrorCode.SERVER_FULL,
-                        "방 생성 실패 (최대 " + maxRooms + "개)"));
+                        "방 생성 실패 (최대 " + roomRegistry.getCapacity() + "개)"));
             }
         }
 
         // 방 입장 처리
         private void handleJoinRoom(Message msg) {
+            matchmaking.cancel(userId);
             int roomId = msg.getRoomId();
             GameRoom room = findRoom(roomId);
 
@@ -942,108 +1996,85 @@ public class BaseballServerGUI extends JFrame {
                 return;
             }
 
-            if (room.isGameRunning) {
-                sendMessage(Message.createErrorMessage(Message.ErrorCode.ROOM_IN_GAME));
-                return;
-            }
+            // 인원/비밀번호/게임 중 여부는 방 액터가 확인
+            String password = msg.getRoomPassword();
+            room.post(() -> room.join(this, password, Message.MessageType.JOIN_ROOM_RESPONSE, "방 입장 성공"));
+        }
 
-            if (room.players.size() >= room.gameMode.getMaxPlayers()) {
-                sendMessage(Message.createErrorMessage(Message.ErrorCode.ROOM_FULL));
-                return;
+        // 힌트 요청 처리
+        private void handleHintRequest() {
+            GameRoom room = currentRoom;
+            if (room != null) {
+                room.post(() -> room.hint(this));
             }
+        }
 
-            // 비공개 방 비밀번호 확인
-            if (room.isPrivate) {
-                String inputPassword = msg.getRoomPassword();
-                if (inputPassword == null || !inputPassword.equals(room.roomPassword)) {
-                    sendMessage(Message.createErrorMessage(Message.ErrorCode.WRONG_PASSWORD));
-                    return;
-                }
+        // 빠른 시작 요청 (방에 없을 때만, 지정하지 않은 조건은 기본값)
+        private void handleQuickMatch(Message msg) {
+            if (currentRoom != null) return;
+            Message.GameMode gameMode = msg.getGameMode() != null ? msg.getGameMode() : Message.GameMode.ONE_VS_ONE;
+            if (gameMode == Message.GameMode.BATTLE_ROYALE) {
+                sendMessage(Message.createErrorMessage(Message.ErrorCode.UNKNOWN_ERROR,
+                        "배틀로얄은 빠른 시작을 지원하지 않습니다. 방을 만들어 참가하세요."));
+                return;
             }
-
-            currentRoom = room;
-            room.addPlayer(this);
-
-            Message response = room.createRoomUpdateMessage("방 입장 성공");
-            response.setType(Message.MessageType.JOIN_ROOM_RESPONSE);
-            response.setSuccess(true);
-            sendMessage(response);
+            Message.Difficulty difficulty = msg.getDifficulty() != null ? msg.getDifficulty() : Message.Difficulty.EASY;
+            Message.TurnTimeLimit turnTimeLimit = msg.getTurnTimeLimit() != null ? msg.getTurnTimeLimit() : Message.TurnTimeLimit.THIRTY;
+            double skill = ratingService.getRating(userId);
+            matchmaking.enqueue(userId, this, skill, gameMode, difficulty, turnTimeLimit);
         }
 
         // 방 나가기 처리
         private void handleLeaveRoom() {
-            if (currentRoom != null) {
-                currentRoom.removePlayer(this);
-                currentRoom = null;
-                sendMessage(new Message(Message.MessageType.LEAVE_ROOM, "SERVER",
-                        "방에서 나갔습니다."));
+            GameRoom room = currentRoom;
+            if (room != null) {
+                room.post(() -> room.leave(this));
             }
         }
 
         // 준비 처리
         private void handleReady(boolean ready) {
-            if (currentRoom != null && !currentRoom.isGameRunning) {
-                currentRoom.setReady(userId, ready);
+            GameRoom room = currentRoom;
+            if (room != null) {
+                room.post(() -> room.ready(this, ready));
             }
         }
 
         // 게임 시작 요청 처리
         private void handleStartGameRequest() {
-            if(currentRoom == null) {
-                return;
-            }
-
-            if (!userId.equals(currentRoom.roomMaster)) {
-                sendMessage(Message.createErrorMessage(Message.ErrorCode.NOT_ROOM_MASTER));
-                return;
-            }
-
-            if (!currentRoom.canStartGame()) {
-                sendMessage(Message.createErrorMessage(Message.ErrorCode.NOT_ENOUGH_PLAYERS,
-                        "모든 플레이어가 준비되지 않았거나 인원(" + currentRoom.gameMode.getMaxPlayers() + "명)이 부족합니다.")); //
-                return;
+            GameRoom room = currentRoom;
+            if (room != null) {
+                room.post(() -> room.requestStart(this));
             }
-            currentRoom.startGame();
         }
 
         // 강제 퇴장 처리 (방장 권한)
         private void handleKickPlayer(Message msg) {
-            if (currentRoom == null || !userId.equals(currentRoom.roomMaster)) {
+            GameRoom room = currentRoom;
+            if (room == null) {
                 sendMessage(Message.createErrorMessage(Message.ErrorCode.NOT_ROOM_MASTER));
                 return;
             }
-
             String targetUserId = msg.getTargetUserId();
-            if (targetUserId == null || targetUserId.equals(userId)) {
-                return;
-            }
-
-            ClientHandler targetPlayer = null;
-            for (ClientHandler p : currentRoom.players) {
-                if (p.userId.equals(targetUserId)) {
-                    targetPlayer = p;
-                    break;
-                }
-            }
-
-            if (targetPlayer != null) {
-                // 강퇴 메시지 전송
-                Message kickMsg = new Message(Message.MessageType.ROOM_INFO_UPDATE, "SERVER",
-                        "방장에 의해 강제 퇴장되었습니다.");
-                targetPlayer.sendMessage(kickMsg);
-
-                // 방에서 제거
-                currentRoom.removePlayer(targetPlayer);
-                targetPlayer.currentRoom = null;
+            room.post(() -> room.kick(this, targetUserId));
+        }
 
-                printDisplay(userId + "가 " + targetUserId + "를 강제 퇴장시킴");
-            }
+        // 봇 추가 처리 (방장 확인은 방 액터에서)
+        private void handleAddBot(Message msg) {
+            GameRoom room = currentRoom;
+            if (room == null) return;
+            ClientHandler bot = newBot(BotPlayer.Level.fromName(msg.getContent()), false);
+            room.post(() -> room.addBot(this, bot));
         }
 
         // 추측 처리
         private void handleGuess(Message msg) {
-            if (currentRoom != null && currentRoom.isGameRunning) {
-                currentRoom.handleGuess(this, msg.getGuess());
+            GameRoom room = currentRoom;
+            if (room != null && room.gameMode == Message.GameMode.BATTLE_ROYALE) {
+                room.royaleGuess(this, msg.getGuess()); // 방 액터를 거치지 않고 이 스레드에서 바로 처리
+            } else if (room != null) {
+                String guess = msg.getGuess();
+                room.post(() -> room.handleGuess(this, guess));
             } else {
                 sendMessage(Message.createErrorMessage(Message.ErrorCode.UNKNOWN_ERROR,
                         "현재 게임 중이 아니거나 방에 속해있지 않습니다."));
@@ -1052,33 +2083,28 @@ public class BaseballServerGUI extends JFrame {
 
         // 방 채팅 처리
         private void handleRoomChat(Message msg) {
-            if (currentRoom != null) {
+            GameRoom room = currentRoom;
+            if (room != null) {
                 Message chatMsg = Message.createChatMessage(Message.MessageType.CHAT_ROOM, userId, msg.getContent(), null);
-                currentRoom.broadcastToRoom(chatMsg);
+                room.post(() -> room.broadcastToRoom(chatMsg));
             }
         }
 
         // 팀 채팅 처리 (2v2 전용)
         private void handleTeamChat(Message msg) {
-            if (currentRoom != null && currentRoom.gameMode == Message.GameMode.TWO_VS_TWO) {
-                int myTeam = currentRoom.playerTeams.getOrDefault(userId, 0);
-                if(myTeam == 0) return;
-
+            GameRoom room = currentRoom;
+            if (room != null && room.gameMode == Message.GameMode.TWO_VS_TWO) {
                 Message chatMsg = Message.createChatMessage(Message.MessageType.CHAT_TEAM, userId, msg.getContent(), null);
-
-                for (ClientHandler p : currentRoom.players) {
-                    if (currentRoom.playerTeams.getOrDefault(p.userId, 0) == myTeam) {
-                        p.sendMessage(chatMsg);
-                    }
-                }
+                room.post(() -> room.teamChat(this, chatMsg));
             }
         }
 
-        // 전체 채팅 처리
+        // 전체 채팅 처리 (코덱별로 한 번만 인코딩하고 같은 프레임을 모든 접속자에게 전송)
         private void handleAllChat(Message msg) {
             Message chatMsg = Message.createChatMessage(Message.MessageType.CHAT_ALL, userId, msg.getContent(), null);
-            for (ClientHandler client : clients) {
-                client.sendMessage(chatMsg);
+            SharedFrame frame = new SharedFrame(chatMsg);
+            for (ClientHandler client : clients.values()) {
+                client.sendFrame(frame);
             }
         }
 
@@ -1090,13 +2116,7 @@ public class BaseballServerGUI extends JFrame {
             }
 
             // 대상 찾기
-            ClientHandler targetClient = null;
-            for (ClientHandler client : clients) {
-                if (client.userId != null && client.userId.equals(targetUserId)) {
-                    targetClient = client;
-                    break;
-                }
-            }
+            ClientHandler targetClient = clients.get(targetUserId);
 
             if (targetClient != null) {
                 Message whisperMsg = Message.createChatMessage(Message.MessageType.CHAT_WHISPER, userId, msg.getContent(), targetUserId);
@@ -1117,123 +2137,252 @@ public class BaseballServerGUI extends JFrame {
                 targetUserId = userId; // 본인 전적 조회
             }
 
+            // 메모리의 전적으로 바로 응답
+            StatsService.Stats userStats = statsService.get(targetUserId);
+            Message response = new Message(Message.MessageType.STATS_RESPONSE, "SERVER");
+            Hashtable<String, String> stats = new Hashtable<>();
+            stats.put("userId", targetUserId);
+            stats.put("wins", String.valueOf(userStats.wins));
+            stats.put("losses", String.valueOf(userStats.losses));
+            stats.put("draws", String.valueOf(userStats.draws));
+            stats.put("winRate", userStats.getWinRateText());
+            response.setData(stats);
+            sendMessage(response);
+        }
+
+        // 랭킹 조회 처리
+        // targetUserId가 있으면 해당 유저 순위 ±RANKING_AROUND, 없으면 content의 페이지 번호 (기본 1페이지)
+        private void handleRankingRequest(Message msg) {
+            String targetUserId = msg.getTargetUserId();
+            if (targetUserId != null && !targetUserId.isEmpty()) {
+                sendMessage(leaderboard.getAround(targetUserId, RANKING_AROUND));
+                return;
+            }
+
+            int page = 1;
             try {
-                BufferedReader br  = new BufferedReader(new FileReader(STATS_FILE));
-                br.readLine();
-                String line;
-
-                while((line = br.readLine()) != null) {
-                    String[] parts = line.split(",");
-                    if (parts.length >= 5 && parts[0].trim().equals(targetUserId)) {
-                        Message response = new Message(Message.MessageType.STATS_RESPONSE, "SERVER");
-                        Hashtable<String, String> stats = new Hashtable<>();
-                        stats.put("userId", parts[0].trim());
-                        stats.put("wins", parts[1].trim());
-                        stats.put("losses", parts[2].trim());
-                        stats.put("draws", parts[3].trim());
-                        stats.put("winRate", parts[4].trim());
-
-                        response.setData(stats);
-                        sendMessage(response);
-                        return;
-                    }
+                if (msg.getContent() != null && !msg.getContent().isEmpty()) {
+                    page = Integer.parseInt(msg.getContent().trim());
                 }
+            } catch (NumberFormatException e) {
+                page = 1;
+            }
 
-                // 전적이 없는 경우
-                Message response = new Message(Message.MessageType.STATS_RESPONSE, "SERVER");
-                Hashtable<String, String> stats = new Hashtable<>();
-                stats.put("userId", targetUserId);
-                stats.put("wins", "0");
-                stats.put("losses", "0");
-                stats.put("draws", "0");
-                stats.put("winRate", "0.0");
-                response.setData(stats);
-                sendMessage(response);
-            } catch (IOException e) {
-                printDisplay("전적 조회 오류: " + e.getMessage());
+            if (page <= 1) {
+                // 1페이지는 캐시된 프레임을 그대로 전송
+                try {
+                    sendFrame(leaderboard.getTopPageFrame(getCodec()), false);
+                } catch (IOException e) {
+                    printDisplay("랭킹 전송 오류 (" + userId + "): " + e.getMessage());
+                }
+            } else {
+                sendMessage(leaderboard.getPage(page));
             }
         }
 
+        // 파일을 읽는 조회 요청 (NIO 모드에서 I/O 스레드의 다른 연결을 막지 않도록 저장소 실행기에서 실행)
+        private void runStorageRequest(String label, Runnable request) {
+            storageExecutor.execute(() -> {
+                try {
+                    request.run();
+                } catch (RuntimeException e) {
+                    printDisplay(label + " 조회 오류 (" + userId + "): " + e.getMessage());
+                }
+            });
+        }
+
         // 게임 기록 조회 처리
+        // targetUserId가 있으면 해당 유저가 참여한 게임만, content는 이전 응답의 다음 커서 (없으면 최신부터)
         private void handleGameHistoryRequest(Message msg) {
+            String targetUserId = msg.getTargetUserId();
+            if (targetUserId != null && targetUserId.isEmpty()) {
+                targetUserId = null;
+            }
+
+            int cursor = -1;
             try {
-                Vector<Hashtable<String, String>> historyList = new Vector<>();
-                BufferedReader br = new BufferedReader(new FileReader(HISTORY_FILE));
-                String line;
-                br.readLine();
-
-                int count = 0;
-                int maxRecords = 20; //최근 20개만
-
-                while((line = br.readLine()) != null && count < maxRecords) {
-                    String[] parts = line.split(",");
-                    if(parts.length >= 6) {
-                        Hashtable<String, String> record = new Hashtable<>();
-                        record.put("gameId", parts[0]);
-                        record.put("timestamp", parts[1]);
-                        record.put("participants", parts[2].replace("\"", ""));
-                        record.put("gameMode", parts[3]);
-                        record.put("difficulty", parts[4]);
-                        record.put("winner", parts[5]);
-                        historyList.add(record);
-                        count++;
-                    }
+                if (msg.getContent() != null && !msg.getContent().isEmpty()) {
+                    cursor = Integer.parseInt(msg.getContent().trim());
                 }
+            } catch (NumberFormatException e) {
+                cursor = -1;
+            }
 
-                Message response = new Message(Message.MessageType.GAME_HISTORY_RESPONSE, "SERVER");
-                response.setData(historyList);
-                sendMessage(response);
+            GameHistoryStore.Page page = historyStore.query(targetUserId, cursor, HISTORY_PAGE_SIZE);
+            Message response = new Message(Message.MessageType.GAME_HISTORY_RESPONSE, "SERVER");
+            response.setTargetUserId(targetUserId);
+            response.setData(page.records);
+            // 다음 페이지 커서 (마지막 페이지면 null)
+            response.setContent(page.nextCursor >= 0 ? String.valueOf(page.nextCursor) : null);
+            sendMessage(response);
+        }
+
+        // 리플레이 조회 처리 (gameId의 턴별 기록 전체)
+        private void handleReplayRequest(Message msg) {
+            String gameId = msg.getGameId();
+            Vector<Hashtable<String, String>> turns = (gameId != null) ? replayStore.getReplay(gameId) : null;
+
+            Message response = new Message(Message.MessageType.REPLAY_RESPONSE, "SERVER");
+            response.setGameId(gameId);
+            response.setSuccess(turns != null);
+            if (turns != null) {
+                response.setData(turns);
+            } else {
+                response.setContent("게임 기록을 찾을 수 없습니다.");
+            }
+            sendMessage(response);
+        }
+
+        // 방 입장 표시 (다른 방에 이미 있으면 false)
+        boolean enterRoom(GameRoom room) {
+            return CURRENT_ROOM.compareAndSet(this, null, room);
+        }
+
+        // 방 퇴장 표시 (그 사이 다른 방으로 바뀌었으면 그대로 둠)
+        void exitRoom(GameRoom room) {
+            CURRENT_ROOM.compareAndSet(this, room, null);
+        }
+
+        // 협상된 코덱
+        private MessageCodec getCodec() {
+            return connection != null ? connection.getCodec() : codec;
+        }
+
+        // 송신 대기열 (지표용)
+        OutboundQueue getOutbound() {
+            return connection != null ? connection.getOutbound() : outbound;
+        }
+
+        // 공유 프레임 전송 (이 연결의 코덱으로 인코딩된 프레임을 재사용)
+        private void sendFrame(SharedFrame frame) {
+            if (bot != null) {
+                bot.deliver(frame.getMessage());
+                return;
+            }
+            try {
+                sendFrame(frame.frameFor(getCodec()), frame.isDroppable());
             } catch (IOException e) {
-                printDisplay("게임 기록 조회 오류: " + e.getMessage());
+                printDisplay("메시지 인코딩 오류 (" + userId + "): " + e.getMessage());
+            }
+        }
+
+        // 이미 인코딩된 프레임 전송 (캐시된 응답용)
+        private void sendFrame(byte[] frame, boolean droppable) {
+            if (bot != null) {
+                return; // 봇은 캐시된 조회 응답을 쓰지 않음
+            }
+            if (connection != null) {
+                connection.sendFrame(frame, droppable);
+                return;
             }
+            enqueue(ByteBuffer.wrap(frame), droppable);
         }
 
         // 메시지 전송
         private void sendMessage(Message msg) {
+            if (bot != null) {
+                bot.deliver(msg);
+                return;
+            }
+            if (connection != null) {
+                connection.send(msg);
+                return;
+            }
+            try {
+                enqueue(ByteBuffer.wrap(FrameCodec.encodeFrame(msg, codec)), msg.getType().isDroppable());
+            } catch (IOException e) {
+                printDisplay("메시지 인코딩 오류 (" + userId + "): " + e.getMessage());
+            }
+        }
+
+        // 블로킹 모드: 대기열에 넣고 바로 반환 (기록은 송신 실행기에서 한 번에 하나씩)
+        private void enqueue(ByteBuffer frame, boolean droppable) {
+            if (closed.get()) return;
+            OutboundQueue.Result result = outbound.offer(frame, droppable);
+            if (result == OutboundQueue.Result.OVERFLOW) {
+                evict();
+                return;
+            }
+            if (result == OutboundQueue.Result.QUEUED && drainScheduled.compareAndSet(false, true)) {
+                senderExecutor.execute(this::drainOutbound);
+            }
+        }
+
+        // 블로킹 모드 주기 점검: 혼잡 시간이 지났으면 종료
+        void evictIfOverdue() {
+            if (outbound != null && !closed.get() && outbound.isOverdue()) {
+                evict();
+            }
+        }
+
+        // 계속 못 따라오는 연결 → 대기열을 버리고 종료
+        private void evict() {
+            if (evicted.compareAndSet(false, true)) {
+                evictedClients.incrementAndGet();
+                printDisplay("느린 연결 종료 (" + userId + "): 송신 대기 " + (outbound.getQueuedBytes() / 1024) + "KB");
+                close();
+            }
+        }
+
+        // 쌓인 프레임을 버퍼에 모두 쓴 뒤 한 번만 flush
+        private void drainOutbound() {
             try {
-                out.writeObject(msg);
-                out.flush();
+                while (true) {
+                    ByteBuffer frame;
+                    while ((frame = outbound.poll()) != null) {
+                        int length = frame.remaining();
+                        out.write(frame.array(), frame.arrayOffset() + frame.position(), length);
+                        outbound.release(length);
+                    }
+                    out.flush();
+
+                    drainScheduled.set(false);
+                    if (outbound.isEmpty() || !drainScheduled.compareAndSet(false, true)) {
+                        return;
+                    }
+                }
             } catch (IOException e) {
-                printDisplay("메시지 전송 오류 (" + userId + "): " + e.getMessage());
+                if (!closed.get()) {
+                    printDisplay("메시지 전송 오류 (" + userId + "): " + e.getMessage());
+                }
+                close();
             }
         }
 
         // 연결 종로
         public void close() {
+            if (!closed.compareAndSet(false, true)) {
+                return;
+            }
             try {
-                // 게임 중도 접속 끊김 처리
-                if (currentRoom != null && currentRoom.isGameRunning) {
-                    if (currentRoom.gameMode == Message.GameMode.ONE_VS_ONE) {
-                        // 1v1: 끊긴 플레이어 자동 패배
-                        for (ClientHandler p : currentRoom.players) {
-                            if(!p.userId.equals(userId)) {
-                                currentRoom.endGame(p.userId, false, 0);
-                                break;
-                            }
-                        }
-                    } else {
-                        // 2v2: 끊긴 플레이어의 팀 자동 패배
-                        int disconnectedTeam = currentRoom.playerTeams.getOrDefault(userId, 0);
-                        if (disconnectedTeam != 0) {
-                            int winnerTeam = (disconnectedTeam == 1) ? 2 : 1;
-                            currentRoom.endGame(null, false, winnerTeam);
-                    }
+                lobbyFeed.unsubscribe(this);
+                if (userId != null) {
+                    matchmaking.cancel(userId);
+                }
+                if (outbound != null) {
+                    outbound.clear();
+                }
+                if (bot != null) {
+                    activeBots.decrementAndGet();
                 }
-                    }
 
-                if (currentRoom != null) {
-                    currentRoom.removePlayer(this);
-                    currentRoom = null;
+                // 방에 있으면 방 액터가 몰수패/퇴장 처리
+                GameRoom room = currentRoom;
+                if (room != null) {
+                    room.post(() -> room.disconnect(this));
                 }
 
                 if(userId != null) {
-                    clients.remove(this);
+                    clients.remove(userId, this);
                     printDisplay(userId + " 연결 종료");
                 }
 
                 if (socket != null && !socket.isClosed()) {
                     socket.close();
                 }
+                if (connection != null) {
+                    connection.close();
+                }
             } catch (IOException e) {
                 printDisplay("소켓 종료 오류: " + e.getMessage());
             }
@@ -1242,8 +2391,20 @@ public class BaseballServerGUI extends JFrame {
 
     // --- main 메서드 ---
 
-    public static void main(String[] args) {
-        new BaseballServerGUI(54321);
+    // 인자 없이 실행하면 서버 화면, 아래 인자를 주면 화면 없이 부하 테스트만 하고 종료
+    // --room-stress [방 수]: 방 스트레스 테스트 / --royale-load [봇 수]: 배틀로얄 부하 테스트
+    public static void main(String[] args) throws InterruptedException {
+        if (args.length > 0 && (args[0].equals("--room-stress") || args[0].equals("--royale-load"))) {
+            BaseballServerGUI server = new BaseballServerGUI(54321, true);
+            server.roomRegistry.setCapacity(ServerMode.NIO.maxRooms);
+            if (args[0].equals("--room-stress")) {
+                server.runRoomStressTest(args.length > 1 ? Integer.parseInt(args[1]) : 2000);
+            } else {
+                server.runRoyaleLoadTest(args.length > 1 ? Integer.parseInt(args[1]) : 500);
+            }
+            System.exit(0); // 종료 훅에서 남은 기록 반영
+        }
+        new BaseballServerGUI(54321, false);
     }
 }
 
@@ -0,0 +1,194 @@
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.random.RandomGenerator;
+
+/**
+ * 배틀로얄 규칙 (한 방에서 수백 명이 같은 정답을 동시에 맞히는 모드)
+ * 라운드마다 모든 참가자가 한 번씩 추측할 수 있고, 가장 먼저 맞힌 사람이 이긴다.
+ * 마지막 라운드까지 아무도 못 맞히면 무승부.
+ *
+ * 추측(guess)은 방 액터를 거치지 않고 받은 스레드에서 바로 처리하며 락을 쓰지 않는다.
+ * - 참가자별 상태는 캐시 라인 하나씩 떨어진 칸에 두어 서로 다른 참가자의 추측끼리 경쟁하지 않음
+ * - 라운드당 한 번 제한은 참가자 칸의 CAS, 승자/종료 결정은 outcome CAS 한 번
+ * 라운드 진행(nextRound), 순위(ranking), 중단(abort)은 방 액터 한 곳에서만 호출한다.
+ */
+public class BattleRoyale {
+
+    public static final int MAX_ROUNDS = GameEngine.MAX_ROUNDS;
+
+    // guess 결과 (0 이상이면 판정 값, 맞혀서 승자가 되면 WON 비트가 붙음)
+    public static final int NOT_RUNNING = -1;      // 게임 중이 아니거나 참가자가 아님
+    public static final int ALREADY_GUESSED = -2;  // 이번 라운드에 이미 추측함
+    public static final int INVALID = -3;          // 자릿수/숫자 형식 오류
+    public static final int WON = 0x100;           // 판정 값(strike << 4 | ball)보다 큰 비트
+
+    // 참가자 칸: int 16개(64바이트)마다 한 명 (거짓 공유 방지)
+    private static final int SLOT_SHIFT = 4;
+    private static final int GUESSED_ROUND = 0;    // 마지막으로 추측한 라운드
+    private static final int BEST_SCORE = 1;       // 가장 좋은 판정 + 1 (0 = 추측 없음)
+    private static final int GUESS_COUNT = 2;      // 추측 횟수
+
+    // outcome 값 (0 이상이면 승자 번호)
+    private static final int READY = -1;
+    private static final int RUNNING = -2;
+    private static final int NO_WINNER = -3;
+
+    private final Message.Difficulty difficulty;
+    private final AnswerSpace space;
+    private final String[] playerIds;
+    private final HashMap<String, Integer> indexes = new HashMap<>(); // 생성 후 읽기만
+    private final AtomicIntegerArray slots;
+    private final AtomicInteger outcome = new AtomicInteger(READY);
+
+    private volatile long answer;
+    private volatile int round;
+
+    public BattleRoyale(Message.Difficulty difficulty, String[] playerIds) {
+        this.difficulty = difficulty;
+        this.space = AnswerSpace.forDifficulty(difficulty);
+        this.playerIds = playerIds.clone();
+        for (int i = 0; i < playerIds.length; i++) {
+            indexes.put(playerIds[i], i);
+        }
+        this.slots = new AtomicIntegerArray(playerIds.length << SLOT_SHIFT);
+    }
+
+    /**
+     * 게임 시작 (정답 생성 후 1라운드)
+     */
+    public void start(RandomGenerator random) {
+        answer = space.candidateAt(random.nextInt(space.size()));
+        round = 1;
+        // outcome의 volatile 쓰기로 정답/라운드가 다른 스레드에 보임
+        outcome.set(RUNNING);
+    }
+
+    /**
+     * 추측 (여러 스레드에서 동시에 호출 가능)
+     * @return 판정 값 (맞혀서 승자가 됐으면 | WON), 실패면 NOT_RUNNING / ALREADY_GUESSED / INVALID
+     */
+    public int guess(String playerId, long packedGuess) {
+        Integer index = indexes.get(playerId);
+        if (index == null || outcome.get() != RUNNING) {
+            return NOT_RUNNING;
+        }
+        if (!ScoringKernel.isValid(packedGuess, difficulty.getDigitCount(), difficulty.isAllowZero())) {
+            return INVALID;
+        }
+
+        // 이번 라운드 추측권 차지 (같은 참가자의 중복 요청만 경쟁)
+        int base = index << SLOT_SHIFT;
+        int r = round;
+        int last = slots.get(base + GUESSED_ROUND);
+        if (last >= r || !slots.compareAndSet(base + GUESSED_ROUND, last, r)) {
+            return ALREADY_GUESSED;
+        }
+
+        int score = ScoringKernel.score(answer, packedGuess);
+        slots.incrementAndGet(base + GUESS_COUNT);
+        slots.accumulateAndGet(base + BEST_SCORE, score + 1, Math::max);
+
+        // 처음 맞힌 한 명만 승자 (같은 순간 마지막 라운드 마감과도 여기서 갈림)
+        if (ScoringKernel.strikes(score) == difficulty.getDigitCount()
+                && outcome.compareAndSet(RUNNING, index)) {
+            return score | WON;
+        }
+        return score;
+    }
+
+    /**
+     * 라운드 마감 후 다음 라운드로 (방 액터)
+     * @return 다음 라운드가 시작되면 true, 이미 승자가 있거나 마지막 라운드였으면 false (마지막이면 승자 없이 종료)
+     */
+    public boolean nextRound() {
+        if (outcome.get() != RUNNING) {
+            return false;
+        }
+        if (round >= MAX_ROUNDS) {
+            outcome.compareAndSet(RUNNING, NO_WINNER);
+            return false;
+        }
+        round++;
+        return true;
+    }
+
+    /**
+     * 결과 없이 중단 (방이 비었을 때)
+     */
+    public void abort() {
+        outcome.compareAndSet(RUNNING, NO_WINNER);
+    }
+
+    public boolean isRunning() {
+        return outcome.get() == RUNNING;
+    }
+
+    public int getRound() {
+        return round;
+    }
+
+    public long getAnswer() {
+        return answer;
+    }
+
+    public int getPlayerCount() {
+        return playerIds.length;
+    }
+
+    // 승자 (없으면 null)
+    public String getWinnerId() {
+        int o = outcome.get();
+        return o >= 0 ? playerIds[o] : null;
+    }
+
+    public String getPlayerId(int index) {
+        return playerIds[index];
+    }
+
+    // 가장 좋은 판정 (추측이 없으면 -1)
+    public int getBestScore(int index) {
+        return slots.get((index << SLOT_SHIFT) + BEST_SCORE) - 1;
+    }
+
+    public int getGuessCount(int index) {
+        return slots.get((index << SLOT_SHIFT) + GUESS_COUNT);
+    }
+
+    // 이번 라운드에 추측한 인원
+    public int getGuessedThisRound() {
+        int r = round;
+        int count = 0;
+        for (int i = 0; i < playerIds.length; i++) {
+            if (slots.get((i << SLOT_SHIFT) + GUESSED_ROUND) == r) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 상위 limit명의 참가자 번호 (승자 먼저, 그다음 가장 좋은 판정 → 적은 추측 횟수 → 참가 순)
+     * 참가자마다 정렬 키를 long 하나로 만들어 기본형 배열 정렬 한 번으로 처리한다.
+     */
+    public int[] ranking(int limit) {
+        int n = playerIds.length;
+        int winner = outcome.get();
+        long[] keys = new long[n];
+        for (int i = 0; i < n; i++) {
+            int base = i << SLOT_SHIFT;
+            long best = (i == winner) ? 0xFFF : slots.get(base + BEST_SCORE);  // 클수록 앞
+            long fewer = 0xFFFF - slots.get(base + GUESS_COUNT);              // 클수록 앞
+            long order = 0xFFFF - i;                                          // 먼저 들어온 사람이 앞
+            keys[i] = (best << 32) | (fewer << 16) | order;
+        }
+        Arrays.sort(keys);
+
+        int[] top = new int[Math.min(limit, n)];
+        for (int k = 0; k < top.length; k++) {
+            top[k] = 0xFFFF - (int) (keys[n - 1 - k] & 0xFFFF);
+        }
+        return top;
+    }
+}
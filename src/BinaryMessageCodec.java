@@ -0,0 +1,565 @@
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * 바이너리 메시지 코덱
+ *
+ * 포맷: [타입 1바이트][존재 비트마스크 varint][타임스탬프 varint(epoch ms)][존재하는 필드들...]
+ * - 대부분 null/0인 필드는 비트마스크로만 표시하고 본문에는 쓰지 않음
+ * - boolean 필드는 비트마스크 자체에 값을 담음
+ * - 정수는 zigzag varint, 문자열은 [길이 varint][UTF-8], enum은 고정 wire 코드 1바이트
+ * - data 페이로드는 타입 태그를 붙여 방 정보/전적/기록에 쓰이는 컬렉션을 직접 인코딩
+ *   (그 외 타입은 보내지도 받지도 않음 - 받은 바이트로 Java 역직렬화를 하지 않기 위해)
+ * enum은 ordinal이 아니라 아래 WireTable의 코드로 보내므로 Message의 상수 순서가 바뀌어도 호환된다.
+ * 상수를 추가하면 해당 표의 끝에만 붙이고 (기존 코드는 바꾸지 않음), 빠뜨리면 클래스 초기화에서 실패한다.
+ * 코드 배정이 바뀌면 FrameCodec의 핸드셰이크 버전을 올린다.
+ */
+public final class BinaryMessageCodec implements MessageCodec {
+
+    public static final BinaryMessageCodec INSTANCE = new BinaryMessageCodec();
+
+    // 존재 비트 (필드 순서)
+    private static final int F_USER_ID = 0;
+    private static final int F_CONTENT = 1;
+    private static final int F_PASSWORD = 2;
+    private static final int F_CHARACTER = 3;
+    private static final int F_SUCCESS = 4;
+    private static final int F_ROOM_ID = 5;
+    private static final int F_ROOM_NAME = 6;
+    private static final int F_ROOM_MASTER = 7;
+    private static final int F_PRIVATE = 8;
+    private static final int F_ROOM_PASSWORD = 9;
+    private static final int F_CURRENT_PLAYERS = 10;
+    private static final int F_MAX_PLAYERS = 11;
+    private static final int F_ROOM_STATUS = 12;
+    private static final int F_GAME_MODE = 13;
+    private static final int F_DIFFICULTY = 14;
+    private static final int F_TURN_TIME_LIMIT = 15;
+    private static final int F_GAME_ID = 16;
+    private static final int F_ROUND = 17;
+    private static final int F_TOP = 18;
+    private static final int F_CURRENT_TURN_PLAYER = 19;
+    private static final int F_TEAM_NUMBER = 20;
+    private static final int F_GUESS = 21;
+    private static final int F_STRIKE = 22;
+    private static final int F_BALL = 23;
+    private static final int F_WINNER_ID = 24;
+    private static final int F_WINNER_TEAM = 25;
+    private static final int F_DRAW = 26;
+    private static final int F_TARGET_USER_ID = 27;
+    private static final int F_USER_STATUS = 28;
+    private static final int F_READY = 29;
+    private static final int F_SPECTATOR = 30;
+    private static final int F_ALLOW_SPECTATORS = 31;
+    private static final int F_TARGET_PLAYER_ID = 32;
+    private static final int F_ERROR_CODE = 33;
+    private static final int F_ERROR_MESSAGE = 34;
+    private static final int F_DATA = 35;
+
+    // data 값 타입 태그
+    private static final byte T_NULL = 0;
+    private static final byte T_STRING = 1;
+    private static final byte T_BOOLEAN = 2;
+    private static final byte T_INT = 3;
+    private static final byte T_LONG = 4;
+    private static final byte T_DOUBLE = 5;
+    private static final byte T_VECTOR = 6;
+    private static final byte T_ARRAY_LIST = 7;
+    private static final byte T_HASHTABLE = 8;
+    private static final byte T_HASH_MAP = 9;
+    private static final byte T_MESSAGE = 10;
+    private static final byte T_SERIALIZED = 11;   // 예전의 Java 직렬화 값 (더 이상 쓰지 않음, 받으면 거부)
+
+    // data 안의 컬렉션/메시지 중첩 한도 (한 단계에 2바이트면 만들 수 있으므로 재귀 깊이를 제한)
+    private static final int MAX_DEPTH = 32;
+
+    // enum wire 코드 (배열 위치 = 코드, 새 상수는 끝에만 추가)
+    private static final WireTable<Message.MessageType> TYPES = new WireTable<>(Message.MessageType.class,
+            // 0~
+            Message.MessageType.LOGIN_REQUEST, Message.MessageType.LOGIN_RESPONSE,
+            Message.MessageType.REGISTER_REQUEST, Message.MessageType.REGISTER_RESPONSE,
+            Message.MessageType.LOGOUT, Message.MessageType.ROOM_LIST_REQUEST,
+            Message.MessageType.ROOM_LIST_RESPONSE, Message.MessageType.CREATE_ROOM_REQUEST,
+            Message.MessageType.CREATE_ROOM_RESPONSE, Message.MessageType.JOIN_ROOM_REQUEST,
+            // 10~
+            Message.MessageType.JOIN_ROOM_RESPONSE, Message.MessageType.JOIN_AS_SPECTATOR,
+            Message.MessageType.SPECTATOR_LIST_UPDATE, Message.MessageType.LEAVE_ROOM,
+            Message.MessageType.ROOM_INFO_UPDATE, Message.MessageType.KICK_PLAYER,
+            Message.MessageType.READY, Message.MessageType.READY_CANCEL,
+            Message.MessageType.READY_STATUS_UPDATE, Message.MessageType.START_GAME_REQUEST,
+            // 20~
+            Message.MessageType.START_GAME, Message.MessageType.TURN_INFO,
+            Message.MessageType.GUESS, Message.MessageType.GUESS_RESULT,
+            Message.MessageType.TURN_TIMEOUT, Message.MessageType.END_GAME,
+            Message.MessageType.GAME_RESULT, Message.MessageType.STAY_IN_ROOM,
+            Message.MessageType.CHAT_ALL, Message.MessageType.CHAT_ROOM,
+            // 30~
+            Message.MessageType.CHAT_TEAM, Message.MessageType.CHAT_WHISPER,
+            Message.MessageType.STATS_REQUEST, Message.MessageType.STATS_RESPONSE,
+            Message.MessageType.GAME_HISTORY_REQUEST, Message.MessageType.GAME_HISTORY_RESPONSE,
+            Message.MessageType.RANKING_REQUEST, Message.MessageType.RANKING_RESPONSE,
+            Message.MessageType.QUICK_MATCH_REQUEST, Message.MessageType.QUICK_MATCH_CANCEL,
+            // 40~
+            Message.MessageType.MATCH_FOUND, Message.MessageType.USER_STATUS_UPDATE,
+            Message.MessageType.USER_LIST_REQUEST, Message.MessageType.USER_LIST_RESPONSE,
+            Message.MessageType.ERROR, Message.MessageType.REPLAY_REQUEST,
+            Message.MessageType.REPLAY_RESPONSE, Message.MessageType.LOBBY_SUBSCRIBE,
+            Message.MessageType.LOBBY_UNSUBSCRIBE, Message.MessageType.ROOM_LIST_DELTA,
+            // 50~
+            Message.MessageType.HINT_REQUEST, Message.MessageType.HINT_RESPONSE,
+            Message.MessageType.ADD_BOT, Message.MessageType.ROYALE_LEADERBOARD,
+            Message.MessageType.TEAM_GUESS_RESULT);
+    private static final WireTable<Message.RoomStatus> ROOM_STATUSES = new WireTable<>(Message.RoomStatus.class,
+            Message.RoomStatus.WAITING, Message.RoomStatus.IN_GAME);
+    private static final WireTable<Message.GameMode> GAME_MODES = new WireTable<>(Message.GameMode.class,
+            Message.GameMode.ONE_VS_ONE, Message.GameMode.TWO_VS_TWO, Message.GameMode.BATTLE_ROYALE);
+    private static final WireTable<Message.Difficulty> DIFFICULTIES = new WireTable<>(Message.Difficulty.class,
+            Message.Difficulty.EASY, Message.Difficulty.MEDIUM, Message.Difficulty.HARD,
+            Message.Difficulty.DIGITS_6, Message.Difficulty.DIGITS_7, Message.Difficulty.DIGITS_8,
+            Message.Difficulty.DIGITS_9, Message.Difficulty.DIGITS_6_ZERO, Message.Difficulty.DIGITS_7_ZERO,
+            Message.Difficulty.DIGITS_8_ZERO, Message.Difficulty.DIGITS_9_ZERO, Message.Difficulty.DIGITS_10_ZERO);
+    private static final WireTable<Message.TurnTimeLimit> TIME_LIMITS = new WireTable<>(Message.TurnTimeLimit.class,
+            Message.TurnTimeLimit.FIFTEEN, Message.TurnTimeLimit.THIRTY, Message.TurnTimeLimit.SIXTY);
+    private static final WireTable<Message.UserStatus> USER_STATUSES = new WireTable<>(Message.UserStatus.class,
+            Message.UserStatus.ONLINE, Message.UserStatus.IN_ROOM, Message.UserStatus.IN_GAME,
+            Message.UserStatus.OFFLINE);
+    private static final WireTable<Message.ErrorCode> ERROR_CODES = new WireTable<>(Message.ErrorCode.class,
+            Message.ErrorCode.DUPLICATE_ID, Message.ErrorCode.LOGIN_FAILED, Message.ErrorCode.ALREADY_LOGGED_IN,
+            Message.ErrorCode.ROOM_FULL, Message.ErrorCode.ROOM_NOT_FOUND, Message.ErrorCode.ROOM_IN_GAME,
+            Message.ErrorCode.WRONG_PASSWORD, Message.ErrorCode.NOT_ENOUGH_PLAYERS,
+            Message.ErrorCode.NOT_ROOM_MASTER, Message.ErrorCode.SPECTATOR_NOT_ALLOWED,
+            Message.ErrorCode.CANNOT_KICK_PLAYER, Message.ErrorCode.TURN_TIMEOUT,
+            Message.ErrorCode.INVALID_INPUT_FORMAT, Message.ErrorCode.DUPLICATE_DIGITS,
+            Message.ErrorCode.OUT_OF_RANGE, Message.ErrorCode.SERVER_FULL, Message.ErrorCode.UNKNOWN_ERROR);
+
+    private BinaryMessageCodec() {
+    }
+
+    @Override
+    public byte getId() {
+        return BINARY;
+    }
+
+    // ========== Encode ==========
+
+    @Override
+    public byte[] encode(Message msg) throws IOException {
+        Writer w = new Writer(64);
+        writeMessage(w, msg);
+        return w.toByteArray();
+    }
+
+    private void writeMessage(Writer w, Message m) throws IOException {
+        long mask = 0;
+        mask |= bit(F_USER_ID, m.getUserId() != null);
+        mask |= bit(F_CONTENT, m.getContent() != null);
+        mask |= bit(F_PASSWORD, m.getPassword() != null);
+        mask |= bit(F_CHARACTER, m.getCharacter() != null);
+        mask |= bit(F_SUCCESS, m.isSuccess());
+        mask |= bit(F_ROOM_ID, m.getRoomId() != 0);
+        mask |= bit(F_ROOM_NAME, m.getRoomName() != null);
+        mask |= bit(F_ROOM_MASTER, m.getRoomMaster() != null);
+        mask |= bit(F_PRIVATE, m.isPrivate());
+        mask |= bit(F_ROOM_PASSWORD, m.getRoomPassword() != null);
+        mask |= bit(F_CURRENT_PLAYERS, m.getCurrentPlayers() != 0);
+        mask |= bit(F_MAX_PLAYERS, m.getMaxPlayers() != 0);
+        mask |= bit(F_ROOM_STATUS, m.getRoomStatus() != null);
+        mask |= bit(F_GAME_MODE, m.getGameMode() != null);
+        mask |= bit(F_DIFFICULTY, m.getDifficulty() != null);
+        mask |= bit(F_TURN_TIME_LIMIT, m.getTurnTimeLimit() != null);
+        mask |= bit(F_GAME_ID, m.getGameId() != null);
+        mask |= bit(F_ROUND, m.getRound() != 0);
+        mask |= bit(F_TOP, m.isTop());
+        mask |= bit(F_CURRENT_TURN_PLAYER, m.getCurrentTurnPlayer() != null);
+        mask |= bit(F_TEAM_NUMBER, m.getTeamNumber() != 0);
+        mask |= bit(F_GUESS, m.getGuess() != null);
+        mask |= bit(F_STRIKE, m.getStrike() != 0);
+        mask |= bit(F_BALL, m.getBall() != 0);
+        mask |= bit(F_WINNER_ID, m.getWinnerId() != null);
+        mask |= bit(F_WINNER_TEAM, m.getWinnerTeam() != 0);
+        mask |= bit(F_DRAW, m.isDraw());
+        mask |= bit(F_TARGET_USER_ID, m.getTargetUserId() != null);
+        mask |= bit(F_USER_STATUS, m.getUserStatus() != null);
+        mask |= bit(F_READY, m.isReady());
+        mask |= bit(F_SPECTATOR, m.isSpectator());
+        mask |= bit(F_ALLOW_SPECTATORS, m.isAllowSpectators());
+        mask |= bit(F_TARGET_PLAYER_ID, m.getTargetPlayerId() != null);
+        mask |= bit(F_ERROR_CODE, m.getErrorCode() != null);
+        mask |= bit(F_ERROR_MESSAGE, m.getErrorMessage() != null);
+        mask |= bit(F_DATA, m.getData() != null);
+
+        w.writeByte(TYPES.codeOf(m.getType()));
+        w.writeVarLong(mask);
+        w.writeVarLong(m.getTimestampMillis());
+
+        if (has(mask, F_USER_ID)) w.writeString(m.getUserId());
+        if (has(mask, F_CONTENT)) w.writeString(m.getContent());
+        if (has(mask, F_PASSWORD)) w.writeString(m.getPassword());
+        if (has(mask, F_CHARACTER)) w.writeString(m.getCharacter());
+        if (has(mask, F_ROOM_ID)) w.writeVarInt(m.getRoomId());
+        if (has(mask, F_ROOM_NAME)) w.writeString(m.getRoomName());
+        if (has(mask, F_ROOM_MASTER)) w.writeString(m.getRoomMaster());
+        if (has(mask, F_ROOM_PASSWORD)) w.writeString(m.getRoomPassword());
+        if (has(mask, F_CURRENT_PLAYERS)) w.writeVarInt(m.getCurrentPlayers());
+        if (has(mask, F_MAX_PLAYERS)) w.writeVarInt(m.getMaxPlayers());
+        if (has(mask, F_ROOM_STATUS)) w.writeByte(ROOM_STATUSES.codeOf(m.getRoomStatus()));
+        if (has(mask, F_GAME_MODE)) w.writeByte(GAME_MODES.codeOf(m.getGameMode()));
+        if (has(mask, F_DIFFICULTY)) w.writeByte(DIFFICULTIES.codeOf(m.getDifficulty()));
+        if (has(mask, F_TURN_TIME_LIMIT)) w.writeByte(TIME_LIMITS.codeOf(m.getTurnTimeLimit()));
+        if (has(mask, F_GAME_ID)) w.writeString(m.getGameId());
+        if (has(mask, F_ROUND)) w.writeVarInt(m.getRound());
+        if (has(mask, F_CURRENT_TURN_PLAYER)) w.writeString(m.getCurrentTurnPlayer());
+        if (has(mask, F_TEAM_NUMBER)) w.writeVarInt(m.getTeamNumber());
+        if (has(mask, F_GUESS)) w.writeString(m.getGuess());
+        if (has(mask, F_STRIKE)) w.writeVarInt(m.getStrike());
+        if (has(mask, F_BALL)) w.writeVarInt(m.getBall());
+        if (has(mask, F_WINNER_ID)) w.writeString(m.getWinnerId());
+        if (has(mask, F_WINNER_TEAM)) w.writeVarInt(m.getWinnerTeam());
+        if (has(mask, F_TARGET_USER_ID)) w.writeString(m.getTargetUserId());
+        if (has(mask, F_USER_STATUS)) w.writeByte(USER_STATUSES.codeOf(m.getUserStatus()));
+        if (has(mask, F_TARGET_PLAYER_ID)) w.writeString(m.getTargetPlayerId());
+        if (has(mask, F_ERROR_CODE)) w.writeByte(ERROR_CODES.codeOf(m.getErrorCode()));
+        if (has(mask, F_ERROR_MESSAGE)) w.writeString(m.getErrorMessage());
+        if (has(mask, F_DATA)) writeValue(w, m.getData());
+    }
+
+    // data 값 기록 (타입 태그 + 값)
+    private void writeValue(Writer w, Object value) throws IOException {
+        if (value == null) {
+            w.writeByte(T_NULL);
+        } else if (value instanceof String) {
+            w.writeByte(T_STRING);
+            w.writeString((String) value);
+        } else if (value instanceof Boolean) {
+            w.writeByte(T_BOOLEAN);
+            w.writeByte((Boolean) value ? 1 : 0);
+        } else if (value instanceof Integer) {
+            w.writeByte(T_INT);
+            w.writeVarInt((Integer) value);
+        } else if (value instanceof Long) {
+            w.writeByte(T_LONG);
+            w.writeVarLong(zigZag((Long) value));
+        } else if (value instanceof Double) {
+            w.writeByte(T_DOUBLE);
+            w.writeLong(Double.doubleToLongBits((Double) value));
+        } else if (value instanceof Message) {
+            w.writeByte(T_MESSAGE);
+            writeMessage(w, (Message) value);
+        } else if (value instanceof Vector || value instanceof ArrayList) {
+            List<?> list = (List<?>) value;
+            w.writeByte(value instanceof Vector ? T_VECTOR : T_ARRAY_LIST);
+            w.writeVarLong(list.size());
+            for (Object e : list) {
+                writeValue(w, e);
+            }
+        } else if (value instanceof Hashtable || value instanceof HashMap) {
+            Map<?, ?> map = (Map<?, ?>) value;
+            w.writeByte(value instanceof Hashtable ? T_HASHTABLE : T_HASH_MAP);
+            w.writeVarLong(map.size());
+            for (Map.Entry<?, ?> e : map.entrySet()) {
+                writeValue(w, e.getKey());
+                writeValue(w, e.getValue());
+            }
+        } else {
+            throw new NotSerializableException("바이너리 코덱이 지원하지 않는 data 타입: " + value.getClass().getName());
+        }
+    }
+
+    // ========== Decode ==========
+
+    @Override
+    public Message decode(byte[] buf, int offset, int length) throws IOException {
+        Reader r = new Reader(buf, offset, offset + length);
+        Message msg = readMessage(r, 0);
+        if (r.pos != r.limit) {
+            throw new StreamCorruptedException("바이너리 메시지 길이 불일치");
+        }
+        return msg;
+    }
+
+    private Message readMessage(Reader r, int depth) throws IOException {
+        Message m = new Message(r.readEnum(TYPES));
+        long mask = r.readVarLong();
+        m.setTimestampMillis(r.readVarLong());
+
+        m.setSuccess(has(mask, F_SUCCESS));
+        m.setPrivate(has(mask, F_PRIVATE));
+        m.setTop(has(mask, F_TOP));
+        m.setDraw(has(mask, F_DRAW));
+        m.setReady(has(mask, F_READY));
+        m.setSpectator(has(mask, F_SPECTATOR));
+        m.setAllowSpectators(has(mask, F_ALLOW_SPECTATORS));
+
+        if (has(mask, F_USER_ID)) m.setUserId(r.readString());
+        if (has(mask, F_CONTENT)) m.setContent(r.readString());
+        if (has(mask, F_PASSWORD)) m.setPassword(r.readString());
+        if (has(mask, F_CHARACTER)) m.setCharacter(r.readString());
+        if (has(mask, F_ROOM_ID)) m.setRoomId(r.readVarInt());
+        if (has(mask, F_ROOM_NAME)) m.setRoomName(r.readString());
+        if (has(mask, F_ROOM_MASTER)) m.setRoomMaster(r.readString());
+        if (has(mask, F_ROOM_PASSWORD)) m.setRoomPassword(r.readString());
+        if (has(mask, F_CURRENT_PLAYERS)) m.setCurrentPlayers(r.readVarInt());
+        if (has(mask, F_MAX_PLAYERS)) m.setMaxPlayers(r.readVarInt());
+        if (has(mask, F_ROOM_STATUS)) m.setRoomStatus(r.readEnum(ROOM_STATUSES));
+        if (has(mask, F_GAME_MODE)) m.setGameMode(r.readEnum(GAME_MODES));
+        if (has(mask, F_DIFFICULTY)) m.setDifficulty(r.readEnum(DIFFICULTIES));
+        if (has(mask, F_TURN_TIME_LIMIT)) m.setTurnTimeLimit(r.readEnum(TIME_LIMITS));
+        if (has(mask, F_GAME_ID)) m.setGameId(r.readString());
+        if (has(mask, F_ROUND)) m.setRound(r.readVarInt());
+        if (has(mask, F_CURRENT_TURN_PLAYER)) m.setCurrentTurnPlayer(r.readString());
+        if (has(mask, F_TEAM_NUMBER)) m.setTeamNumber(r.readVarInt());
+        if (has(mask, F_GUESS)) m.setGuess(r.readString());
+        if (has(mask, F_STRIKE)) m.setStrike(r.readVarInt());
+        if (has(mask, F_BALL)) m.setBall(r.readVarInt());
+        if (has(mask, F_WINNER_ID)) m.setWinnerId(r.readString());
+        if (has(mask, F_WINNER_TEAM)) m.setWinnerTeam(r.readVarInt());
+        if (has(mask, F_TARGET_USER_ID)) m.setTargetUserId(r.readString());
+        if (has(mask, F_USER_STATUS)) m.setUserStatus(r.readEnum(USER_STATUSES));
+        if (has(mask, F_TARGET_PLAYER_ID)) m.setTargetPlayerId(r.readString());
+        if (has(mask, F_ERROR_CODE)) m.setErrorCode(r.readEnum(ERROR_CODES));
+        if (has(mask, F_ERROR_MESSAGE)) m.setErrorMessage(r.readString());
+        if (has(mask, F_DATA)) {
+            Object data = readValue(r, depth + 1);
+            if (data != null && !(data instanceof Serializable)) {
+                throw new StreamCorruptedException("직렬화할 수 없는 data 타입");
+            }
+            m.setData((Serializable) data);
+        }
+        return m;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Object readValue(Reader r, int depth) throws IOException {
+        if (depth > MAX_DEPTH) {
+            throw new StreamCorruptedException("data 중첩이 너무 깊음");
+        }
+        byte tag = r.readByte();
+        switch (tag) {
+            case T_NULL:
+                return null;
+            case T_STRING:
+                return r.readString();
+            case T_BOOLEAN:
+                return r.readByte() != 0;
+            case T_INT:
+                return r.readVarInt();
+            case T_LONG:
+                return unZigZag(r.readVarLong());
+            case T_DOUBLE:
+                return Double.longBitsToDouble(r.readLong());
+            case T_MESSAGE:
+                return readMessage(r, depth);
+            case T_VECTOR:
+            case T_ARRAY_LIST: {
+                int size = r.readLength();
+                List list = (tag == T_VECTOR) ? new Vector(size) : new ArrayList(size);
+                for (int i = 0; i < size; i++) {
+                    list.add(readValue(r, depth + 1));
+                }
+                return list;
+            }
+            case T_HASHTABLE:
+            case T_HASH_MAP: {
+                int size = r.readLength();
+                Map map = (tag == T_HASHTABLE) ? new Hashtable(size * 2) : new HashMap(size * 2);
+                for (int i = 0; i < size; i++) {
+                    Object key = readValue(r, depth + 1);
+                    Object value = readValue(r, depth + 1);
+                    if (tag == T_HASHTABLE && (key == null || value == null)) {
+                        throw new StreamCorruptedException("Hashtable에 null 키/값");
+                    }
+                    map.put(key, value);
+                }
+                return map;
+            }
+            case T_SERIALIZED:
+                // 클라이언트가 보낸 바이트로 임의 클래스를 역직렬화하지 않음
+                throw new StreamCorruptedException("직렬화된 data는 받지 않음");
+            default:
+                throw new StreamCorruptedException("알 수 없는 data 태그: " + tag);
+        }
+    }
+
+    // ========== Helpers ==========
+
+    private static long bit(int index, boolean present) {
+        return present ? (1L << index) : 0L;
+    }
+
+    private static boolean has(long mask, int index) {
+        return (mask & (1L << index)) != 0;
+    }
+
+    private static long zigZag(long v) {
+        return (v << 1) ^ (v >> 63);
+    }
+
+    private static long unZigZag(long v) {
+        return (v >>> 1) ^ -(v & 1);
+    }
+
+    // enum 상수 ↔ wire 코드 (모든 상수가 정확히 한 번씩 있어야 함)
+    private static final class WireTable<E extends Enum<E>> {
+        private final E[] byCode;
+        private final byte[] codeByOrdinal;
+
+        @SafeVarargs
+        WireTable(Class<E> type, E... byCode) {
+            E[] constants = type.getEnumConstants();
+            if (byCode.length != constants.length || byCode.length > 256) {
+                throw new IllegalStateException(type.getSimpleName() + " wire 코드 표가 상수 목록과 다릅니다");
+            }
+            // 가변 인자 배열을 그대로 보관하지 않고 새 배열(getEnumConstants 결과)에 코드 순서로 옮김
+            this.byCode = constants;
+            this.codeByOrdinal = new byte[constants.length];
+            boolean[] seen = new boolean[constants.length];
+            for (int code = 0; code < byCode.length; code++) {
+                int ordinal = byCode[code].ordinal();
+                if (seen[ordinal]) {
+                    throw new IllegalStateException(type.getSimpleName() + " wire 코드 중복: " + byCode[code]);
+                }
+                seen[ordinal] = true;
+                codeByOrdinal[ordinal] = (byte) code;
+                this.byCode[code] = byCode[code];
+            }
+        }
+
+        int codeOf(E value) {
+            return codeByOrdinal[value.ordinal()] & 0xFF;
+        }
+
+        E byCode(int code) throws IOException {
+            if (code >= byCode.length) {
+                throw new StreamCorruptedException("잘못된 enum 값: " + code);
+            }
+            return byCode[code];
+        }
+    }
+
+    // 확장 가능한 바이트 버퍼
+    private static final class Writer {
+        private byte[] buf;
+        private int pos;
+
+        Writer(int capacity) {
+            buf = new byte[capacity];
+        }
+
+        private void ensure(int extra) {
+            if (pos + extra > buf.length) {
+                buf = Arrays.copyOf(buf, Math.max(buf.length * 2, pos + extra));
+            }
+        }
+
+        void writeByte(int b) {
+            ensure(1);
+            buf[pos++] = (byte) b;
+        }
+
+        void writeBytes(byte[] src, int off, int len) {
+            ensure(len);
+            System.arraycopy(src, off, buf, pos, len);
+            pos += len;
+        }
+
+        void writeLong(long v) {
+            ensure(8);
+            for (int i = 7; i >= 0; i--) {
+                buf[pos++] = (byte) (v >>> (i * 8));
+            }
+        }
+
+        // zigzag varint (음수도 짧게)
+        void writeVarInt(int v) {
+            writeVarLong(zigZag(v));
+        }
+
+        void writeVarLong(long v) {
+            ensure(10);
+            while ((v & ~0x7FL) != 0) {
+                buf[pos++] = (byte) ((v & 0x7F) | 0x80);
+                v >>>= 7;
+            }
+            buf[pos++] = (byte) v;
+        }
+
+        void writeString(String s) {
+            byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(bytes.length);
+            writeBytes(bytes, 0, bytes.length);
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buf, pos);
+        }
+    }
+
+    // 범위 검사를 하는 바이트 읽기
+    private static final class Reader {
+        private final byte[] buf;
+        private final int limit;
+        private int pos;
+
+        Reader(byte[] buf, int offset, int limit) {
+            this.buf = buf;
+            this.pos = offset;
+            this.limit = limit;
+        }
+
+        private void require(int n) throws IOException {
+            if (n < 0 || pos + n > limit) {
+                throw new EOFException("바이너리 메시지가 잘렸습니다");
+            }
+        }
+
+        byte readByte() throws IOException {
+            require(1);
+            return buf[pos++];
+        }
+
+        long readLong() throws IOException {
+            require(8);
+            long v = 0;
+            for (int i = 0; i < 8; i++) {
+                v = (v << 8) | (buf[pos++] & 0xFF);
+            }
+            return v;
+        }
+
+        long readVarLong() throws IOException {
+            long v = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = readByte();
+                v |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return v;
+                }
+            }
+            throw new StreamCorruptedException("잘못된 varint");
+        }
+
+        int readVarInt() throws IOException {
+            return (int) unZigZag(readVarLong());
+        }
+
+        int readLength() throws IOException {
+            long len = readVarLong();
+            if (len < 0 || len > limit - pos) {
+                throw new StreamCorruptedException("잘못된 길이: " + len);
+            }
+            return (int) len;
+        }
+
+        String readString() throws IOException {
+            int len = readLength();
+            String s = new String(buf, pos, len, StandardCharsets.UTF_8);
+            pos += len;
+            return s;
+        }
+
+        <E extends Enum<E>> E readEnum(WireTable<E> table) throws IOException {
+            return table.byCode(readByte() & 0xFF);
+        }
+    }
+}
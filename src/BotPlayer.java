@@ -0,0 +1,242 @@
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * 서버 내부 봇 플레이어
+ * 소켓 없이 ClientHandler에 붙어서 사람과 같은 메시지를 주고받는다.
+ * (서버가 보내는 메시지 → deliver, 봇의 요청 → connect로 받은 outbox)
+ * 모든 봇은 작은 공용 스케줄러 위의 액터로 동작하므로 봇 수만큼 스레드가 생기지 않는다.
+ * 추측은 AnswerSpace 후보 제거로 하고, 수준에 따라 고르는 방식과 생각하는 시간이 다르다.
+ * 후보 걸러내기와 추천 탐색은 시간이 걸릴 수 있으므로 공용 스케줄러가 아닌 별도의 생각용 실행기에서
+ * 후보 복사본으로 계산하고, 결과(걸러낸 후보와 고른 추측)만 봇 액터로 돌려받는다.
+ */
+public class BotPlayer extends Actor {
+
+    /**
+     * 봇 수준
+     */
+    public enum Level {
+        EASY("초급", 0.5, 2000, 5000),    // 절반은 후보와 상관없이 아무 숫자
+        NORMAL("중급", 0, 1500, 4000),    // 남은 후보 중 무작위
+        HARD("고급", 0, 1000, 3000);      // 남은 후보를 가장 많이 줄이는 추측 (minimax)
+
+        private final String displayName;
+        private final double blunderRate;   // 아무 숫자나 고를 확률
+        private final long minThinkMillis;  // 생각하는 시간 (턴 제한 시간 안으로 줄임)
+        private final long maxThinkMillis;
+
+        Level(String displayName, double blunderRate, long minThinkMillis, long maxThinkMillis) {
+            this.displayName = displayName;
+            this.blunderRate = blunderRate;
+            this.minThinkMillis = minThinkMillis;
+            this.maxThinkMillis = maxThinkMillis;
+        }
+
+        public String getDisplayName() { return displayName; }
+
+        // 표시 이름 또는 상수 이름으로 찾기 (없으면 중급)
+        public static Level fromName(String name) {
+            for (Level level : values()) {
+                if (level.displayName.equals(name) || level.name().equalsIgnoreCase(name)) {
+                    return level;
+                }
+            }
+            return NORMAL;
+        }
+    }
+
+    private static final long HARD_BUDGET_MS = 50;       // 고급 봇 추천 계산 시간
+    private static final long TURN_MARGIN_MS = 500;      // 턴 제한 시간보다 이만큼 먼저 추측
+    private static final long READY_DELAY_MS = 2000;     // 게임 종료 후 다시 준비하기까지
+
+    private final String userId;
+    private final Level level;
+    private final boolean leaveAfterGame;    // 부하 테스트용 봇은 한 판 하고 나감
+    private final ScheduledExecutorService scheduler;
+    private final Executor thinkExecutor;
+    private final Consumer<String> logger;
+    private volatile Consumer<Message> outbox;
+    private volatile LatencyHistogram latencyProbe;  // 부하 테스트용 (추측 → 결과 수신 지연)
+
+    // 아래는 봇 액터 안에서만 사용
+    private boolean inGame;
+    private boolean teamGame;
+    private boolean royale;     // 배틀로얄은 턴 없이 라운드마다 추측
+    private Message.Difficulty difficulty;
+    private long turnLimitMillis;
+    private int turnSeq;    // 턴이 바뀌면 증가 (지난 턴에 예약한 추측은 무시)
+    private AnswerSpace.CandidateSet candidates;
+    private long guessSentAt;   // 마지막 추측을 보낸 시각 (nanoTime, 결과를 받으면 0)
+
+    public BotPlayer(String userId, Level level, boolean leaveAfterGame,
+                     ScheduledExecutorService scheduler, Executor thinkExecutor, Consumer<String> logger) {
+        super(scheduler);
+        this.userId = userId;
+        this.level = level;
+        this.leaveAfterGame = leaveAfterGame;
+        this.scheduler = scheduler;
+        this.thinkExecutor = thinkExecutor;
+        this.logger = logger;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public Level getLevel() {
+        return level;
+    }
+
+    // 봇의 요청을 받을 곳 (서버 쪽 핸들러의 수신 처리)
+    public void connect(Consumer<Message> outbox) {
+        this.outbox = outbox;
+    }
+
+    // 추측을 보내고 결과를 받기까지의 지연 기록 (부하 테스트)
+    public void setLatencyProbe(LatencyHistogram latencyProbe) {
+        this.latencyProbe = latencyProbe;
+    }
+
+    /**
+     * 서버 → 봇 메시지 (보내는 쪽 스레드에서는 메일박스에 넣기만 함)
+     */
+    public void deliver(Message msg) {
+        post(() -> handle(msg));
+    }
+
+    @Override
+    protected void onError(RuntimeException e) {
+        logger.accept("봇 [" + userId + "] 처리 오류: " + e);
+    }
+
+    // ===== 봇 액터 안에서 처리 =====
+
+    private void handle(Message msg) {
+        switch (msg.getType()) {
+            case START_GAME:
+                inGame = true;
+                teamGame = msg.getGameMode() == Message.GameMode.TWO_VS_TWO;
+                royale = msg.getGameMode() == Message.GameMode.BATTLE_ROYALE;
+                difficulty = msg.getDifficulty();
+                turnLimitMillis = msg.getTurnTimeLimit().getSeconds() * 1000L;
+                candidates = AnswerSpace.forDifficulty(difficulty).newCandidateSet();
+                break;
+            case TURN_INFO:
+                int seq = ++turnSeq;
+                if (inGame && (royale || userId.equals(msg.getCurrentTurnPlayer()) || isAttacker(msg))) {
+                    scheduler.schedule(() -> post(() -> guess(seq)), thinkMillis(), TimeUnit.MILLISECONDS);
+                }
+                break;
+            case GUESS_RESULT:
+                onResult(msg);
+                break;
+            case TEAM_GUESS_RESULT:
+                // 2v2 반 이닝 묶음 (팀원 결과 모두)
+                if (msg.getData() instanceof java.util.List) {
+                    for (Object result : (java.util.List<?>) msg.getData()) {
+                        if (result instanceof Message) {
+                            onResult((Message) result);
+                        }
+                    }
+                }
+                break;
+            case END_GAME:
+                inGame = false;
+                turnSeq++;
+                if (leaveAfterGame) {
+                    send(new Message(Message.MessageType.LEAVE_ROOM, userId));
+                    send(new Message(Message.MessageType.LOGOUT, userId));
+                } else {
+                    scheduler.schedule(() -> send(new Message(Message.MessageType.READY, userId)),
+                            READY_DELAY_MS, TimeUnit.MILLISECONDS);
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    // 추측 결과 반영 (1v1은 모두에게 전송되므로 내 결과만, 2v2는 팀원 결과만 오므로 모두, 배틀로얄은 내 결과만 옴)
+    private void onResult(Message msg) {
+        if (guessSentAt != 0 && userId.equals(msg.getUserId())) {
+            LatencyHistogram probe = latencyProbe;
+            if (probe != null) {
+                probe.record(System.nanoTime() - guessSentAt);
+            }
+            guessSentAt = 0;
+        }
+        if (inGame && (teamGame || userId.equals(msg.getUserId()))) {
+            long packed = ScoringKernel.pack(msg.getGuess());
+            if (packed != ScoringKernel.INVALID) {
+                candidates.apply(packed, ScoringKernel.toScore(msg.getStrike(), msg.getBall()));
+            }
+        }
+    }
+
+    // 2v2에서 이번 반 이닝 공격 팀원인지 (TURN_INFO data: 공격 팀원 목록)
+    private boolean isAttacker(Message turnInfo) {
+        return turnInfo.getData() instanceof java.util.List
+                && ((java.util.List<?>) turnInfo.getData()).contains(userId);
+    }
+
+    // 수준별 생각 시간 (턴 제한 시간 안에 추측하도록)
+    private long thinkMillis() {
+        long think = ThreadLocalRandom.current().nextLong(level.minThinkMillis, level.maxThinkMillis + 1);
+        return Math.max(0, Math.min(think, turnLimitMillis - TURN_MARGIN_MS));
+    }
+
+    // 후보 복사본으로 생각용 실행기에서 추측을 고르고, 결과는 다시 봇 액터에서 처리
+    private void guess(int seq) {
+        if (!inGame || seq != turnSeq) {
+            return; // 턴이 지났거나 게임이 끝남
+        }
+        AnswerSpace.CandidateSet current = candidates;
+        AnswerSpace.CandidateSet snapshot = current.copy();
+        Message.Difficulty gameDifficulty = difficulty;
+        thinkExecutor.execute(() -> {
+            long choice = chooseGuess(snapshot, gameDifficulty);
+            post(() -> {
+                if (candidates == current) {
+                    current.adopt(snapshot);
+                }
+                sendGuess(seq, choice);
+            });
+        });
+    }
+
+    private void sendGuess(int seq, long choice) {
+        if (!inGame || seq != turnSeq) {
+            return; // 생각하는 동안 턴이 지났거나 게임이 끝남
+        }
+        Message msg = new Message(Message.MessageType.GUESS, userId);
+        msg.setGuess(ScoringKernel.unpack(choice));
+        guessSentAt = System.nanoTime();
+        send(msg);
+    }
+
+    // 생각용 실행기에서 실행 (봇 액터의 상태는 건드리지 않음)
+    // 고급 봇은 밀린 판정 반영까지 suggest의 시간 제한 안에서 처리
+    private long chooseGuess(AnswerSpace.CandidateSet set, Message.Difficulty gameDifficulty) {
+        AnswerSpace space = AnswerSpace.forDifficulty(gameDifficulty);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long choice = ScoringKernel.INVALID;
+        if (random.nextDouble() >= level.blunderRate) {
+            if (level == Level.HARD) {
+                choice = set.suggest(HARD_BUDGET_MS);
+            } else if (set.getRemaining() > 0) {
+                choice = set.pick(random.nextInt(set.getRemaining()));
+            }
+        }
+        return (choice != ScoringKernel.INVALID) ? choice : space.candidateAt(random.nextInt(space.size()));
+    }
+
+    private void send(Message msg) {
+        Consumer<Message> target = outbox;
+        if (target != null) {
+            target.accept(msg);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+import java.io.*;
+
+/**
+ * 메시지 프레임 인코더/디코더
+ * 모든 메시지는 [4바이트 길이][페이로드] 형태의 길이 접두 프레임으로 전송된다.
+ * 길이 접두 덕분에 NIO 서버가 바이트 스트림에서 메시지 경계를 직접 찾을 수 있다.
+ *
+ * 접속 직후 클라이언트는 핸드셰이크 프레임 [0xBB][버전][코덱 수][선호 순 코덱 ID...]를 보내고,
+ * 서버는 [0xBB][선택한 코덱 ID]로 응답한다. 이후 페이로드는 선택된 코덱으로 인코딩된다.
+ * 첫 프레임이 핸드셰이크가 아니면 Java 직렬화 코덱으로 간주한다.
+ */
+public final class FrameCodec {
+
+    public static final int HEADER_SIZE = 4;               // 길이 필드 크기
+    public static final int MAX_FRAME_LENGTH = 1 << 20;    // 최대 페이로드 크기 (1MB)
+
+    private static final byte HANDSHAKE_MAGIC = (byte) 0xBB;
+    // 바이너리 코덱의 wire 형식이 바뀔 때마다 올림 (버전이 다르면 Java 직렬화로 폴백)
+    // 2: enum을 ordinal 대신 고정 wire 코드로 전송
+    private static final byte HANDSHAKE_VERSION = 2;
+
+    private FrameCodec() {
+    }
+
+    /**
+     * 헤더를 포함한 전체 프레임 생성
+     */
+    public static byte[] encodeFrame(Message msg, MessageCodec codec) throws IOException {
+        return frame(codec.encode(msg));
+    }
+
+    // 페이로드 앞에 길이 헤더를 붙임
+    public static byte[] frame(byte[] payload) {
+        byte[] frame = new byte[HEADER_SIZE + payload.length];
+        frame[0] = (byte) (payload.length >>> 24);
+        frame[1] = (byte) (payload.length >>> 16);
+        frame[2] = (byte) (payload.length >>> 8);
+        frame[3] = (byte) payload.length;
+        System.arraycopy(payload, 0, frame, HEADER_SIZE, payload.length);
+        return frame;
+    }
+
+    /**
+     * 스트림에 프레임 하나를 기록 (블로킹 소켓용)
+     */
+    public static void writeFrame(DataOutputStream out, Message msg, MessageCodec codec) throws IOException {
+        out.write(encodeFrame(msg, codec));
+        out.flush();
+    }
+
+    public static void writeRawFrame(DataOutputStream out, byte[] payload) throws IOException {
+        out.write(frame(payload));
+        out.flush();
+    }
+
+    /**
+     * 스트림에서 프레임 하나를 읽음 (블로킹 소켓용)
+     * 스트림이 끝나면 EOFException 발생
+     */
+    public static Message readFrame(DataInputStream in, MessageCodec codec) throws IOException {
+        byte[] payload = readRawFrame(in);
+        return codec.decode(payload, 0, payload.length);
+    }
+
+    public static byte[] readRawFrame(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        checkLength(length);
+        byte[] payload = new byte[length];
+        in.readFully(payload);
+        return payload;
+    }
+
+    // 프레임 길이 검증
+    public static void checkLength(int length) throws IOException {
+        if (length < 0 || length > MAX_FRAME_LENGTH) {
+            throw new StreamCorruptedException("잘못된 프레임 길이: " + length);
+        }
+    }
+
+    // ========== 핸드셰이크 ==========
+
+    /**
+     * 클라이언트 핸드셰이크 페이로드 (선호하는 순서대로 코덱 나열)
+     */
+    public static byte[] createHandshake(MessageCodec... preferred) {
+        byte[] payload = new byte[3 + preferred.length];
+        payload[0] = HANDSHAKE_MAGIC;
+        payload[1] = HANDSHAKE_VERSION;
+        payload[2] = (byte) preferred.length;
+        for (int i = 0; i < preferred.length; i++) {
+            payload[3 + i] = preferred[i].getId();
+        }
+        return payload;
+    }
+
+    public static boolean isHandshake(byte[] payload) {
+        return payload.length >= 2 && payload[0] == HANDSHAKE_MAGIC;
+    }
+
+    /**
+     * 서버: 클라이언트가 제시한 코덱 중 지원하는 첫 번째 코덱 선택 (없으면 Java 직렬화)
+     */
+    public static MessageCodec negotiate(byte[] handshake) {
+        if (handshake.length >= 3 && handshake[1] == HANDSHAKE_VERSION) {
+            int count = Math.min(handshake[2], handshake.length - 3);
+            for (int i = 0; i < count; i++) {
+                MessageCodec codec = MessageCodec.forId(handshake[3 + i]);
+                if (codec != null) {
+                    return codec;
+                }
+            }
+        }
+        return JavaSerializationCodec.INSTANCE;
+    }
+
+    public static byte[] createHandshakeReply(MessageCodec codec) {
+        return new byte[]{HANDSHAKE_MAGIC, codec.getId()};
+    }
+
+    /**
+     * 클라이언트: 서버 응답에서 선택된 코덱 확인
+     */
+    public static MessageCodec parseHandshakeReply(byte[] reply) {
+        MessageCodec codec = MessageCodec.forId(reply[1]);
+        return codec != null ? codec : JavaSerializationCodec.INSTANCE;
+    }
+}
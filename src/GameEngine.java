@@ -0,0 +1,316 @@
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * 게임 규칙 (네트워크/파일과 무관한 상태 기계)
+ * 시작 → 턴 → 추측/시간 초과 → 다음 턴 → 종료 흐름을 처리하고, 결과는 메시지 대신 리스너 이벤트로 알린다.
+ * - 1v1: 플레이어마다 정답, 상대의 정답을 맞힘
+ * - 2v2: 팀마다 정답 하나, 상대 팀의 정답을 맞힘. 초는 Team 1, 말은 Team 2가 공격하며
+ *   공격 팀원이 모두 추측하거나 시간이 끝나면 반 이닝의 추측을 한 번에 판정한다 (onBatch).
+ *   초에 맞혀도 같은 회 말까지 보고 판정하므로, 같은 회에 두 팀이 모두 맞히면 무승부.
+ * 정답을 만드는 난수만 밖에서 주므로 같은 난수와 같은 추측이면 항상 같은 결과가 나온다.
+ * 한 스레드에서만 사용해야 하며 (방에서는 방 액터), 한 인스턴스로 여러 판을 이어서 진행할 수 있다.
+ */
+public class GameEngine {
+
+    public static final int MAX_ROUNDS = 9;
+
+    /**
+     * 게임 이벤트 (engine을 호출한 스레드에서 바로 실행)
+     */
+    public interface Listener {
+        void onStart();
+        void onTurn(int round, boolean top, String turnPlayerId);
+        void onGuess(String playerId, long packedGuess, int score, int round);
+        // 2v2 반 이닝 묶음 판정 (배열은 호출 중에만 유효, 앞의 count개만 사용)
+        void onBatch(int team, int round, String[] playerIds, long[] guesses, int[] scores, int count);
+        // 시간 초과 (2v2는 공격 팀 전원이 추측하지 않았을 때, turnPlayerId는 null)
+        void onTimeout(int round, boolean top, String turnPlayerId);
+        void onEnd(String winnerId, boolean isDraw, int winnerTeam);
+    }
+
+    /**
+     * 추측 처리 결과
+     */
+    public enum GuessResult {
+        ACCEPTED,
+        NOT_RUNNING,    // 게임 중이 아니거나 참가자가 아님
+        NOT_YOUR_TURN,  // 자기 턴(2v2는 자기 팀 공격)이 아님
+        ALREADY_GUESSED, // 2v2에서 이번 반 이닝에 이미 추측함
+        INVALID         // 자릿수/숫자 형식 오류
+    }
+
+    private final Message.GameMode gameMode;
+    private final Message.Difficulty difficulty;
+    private final AnswerSpace space;
+    private final Listener listener;
+
+    private String[] playerIds = new String[0];
+    private int[] teams = new int[0];      // 플레이어별 팀 번호 (1v1은 0)
+    private long[] answers = new long[0];  // 플레이어가 지키는 정답 (압축 값, 2v2는 팀원끼리 같음)
+    private boolean running;
+    private int round;
+    private boolean top;
+
+    // 2v2 반 이닝 묶음 (자리별 대기 중인 추측, 도착 순서, 판정용 임시 배열)
+    private long[] pending = new long[0];
+    private int[] pendingOrder = new int[0];
+    private int pendingCount;
+    private final int[] teamSizes = new int[3];
+    private String[] batchIds = new String[0];
+    private long[] batchGuesses = new long[0];
+    private int[] batchScores = new int[0];
+    private int topWinner = -1;  // 이번 회 초에 맞힌 자리 (말 판정까지 보류, 없으면 -1)
+
+    public GameEngine(Message.GameMode gameMode, Message.Difficulty difficulty, Listener listener) {
+        this.gameMode = gameMode;
+        this.difficulty = difficulty;
+        this.space = AnswerSpace.forDifficulty(difficulty);
+        this.listener = listener;
+    }
+
+    /**
+     * 게임 시작 (정답 생성 후 onStart, 첫 턴 onTurn)
+     * @param teams 플레이어별 팀 번호 (2v2에서만 사용, 1 또는 2)
+     */
+    public void start(String[] playerIds, int[] teams, RandomGenerator random) {
+        this.playerIds = playerIds;
+        this.teams = teams;
+        if (answers.length != playerIds.length) {
+            answers = new long[playerIds.length];
+            pending = new long[playerIds.length];
+            pendingOrder = new int[playerIds.length];
+            batchIds = new String[playerIds.length];
+            batchGuesses = new long[playerIds.length];
+            batchScores = new int[playerIds.length];
+        }
+        Arrays.fill(pending, ScoringKernel.INVALID);
+        pendingCount = 0;
+        topWinner = -1;
+        Arrays.fill(teamSizes, 0);
+        for (int team : teams) {
+            if (team > 0 && team < teamSizes.length) teamSizes[team]++;
+        }
+
+        // 정답은 순열 순위를 고르게 뽑아서 만듦
+        if (gameMode == Message.GameMode.TWO_VS_TWO) {
+            long team1Answer = space.candidateAt(random.nextInt(space.size()));
+            long team2Answer = space.candidateAt(random.nextInt(space.size()));
+            for (int i = 0; i < playerIds.length; i++) {
+                answers[i] = (teams[i] == 1) ? team1Answer : team2Answer;
+            }
+        } else {
+            for (int i = 0; i < playerIds.length; i++) {
+                answers[i] = space.candidateAt(random.nextInt(space.size()));
+            }
+        }
+
+        running = true;
+        round = 1;
+        top = true;
+        listener.onStart();
+        listener.onTurn(round, top, getTurnPlayerId());
+    }
+
+    /**
+     * 추측 (맞히면 onEnd, 아니면 다음 턴)
+     */
+    public GuessResult guess(String playerId, long packedGuess) {
+        int index = indexOf(playerId);
+        if (!running || index < 0) {
+            return GuessResult.NOT_RUNNING;
+        }
+        if (gameMode == Message.GameMode.TWO_VS_TWO) {
+            return submit(index, packedGuess);
+        }
+        if (!playerId.equals(getTurnPlayerId())) {
+            return GuessResult.NOT_YOUR_TURN;
+        }
+        if (!ScoringKernel.isValid(packedGuess, difficulty.getDigitCount(), difficulty.isAllowZero())) {
+            return GuessResult.INVALID;
+        }
+        long target = targetAnswer(index);
+        if (target == ScoringKernel.INVALID) {
+            return GuessResult.NOT_RUNNING;
+        }
+
+        int score = ScoringKernel.score(target, packedGuess);
+        listener.onGuess(playerId, packedGuess, score, round);
+
+        if (ScoringKernel.strikes(score) == difficulty.getDigitCount()) {
+            end(playerId, false, teams[index]);
+        } else {
+            nextTurn();
+        }
+        return GuessResult.ACCEPTED;
+    }
+
+    // 2v2: 공격 팀원의 추측을 모아 두고, 팀원 전원이 내면 바로 판정
+    private GuessResult submit(int index, long packedGuess) {
+        if (teams[index] != getAttackingTeam()) {
+            return GuessResult.NOT_YOUR_TURN;
+        }
+        if (!ScoringKernel.isValid(packedGuess, difficulty.getDigitCount(), difficulty.isAllowZero())) {
+            return GuessResult.INVALID;
+        }
+        if (pending[index] != ScoringKernel.INVALID) {
+            return GuessResult.ALREADY_GUESSED;
+        }
+        pending[index] = packedGuess;
+        pendingOrder[pendingCount++] = index;
+        if (pendingCount >= teamSizes[teams[index]]) {
+            resolveBatch();
+        }
+        return GuessResult.ACCEPTED;
+    }
+
+    // 2v2 반 이닝 판정 (모인 추측을 도착 순서대로 한 번에)
+    private void resolveBatch() {
+        int count = pendingCount;
+        int cracked = -1;
+        for (int k = 0; k < count; k++) {
+            int seat = pendingOrder[k];
+            batchIds[k] = playerIds[seat];
+            batchGuesses[k] = pending[seat];
+            batchScores[k] = ScoringKernel.score(targetAnswer(seat), pending[seat]);
+            if (cracked < 0 && ScoringKernel.strikes(batchScores[k]) == difficulty.getDigitCount()) {
+                cracked = seat;
+            }
+            pending[seat] = ScoringKernel.INVALID;
+        }
+        pendingCount = 0;
+
+        if (count > 0) {
+            listener.onBatch(getAttackingTeam(), round, batchIds, batchGuesses, batchScores, count);
+        } else {
+            listener.onTimeout(round, top, null);
+        }
+
+        if (top) {
+            // 초에 맞혀도 말 공격까지 진행
+            topWinner = cracked;
+            nextTurn();
+        } else if (cracked >= 0) {
+            if (topWinner >= 0) {
+                end(null, true, 0); // 같은 회에 두 팀 모두 맞힘
+            } else {
+                end(playerIds[cracked], false, teams[cracked]);
+            }
+        } else if (topWinner >= 0) {
+            end(playerIds[topWinner], false, teams[topWinner]);
+        } else {
+            nextTurn();
+        }
+    }
+
+    /**
+     * 현재 턴 시간 초과 (턴을 건너뜀, 2v2는 그때까지 모인 추측만 판정)
+     */
+    public void timeout() {
+        if (!running) {
+            return;
+        }
+        if (gameMode == Message.GameMode.TWO_VS_TWO) {
+            resolveBatch();
+            return;
+        }
+        listener.onTimeout(round, top, getTurnPlayerId());
+        nextTurn();
+    }
+
+    /**
+     * 기권 (접속 끊김/퇴장) - 1v1은 상대 승리, 2v2는 상대 팀 승리
+     */
+    public void forfeit(String playerId) {
+        int index = indexOf(playerId);
+        if (!running || index < 0) {
+            return;
+        }
+        if (gameMode == Message.GameMode.TWO_VS_TWO) {
+            if (teams[index] != 0) {
+                end(null, false, (teams[index] == 1) ? 2 : 1);
+            }
+            return;
+        }
+        for (int i = 0; i < playerIds.length; i++) {
+            if (i != index) {
+                end(playerIds[i], false, 0);
+                return;
+            }
+        }
+    }
+
+    /**
+     * 결과 없이 중단 (방이 비었을 때)
+     */
+    public void abort() {
+        running = false;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public int getRound() {
+        return round;
+    }
+
+    public boolean isTop() {
+        return top;
+    }
+
+    // 현재 턴 플레이어 (초공/말공 번갈아, 참가자 수로 순환) - 2v2는 팀 단위라 null
+    public String getTurnPlayerId() {
+        if (playerIds.length == 0 || gameMode == Message.GameMode.TWO_VS_TWO) return null;
+        return playerIds[((round - 1) * 2 + (top ? 0 : 1)) % playerIds.length];
+    }
+
+    // 2v2 공격 팀 (초 Team 1, 말 Team 2)
+    public int getAttackingTeam() {
+        return top ? 1 : 2;
+    }
+
+    // 플레이어가 지키는 정답 (압축 값, 참가자가 아니면 INVALID)
+    public long getAnswer(String playerId) {
+        int index = indexOf(playerId);
+        return index >= 0 ? answers[index] : ScoringKernel.INVALID;
+    }
+
+    private int indexOf(String playerId) {
+        for (int i = 0; i < playerIds.length; i++) {
+            if (playerIds[i].equals(playerId)) return i;
+        }
+        return -1;
+    }
+
+    // 맞혀야 할 정답 (1v1은 상대, 2v2는 상대 팀)
+    private long targetAnswer(int index) {
+        for (int i = 0; i < playerIds.length; i++) {
+            if (gameMode == Message.GameMode.TWO_VS_TWO ? teams[i] != teams[index] : i != index) {
+                return answers[i];
+            }
+        }
+        return ScoringKernel.INVALID;
+    }
+
+    private void nextTurn() {
+        if (top) {
+            top = false; // 초 -> 말
+        } else {
+            top = true;  // 말 -> 초
+            round++;
+        }
+
+        // 9회말 종료면 무승부
+        if (round > MAX_ROUNDS) {
+            end(null, true, 0);
+        } else {
+            listener.onTurn(round, top, getTurnPlayerId());
+        }
+    }
+
+    private void end(String winnerId, boolean isDraw, int winnerTeam) {
+        running = false;
+        listener.onEnd(winnerId, isDraw, winnerTeam);
+    }
+}
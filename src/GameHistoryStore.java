@@ -0,0 +1,331 @@
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Hashtable;
+import java.util.Vector;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * 게임 기록 조회 저장소
+ * game_history.csv의 각 줄이 시작하는 위치(offset)를 색인으로 유지해서
+ * 최신 기록부터, 유저별로, 커서 단위로 필요한 줄만 위치 지정 읽기(positional read)로 가져온다.
+ *
+ * 색인은 옆 파일(game_history.idx)에 "offset,\"참여자\"" 형식으로 함께 기록되며,
+ * 시작 시 이 파일을 읽은 뒤 색인 이후에 추가된 줄만 이어서 스캔한다 (색인이 없거나 맞지 않으면 전체 재구성).
+ * 새 기록의 위치는 GameJournal 리스너로 전달받는다.
+ */
+public class GameHistoryStore {
+
+    private static final String CSV_SPLIT_REGEX = ",(?=([^\"]*\"[^\"]*\")*[^\"]*$)";
+    private static final int LINE_READ_SIZE = 256;
+    private static final int SCAN_BUFFER_SIZE = 64 * 1024;
+
+    // 조회 결과 한 페이지 (nextCursor가 -1이면 마지막 페이지)
+    static final class Page {
+        final Vector<Hashtable<String, String>> records;
+        final int nextCursor;
+
+        Page(Vector<Hashtable<String, String>> records, int nextCursor) {
+            this.records = records;
+            this.nextCursor = nextCursor;
+        }
+    }
+
+    // 기록 번호 목록 (오름차순)
+    private static final class IntList {
+        int[] values = new int[4];
+        int size;
+
+        void add(int v) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = v;
+        }
+
+        // v 이상인 첫 위치
+        int lowerBound(int v) {
+            int lo = 0, hi = size;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (values[mid] < v) lo = mid + 1;
+                else hi = mid;
+            }
+            return lo;
+        }
+    }
+
+    private final Path file;
+    private final Path indexFile;
+    private final Consumer<String> logger;
+
+    // 색인 (기록 번호 = 파일에 기록된 순서)
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private long[] offsets = new long[1024];
+    private int count;
+    private final HashMap<String, IntList> byUser = new HashMap<>();
+
+    private FileChannel readChannel;   // 위치 지정 읽기 전용 (스레드 안전)
+    private FileChannel indexChannel;  // 색인 파일 추가 기록 (저널 쓰기 스레드 전용)
+
+    public GameHistoryStore(String filePath, String indexPath, Consumer<String> logger) {
+        this.file = Paths.get(filePath);
+        this.indexFile = Paths.get(indexPath);
+        this.logger = logger;
+    }
+
+    /**
+     * 색인 파일 로드 후 이후 추가분을 이어서 스캔
+     */
+    public void load() {
+        try {
+            readChannel = FileChannel.open(file, StandardOpenOption.READ);
+            long fileSize = readChannel.size();
+
+            long scanFrom = loadIndexFile(fileSize);
+            if (scanFrom < 0) {
+                // 색인이 없거나 기록 파일과 맞지 않음 → 처음부터 재구성
+                resetIndex();
+                Files.deleteIfExists(indexFile);
+                scanFrom = 0;
+            }
+            indexChannel = FileChannel.open(indexFile, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+
+            int before = count;
+            scan(scanFrom, fileSize);
+            logger.accept("게임 기록 색인: " + count + "건 (추가 스캔 " + (count - before) + "건)");
+        } catch (IOException e) {
+            logger.accept("게임 기록 색인 실패: " + e.getMessage());
+        }
+    }
+
+    // 색인 파일을 읽고 이어서 스캔할 위치 반환 (-1이면 재구성 필요)
+    private long loadIndexFile(long fileSize) throws IOException {
+        if (!Files.exists(indexFile)) {
+            return -1;
+        }
+        try (BufferedReader br = Files.newBufferedReader(indexFile, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = br.readLine()) != null) {
+                String[] parts = line.split(CSV_SPLIT_REGEX, -1);
+                if (parts.length < 2) {
+                    continue;
+                }
+                add(Long.parseLong(parts[0]), splitParticipants(parts[1]));
+            }
+        } catch (NumberFormatException e) {
+            logger.accept("게임 기록 색인 파일 손상: " + e.getMessage());
+            return -1;
+        }
+        if (count == 0) {
+            return 0;
+        }
+
+        // 마지막 색인 줄이 실제 기록 줄의 시작인지 확인하고 그 다음 줄부터 스캔
+        long last = offsets[count - 1];
+        if (last >= fileSize || (last > 0 && readByte(last - 1) != '\n')) {
+            return -1;
+        }
+        byte[] lastLine = readLineBytes(last);
+        return last + lastLine.length + 1;
+    }
+
+    // [from, to) 구간에서 완전한 줄만 색인에 추가 (offset 0은 헤더)
+    private void scan(long from, long to) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(SCAN_BUFFER_SIZE);
+        ByteArrayOutputStream lineBytes = new ByteArrayOutputStream();
+        long pos = from;
+        long lineStart = from;
+        while (pos < to) {
+            buf.clear();
+            int n = readChannel.read(buf, pos);
+            if (n <= 0) break;
+            buf.flip();
+            while (buf.hasRemaining()) {
+                byte b = buf.get();
+                if (b == '\n') {
+                    if (lineStart > 0) {
+                        indexLine(lineStart, new String(lineBytes.toByteArray(), StandardCharsets.UTF_8));
+                    }
+                    lineBytes.reset();
+                    lineStart = pos + buf.position();
+                } else {
+                    lineBytes.write(b);
+                }
+            }
+            pos += n;
+        }
+    }
+
+    /**
+     * 저널이 새 기록을 디스크에 반영한 뒤 호출 (저널 쓰기 스레드)
+     */
+    public void onAppended(long offset, String line) {
+        indexLine(offset, line.trim());
+    }
+
+    private void indexLine(long offset, String line) {
+        String[] parts = line.split(CSV_SPLIT_REGEX, -1);
+        if (parts.length < 6) {
+            return;
+        }
+        add(offset, splitParticipants(parts[2]));
+        if (indexChannel != null) {
+            try {
+                ByteBuffer buf = ByteBuffer.wrap((offset + "," + parts[2] + "\n").getBytes(StandardCharsets.UTF_8));
+                while (buf.hasRemaining()) {
+                    indexChannel.write(buf);
+                }
+            } catch (IOException e) {
+                logger.accept("게임 기록 색인 저장 실패: " + e.getMessage());
+            }
+        }
+    }
+
+    private void add(long offset, String[] participants) {
+        lock.writeLock().lock();
+        try {
+            if (count == offsets.length) {
+                offsets = Arrays.copyOf(offsets, count * 2);
+            }
+            int index = count++;
+            offsets[index] = offset;
+            for (String userId : participants) {
+                if (!userId.isEmpty()) {
+                    byUser.computeIfAbsent(userId, k -> new IntList()).add(index);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void resetIndex() {
+        lock.writeLock().lock();
+        try {
+            count = 0;
+            byUser.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 최신 기록부터 limit개 조회
+     * userId가 null이면 전체, cursor는 이전 페이지의 nextCursor (처음이면 -1)
+     */
+    public Page query(String userId, int cursor, int limit) {
+        long[] found;
+        int nextCursor = -1;
+
+        lock.readLock().lock();
+        try {
+            int upper = (cursor < 0 || cursor > count) ? count : cursor;
+            if (userId == null) {
+                int from = Math.max(0, upper - limit);
+                found = new long[upper - from];
+                for (int i = 0; i < found.length; i++) {
+                    found[i] = offsets[upper - 1 - i];
+                }
+                if (from > 0) nextCursor = from;
+            } else {
+                IntList list = byUser.get(userId);
+                int end = (list == null) ? 0 : list.lowerBound(upper);
+                int from = Math.max(0, end - limit);
+                found = new long[end - from];
+                for (int i = 0; i < found.length; i++) {
+                    found[i] = offsets[list.values[end - 1 - i]];
+                }
+                if (from > 0) nextCursor = list.values[from];
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        // 실제 줄 읽기는 lock 밖에서 위치 지정 읽기로 수행
+        Vector<Hashtable<String, String>> records = new Vector<>(found.length);
+        for (long offset : found) {
+            try {
+                Hashtable<String, String> record = parse(new String(readLineBytes(offset), StandardCharsets.UTF_8));
+                if (record != null) {
+                    records.add(record);
+                }
+            } catch (IOException e) {
+                logger.accept("게임 기록 읽기 오류: " + e.getMessage());
+            }
+        }
+        return new Page(records, nextCursor);
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return count;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static Hashtable<String, String> parse(String line) {
+        String[] parts = line.split(CSV_SPLIT_REGEX, -1);
+        if (parts.length < 6) {
+            return null;
+        }
+        Hashtable<String, String> record = new Hashtable<>();
+        record.put("gameId", parts[0]);
+        record.put("timestamp", parts[1]);
+        record.put("participants", parts[2].replace("\"", ""));
+        record.put("gameMode", parts[3]);
+        record.put("difficulty", parts[4]);
+        record.put("winner", parts[5].trim());
+        return record;
+    }
+
+    private static String[] splitParticipants(String field) {
+        return field.replace("\"", "").split(",");
+    }
+
+    // offset부터 개행 전까지 읽기
+    private byte[] readLineBytes(long offset) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(LINE_READ_SIZE);
+        ByteBuffer buf = ByteBuffer.allocate(LINE_READ_SIZE);
+        long pos = offset;
+        while (true) {
+            buf.clear();
+            int n = readChannel.read(buf, pos);
+            if (n <= 0) {
+                return out.toByteArray();
+            }
+            for (int i = 0; i < n; i++) {
+                byte b = buf.get(i);
+                if (b == '\n') {
+                    return out.toByteArray();
+                }
+                out.write(b);
+            }
+            pos += n;
+        }
+    }
+
+    private byte readByte(long offset) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(1);
+        readChannel.read(buf, offset);
+        return buf.get(0);
+    }
+
+    public void close() {
+        try {
+            if (indexChannel != null) indexChannel.close();
+            if (readChannel != null) readChannel.close();
+        } catch (IOException ignored) {
+        }
+    }
+}
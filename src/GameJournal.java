@@ -0,0 +1,364 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * 게임 기록 비동기 저널 (write-behind)
+ * 게임 스레드는 기록 한 줄을 큐에 넣고 바로 돌아가며, 전용 쓰기 스레드가 모아서 한 번에 기록한다.
+ * - 큐: lock-free (ConcurrentLinkedQueue) + 개수 제한, 가득 차면 생산자가 잠시 대기 (backpressure)
+ * - 기록: 파일마다 열어 둔 FileChannel에 배치 단위로 쓰고 force (group commit)
+ * - 배치는 flushInterval이 지나거나 batchSize만큼 쌓이면 기록
+ * - 파일별 리스너를 등록하면 디스크 반영 후 각 줄이 기록된 위치(offset)를 알려줌 (색인 구성용)
+ * - 쓰기에 실패한 줄은 버리지 않고 파일을 다시 열어 간격을 늘려 가며 재시도하고,
+ *   재시도를 모두 실패해야 유실로 기록하고 리스너에 알림 (그동안 같은 파일의 새 줄은 뒤에 이어 붙임)
+ */
+public final class GameJournal {
+
+    /**
+     * 기록 완료 알림 (쓰기 스레드에서 호출되므로 오래 걸리는 작업은 피할 것)
+     */
+    public interface AppendListener {
+        void onAppended(long offset, String line);
+
+        // 재시도를 모두 실패해서 버려진 줄
+        default void onDropped(String line) {
+        }
+    }
+
+    // 기록 한 줄
+    private static final class Record {
+        final String filePath;
+        final String line;
+
+        Record(String filePath, String line) {
+            this.filePath = filePath;
+            this.line = line;
+        }
+    }
+
+    // 쓰기에 실패해 재시도를 기다리는 파일 하나의 줄들 (쓰기 스레드 전용)
+    private static final class Retry {
+        final List<Record> records = new ArrayList<>();
+        int attempts;
+        long retryAtNanos;
+        long validSize = -1;   // 실패 전 파일 크기 (일부만 쓰인 줄을 잘라낼 위치, 모르면 -1)
+    }
+
+    private static final int WRITE_RETRIES = 5;           // 유실로 처리하기 전 재시도 횟수
+    private static final long WRITE_RETRY_BASE_MS = 100;  // 첫 재시도 간격 (실패할 때마다 두 배)
+
+    private final int capacity;
+    private final long flushIntervalNanos;
+    private final int batchSize;
+    private final Consumer<String> logger;
+
+    private final ConcurrentLinkedQueue<Record> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();   // 큐에 들어갔지만 아직 기록되지 않은 줄 수
+    private final Map<String, FileChannel> channels = new HashMap<>(); // 쓰기 스레드 전용
+    private final Map<String, Retry> retries = new HashMap<>();        // 쓰기 스레드 전용
+    private int retryCount = 0;                                        // retries에 들어 있는 줄 수
+    private final Map<String, AppendListener> listeners = new ConcurrentHashMap<>();
+    private final Thread writerThread;
+    private volatile boolean running = true;
+
+    // 지표
+    private final AtomicLong blockedAppends = new AtomicLong();  // 큐가 가득 차서 대기한 횟수
+    private volatile long totalRecords = 0;
+    private volatile long droppedRecords = 0;   // 재시도를 모두 실패해서 버린 줄 수
+    private volatile long totalFlushes = 0;
+    private volatile long lastFlushMicros = 0;
+    private volatile long maxFlushMicros = 0;
+    private volatile double avgFlushMicros = 0;
+
+    public GameJournal(int capacity, long flushIntervalMillis, int batchSize, Consumer<String> logger) {
+        this.capacity = capacity;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+        this.batchSize = batchSize;
+        this.logger = logger;
+
+        writerThread = new Thread(this::writeLoop, "game-journal");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    /**
+     * 파일에 기록된 줄의 위치를 받을 리스너 등록
+     */
+    public void setListener(String filePath, AppendListener listener) {
+        listeners.put(filePath, listener);
+    }
+
+    /**
+     * 파일 끝에 한 줄 추가 요청 (line에는 개행 포함)
+     */
+    public void append(String filePath, String line) {
+        // 자리 확보 (가득 차 있으면 쓰기 스레드를 깨우고 잠시 대기)
+        while (true) {
+            int n = pending.get();
+            if (n < capacity) {
+                if (pending.compareAndSet(n, n + 1)) break;
+                continue;
+            }
+            if (!running) {
+                logger.accept("게임 기록 유실 (저널 종료됨): " + line.trim());
+                return;
+            }
+            blockedAppends.incrementAndGet();
+            LockSupport.unpark(writerThread);
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+
+        queue.add(new Record(filePath, line));
+        if (pending.get() >= batchSize) {
+            LockSupport.unpark(writerThread);
+        }
+    }
+
+    /**
+     * 지금까지 들어온 기록이 모두 디스크에 반영될 때까지 대기
+     */
+    public void flush() {
+        while (pending.get() > 0 && writerThread.isAlive()) {
+            LockSupport.unpark(writerThread);
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+    }
+
+    /**
+     * 남은 기록을 모두 쓰고 종료
+     */
+    public void close() {
+        running = false;
+        LockSupport.unpark(writerThread);
+        try {
+            writerThread.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // 쓰기 스레드
+    private void writeLoop() {
+        List<Record> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty() || !retries.isEmpty()) {
+            if (running && pending.get() - retryCount < batchSize) {
+                LockSupport.parkNanos(this, flushIntervalNanos);
+            } else if (!running && queue.isEmpty()) {
+                // 종료 중 재시도만 남음 → 가장 이른 재시도 시각까지 대기
+                LockSupport.parkNanos(this, nanosUntilRetry());
+            }
+
+            Record r;
+            while ((r = queue.poll()) != null) {
+                batch.add(r);
+            }
+            if (!batch.isEmpty() || !retries.isEmpty()) {
+                int done = writeBatch(batch);
+                pending.addAndGet(-done);
+                batch.clear();
+            }
+        }
+
+        for (FileChannel ch : channels.values()) {
+            try {
+                ch.close();
+            } catch (IOException ignored) {
+            }
+        }
+        channels.clear();
+    }
+
+    private long nanosUntilRetry() {
+        long now = System.nanoTime();
+        long wait = flushIntervalNanos;
+        for (Retry retry : retries.values()) {
+            wait = Math.min(wait, Math.max(0, retry.retryAtNanos - now));
+        }
+        return wait;
+    }
+
+    // 배치 기록: 파일별로 모아 한 번씩 write + force (재시도 대기 중인 줄이 있으면 그 뒤에 이어서)
+    // 반환값: 기록했거나 유실 처리해서 끝난 줄 수 (재시도로 넘긴 줄은 제외)
+    private int writeBatch(List<Record> batch) {
+        long start = System.nanoTime();
+        int done = 0;
+        int written = 0;
+
+        Map<String, List<Record>> byFile = new HashMap<>();
+        for (Map.Entry<String, Retry> e : retries.entrySet()) {
+            Retry retry = e.getValue();
+            if (start - retry.retryAtNanos >= 0) {
+                byFile.put(e.getKey(), new ArrayList<>(retry.records));
+            }
+        }
+        for (Record r : batch) {
+            Retry retry = retries.get(r.filePath);
+            if (retry != null && !byFile.containsKey(r.filePath)) {
+                // 아직 재시도 시각이 아님 → 순서를 지키도록 대기 중인 줄 뒤에 붙여 둠
+                retry.records.add(r);
+                retryCount++;
+                continue;
+            }
+            byFile.computeIfAbsent(r.filePath, k -> new ArrayList<>()).add(r);
+        }
+        if (byFile.isEmpty()) {
+            return 0; // 재시도 시각을 기다리는 줄만 있음
+        }
+
+        for (Map.Entry<String, List<Record>> e : byFile.entrySet()) {
+            List<Record> records = e.getValue();
+            Retry retry = retries.get(e.getKey());
+            byte[][] lines = new byte[records.size()][];
+            int total = 0;
+            for (int i = 0; i < lines.length; i++) {
+                lines[i] = records.get(i).line.getBytes(StandardCharsets.UTF_8);
+                total += lines[i].length;
+            }
+            ByteBuffer buf = ByteBuffer.allocate(total);
+            for (byte[] line : lines) {
+                buf.put(line);
+            }
+            buf.flip();
+
+            long offset = -1;
+            try {
+                FileChannel ch = channel(e.getKey());
+                if (retry != null && retry.validSize >= 0 && ch.size() > retry.validSize) {
+                    ch.truncate(retry.validSize); // 실패한 쓰기에서 일부만 들어간 내용 제거
+                }
+                offset = ch.size(); // APPEND 모드이므로 현재 파일 끝에서부터 기록됨
+                while (buf.hasRemaining()) {
+                    ch.write(buf);
+                }
+                ch.force(false);
+            } catch (IOException ex) {
+                closeChannel(e.getKey());
+                done += scheduleRetry(e.getKey(), records, offset, ex);
+                continue;
+            }
+            if (retry != null) {
+                retries.remove(e.getKey());
+                retryCount -= retry.records.size();
+                logger.accept("게임 기록 재시도 성공 (" + e.getKey() + "): " + records.size() + "줄");
+            }
+            done += records.size();
+            written += records.size();
+
+            AppendListener listener = listeners.get(e.getKey());
+            if (listener != null) {
+                for (int i = 0; i < lines.length; i++) {
+                    try {
+                        listener.onAppended(offset, records.get(i).line);
+                    } catch (RuntimeException ex) {
+                        logger.accept("기록 리스너 오류 (" + e.getKey() + "): " + ex.getMessage());
+                    }
+                    offset += lines[i].length;
+                }
+            }
+        }
+
+        long micros = (System.nanoTime() - start) / 1000;
+        lastFlushMicros = micros;
+        maxFlushMicros = Math.max(maxFlushMicros, micros);
+        avgFlushMicros = (totalFlushes == 0) ? micros : avgFlushMicros * 0.9 + micros * 0.1;
+        totalFlushes++;
+        totalRecords += written;
+        return done;
+    }
+
+    // 쓰기 실패: 재시도 대기열로 옮기고, 재시도를 다 썼으면 유실 처리 (반환값: 유실 처리한 줄 수)
+    private int scheduleRetry(String filePath, List<Record> records, long offset, IOException ex) {
+        Retry retry = retries.get(filePath);
+        if (retry == null) {
+            retry = new Retry();
+            retries.put(filePath, retry);
+        } else {
+            retryCount -= retry.records.size();
+            retry.records.clear();
+        }
+        retry.records.addAll(records);
+        retryCount += records.size();
+        if (retry.validSize < 0) {
+            retry.validSize = offset;
+        }
+        retry.attempts++;
+
+        if (retry.attempts <= WRITE_RETRIES) {
+            long delay = WRITE_RETRY_BASE_MS << (retry.attempts - 1);
+            retry.retryAtNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delay);
+            logger.accept("게임 기록 저장 실패 (" + filePath + "): " + ex.getMessage() + " → " + records.size()
+                    + "줄 " + delay + "ms 후 재시도 (" + retry.attempts + "/" + WRITE_RETRIES + ")");
+            return 0;
+        }
+
+        retries.remove(filePath);
+        retryCount -= records.size();
+        droppedRecords += records.size();
+        logger.accept("게임 기록 유실 (" + filePath + "): " + records.size() + "줄, 재시도 " + WRITE_RETRIES
+                + "회 모두 실패: " + ex.getMessage());
+        AppendListener listener = listeners.get(filePath);
+        if (listener != null) {
+            for (Record r : records) {
+                try {
+                    listener.onDropped(r.line);
+                } catch (RuntimeException le) {
+                    logger.accept("기록 리스너 오류 (" + filePath + "): " + le.getMessage());
+                }
+            }
+        }
+        return records.size();
+    }
+
+    private FileChannel channel(String filePath) throws IOException {
+        FileChannel ch = channels.get(filePath);
+        if (ch == null) {
+            Path path = Paths.get(filePath);
+            ch = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            channels.put(filePath, ch);
+        }
+        return ch;
+    }
+
+    private void closeChannel(String filePath) {
+        FileChannel ch = channels.remove(filePath);
+        if (ch != null) {
+            try {
+                ch.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    // ========== 지표 ==========
+
+    public int getQueueDepth() { return pending.get(); }
+    public int getCapacity() { return capacity; }
+    public long getBlockedAppends() { return blockedAppends.get(); }
+    public long getTotalRecords() { return totalRecords; }
+    public long getDroppedRecords() { return droppedRecords; }
+    public long getTotalFlushes() { return totalFlushes; }
+    public long getLastFlushMicros() { return lastFlushMicros; }
+    public long getMaxFlushMicros() { return maxFlushMicros; }
+    public long getAvgFlushMicros() { return (long) avgFlushMicros; }
+
+    public String getMetricsSummary() {
+        return String.format("저널 큐 %d/%d, 대기 %d회, 기록 %d줄/%d회, 유실 %d줄, flush 평균 %dus 최근 %dus 최대 %dus",
+                getQueueDepth(), capacity, getBlockedAppends(), totalRecords, totalFlushes, droppedRecords,
+                getAvgFlushMicros(), lastFlushMicros, maxFlushMicros);
+    }
+}
@@ -0,0 +1,37 @@
+import java.io.*;
+
+/**
+ * Java 직렬화 코덱 (ObjectOutputStream)
+ * 핸드셰이크를 하지 않는 클라이언트나 협상 실패 시 사용하는 폴백 코덱
+ */
+public final class JavaSerializationCodec implements MessageCodec {
+
+    public static final JavaSerializationCodec INSTANCE = new JavaSerializationCodec();
+
+    private JavaSerializationCodec() {
+    }
+
+    @Override
+    public byte getId() {
+        return JAVA_SERIALIZATION;
+    }
+
+    @Override
+    public byte[] encode(Message msg) throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream(256);
+        ObjectOutputStream oos = new ObjectOutputStream(bos);
+        oos.writeObject(msg);
+        oos.close();
+        return bos.toByteArray();
+    }
+
+    @Override
+    public Message decode(byte[] buf, int offset, int length) throws IOException {
+        ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(buf, offset, length));
+        try {
+            return (Message) ois.readObject();
+        } catch (ClassNotFoundException | ClassCastException e) {
+            throw new StreamCorruptedException("메시지 클래스 오류: " + e.getMessage());
+        }
+    }
+}
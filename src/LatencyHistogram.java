@@ -0,0 +1,57 @@
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 지연 시간 히스토그램 (부하 테스트용, 여러 스레드에서 락 없이 기록)
+ * 0.1ms 단위 칸으로 1초까지 세고, 마지막 칸은 그 이상 전부.
+ * 구간별(라운드별 등)로 보려면 drainSummary로 읽으면서 비운다.
+ */
+public final class LatencyHistogram {
+
+    private static final long STEP_NANOS = 100_000;   // 0.1ms
+    private static final int SIZE = 10_001;           // 1초 + 초과 칸
+
+    private final AtomicLongArray counts = new AtomicLongArray(SIZE);
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    public void record(long nanos) {
+        int bucket = (int) Math.min(SIZE - 1, Math.max(0, nanos) / STEP_NANOS);
+        counts.incrementAndGet(bucket);
+        maxNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    /**
+     * 지금까지 기록의 요약 (건수, p50/p99/최대) 후 비움
+     * 비우는 도중 들어온 기록은 다음 요약에 포함될 수 있음
+     */
+    public String drainSummary() {
+        long[] snapshot = new long[SIZE];
+        long total = 0;
+        for (int i = 0; i < SIZE; i++) {
+            snapshot[i] = counts.getAndSet(i, 0);
+            total += snapshot[i];
+        }
+        long max = maxNanos.getAndSet(0);
+        if (total == 0) {
+            return "기록 없음";
+        }
+        return total + "건, p50 " + percentile(snapshot, total, 0.50) + " / p99 " + percentile(snapshot, total, 0.99)
+                + " / 최대 " + String.format("%.1fms", max / 1e6);
+    }
+
+    // 해당 백분위가 속한 칸의 상한 (마지막 칸은 "이상")
+    private static String percentile(long[] counts, long total, double p) {
+        long target = (long) Math.ceil(total * p);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= target) {
+                if (i == counts.length - 1) {
+                    return ">" + (i * STEP_NANOS / 1_000_000) + "ms";
+                }
+                return String.format("%.1fms", (i + 1) * STEP_NANOS / 1e6);
+            }
+        }
+        return "-";
+    }
+}
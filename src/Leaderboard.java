@@ -0,0 +1,315 @@
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Hashtable;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.Vector;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 랭킹 리더보드
+ * 점수(레이팅) 내림차순 + userId 오름차순으로 정렬된 순서 통계 트리(서브트리 크기를 가진 treap)를 유지한다.
+ * - 갱신, 순위 조회, k번째 조회: O(log n)
+ * - 페이지 조회: O(log n + 페이지 크기)
+ * 1페이지(상위 100명) 응답은 코덱별로 인코딩된 프레임까지 캐시하고, 상위 100명이 바뀔 때만 무효화한다.
+ */
+public class Leaderboard {
+
+    public static final int PAGE_SIZE = 100;
+
+    // 랭킹 항목 (불변)
+    static final class Entry {
+        final String userId;
+        final double score;
+        final StatsService.Stats stats;
+
+        Entry(String userId, double score, StatsService.Stats stats) {
+            this.userId = userId;
+            this.score = score;
+            this.stats = stats;
+        }
+    }
+
+    // treap 노드 (size = 서브트리 노드 수)
+    private static final class Node {
+        final Entry entry;
+        final int priority;
+        Node left;
+        Node right;
+        int size = 1;
+
+        Node(Entry entry, int priority) {
+            this.entry = entry;
+            this.priority = priority;
+        }
+    }
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final HashMap<String, Entry> entries = new HashMap<>(); // lock 보호
+    private final Random random = new Random();                    // 쓰기 lock 보호
+    private Node root;
+    private volatile SharedFrame topPage; // 캐시된 1페이지 응답 (코덱별 인코딩 결과 포함)
+
+    /**
+     * 유저 점수 갱신 (없으면 추가)
+     */
+    public void update(String userId, double score, StatsService.Stats stats) {
+        Entry entry = new Entry(userId, score, stats);
+        lock.writeLock().lock();
+        try {
+            Entry old = entries.put(userId, entry);
+            boolean affectsTop = false;
+            if (old != null) {
+                affectsTop = rank(old) < PAGE_SIZE;
+                root = erase(root, old);
+            }
+            root = insert(root, new Node(entry, random.nextInt()));
+            if (affectsTop || rank(entry) < PAGE_SIZE) {
+                topPage = null;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size(root);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 유저 순위 (1부터, 랭킹에 없으면 0)
+     */
+    public int getRank(String userId) {
+        lock.readLock().lock();
+        try {
+            Entry entry = entries.get(userId);
+            return entry == null ? 0 : rank(entry) + 1;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 페이지 조회 (1부터), 1페이지는 캐시된 응답 반환
+     */
+    public Message getPage(int page) {
+        if (page <= 1) {
+            return topPage().getMessage();
+        }
+        lock.readLock().lock();
+        try {
+            return buildPage(page);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 1페이지 응답을 코덱으로 인코딩한 프레임 (캐시 재사용)
+     */
+    public byte[] getTopPageFrame(MessageCodec codec) throws IOException {
+        return topPage().frameFor(codec);
+    }
+
+    /**
+     * 유저 순위 기준 위아래 k명 조회
+     */
+    public Message getAround(String userId, int k) {
+        lock.readLock().lock();
+        try {
+            Message response = new Message(Message.MessageType.RANKING_RESPONSE, "SERVER");
+            response.setTargetUserId(userId);
+            Entry entry = entries.get(userId);
+            if (entry == null) {
+                response.setSuccess(false);
+                response.setContent("랭킹 기록 없음");
+                response.setData(new Vector<Hashtable<String, String>>());
+                return response;
+            }
+            int rank = rank(entry);
+            int from = Math.max(0, rank - k);
+            response.setSuccess(true);
+            response.setContent((rank + 1) + "/" + size(root));
+            response.setData(toRows(range(from, rank + k + 1), from));
+            return response;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // 캐시가 없으면 만들어 둠 (읽기 lock 안에서 게시 → 쓰기 중 무효화와 엇갈리지 않음)
+    private SharedFrame topPage() {
+        SharedFrame cached = topPage;
+        if (cached != null) {
+            return cached;
+        }
+        lock.readLock().lock();
+        try {
+            cached = topPage;
+            if (cached == null) {
+                cached = new SharedFrame(buildPage(1));
+                topPage = cached;
+            }
+            return cached;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Message buildPage(int page) {
+        int total = size(root);
+        int totalPages = Math.max(1, (total + PAGE_SIZE - 1) / PAGE_SIZE);
+        int from = (page - 1) * PAGE_SIZE;
+
+        Message response = new Message(Message.MessageType.RANKING_RESPONSE, "SERVER");
+        response.setSuccess(true);
+        response.setContent(page + "/" + totalPages);
+        response.setData(toRows(range(from, from + PAGE_SIZE), from));
+        return response;
+    }
+
+    private Vector<Hashtable<String, String>> toRows(List<Entry> list, int firstRank) {
+        Vector<Hashtable<String, String>> rows = new Vector<>(list.size());
+        int rank = firstRank;
+        for (Entry e : list) {
+            Hashtable<String, String> row = new Hashtable<>();
+            row.put("rank", String.valueOf(++rank));
+            row.put("userId", e.userId);
+            row.put("score", String.format(Locale.US, "%.1f", e.score));
+            row.put("wins", String.valueOf(e.stats.wins));
+            row.put("losses", String.valueOf(e.stats.losses));
+            row.put("draws", String.valueOf(e.stats.draws));
+            row.put("winRate", e.stats.getWinRateText());
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    // ========== treap ==========
+
+    // 점수 내림차순, 같으면 userId 오름차순
+    private static int compare(Entry a, Entry b) {
+        int c = Double.compare(b.score, a.score);
+        return c != 0 ? c : a.userId.compareTo(b.userId);
+    }
+
+    private static int size(Node t) {
+        return t == null ? 0 : t.size;
+    }
+
+    private static void resize(Node t) {
+        t.size = 1 + size(t.left) + size(t.right);
+    }
+
+    // 0부터 시작하는 순위 (entry보다 앞선 항목 수)
+    private int rank(Entry entry) {
+        int r = 0;
+        Node t = root;
+        while (t != null) {
+            int c = compare(entry, t.entry);
+            if (c < 0) {
+                t = t.left;
+            } else if (c == 0) {
+                return r + size(t.left);
+            } else {
+                r += size(t.left) + 1;
+                t = t.right;
+            }
+        }
+        return r;
+    }
+
+    // [from, to) 순위 구간의 항목
+    private List<Entry> range(int from, int to) {
+        List<Entry> out = new ArrayList<>(Math.max(0, Math.min(to, size(root)) - from));
+        collect(root, from, to, 0, out);
+        return out;
+    }
+
+    // base = 서브트리 t의 가장 왼쪽 노드 순위, 구간과 겹치지 않는 서브트리는 건너뜀
+    private static void collect(Node t, int from, int to, int base, List<Entry> out) {
+        if (t == null || base >= to || base + t.size <= from) {
+            return;
+        }
+        collect(t.left, from, to, base, out);
+        int r = base + size(t.left);
+        if (r >= from && r < to) {
+            out.add(t.entry);
+        }
+        collect(t.right, from, to, r + 1, out);
+    }
+
+    private static Node insert(Node t, Node n) {
+        if (t == null) {
+            return n;
+        }
+        if (n.priority > t.priority) {
+            Node[] parts = split(t, n.entry);
+            n.left = parts[0];
+            n.right = parts[1];
+            resize(n);
+            return n;
+        }
+        if (compare(n.entry, t.entry) < 0) {
+            t.left = insert(t.left, n);
+        } else {
+            t.right = insert(t.right, n);
+        }
+        resize(t);
+        return t;
+    }
+
+    private static Node erase(Node t, Entry entry) {
+        if (t == null) {
+            return null;
+        }
+        int c = compare(entry, t.entry);
+        if (c == 0) {
+            return merge(t.left, t.right);
+        }
+        if (c < 0) {
+            t.left = erase(t.left, entry);
+        } else {
+            t.right = erase(t.right, entry);
+        }
+        resize(t);
+        return t;
+    }
+
+    // key보다 앞선 노드들 / 나머지로 분할
+    private static Node[] split(Node t, Entry key) {
+        if (t == null) {
+            return new Node[]{null, null};
+        }
+        if (compare(t.entry, key) < 0) {
+            Node[] parts = split(t.right, key);
+            t.right = parts[0];
+            resize(t);
+            return new Node[]{t, parts[1]};
+        }
+        Node[] parts = split(t.left, key);
+        t.left = parts[1];
+        resize(t);
+        return new Node[]{parts[0], t};
+    }
+
+    private static Node merge(Node a, Node b) {
+        if (a == null) return b;
+        if (b == null) return a;
+        if (a.priority > b.priority) {
+            a.right = merge(a.right, b);
+            resize(a);
+            return a;
+        }
+        b.left = merge(a, b.left);
+        resize(b);
+        return b;
+    }
+}
@@ -0,0 +1,140 @@
+import java.io.Serializable;
+import java.util.Hashtable;
+import java.util.Map;
+import java.util.Vector;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * 로비 방 목록 구독
+ * 구독하면 현재 전체 목록(ROOM_LIST_RESPONSE, content = 버전)을 한 번 보내고,
+ * 이후에는 방 추가/변경/삭제를 짧은 시간(coalesce window) 동안 모아서 변경분(ROOM_LIST_DELTA)만 보낸다.
+ * 같은 방이 여러 번 바뀌면 마지막 상태 하나로 합쳐진다.
+ *
+ * 변경분 data (Hashtable):
+ *   version     - 이 변경분을 적용한 뒤의 버전 (Long)
+ *   baseVersion - 이 변경분을 적용하기 전 버전 (Long), 클라이언트 버전과 다르면 전체 목록 재요청
+ *   upserts     - 추가/변경된 방 요약 (Vector&lt;Message&gt;)
+ *   removed     - 삭제된 방 번호 (Vector&lt;Integer&gt;)
+ */
+public class LobbyFeed implements RoomRegistry.Listener {
+
+    private static final Object REMOVED = new Object();
+
+    private final RoomRegistry<?> registry;
+    private final long coalesceMillis;
+    private final ScheduledExecutorService scheduler;
+
+    // 아직 보내지 않은 변경 (방 번호 → 최신 요약 Message 또는 REMOVED)
+    private final ConcurrentHashMap<Integer, Object> pending = new ConcurrentHashMap<>();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean(false);
+    private final ConcurrentHashMap<Object, Consumer<SharedFrame>> subscribers = new ConcurrentHashMap<>();
+
+    // 전체 목록 전송과 변경분 전송이 엇갈리지 않도록 버전과 함께 보호
+    private final ReentrantLock lock = new ReentrantLock();
+    private long version = 0;
+
+    public LobbyFeed(RoomRegistry<?> registry, long coalesceMillis) {
+        this.registry = registry;
+        this.coalesceMillis = coalesceMillis;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "lobby-feed");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * 구독 (이미 구독 중이면 전체 목록만 다시 전송)
+     */
+    public void subscribe(Object subscriber, Consumer<SharedFrame> sink) {
+        lock.lock();
+        try {
+            subscribers.put(subscriber, sink);
+            Message snapshot = new Message(Message.MessageType.ROOM_LIST_RESPONSE, "SERVER");
+            snapshot.setData(new Vector<>(registry.find(null, null, null)));
+            snapshot.setContent(String.valueOf(version));
+            sink.accept(new SharedFrame(snapshot));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void unsubscribe(Object subscriber) {
+        subscribers.remove(subscriber);
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    @Override
+    public void onPublished(int roomId, Message summary) {
+        pending.put(roomId, summary);
+        scheduleFlush();
+    }
+
+    @Override
+    public void onRemoved(int roomId) {
+        pending.put(roomId, REMOVED);
+        scheduleFlush();
+    }
+
+    private void scheduleFlush() {
+        if (flushScheduled.compareAndSet(false, true)) {
+            scheduler.schedule(this::flush, coalesceMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    // 모인 변경을 하나의 변경분 메시지로 만들어 모든 구독자에게 전송
+    private void flush() {
+        flushScheduled.set(false);
+
+        Vector<Message> upserts = new Vector<>();
+        Vector<Integer> removed = new Vector<>();
+        lock.lock();
+        try {
+            for (Map.Entry<Integer, Object> e : pending.entrySet()) {
+                Object change = pending.remove(e.getKey());
+                if (change == REMOVED) {
+                    removed.add(e.getKey());
+                } else if (change != null) {
+                    upserts.add((Message) change);
+                }
+            }
+            if (upserts.isEmpty() && removed.isEmpty()) {
+                return;
+            }
+
+            Hashtable<String, Serializable> delta = new Hashtable<>();
+            delta.put("baseVersion", version);
+            delta.put("version", ++version);
+            delta.put("upserts", upserts);
+            delta.put("removed", removed);
+            Message msg = new Message(Message.MessageType.ROOM_LIST_DELTA, "SERVER");
+            msg.setData(delta);
+
+            // 구독자 수와 관계없이 코덱별로 한 번만 인코딩
+            SharedFrame frame = new SharedFrame(msg);
+            for (Consumer<SharedFrame> sink : subscribers.values()) {
+                sink.accept(frame);
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        // 전송하는 동안 들어온 변경이 있으면 다음 창에서 처리
+        if (!pending.isEmpty()) {
+            scheduleFlush();
+        }
+    }
+
+    public void stop() {
+        scheduler.shutdown();
+    }
+}
@@ -0,0 +1,280 @@
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+
+/**
+ * 빠른 시작 매칭
+ * (게임 모드, 난이도, 턴 제한 시간) 조합마다 대기열을 두고, 매칭 스레드가 tick마다 대기자를 모아 짝을 짓는다.
+ * - 등록/취소: 락 없음 (등록은 조합별 입력 큐에 넣기만 하고, 취소는 표만 CAS로 바꿔 두면 tick에서 건너뜀)
+ * - 실력이 비슷한 순으로 정렬해서 연속한 인원을 묶되, 허용 실력 차는 오래 기다릴수록 넓어짐
+ * - 매칭된 대기자의 대기 시간은 히스토그램에 기록해 백분위로 보여줌
+ */
+public class MatchmakingService<P> {
+
+    /**
+     * 매칭 결과 처리 (매칭 스레드에서 호출되므로 방 생성/입장은 방 액터에 넘길 것)
+     * 2v2는 players 앞의 두 명과 뒤의 두 명이 각각 한 팀이 되도록 실력을 섞은 순서로 넘긴다.
+     */
+    public interface MatchHandler<P> {
+        void onMatch(Message.GameMode mode, Message.Difficulty difficulty, Message.TurnTimeLimit timeLimit, List<P> players);
+    }
+
+    private static final int ST_WAITING = 0;
+    private static final int ST_CANCELLED = 1;
+    private static final int ST_MATCHED = 2;
+
+    // 대기 시간 히스토그램 (250ms 단위, 마지막 칸은 그 이상 전부)
+    private static final long HISTOGRAM_STEP_MS = 250;
+    private static final int HISTOGRAM_SIZE = 481;
+
+    // 대기 표 (한 유저당 하나)
+    private static final class Ticket<P> {
+        final String userId;
+        final P player;
+        final double skill;
+        final long enqueuedAt;
+        final AtomicInteger state = new AtomicInteger(ST_WAITING);
+
+        Ticket(String userId, P player, double skill) {
+            this.userId = userId;
+            this.player = player;
+            this.skill = skill;
+            this.enqueuedAt = System.currentTimeMillis();
+        }
+    }
+
+    // 조합 하나의 대기열
+    private static final class Bucket<P> {
+        final Message.GameMode mode;
+        final Message.Difficulty difficulty;
+        final Message.TurnTimeLimit timeLimit;
+        final ConcurrentLinkedQueue<Ticket<P>> incoming = new ConcurrentLinkedQueue<>();
+        final List<Ticket<P>> waiting = new ArrayList<>(); // 매칭 스레드 전용
+
+        Bucket(Message.GameMode mode, Message.Difficulty difficulty, Message.TurnTimeLimit timeLimit) {
+            this.mode = mode;
+            this.difficulty = difficulty;
+            this.timeLimit = timeLimit;
+        }
+    }
+
+    private final double baseWindow;
+    private final double widenPerSecond;
+    private final double maxWindow;
+    private final MatchHandler<P> handler;
+    private final Consumer<String> logger;
+
+    private final Bucket<P>[] buckets;
+    private final ConcurrentHashMap<String, Ticket<P>> tickets = new ConcurrentHashMap<>();
+    private final AtomicLongArray waitHistogram = new AtomicLongArray(HISTOGRAM_SIZE);
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * @param tickMillis     매칭 주기
+     * @param baseWindow     처음 허용하는 실력 차
+     * @param widenPerSecond 대기 1초마다 늘어나는 허용 실력 차
+     * @param maxWindow      허용 실력 차 최대치
+     */
+    public MatchmakingService(long tickMillis, double baseWindow, double widenPerSecond, double maxWindow,
+                              MatchHandler<P> handler, Consumer<String> logger) {
+        this.baseWindow = baseWindow;
+        this.widenPerSecond = widenPerSecond;
+        this.maxWindow = maxWindow;
+        this.handler = handler;
+        this.logger = logger;
+
+        Message.GameMode[] modes = Message.GameMode.values();
+        Message.Difficulty[] difficulties = Message.Difficulty.values();
+        Message.TurnTimeLimit[] timeLimits = Message.TurnTimeLimit.values();
+        // 제네릭 배열은 직접 만들 수 없으므로 와일드카드 배열을 한 번만 캐스트
+        @SuppressWarnings("unchecked")
+        Bucket<P>[] array = (Bucket<P>[]) new Bucket<?>[modes.length * difficulties.length * timeLimits.length];
+        buckets = array;
+        for (Message.GameMode m : modes) {
+            for (Message.Difficulty d : difficulties) {
+                for (Message.TurnTimeLimit t : timeLimits) {
+                    buckets[indexOf(m, d, t)] = new Bucket<>(m, d, t);
+                }
+            }
+        }
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "matchmaker");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(this::tick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private static int indexOf(Message.GameMode m, Message.Difficulty d, Message.TurnTimeLimit t) {
+        return (m.ordinal() * Message.Difficulty.values().length + d.ordinal())
+                * Message.TurnTimeLimit.values().length + t.ordinal();
+    }
+
+    /**
+     * 대기열 등록 (이미 대기 중이면 false)
+     */
+    public boolean enqueue(String userId, P player, double skill,
+                           Message.GameMode mode, Message.Difficulty difficulty, Message.TurnTimeLimit timeLimit) {
+        Ticket<P> ticket = new Ticket<>(userId, player, skill);
+        if (tickets.putIfAbsent(userId, ticket) != null) {
+            return false;
+        }
+        buckets[indexOf(mode, difficulty, timeLimit)].incoming.add(ticket);
+        return true;
+    }
+
+    /**
+     * 대기 취소 (대기 중이 아니었으면 false, 표는 다음 tick에서 정리)
+     */
+    public boolean cancel(String userId) {
+        Ticket<P> ticket = tickets.get(userId);
+        if (ticket == null || !ticket.state.compareAndSet(ST_WAITING, ST_CANCELLED)) {
+            return false;
+        }
+        tickets.remove(userId, ticket);
+        return true;
+    }
+
+    public int getWaitingCount() {
+        return tickets.size();
+    }
+
+    // 매칭 스레드
+    private void tick() {
+        long now = System.currentTimeMillis();
+        for (Bucket<P> bucket : buckets) {
+            try {
+                match(bucket, now);
+            } catch (RuntimeException e) {
+                logger.accept("매칭 오류: " + e.getMessage());
+            }
+        }
+    }
+
+    private void match(Bucket<P> bucket, long now) {
+        Ticket<P> t;
+        while ((t = bucket.incoming.poll()) != null) {
+            bucket.waiting.add(t);
+        }
+        bucket.waiting.removeIf(w -> w.state.get() != ST_WAITING);
+
+        int groupSize = bucket.mode.getMaxPlayers();
+        if (bucket.waiting.size() < groupSize) {
+            return;
+        }
+
+        // 실력순으로 정렬한 뒤 연속한 groupSize명의 실력 차가 모두의 허용 범위 안이면 매칭
+        bucket.waiting.sort(Comparator.comparingDouble(w -> w.skill));
+        List<Ticket<P>> remaining = new ArrayList<>();
+        int i = 0;
+        while (i < bucket.waiting.size()) {
+            if (i + groupSize > bucket.waiting.size()) {
+                remaining.add(bucket.waiting.get(i++));
+                continue;
+            }
+            List<Ticket<P>> group = bucket.waiting.subList(i, i + groupSize);
+            if (fits(group, now) && claim(group)) {
+                List<P> players = new ArrayList<>(groupSize);
+                for (Ticket<P> g : group) {
+                    tickets.remove(g.userId, g);
+                    recordWait(now - g.enqueuedAt);
+                }
+                if (bucket.mode == Message.GameMode.TWO_VS_TWO) {
+                    // 실력순 1,4등 vs 2,3등 (입장 순서대로 Team 1, Team 2)
+                    players.add(group.get(0).player);
+                    players.add(group.get(3).player);
+                    players.add(group.get(1).player);
+                    players.add(group.get(2).player);
+                } else {
+                    for (Ticket<P> g : group) {
+                        players.add(g.player);
+                    }
+                }
+                handler.onMatch(bucket.mode, bucket.difficulty, bucket.timeLimit, players);
+                i += groupSize;
+            } else {
+                remaining.add(bucket.waiting.get(i++));
+            }
+        }
+        bucket.waiting.clear();
+        bucket.waiting.addAll(remaining);
+    }
+
+    // 가장 낮은/높은 실력 차가 묶음 안 모든 대기자의 허용 범위 이내인지
+    private boolean fits(List<Ticket<P>> group, long now) {
+        double spread = group.get(group.size() - 1).skill - group.get(0).skill;
+        for (Ticket<P> t : group) {
+            double waitedSec = (now - t.enqueuedAt) / 1000.0;
+            double window = Math.min(maxWindow, baseWindow + widenPerSecond * waitedSec);
+            if (spread > window) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // 묶음 전원을 매칭 상태로 변경 (그 사이 취소한 사람이 있으면 되돌리고 false)
+    private boolean claim(List<Ticket<P>> group) {
+        for (int k = 0; k < group.size(); k++) {
+            if (!group.get(k).state.compareAndSet(ST_WAITING, ST_MATCHED)) {
+                for (int j = 0; j < k; j++) {
+                    group.get(j).state.set(ST_WAITING);
+                }
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void recordWait(long waitMillis) {
+        int bucket = (int) Math.min(HISTOGRAM_SIZE - 1, waitMillis / HISTOGRAM_STEP_MS);
+        waitHistogram.incrementAndGet(bucket);
+    }
+
+    /**
+     * 대기 시간 백분위 (p50/p90/p99, 매칭된 대기자 기준)
+     */
+    public String getWaitTimeSummary() {
+        long[] counts = new long[HISTOGRAM_SIZE];
+        long total = 0;
+        for (int i = 0; i < HISTOGRAM_SIZE; i++) {
+            counts[i] = waitHistogram.get(i);
+            total += counts[i];
+        }
+        if (total == 0) {
+            return "매칭 대기 " + getWaitingCount() + "명, 매칭 기록 없음";
+        }
+        return "매칭 대기 " + getWaitingCount() + "명, 매칭 " + total + "명, 대기 시간 p50 "
+                + percentile(counts, total, 0.50) + " / p90 " + percentile(counts, total, 0.90)
+                + " / p99 " + percentile(counts, total, 0.99);
+    }
+
+    // 해당 백분위가 속한 칸의 상한 (마지막 칸은 "이상")
+    private static String percentile(long[] counts, long total, double p) {
+        long target = (long) Math.ceil(total * p);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= target) {
+                if (i == counts.length - 1) {
+                    return ">" + (i * HISTOGRAM_STEP_MS / 1000) + "s";
+                }
+                return String.format("%.2fs", (i + 1) * HISTOGRAM_STEP_MS / 1000.0);
+            }
+        }
+        return "-";
+    }
+
+    public void stop() {
+        scheduler.shutdown();
+    }
+}
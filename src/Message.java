@@ -1,5 +1,7 @@
 import java.io.Serializable;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 
 /**
@@ -24,6 +26,9 @@ public class Message implements Serializable {
         // 방 관련 (2xxx)
         ROOM_LIST_REQUEST,      // 방 목록 요청 (C → S)
         ROOM_LIST_RESPONSE,     // 방 목록 응답 (S → C)
+        LOBBY_SUBSCRIBE,        // 로비 방 목록 구독 (C → S) - 응답으로 전체 목록 후 변경분 전송
+        LOBBY_UNSUBSCRIBE,      // 로비 방 목록 구독 해제 (C → S)
+        ROOM_LIST_DELTA,        // 방 목록 변경분 (S → C)
         CREATE_ROOM_REQUEST,    // 방 생성 요청 (C → S)
         CREATE_ROOM_RESPONSE,   // 방 생성 응답 (S → C)
         JOIN_ROOM_REQUEST,      // 방 입장 요청 (C → S)
@@ -33,6 +38,7 @@ public class Message implements Serializable {
         LEAVE_ROOM,             // 방 나가기 (C → S)
         ROOM_INFO_UPDATE,       // 방 정보 업데이트 (S → C)
         KICK_PLAYER,            // 강제 퇴장 (C → S) - Phase 2
+        ADD_BOT,                // 봇 추가 (C → S, 방장만) - content: 봇 수준
 
         // 게임 준비 및 시작 (3xxx)
         READY,                  // 준비 완료 (C → S)
@@ -45,10 +51,14 @@ public class Message implements Serializable {
         TURN_INFO,              // 턴 정보 (S → C) - 현재 회차, 공격팀 등
         GUESS,                  // 숫자 추측 (C → S)
         GUESS_RESULT,           // 추측 결과 (S → C)
+        TEAM_GUESS_RESULT,      // 2v2 반 이닝 추측 결과 묶음 (S → C, 공격 팀에게) - data: 팀원별 GUESS_RESULT
         TURN_TIMEOUT,           // 턴 타임아웃 (S → C)
         END_GAME,               // 게임 종료 (S → C)
         GAME_RESULT,            // 게임 결과 (S → C)
         STAY_IN_ROOM,           // 방에 머무르기 (C → S)
+        HINT_REQUEST,           // 힌트 요청 (C → S)
+        HINT_RESPONSE,          // 힌트 응답 (S → C) - 남은 후보 수, 추천 추측
+        ROYALE_LEADERBOARD,     // 배틀로얄 순위 (S → C, 주기적) - content: 요약, data: 상위 플레이어
 
         // 채팅 (5xxx)
         CHAT_ALL,               // 전체 채팅 (C ↔ S)
@@ -63,6 +73,8 @@ public class Message implements Serializable {
         GAME_HISTORY_RESPONSE,  // 게임 기록 응답 (S → C)
         RANKING_REQUEST,        // 랭킹 요청 (C → S)
         RANKING_RESPONSE,       // 랭킹 응답 (S → C)
+        REPLAY_REQUEST,         // 게임 리플레이 요청 (C → S)
+        REPLAY_RESPONSE,        // 게임 리플레이 응답 (S → C)
 
         // 매칭 (7xxx)
         QUICK_MATCH_REQUEST,    // 빠른 시작 (C → S)
@@ -75,24 +87,48 @@ public class Message implements Serializable {
         USER_LIST_RESPONSE,     // 접속자 목록 응답 (S → C)
 
         // 에러 (9xxx)
-        ERROR                   // 에러 메시지 (S → C)
+        ERROR;                  // 에러 메시지 (S → C)
+
+        /**
+         * 송신 대기열이 밀릴 때 버려도 되는 메시지 (전체/방/팀 채팅, 상태 알림)
+         * 로비 변경분은 버려지면 클라이언트가 버전 차이로 감지해 전체 목록을 다시 받는다.
+         * 귓속말은 한 사람에게만 가는 메시지라 버리지 않는다.
+         */
+        public boolean isDroppable() {
+            switch (this) {
+                case CHAT_ALL:
+                case CHAT_ROOM:
+                case CHAT_TEAM:
+                case USER_STATUS_UPDATE:
+                case SPECTATOR_LIST_UPDATE:
+                case ROOM_LIST_DELTA:
+                case ROYALE_LEADERBOARD:    // 다음 주기에 다시 전송됨
+                    return true;
+                default:
+                    return false;
+            }
+        }
     }
 
     /**
      * 게임 모드
      */
     public enum GameMode {
-        ONE_VS_ONE(2, "1v1"),       // 1대1 (2명)
-        TWO_VS_TWO(4, "2v2");       // 2대2 (4명)
+        ONE_VS_ONE(2, 2, "1v1"),            // 1대1 (2명)
+        TWO_VS_TWO(4, 4, "2v2"),            // 2대2 (4명)
+        BATTLE_ROYALE(2, 500, "배틀로얄");   // 최대 500명이 같은 정답을 동시에 맞힘
 
+        private final int minPlayers;
         private final int maxPlayers;
         private final String displayName;
 
-        GameMode(int maxPlayers, String displayName) {
+        GameMode(int minPlayers, int maxPlayers, String displayName) {
+            this.minPlayers = minPlayers;
             this.maxPlayers = maxPlayers;
             this.displayName = displayName;
         }
 
+        public int getMinPlayers() { return minPlayers; }
         public int getMaxPlayers() { return maxPlayers; }
         public String getDisplayName() { return displayName; }
     }
@@ -101,20 +137,32 @@ public class Message implements Serializable {
      * 난이도 (숫자 개수)
      */
     public enum Difficulty {
-        EASY(3, "하"),      // 3자리
-        MEDIUM(4, "중"),    // 4자리
-        HARD(5, "상");      // 5자리
+        EASY(3, "하", false),      // 3자리 (1~9)
+        MEDIUM(4, "중", false),    // 4자리 (1~9)
+        HARD(5, "상", false),      // 5자리 (1~9)
+        DIGITS_6(6, "6자리", false),
+        DIGITS_7(7, "7자리", false),
+        DIGITS_8(8, "8자리", false),
+        DIGITS_9(9, "9자리", false),
+        DIGITS_6_ZERO(6, "6자리+0", true),   // 0~9 사용
+        DIGITS_7_ZERO(7, "7자리+0", true),
+        DIGITS_8_ZERO(8, "8자리+0", true),
+        DIGITS_9_ZERO(9, "9자리+0", true),
+        DIGITS_10_ZERO(10, "10자리+0", true);
 
         private final int digitCount;
         private final String displayName;
+        private final boolean allowZero; // 숫자 0 사용 여부 (없으면 1~9)
 
-        Difficulty(int digitCount, String displayName) {
+        Difficulty(int digitCount, String displayName, boolean allowZero) {
             this.digitCount = digitCount;
             this.displayName = displayName;
+            this.allowZero = allowZero;
         }
 
         public int getDigitCount() { return digitCount; }
         public String getDisplayName() { return displayName; }
+        public boolean isAllowZero() { return allowZero; }
     }
 
     /**
@@ -202,7 +250,7 @@ public class Message implements Serializable {
     private MessageType type;           // 메시지 타입
     private String userId;              // 메시지를 보낸 사용자 ID
     private String content;             // 메시지 내용 (채팅, 추가 정보 등)
-    private String timestamp;    // 메시지 생성 시간
+    private long timestamp;             // 메시지 생성 시간 (epoch millis)
 
     // 인증 관련
     private String password;            // 비밀번호 (로그인/회원가입)
@@ -269,8 +317,7 @@ public class Message implements Serializable {
      */
     public Message(MessageType type) {
         this.type = type;
-        this.timestamp = LocalDateTime.now()
-                .format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+        this.timestamp = System.currentTimeMillis();
     }
 
 
@@ -281,8 +328,7 @@ public class Message implements Serializable {
         this.type = type;
         this.userId = userId;
         this.content = content;
-        this.timestamp = LocalDateTime.now()
-                .format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+        this.timestamp = System.currentTimeMillis();
     }
 
     /**
@@ -291,8 +337,7 @@ public class Message implements Serializable {
     public Message(MessageType type, String userId) {
         this.type = type;
         this.userId = userId;
-        this.timestamp = LocalDateTime.now()
-                .format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+        this.timestamp = System.currentTimeMillis();
     }
 
     /**
@@ -433,8 +478,14 @@ public class Message implements Serializable {
     public String getContent() { return content; }
     public void setContent(String content) { this.content = content; }
 
-    public String getTimestamp() { return timestamp; }
-    public void setTimestamp(String timestamp) { this.timestamp = timestamp; }
+    // 표시용 시간 문자열 (필요할 때만 포맷)
+    public String getTimestamp() {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(timestamp), ZoneId.systemDefault())
+                .format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+    }
+
+    public long getTimestampMillis() { return timestamp; }
+    public void setTimestampMillis(long timestamp) { this.timestamp = timestamp; }
 
     public String getPassword() { return password; }
     public void setPassword(String password) { this.password = password; }
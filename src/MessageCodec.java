@@ -0,0 +1,31 @@
+import java.io.IOException;
+
+/**
+ * Message <-> 바이트 변환 방식 (프레임 페이로드 인코딩)
+ * 접속 직후 핸드셰이크에서 양쪽이 지원하는 코덱 중 하나를 선택한다.
+ */
+public interface MessageCodec {
+
+    byte JAVA_SERIALIZATION = 0;   // 기본 Java 직렬화 (하위 호환용 폴백)
+    byte BINARY = 1;               // 길이 접두 바이너리 포맷
+
+    byte getId();
+
+    byte[] encode(Message msg) throws IOException;
+
+    Message decode(byte[] buf, int offset, int length) throws IOException;
+
+    /**
+     * 코덱 ID로 코덱 찾기 (지원하지 않으면 null)
+     */
+    static MessageCodec forId(byte id) {
+        switch (id) {
+            case JAVA_SERIALIZATION:
+                return JavaSerializationCodec.INSTANCE;
+            case BINARY:
+                return BinaryMessageCodec.INSTANCE;
+            default:
+                return null;
+        }
+    }
+}
@@ -0,0 +1,465 @@
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.*;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Selector 기반 논블로킹 서버 엔진
+ * 소수의 고정된 I/O 스레드가 모든 연결을 나눠 맡으므로 접속자 수만큼 스레드를 만들지 않는다.
+ * 완성된 프레임은 Message로 복원되어 Handler.onMessage로 전달된다.
+ */
+public class NioServer {
+
+    /**
+     * 연결 이벤트 처리기 (모든 콜백은 해당 연결을 담당하는 I/O 스레드에서 호출됨)
+     */
+    public interface Handler {
+        void onOpen(Connection connection);
+        void onMessage(Connection connection, Message msg);
+        void onClose(Connection connection);
+    }
+
+    private static final int READ_BUFFER_SIZE = 64 * 1024;  // I/O 스레드당 공유 읽기 버퍼
+    private static final int MAX_GATHER = 16;               // 한 번에 모아 쓰는 최대 버퍼 수
+    private static final long SLOW_SWEEP_INTERVAL_MS = 1000; // 느린 연결 점검 주기
+    private static final long ACCEPT_BACKOFF_MIN_MS = 10;    // accept 실패 후 재시도 대기 (실패가 이어지면 두 배씩)
+    private static final long ACCEPT_BACKOFF_MAX_MS = 1000;
+
+    private final int port;
+    private final Handler handler;
+    private final IoWorker[] workers;
+    private final Supplier<OutboundQueue> queueFactory;
+    private final Consumer<String> logger;
+    private final AtomicInteger connectionCount = new AtomicInteger();
+    private final AtomicLong evictedCount = new AtomicLong();
+
+    private ServerSocketChannel serverChannel;
+    private Thread acceptThread;
+    private volatile boolean running = false;
+    private int nextWorker = 0;
+
+    /**
+     * @param queueFactory 연결마다 쓸 송신 대기열 생성 (수위/한도 설정)
+     */
+    public NioServer(int port, int ioThreads, Supplier<OutboundQueue> queueFactory, Handler handler,
+                     Consumer<String> logger) {
+        this.port = port;
+        this.handler = handler;
+        this.queueFactory = queueFactory;
+        this.logger = logger;
+        this.workers = new IoWorker[Math.max(1, ioThreads)];
+    }
+
+    // 서버 시작
+    public void start() throws IOException {
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(new InetSocketAddress(port), 1024);
+        running = true;
+
+        for (int i = 0; i < workers.length; i++) {
+            workers[i] = new IoWorker(Selector.open());
+            Thread t = new Thread(workers[i], "nio-io-" + i);
+            t.setDaemon(true);
+            t.start();
+        }
+
+        // 접속 수락은 전용 스레드에서 블로킹으로 처리하고, 읽기/쓰기는 I/O 스레드에 분배
+        acceptThread = new Thread(() -> {
+            long backoff = 0;
+            while (running) {
+                SocketChannel channel = null;
+                try {
+                    channel = serverChannel.accept();
+                    channel.configureBlocking(false);
+                    channel.socket().setTcpNoDelay(true);
+
+                    IoWorker worker = workers[nextWorker];
+                    nextWorker = (nextWorker + 1) % workers.length;
+                    Connection connection = new Connection(channel, worker);
+                    worker.execute(() -> worker.register(connection));
+                    backoff = 0;
+                } catch (IOException e) {
+                    if (!running) break;
+                    if (channel != null) {
+                        try {
+                            channel.close();
+                        } catch (IOException ignored) {
+                        }
+                    }
+                    // 파일 디스크립터 부족(EMFILE) 등은 바로 다시 accept해도 같은 오류 → 잠시 쉬었다가 재시도
+                    backoff = (backoff == 0) ? ACCEPT_BACKOFF_MIN_MS : Math.min(backoff * 2, ACCEPT_BACKOFF_MAX_MS);
+                    logger.accept("접속 수락 실패: " + e.getMessage() + " (" + backoff + "ms 후 재시도)");
+                    try {
+                        Thread.sleep(backoff);
+                    } catch (InterruptedException ie) {
+                        break;
+                    }
+                }
+            }
+        }, "nio-accept");
+        acceptThread.start();
+    }
+
+    // 서버 중지 (모든 연결 종료)
+    public void stop() {
+        running = false;
+        try {
+            if (serverChannel != null) {
+                serverChannel.close();
+            }
+        } catch (IOException ignored) {
+        }
+        for (IoWorker worker : workers) {
+            if (worker != null) {
+                worker.execute(worker::shutdown);
+            }
+        }
+    }
+
+    // 바인드된 포트 (포트 0으로 시작했을 때 실제 포트 확인용)
+    public int getLocalPort() {
+        return serverChannel.socket().getLocalPort();
+    }
+
+    public int getConnectionCount() {
+        return connectionCount.get();
+    }
+
+    // 송신 대기열이 넘쳐 종료된 연결 수
+    public long getEvictedCount() {
+        return evictedCount.get();
+    }
+
+    // --- 연결 ---
+    public class Connection {
+        private final SocketChannel channel;
+        private final IoWorker worker;
+        private SelectionKey key;
+
+        // 미완성 프레임 누적 버퍼 (부분 수신이 있을 때만 할당 → 유휴 연결의 메모리 최소화)
+        private ByteBuffer pending;
+
+        // 다른 스레드에서 들어온 송신 프레임 → I/O 스레드가 inFlight로 옮겨 기록
+        private final OutboundQueue outbound = queueFactory.get();
+        private final ArrayDeque<ByteBuffer> inFlight = new ArrayDeque<>();
+        private final AtomicBoolean flushScheduled = new AtomicBoolean(false);
+        private final AtomicBoolean closed = new AtomicBoolean(false);
+        private final AtomicBoolean evicted = new AtomicBoolean(false);
+
+        private volatile Object attachment;
+        private volatile MessageCodec codec; // 핸드셰이크 전에는 null
+
+        Connection(SocketChannel channel, IoWorker worker) {
+            this.channel = channel;
+            this.worker = worker;
+        }
+
+        public Object getAttachment() { return attachment; }
+        public void setAttachment(Object attachment) { this.attachment = attachment; }
+
+        public boolean isOpen() { return !closed.get(); }
+
+        public OutboundQueue getOutbound() { return outbound; }
+
+        // 협상된 코덱 (핸드셰이크 전이면 Java 직렬화)
+        public MessageCodec getCodec() {
+            MessageCodec c = codec;
+            return c != null ? c : JavaSerializationCodec.INSTANCE;
+        }
+
+        public String getRemoteAddress() {
+            try {
+                return String.valueOf(channel.getRemoteAddress());
+            } catch (IOException e) {
+                return "unknown";
+            }
+        }
+
+        // 메시지 전송 (스레드 안전, 실제 기록은 I/O 스레드에서 수행)
+        public void send(Message msg) {
+            if (closed.get()) return;
+            try {
+                enqueue(ByteBuffer.wrap(FrameCodec.encodeFrame(msg, getCodec())), msg.getType().isDroppable());
+            } catch (IOException ignored) {
+            }
+        }
+
+        // 이미 인코딩된 프레임 전송 (배열은 공유되므로 호출 측에서 수정하지 않아야 함)
+        public void sendFrame(byte[] frame, boolean droppable) {
+            if (closed.get()) return;
+            enqueue(ByteBuffer.wrap(frame), droppable);
+        }
+
+        private void enqueue(ByteBuffer frame, boolean droppable) {
+            OutboundQueue.Result result = outbound.offer(frame, droppable);
+            if (result == OutboundQueue.Result.OVERFLOW) {
+                evict();
+                return;
+            }
+            if (result == OutboundQueue.Result.QUEUED && flushScheduled.compareAndSet(false, true)) {
+                worker.execute(() -> worker.flush(this));
+            }
+        }
+
+        // 계속 못 따라오는 연결 → 대기열을 버리고 종료
+        private void evict() {
+            if (evicted.compareAndSet(false, true)) {
+                evictedCount.incrementAndGet();
+                worker.execute(() -> worker.closeConnection(this));
+            }
+        }
+
+        // 연결 종료 (대기 중인 송신 데이터는 가능한 만큼 기록 후 종료)
+        public void close() {
+            worker.execute(() -> {
+                worker.flush(this);
+                worker.closeConnection(this);
+            });
+        }
+    }
+
+    // --- I/O 스레드 ---
+    class IoWorker implements Runnable {
+        private final Selector selector;
+        private final ConcurrentLinkedQueue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+        private final ByteBuffer readBuffer = ByteBuffer.allocateDirect(READ_BUFFER_SIZE);
+        private final ByteBuffer[] gather = new ByteBuffer[MAX_GATHER];
+        private volatile boolean stopped = false;
+        private long lastSweep = System.nanoTime();
+
+        IoWorker(Selector selector) {
+            this.selector = selector;
+        }
+
+        // 다른 스레드에서 I/O 스레드로 작업 전달
+        void execute(Runnable task) {
+            tasks.add(task);
+            selector.wakeup();
+        }
+
+        public void run() {
+            while (!stopped) {
+                try {
+                    selector.select(SLOW_SWEEP_INTERVAL_MS);
+                    Runnable task;
+                    while ((task = tasks.poll()) != null) {
+                        task.run();
+                    }
+
+                    Iterator<SelectionKey> it = selector.selectedKeys().iterator();
+                    while (it.hasNext()) {
+                        SelectionKey key = it.next();
+                        it.remove();
+                        Connection c = (Connection) key.attachment();
+                        if (!key.isValid()) {
+                            closeConnection(c);
+                            continue;
+                        }
+                        if (key.isReadable()) {
+                            read(c);
+                        }
+                        if (key.isValid() && key.isWritable()) {
+                            flush(c);
+                        }
+                    }
+
+                    long now = System.nanoTime();
+                    if (now - lastSweep >= SLOW_SWEEP_INTERVAL_MS * 1_000_000) {
+                        lastSweep = now;
+                        sweepSlowConnections();
+                    }
+                } catch (IOException | ClosedSelectorException e) {
+                    break;
+                }
+            }
+        }
+
+        void register(Connection c) {
+            try {
+                c.key = c.channel.register(selector, SelectionKey.OP_READ, c);
+                connectionCount.incrementAndGet();
+                handler.onOpen(c);
+            } catch (IOException e) {
+                closeQuietly(c);
+            }
+        }
+
+        // 수신 데이터 처리 및 프레임 디코딩
+        private void read(Connection c) {
+            readBuffer.clear();
+            int n;
+            try {
+                n = c.channel.read(readBuffer);
+            } catch (IOException e) {
+                n = -1;
+            }
+            if (n < 0) {
+                closeConnection(c);
+                return;
+            }
+            readBuffer.flip();
+
+            ByteBuffer src;
+            if (c.pending != null) {
+                c.pending = ensureCapacity(c.pending, readBuffer.remaining());
+                c.pending.put(readBuffer);
+                c.pending.flip();
+                src = c.pending;
+            } else {
+                src = readBuffer;
+            }
+
+            try {
+                decodeFrames(c, src);
+            } catch (Throwable e) {
+                // 잘못된 프레임이거나 처리 중 오류 (StackOverflowError 등 Error 포함)
+                // → 해당 연결만 종료하고 I/O 스레드는 유지
+                closeConnection(c);
+                return;
+            }
+
+            // 남은 부분 프레임 보관
+            if (!src.hasRemaining()) {
+                c.pending = null;
+            } else if (src == c.pending) {
+                c.pending.compact();
+            } else {
+                int needed = FrameCodec.HEADER_SIZE;
+                if (src.remaining() >= FrameCodec.HEADER_SIZE) {
+                    needed += src.getInt(src.position());
+                }
+                ByteBuffer p = ByteBuffer.allocate(Math.max(needed, src.remaining()));
+                p.put(src);
+                c.pending = p;
+            }
+        }
+
+        private void decodeFrames(Connection c, ByteBuffer buf) throws IOException {
+            while (c.isOpen() && buf.remaining() >= FrameCodec.HEADER_SIZE) {
+                int length = buf.getInt(buf.position());
+                FrameCodec.checkLength(length);
+                if (buf.remaining() < FrameCodec.HEADER_SIZE + length) {
+                    return;
+                }
+                buf.position(buf.position() + FrameCodec.HEADER_SIZE);
+                byte[] payload = new byte[length];
+                buf.get(payload);
+
+                // 첫 프레임: 핸드셰이크면 코덱 협상, 아니면 Java 직렬화 클라이언트로 간주
+                if (c.codec == null) {
+                    if (FrameCodec.isHandshake(payload)) {
+                        c.codec = FrameCodec.negotiate(payload);
+                        c.enqueue(ByteBuffer.wrap(FrameCodec.frame(FrameCodec.createHandshakeReply(c.codec))), false);
+                        continue;
+                    }
+                    c.codec = JavaSerializationCodec.INSTANCE;
+                }
+                handler.onMessage(c, c.codec.decode(payload, 0, length));
+            }
+        }
+
+        private ByteBuffer ensureCapacity(ByteBuffer buf, int extra) {
+            if (buf.remaining() >= extra) return buf;
+            ByteBuffer bigger = ByteBuffer.allocate(Math.max(buf.capacity() * 2, buf.position() + extra));
+            buf.flip();
+            bigger.put(buf);
+            return bigger;
+        }
+
+        // 송신 대기열 기록 (쌓인 프레임을 모아 gathering write 한 번에 기록)
+        void flush(Connection c) {
+            if (c.closed.get() || c.key == null) return;
+            try {
+                while (true) {
+                    ByteBuffer b;
+                    while ((b = c.outbound.poll()) != null) {
+                        c.inFlight.add(b);
+                    }
+
+                    while (!c.inFlight.isEmpty()) {
+                        int count = 0;
+                        for (ByteBuffer buf : c.inFlight) {
+                            gather[count++] = buf;
+                            if (count == MAX_GATHER) break;
+                        }
+                        long written = c.channel.write(gather, 0, count);
+                        c.outbound.release(written);
+                        while (!c.inFlight.isEmpty() && !c.inFlight.peek().hasRemaining()) {
+                            c.inFlight.poll();
+                        }
+                        if (written == 0) break;
+                    }
+                    Arrays.fill(gather, null);
+
+                    if (!c.inFlight.isEmpty()) {
+                        // 소켓 송신 버퍼가 가득 참 → 혼잡 시간이 초과됐으면 종료, 아니면 쓰기 가능해질 때 다시 시도
+                        if (c.outbound.isOverdue()) {
+                            c.evict();
+                            return;
+                        }
+                        c.key.interestOps(c.key.interestOps() | SelectionKey.OP_WRITE);
+                        return;
+                    }
+
+                    c.key.interestOps(c.key.interestOps() & ~SelectionKey.OP_WRITE);
+                    c.flushScheduled.set(false);
+                    if (c.outbound.isEmpty() || !c.flushScheduled.compareAndSet(false, true)) {
+                        return;
+                    }
+                }
+            } catch (IOException | CancelledKeyException e) {
+                closeConnection(c);
+            }
+        }
+
+        // 보낼 메시지가 더 없어 offer가 불리지 않는 느린 연결도 혼잡 시간이 지나면 종료
+        private void sweepSlowConnections() {
+            for (SelectionKey key : selector.keys()) {
+                Connection c = (Connection) key.attachment();
+                if (c != null && c.isOpen() && c.outbound.isOverdue()) {
+                    c.evict();
+                }
+            }
+        }
+
+        void closeConnection(Connection c) {
+            if (c == null || !c.closed.compareAndSet(false, true)) return;
+            closeQuietly(c);
+            c.pending = null;
+            c.inFlight.clear();
+            c.outbound.clear();
+            if (c.key != null) {
+                connectionCount.decrementAndGet();
+                handler.onClose(c);
+            }
+        }
+
+        private void closeQuietly(Connection c) {
+            try {
+                if (c.key != null) c.key.cancel();
+                c.channel.close();
+            } catch (IOException ignored) {
+            }
+        }
+
+        void shutdown() {
+            for (SelectionKey key : selector.keys()) {
+                closeConnection((Connection) key.attachment());
+            }
+            stopped = true;
+            try {
+                selector.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+}
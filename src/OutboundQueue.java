@@ -0,0 +1,145 @@
+import java.nio.ByteBuffer;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 연결 하나의 송신 대기열 (크기 제한 + 고/저 수위 기반 배압)
+ * 보내는 쪽은 offer로 프레임을 넣고 바로 반환하며, 실제 기록은 연결을 담당하는 송신 측이 poll로 꺼내 모아서 한다.
+ * - 대기 바이트가 고수위(high)를 넘으면 혼잡 상태가 되고, 저수위(low) 이하로 내려갈 때까지 유지
+ * - 혼잡 상태에서는 버려도 되는 메시지(채팅, 상태 알림)를 버림
+ * - 혼잡 상태가 maxPressure 이상 지속되거나 한도(limit)를 넘으면 OVERFLOW → 호출 측에서 연결 종료
+ * - 보내는 메시지가 없어 offer가 불리지 않아도 송신 측이 isOverdue로 혼잡 시간 초과를 확인해 종료할 수 있음
+ * - clear 이후(연결 종료)에는 offer/release가 아무 것도 하지 않음
+ */
+public class OutboundQueue {
+
+    public enum Result {
+        QUEUED,     // 대기열에 추가됨
+        DROPPED,    // 혼잡 상태라 버림
+        OVERFLOW    // 느린 연결 → 종료 대상
+    }
+
+    private final long lowWatermark;
+    private final long highWatermark;
+    private final long limit;
+    private final long maxPressureNanos;
+
+    private final ConcurrentLinkedQueue<ByteBuffer> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicLong queuedBytes = new AtomicLong();   // 꺼냈지만 아직 기록되지 않은 바이트 포함
+    private final AtomicInteger queuedFrames = new AtomicInteger();
+    private final AtomicLong droppedCount = new AtomicLong();
+    private volatile boolean pressured;
+    private volatile long pressuredSince;
+    private volatile boolean cleared;
+
+    /**
+     * @param lowWatermark      혼잡 해제 기준 (바이트)
+     * @param highWatermark     혼잡 시작 기준 (바이트)
+     * @param limit             대기 바이트 최대치
+     * @param maxPressureMillis 혼잡 상태를 허용하는 최대 시간
+     */
+    public OutboundQueue(long lowWatermark, long highWatermark, long limit, long maxPressureMillis) {
+        this.lowWatermark = lowWatermark;
+        this.highWatermark = highWatermark;
+        this.limit = limit;
+        this.maxPressureNanos = TimeUnit.MILLISECONDS.toNanos(maxPressureMillis);
+    }
+
+    /**
+     * 프레임 추가 (스레드 안전)
+     */
+    public Result offer(ByteBuffer frame, boolean droppable) {
+        if (cleared) {
+            return Result.DROPPED;   // 이미 종료된 연결
+        }
+        long bytes = queuedBytes.get();
+        if (isOverdue()) {
+            return Result.OVERFLOW;
+        }
+        if (pressured && droppable) {
+            droppedCount.incrementAndGet();
+            return Result.DROPPED;
+        }
+        if (bytes + frame.remaining() > limit) {
+            return Result.OVERFLOW;
+        }
+        queuedBytes.addAndGet(frame.remaining());
+        queuedFrames.incrementAndGet();
+        queue.add(frame);
+        return Result.QUEUED;
+    }
+
+    /**
+     * 혼잡 상태가 허용 시간을 넘겼는지 (송신 측 기록 경로나 주기 점검에서도 호출)
+     * 고수위를 넘었는데 아직 혼잡 상태가 아니면 여기서 혼잡 상태로 바꿈
+     */
+    public boolean isOverdue() {
+        if (!pressured) {
+            if (queuedBytes.get() < highWatermark) {
+                return false;
+            }
+            pressuredSince = System.nanoTime();
+            pressured = true;
+        }
+        return System.nanoTime() - pressuredSince > maxPressureNanos;
+    }
+
+    /**
+     * 다음 프레임 꺼내기 (송신 측 전용), 기록한 만큼 release 호출
+     */
+    public ByteBuffer poll() {
+        ByteBuffer frame = queue.poll();
+        if (frame != null) {
+            queuedFrames.decrementAndGet();
+        }
+        return frame;
+    }
+
+    /**
+     * 소켓에 기록된 바이트 수 반영 (clear 이후에는 무시 → 대기 바이트가 음수가 되지 않음)
+     */
+    public void release(long written) {
+        long bytes;
+        do {
+            if (cleared) {
+                return;
+            }
+            bytes = queuedBytes.get();
+        } while (!queuedBytes.compareAndSet(bytes, bytes - written));
+        bytes -= written;
+        if (pressured && bytes <= lowWatermark) {
+            pressured = false;
+        }
+    }
+
+    public boolean isEmpty() {
+        return queue.isEmpty();
+    }
+
+    // 연결 종료 시 남은 프레임 폐기 (이후 offer/release는 무시)
+    public void clear() {
+        cleared = true;
+        queue.clear();
+        queuedFrames.set(0);
+        queuedBytes.set(0);
+        pressured = false;
+    }
+
+    public long getQueuedBytes() {
+        return queuedBytes.get();
+    }
+
+    public int getQueuedFrames() {
+        return queuedFrames.get();
+    }
+
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    public boolean isPressured() {
+        return pressured;
+    }
+}
@@ -0,0 +1,296 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * 레이팅 서비스 (Elo)
+ * 게임이 끝날 때마다 참가자의 레이팅을 증분 갱신한다.
+ * - 2v2는 팀원 레이팅 평균으로 팀 기대 승률을 계산하고, 팀원 모두 같은 변화량을 받음
+ * - 무승부는 0.5점
+ * 유저 ID는 한 번만 번호(index)로 바꾸고, 레이팅/판수는 번호로 접근하는 기본형 배열에 보관한다.
+ * 파일(ratings.csv)은 StatsService와 같이 변경이 있을 때만 주기적으로 스냅샷한다.
+ * 레이팅 파일이 없으면 game_history.csv를 처음부터 다시 재생해서 만든다.
+ */
+public class RatingService {
+
+    public static final double INITIAL_RATING = 1500;
+    private static final double K_FACTOR = 32;
+    private static final String HEADER = "user_id,rating,games\n";
+
+    // game_history.csv: game_id,timestamp,"p1,p2,...",game_mode,difficulty,winner
+    private static final Pattern CSV_SPLIT = Pattern.compile(",(?=([^\"]*\"[^\"]*\")*[^\"]*$)");
+
+    // 재계산용으로 파싱한 한 판
+    private static final class Game {
+        final String[] teamA;
+        final String[] teamB;
+        final double scoreA;
+
+        Game(String[] teamA, String[] teamB, double scoreA) {
+            this.teamA = teamA;
+            this.teamB = teamB;
+            this.scoreA = scoreA;
+        }
+    }
+
+    private final Path file;
+    private final long snapshotIntervalSeconds;
+    private final Consumer<String> logger;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final HashMap<String, Integer> indexOf = new HashMap<>(); // lock 보호
+    private String[] userIds = new String[1024];
+    private double[] ratings = new double[1024];
+    private int[] games = new int[1024];
+    private int size;
+
+    private final AtomicBoolean dirty = new AtomicBoolean(false);
+    private ScheduledExecutorService scheduler;
+
+    public RatingService(String filePath, long snapshotIntervalSeconds, Consumer<String> logger) {
+        this.file = Paths.get(filePath);
+        this.snapshotIntervalSeconds = snapshotIntervalSeconds;
+        this.logger = logger;
+    }
+
+    /**
+     * ratings.csv 로드 (없으면 게임 기록으로 재계산) 후 주기적 스냅샷 시작
+     */
+    public void load(String historyPath) {
+        try (BufferedReader br = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            br.readLine(); // 헤더
+            String line;
+            lock.writeLock().lock();
+            try {
+                while ((line = br.readLine()) != null) {
+                    String[] parts = line.split(",");
+                    if (parts.length >= 3) {
+                        try {
+                            int i = indexFor(parts[0].trim());
+                            ratings[i] = Double.parseDouble(parts[1].trim());
+                            games[i] = Integer.parseInt(parts[2].trim());
+                        } catch (NumberFormatException e) {
+                            logger.accept("레이팅 파싱 오류: " + line);
+                        }
+                    }
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            logger.accept("레이팅 로드: " + size + "명");
+        } catch (NoSuchFileException e) {
+            recompute(historyPath);
+        } catch (IOException e) {
+            logger.accept("레이팅 로드 실패: " + e.getMessage());
+        }
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "rating-snapshot");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(this::snapshot, snapshotIntervalSeconds, snapshotIntervalSeconds, TimeUnit.SECONDS);
+    }
+
+    // 유저 번호 (없으면 새로 발급, 쓰기 lock 안에서 호출)
+    private int indexFor(String userId) {
+        Integer i = indexOf.get(userId);
+        if (i != null) {
+            return i;
+        }
+        if (size == ratings.length) {
+            int capacity = size * 2;
+            userIds = Arrays.copyOf(userIds, capacity);
+            ratings = Arrays.copyOf(ratings, capacity);
+            games = Arrays.copyOf(games, capacity);
+        }
+        userIds[size] = userId;
+        ratings[size] = INITIAL_RATING;
+        games[size] = 0;
+        indexOf.put(userId, size);
+        return size++;
+    }
+
+    /**
+     * 레이팅 조회 (게임 기록이 없으면 초기값)
+     */
+    public double getRating(String userId) {
+        lock.readLock().lock();
+        try {
+            Integer i = indexOf.get(userId);
+            return i != null ? ratings[i] : INITIAL_RATING;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 게임 결과 반영
+     * @param scoreA 팀 A 기준 결과 (승 1, 무 0.5, 패 0)
+     */
+    public void recordResult(List<String> teamA, List<String> teamB, double scoreA) {
+        if (teamA.isEmpty() || teamB.isEmpty()) {
+            return;
+        }
+        int[] a = new int[teamA.size()];
+        int[] b = new int[teamB.size()];
+        lock.writeLock().lock();
+        try {
+            for (int k = 0; k < a.length; k++) a[k] = indexFor(teamA.get(k));
+            for (int k = 0; k < b.length; k++) b[k] = indexFor(teamB.get(k));
+            apply(a, b, scoreA);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        dirty.set(true);
+    }
+
+    // 팀 평균 레이팅으로 기대 승률을 구하고 팀원 모두에게 같은 변화량 적용 (쓰기 lock 안에서 호출)
+    private void apply(int[] a, int[] b, double scoreA) {
+        double expectedA = 1.0 / (1.0 + Math.pow(10, (average(b) - average(a)) / 400.0));
+        double delta = K_FACTOR * (scoreA - expectedA);
+        for (int i : a) {
+            ratings[i] += delta;
+            games[i]++;
+        }
+        for (int i : b) {
+            ratings[i] -= delta;
+            games[i]++;
+        }
+    }
+
+    private double average(int[] team) {
+        double sum = 0;
+        for (int i : team) sum += ratings[i];
+        return sum / team.length;
+    }
+
+    /**
+     * 게임 기록 전체를 처음부터 다시 재생해서 레이팅 재계산
+     * 줄 파싱은 병렬로 하고, 레이팅 적용은 기록 순서대로 한다 (Elo는 순서에 따라 결과가 달라짐).
+     */
+    public void recompute(String historyPath) {
+        long start = System.currentTimeMillis();
+        List<String> lines;
+        try {
+            lines = Files.readAllLines(Paths.get(historyPath), StandardCharsets.UTF_8);
+        } catch (NoSuchFileException e) {
+            return;
+        } catch (IOException e) {
+            logger.accept("레이팅 재계산 실패: " + e.getMessage());
+            return;
+        }
+
+        Game[] parsed = lines.parallelStream().skip(1).map(RatingService::parseGame).toArray(Game[]::new);
+
+        lock.writeLock().lock();
+        try {
+            indexOf.clear();
+            size = 0;
+            int applied = 0;
+            for (Game game : parsed) {
+                if (game == null) continue;
+                int[] a = new int[game.teamA.length];
+                int[] b = new int[game.teamB.length];
+                for (int k = 0; k < a.length; k++) a[k] = indexFor(game.teamA[k]);
+                for (int k = 0; k < b.length; k++) b[k] = indexFor(game.teamB[k]);
+                apply(a, b, game.scoreA);
+                applied++;
+            }
+            logger.accept("레이팅 재계산: " + applied + "게임, " + size + "명 ("
+                    + (System.currentTimeMillis() - start) + "ms)");
+        } finally {
+            lock.writeLock().unlock();
+        }
+        dirty.set(true);
+    }
+
+    // 게임 기록 한 줄 → 팀 구성과 결과 (2v2는 참가자 목록 앞 두 명이 Team1, 파싱 실패 시 null)
+    private static Game parseGame(String line) {
+        String[] parts = CSV_SPLIT.split(line.trim());
+        if (parts.length < 6) {
+            return null;
+        }
+        if (parts[3].trim().equals(Message.GameMode.BATTLE_ROYALE.getDisplayName())) {
+            return null; // 배틀로얄은 레이팅에 반영하지 않음
+        }
+        String[] players = parts[2].replace("\"", "").split(",");
+        if (players.length < 2 || players.length % 2 != 0) {
+            return null;
+        }
+        for (int k = 0; k < players.length; k++) {
+            players[k] = players[k].trim();
+        }
+        int half = players.length / 2;
+        String[] teamA = Arrays.copyOfRange(players, 0, half);
+        String[] teamB = Arrays.copyOfRange(players, half, players.length);
+
+        String winner = parts[5].trim();
+        if (winner.equals("Draw")) {
+            return new Game(teamA, teamB, 0.5);
+        } else if (winner.equals("Team1")) {
+            return new Game(teamA, teamB, 1);
+        } else if (winner.equals("Team2")) {
+            return new Game(teamA, teamB, 0);
+        } else if (half == 1) {
+            return new Game(teamA, teamB, winner.equals(players[0]) ? 1 : 0);
+        }
+        return null;
+    }
+
+    /**
+     * 변경이 있으면 전체 스냅샷 기록 (임시 파일 → 원자적 교체)
+     */
+    public synchronized void snapshot() {
+        if (!dirty.getAndSet(false)) {
+            return;
+        }
+        StringBuilder sb = new StringBuilder(HEADER);
+        lock.readLock().lock();
+        try {
+            for (int i = 0; i < size; i++) {
+                sb.append(userIds[i]).append(',')
+                        .append(String.format(Locale.US, "%.1f", ratings[i])).append(',')
+                        .append(games[i]).append('\n');
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (BufferedWriter bw = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+            bw.write(sb.toString());
+        } catch (IOException e) {
+            dirty.set(true);
+            logger.accept("레이팅 스냅샷 실패: " + e.getMessage());
+            return;
+        }
+        try {
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            dirty.set(true);
+            logger.accept("레이팅 파일 교체 실패: " + e.getMessage());
+        }
+    }
+
+    // 마지막 스냅샷 후 종료
+    public void close() {
+        if (scheduler != null) {
+            scheduler.shutdown();
+        }
+        snapshot();
+    }
+}
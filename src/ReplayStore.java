@@ -0,0 +1,252 @@
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Hashtable;
+import java.util.List;
+import java.util.Vector;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * 게임 리플레이 저장소
+ * 시작 시 game_details.csv를 메모리 매핑으로 한 번 훑어 gameId별 줄 위치(offset) 색인을 만들고,
+ * 리플레이 요청은 해당 게임의 줄만 위치 지정 읽기로 가져온다.
+ * 아직 저널에서 디스크로 반영되지 않은 줄은 따로 보관했다가 함께 돌려준다 (게임 직후 요청 대비).
+ * 저널은 파일마다 받은 순서대로 기록하므로, 반영(또는 유실) 알림은 보통 그 게임의 가장 오래된 대기 줄에 해당한다.
+ */
+public class ReplayStore implements GameJournal.AppendListener {
+
+    private static final long MAP_WINDOW = 64L * 1024 * 1024;
+    private static final int LINE_READ_SIZE = 128;
+
+    // 게임 한 판의 줄 위치 목록
+    private static final class LongList {
+        long[] values = new long[16];
+        int size;
+
+        void add(long v) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = v;
+        }
+    }
+
+    private final Path file;
+    private final Consumer<String> logger;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final HashMap<String, LongList> byGame = new HashMap<>();       // 디스크에 있는 줄
+    private final HashMap<String, ArrayDeque<String>> pending = new HashMap<>();  // 저널 대기 중인 줄 (기록 순서)
+    private FileChannel readChannel;
+
+    public ReplayStore(String filePath, Consumer<String> logger) {
+        this.file = Paths.get(filePath);
+        this.logger = logger;
+    }
+
+    /**
+     * 상세 기록 파일을 매핑해서 gameId 색인 구성
+     */
+    public void load() {
+        try {
+            readChannel = FileChannel.open(file, StandardOpenOption.READ);
+            long size = readChannel.size();
+
+            ByteArrayOutputStream key = new ByteArrayOutputStream(32);
+            boolean inKey = true;
+            long lineStart = 0;
+            int lines = 0;
+            for (long base = 0; base < size; base += MAP_WINDOW) {
+                MappedByteBuffer window = readChannel.map(FileChannel.MapMode.READ_ONLY, base, Math.min(MAP_WINDOW, size - base));
+                int limit = window.limit();
+                for (int i = 0; i < limit; i++) {
+                    byte b = window.get(i);
+                    if (b == '\n') {
+                        // offset 0은 헤더
+                        if (lineStart > 0 && key.size() > 0) {
+                            add(new String(key.toByteArray(), StandardCharsets.UTF_8), lineStart);
+                            lines++;
+                        }
+                        key.reset();
+                        inKey = true;
+                        lineStart = base + i + 1;
+                    } else if (inKey) {
+                        if (b == ',') {
+                            inKey = false;
+                        } else {
+                            key.write(b);
+                        }
+                    }
+                }
+            }
+            logger.accept("리플레이 색인: " + byGame.size() + "게임, " + lines + "줄");
+        } catch (IOException e) {
+            logger.accept("리플레이 색인 실패: " + e.getMessage());
+        }
+    }
+
+    private void add(String gameId, long offset) {
+        lock.writeLock().lock();
+        try {
+            byGame.computeIfAbsent(gameId, k -> new LongList()).add(offset);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 저널에 넘기기 직전 호출 (디스크 반영 전까지 메모리에서 조회 가능하게 보관)
+     */
+    public void record(String gameId, String line) {
+        lock.writeLock().lock();
+        try {
+            pending.computeIfAbsent(gameId, k -> new ArrayDeque<>()).addLast(line);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 저널이 디스크에 반영한 뒤 호출 (저널 쓰기 스레드)
+     */
+    @Override
+    public void onAppended(long offset, String line) {
+        String gameId = gameIdOf(line);
+        if (gameId == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            byGame.computeIfAbsent(gameId, k -> new LongList()).add(offset);
+            removePending(gameId, line);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 저널이 재시도를 모두 실패해서 버린 줄 (대기 목록에서만 제거)
+     */
+    @Override
+    public void onDropped(String line) {
+        String gameId = gameIdOf(line);
+        if (gameId == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            removePending(gameId, line);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static String gameIdOf(String line) {
+        int comma = line.indexOf(',');
+        return (comma > 0) ? line.substring(0, comma) : null;
+    }
+
+    // 쓰기 락을 잡은 상태에서 호출
+    private void removePending(String gameId, String line) {
+        ArrayDeque<String> lines = pending.get(gameId);
+        if (lines == null) {
+            return;
+        }
+        // 대부분 가장 오래된 줄 (배틀로얄처럼 여러 스레드가 같은 게임을 기록하면 순서가 바뀔 수 있음)
+        if (line.equals(lines.peekFirst())) {
+            lines.pollFirst();
+        } else {
+            lines.remove(line);
+        }
+        if (lines.isEmpty()) {
+            pending.remove(gameId);
+        }
+    }
+
+    /**
+     * 게임 한 판의 턴별 기록 (기록 순서대로, 없는 게임이면 null)
+     */
+    public Vector<Hashtable<String, String>> getReplay(String gameId) {
+        long[] offsets;
+        List<String> tail;
+        lock.readLock().lock();
+        try {
+            LongList list = byGame.get(gameId);
+            ArrayDeque<String> waiting = pending.get(gameId);
+            if (list == null && waiting == null) {
+                return null;
+            }
+            offsets = (list == null) ? new long[0] : Arrays.copyOf(list.values, list.size);
+            tail = (waiting == null) ? List.of() : new ArrayList<>(waiting);
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        Vector<Hashtable<String, String>> turns = new Vector<>(offsets.length + tail.size());
+        for (long offset : offsets) {
+            try {
+                addTurn(turns, readLine(offset));
+            } catch (IOException e) {
+                logger.accept("리플레이 읽기 오류: " + e.getMessage());
+            }
+        }
+        for (String line : tail) {
+            addTurn(turns, line);
+        }
+        return turns;
+    }
+
+    // gameId,round,playerId,guess,result
+    private static void addTurn(Vector<Hashtable<String, String>> turns, String line) {
+        String[] parts = line.trim().split(",", -1);
+        if (parts.length < 5) {
+            return;
+        }
+        Hashtable<String, String> turn = new Hashtable<>();
+        turn.put("round", parts[1]);
+        turn.put("playerId", parts[2]);
+        turn.put("guess", parts[3]);
+        turn.put("result", parts[4]);
+        turns.add(turn);
+    }
+
+    private String readLine(long offset) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(LINE_READ_SIZE);
+        ByteBuffer buf = ByteBuffer.allocate(LINE_READ_SIZE);
+        long pos = offset;
+        while (true) {
+            buf.clear();
+            int n = readChannel.read(buf, pos);
+            if (n <= 0) {
+                break;
+            }
+            int i = 0;
+            while (i < n && buf.get(i) != '\n') {
+                out.write(buf.get(i++));
+            }
+            if (i < n) {
+                break;
+            }
+            pos += n;
+        }
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    public void close() {
+        try {
+            if (readChannel != null) readChannel.close();
+        } catch (IOException ignored) {
+        }
+    }
+}
@@ -0,0 +1,206 @@
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+/**
+ * 방 목록 저장소
+ * - 방 번호는 AtomicInteger로 발급하고, 방은 ConcurrentHashMap에 두어 번호로 O(1) 조회
+ * - 정원은 CAS로 자리를 확보한 뒤에만 방을 만들므로 동시에 만들어도 정원을 넘지 않음
+ * - 상태/모드/난이도별 보조 색인으로 로비 조회 시 조건에 맞는 방만 훑음
+ * - 방마다 로비에 보여줄 요약 메시지를 캐시해 두고, 방 상태가 바뀔 때만 새로 만듦
+ * - 요약 갱신/방 삭제는 리스너로 알림 (로비 구독자에게 변경분 전송용)
+ */
+public class RoomRegistry<R> {
+
+    /**
+     * 방 요약 변경 알림 (호출한 방의 처리 스레드에서 실행되므로 가볍게 처리할 것)
+     */
+    public interface Listener {
+        void onPublished(int roomId, Message summary);
+        void onRemoved(int roomId);
+    }
+
+    // 로비에 보여줄 방 요약 (불변)
+    private static final class Summary {
+        final Message.RoomStatus status;
+        final Message.GameMode mode;
+        final Message.Difficulty difficulty;
+        final Message message;
+
+        Summary(Message.RoomStatus status, Message.GameMode mode, Message.Difficulty difficulty, Message message) {
+            this.status = status;
+            this.mode = mode;
+            this.difficulty = difficulty;
+            this.message = message;
+        }
+    }
+
+    private static final class Entry<R> {
+        final R room;
+        volatile Summary summary;
+
+        Entry(R room) {
+            this.room = room;
+        }
+    }
+
+    private final ConcurrentHashMap<Integer, Entry<R>> rooms = new ConcurrentHashMap<>();
+    private final AtomicInteger nextId = new AtomicInteger(1);
+    private final AtomicInteger count = new AtomicInteger();
+    private volatile int capacity;
+    private volatile Listener listener;
+
+    private final Map<Message.RoomStatus, Set<Integer>> byStatus = new EnumMap<>(Message.RoomStatus.class);
+    private final Map<Message.GameMode, Set<Integer>> byMode = new EnumMap<>(Message.GameMode.class);
+    private final Map<Message.Difficulty, Set<Integer>> byDifficulty = new EnumMap<>(Message.Difficulty.class);
+
+    public RoomRegistry(int capacity) {
+        this.capacity = capacity;
+        // 색인 맵 자체는 생성 후 바뀌지 않음 (값인 Set만 동시 수정)
+        for (Message.RoomStatus s : Message.RoomStatus.values()) byStatus.put(s, ConcurrentHashMap.newKeySet());
+        for (Message.GameMode m : Message.GameMode.values()) byMode.put(m, ConcurrentHashMap.newKeySet());
+        for (Message.Difficulty d : Message.Difficulty.values()) byDifficulty.put(d, ConcurrentHashMap.newKeySet());
+    }
+
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    public void setCapacity(int capacity) {
+        this.capacity = capacity;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int size() {
+        return count.get();
+    }
+
+    /**
+     * 자리를 확보한 뒤 새 번호로 방 생성 (정원 초과면 null)
+     */
+    public R create(IntFunction<R> factory) {
+        while (true) {
+            int n = count.get();
+            if (n >= capacity) {
+                return null;
+            }
+            if (count.compareAndSet(n, n + 1)) {
+                break;
+            }
+        }
+        int id = nextId.getAndIncrement();
+        R room = factory.apply(id);
+        rooms.put(id, new Entry<>(room));
+        return room;
+    }
+
+    public R get(int roomId) {
+        Entry<R> entry = rooms.get(roomId);
+        return entry != null ? entry.room : null;
+    }
+
+    public Collection<R> getAll() {
+        List<R> list = new ArrayList<>(rooms.size());
+        for (Entry<R> entry : rooms.values()) {
+            list.add(entry.room);
+        }
+        return list;
+    }
+
+    public boolean remove(int roomId) {
+        Entry<R> entry = rooms.remove(roomId);
+        if (entry == null) {
+            return false;
+        }
+        count.decrementAndGet();
+        Summary old = entry.summary;
+        if (old != null) {
+            unindex(roomId, old);
+            Listener l = listener;
+            if (l != null) l.onRemoved(roomId);
+        }
+        return true;
+    }
+
+    /**
+     * 방 요약 갱신 (방의 상태가 바뀔 때 그 방의 처리 스레드에서 호출)
+     */
+    public void publish(int roomId, Message.RoomStatus status, Message.GameMode mode,
+                        Message.Difficulty difficulty, Message summaryMessage) {
+        Entry<R> entry = rooms.get(roomId);
+        if (entry == null) {
+            return;
+        }
+        Summary old = entry.summary;
+        Summary updated = new Summary(status, mode, difficulty, summaryMessage);
+        entry.summary = updated;
+
+        if (old == null || old.status != status) {
+            if (old != null) byStatus.get(old.status).remove(roomId);
+            byStatus.get(status).add(roomId);
+        }
+        if (old == null || old.mode != mode) {
+            if (old != null) byMode.get(old.mode).remove(roomId);
+            byMode.get(mode).add(roomId);
+        }
+        if (old == null || old.difficulty != difficulty) {
+            if (old != null) byDifficulty.get(old.difficulty).remove(roomId);
+            byDifficulty.get(difficulty).add(roomId);
+        }
+        // 그 사이 방이 삭제됐으면 방금 넣은 색인 정리
+        if (!rooms.containsKey(roomId)) {
+            unindex(roomId, updated);
+            return;
+        }
+        Listener l = listener;
+        if (l != null) l.onPublished(roomId, summaryMessage);
+    }
+
+    /**
+     * 조건에 맞는 방 요약 목록 (null인 조건은 무시)
+     * 주어진 조건 중 가장 작은 색인만 훑고 나머지 조건은 요약으로 확인
+     */
+    public List<Message> find(Message.RoomStatus status, Message.GameMode mode, Message.Difficulty difficulty) {
+        Collection<Integer> candidates = null;
+        if (status != null) candidates = smaller(candidates, byStatus.get(status));
+        if (mode != null) candidates = smaller(candidates, byMode.get(mode));
+        if (difficulty != null) candidates = smaller(candidates, byDifficulty.get(difficulty));
+
+        List<Message> result = new ArrayList<>();
+        if (candidates == null) {
+            for (Entry<R> entry : rooms.values()) {
+                Summary s = entry.summary;
+                if (s != null) result.add(s.message);
+            }
+            return result;
+        }
+        for (Integer roomId : candidates) {
+            Entry<R> entry = rooms.get(roomId);
+            Summary s = (entry != null) ? entry.summary : null;
+            if (s != null && (status == null || s.status == status) && (mode == null || s.mode == mode)
+                    && (difficulty == null || s.difficulty == difficulty)) {
+                result.add(s.message);
+            }
+        }
+        return result;
+    }
+
+    private static Collection<Integer> smaller(Collection<Integer> current, Set<Integer> next) {
+        return (current == null || next.size() < current.size()) ? next : current;
+    }
+
+    private void unindex(int roomId, Summary s) {
+        byStatus.get(s.status).remove(roomId);
+        byMode.get(s.mode).remove(roomId);
+        byDifficulty.get(s.difficulty).remove(roomId);
+    }
+}
@@ -0,0 +1,137 @@
+/**
+ * 스트라이크/볼 계산 커널
+ * 정답과 추측을 long 하나로 압축해서 비트 연산 몇 번으로 판정한다 (객체 생성 없음).
+ *
+ * 압축 형식: [49..40] 사용한 숫자 마스크 (숫자 d → d번 비트) | [39..0] 자리별 숫자 (자리 i → i번째 4비트)
+ * - 스트라이크: 두 값의 자리 부분을 XOR 해서 0이 된 4비트 칸 수
+ * - 볼: 두 마스크의 공통 숫자 수 - 스트라이크
+ * 숫자 0도 표현할 수 있으며 (자릿수는 마스크로 구함), 0 허용 여부는 isValid에서 난이도별로 확인한다.
+ *
+ * 판정 결과는 int 하나 (strike << 4 | ball)로 돌려준다.
+ * 문자열 API(calculateResult, isValidGuess)는 기존 호출부를 위한 어댑터.
+ */
+public final class ScoringKernel {
+
+    public static final long INVALID = -1;
+    public static final int MAX_DIGITS = 10;
+
+    private static final int MASK_SHIFT = 4 * MAX_DIGITS;
+    private static final long DIGITS_BITS = (1L << MASK_SHIFT) - 1;
+    private static final long NIBBLE_LOW_BITS = 0x11_1111_1111L; // 각 4비트 칸의 최하위 비트
+
+    private ScoringKernel() {
+    }
+
+    /**
+     * 문자열 → 압축 값 (0~9 이외의 문자, 중복 숫자, 자릿수 초과면 INVALID)
+     */
+    public static long pack(CharSequence s) {
+        int n = s.length();
+        if (n == 0 || n > MAX_DIGITS) {
+            return INVALID;
+        }
+        long digits = 0;
+        int mask = 0;
+        for (int i = 0; i < n; i++) {
+            int d = s.charAt(i) - '0';
+            if (d < 0 || d > 9 || (mask & (1 << d)) != 0) {
+                return INVALID;
+            }
+            mask |= 1 << d;
+            digits |= (long) d << (4 * i);
+        }
+        return of(digits, mask);
+    }
+
+    /**
+     * 압축 값 → 문자열
+     */
+    public static String unpack(long packed) {
+        int n = digitCount(packed);
+        char[] out = new char[n];
+        for (int i = 0; i < n; i++) {
+            out[i] = (char) ('0' + digitAt(packed, i));
+        }
+        return new String(out);
+    }
+
+    // 자리별 숫자와 숫자 마스크로 압축 값 구성 (후보 공간 열거용)
+    public static long of(long digits, int mask) {
+        return ((long) mask << MASK_SHIFT) | digits;
+    }
+
+    // i번째 자리 숫자
+    public static int digitAt(long packed, int i) {
+        return (int) (packed >>> (4 * i)) & 0xF;
+    }
+
+    // 압축 값의 자릿수
+    public static int digitCount(long packed) {
+        return Integer.bitCount(digitMask(packed));
+    }
+
+    // 사용한 숫자 마스크 (숫자 d → d번 비트)
+    public static int digitMask(long packed) {
+        return (int) (packed >>> MASK_SHIFT);
+    }
+
+    /**
+     * 난이도 조건 확인 (자릿수, 0 허용 여부)
+     */
+    public static boolean isValid(long packed, int digitCount, boolean allowZero) {
+        if (packed == INVALID || digitCount(packed) != digitCount) {
+            return false;
+        }
+        return allowZero || (digitMask(packed) & 1) == 0;
+    }
+
+    /**
+     * 판정 (answer와 guess는 같은 자릿수여야 함)
+     * @return strike << 4 | ball
+     */
+    public static int score(long answer, long guess) {
+        int n = digitCount(answer);
+        // 자리별로 다르면 해당 4비트 칸에 1이 남음 → 칸마다 최하위 비트로 모음
+        long diff = (answer ^ guess) & DIGITS_BITS;
+        diff |= diff >>> 1;
+        diff |= diff >>> 2;
+        int mismatched = Long.bitCount(diff & NIBBLE_LOW_BITS & ((1L << (4 * n)) - 1));
+        int strike = n - mismatched;
+        int common = Integer.bitCount(digitMask(answer) & digitMask(guess));
+        return (strike << 4) | (common - strike);
+    }
+
+    // 스트라이크/볼 → 판정 값
+    public static int toScore(int strike, int ball) {
+        return (strike << 4) | ball;
+    }
+
+    public static int strikes(int score) {
+        return score >>> 4;
+    }
+
+    public static int balls(int score) {
+        return score & 0xF;
+    }
+
+    // ========== 문자열 어댑터 ==========
+
+    /**
+     * 스트라이크, 볼 계산
+     * @return {strike, ball}
+     */
+    public static int[] calculateResult(String target, String guess) {
+        int score = score(pack(target), pack(guess));
+        return new int[]{strikes(score), balls(score)};
+    }
+
+    /**
+     * 입력 검증 (자릿수, 숫자 범위, 중복 없음) - 서버와 클라이언트가 같은 규칙 사용
+     */
+    public static boolean isValidGuess(String guess, Message.Difficulty difficulty) {
+        if (guess == null) {
+            return false;
+        }
+        return isValid(pack(guess), difficulty.getDigitCount(), difficulty.isAllowZero());
+    }
+}
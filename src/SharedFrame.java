@@ -0,0 +1,44 @@
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 여러 연결에 같은 내용을 보내기 위한 공유 프레임
+ * 코덱마다 처음 요청될 때 한 번만 인코딩하고, 이후에는 같은 바이트 배열을 모든 수신자가 공유한다.
+ * (N명에게 보내도 인코딩은 코덱 수만큼만, 나머지는 소켓 기록뿐)
+ * 반환된 배열은 공유되므로 수정하면 안 된다.
+ */
+public final class SharedFrame {
+
+    private final Message message;
+    // 코덱 ID → 인코딩된 프레임 (코덱 ID는 작은 양수)
+    private final AtomicReferenceArray<byte[]> frames = new AtomicReferenceArray<>(4);
+
+    public SharedFrame(Message message) {
+        this.message = message;
+    }
+
+    public Message getMessage() {
+        return message;
+    }
+
+    // 송신 대기열이 밀릴 때 버려도 되는지
+    public boolean isDroppable() {
+        return message.getType().isDroppable();
+    }
+
+    /**
+     * 해당 코덱으로 인코딩된 프레임 (헤더 포함)
+     * 동시에 처음 요청되면 중복 인코딩될 수 있지만 먼저 게시된 배열 하나만 사용됨
+     */
+    public byte[] frameFor(MessageCodec codec) throws IOException {
+        int id = codec.getId();
+        byte[] frame = frames.get(id);
+        if (frame == null) {
+            frame = FrameCodec.encodeFrame(message, codec);
+            if (!frames.compareAndSet(id, null, frame)) {
+                frame = frames.get(id);
+            }
+        }
+        return frame;
+    }
+}
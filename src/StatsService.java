@@ -0,0 +1,176 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * 전적 서비스
+ * 유저별 승/패/무를 메모리에 보관하고 게임이 끝날 때마다 증분 갱신한다.
+ * 파일(user_stats.csv)은 게임마다 다시 쓰지 않고, 변경이 있을 때만 주기적으로
+ * 전체 스냅샷을 임시 파일에 쓴 뒤 원자적으로 교체한다 (중복 줄도 이때 정리됨).
+ */
+public class StatsService {
+
+    // 유저 한 명의 전적 (불변 - 갱신 시 새 객체로 교체)
+    static final class Stats {
+        final int wins;
+        final int losses;
+        final int draws;
+
+        Stats(int wins, int losses, int draws) {
+            this.wins = wins;
+            this.losses = losses;
+            this.draws = draws;
+        }
+
+        int getTotal() {
+            return wins + losses + draws;
+        }
+
+        // 승률 (%)
+        double getWinRate() {
+            int total = getTotal();
+            return total == 0 ? 0.0 : wins * 100.0 / total;
+        }
+
+        String getWinRateText() {
+            return String.format(Locale.US, "%.1f", getWinRate());
+        }
+    }
+
+    static final Stats EMPTY = new Stats(0, 0, 0);
+
+    private static final String HEADER = "user_id,wins,losses,draws,win_rate\n";
+
+    private final Path file;
+    private final long snapshotIntervalSeconds;
+    private final Consumer<String> logger;
+    private final ConcurrentHashMap<String, Stats> stats = new ConcurrentHashMap<>();
+    private final AtomicBoolean dirty = new AtomicBoolean(false);
+    private ScheduledExecutorService scheduler;
+
+    public StatsService(String filePath, long snapshotIntervalSeconds, Consumer<String> logger) {
+        this.file = Paths.get(filePath);
+        this.snapshotIntervalSeconds = snapshotIntervalSeconds;
+        this.logger = logger;
+    }
+
+    /**
+     * user_stats.csv 로드 후 주기적 스냅샷 시작
+     */
+    public void load() {
+        try (BufferedReader br = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            br.readLine(); // 헤더
+            String line;
+            while ((line = br.readLine()) != null) {
+                String[] parts = line.split(",");
+                if (parts.length >= 4) {
+                    try {
+                        stats.put(parts[0].trim(), new Stats(Integer.parseInt(parts[1].trim()),
+                                Integer.parseInt(parts[2].trim()), Integer.parseInt(parts[3].trim())));
+                    } catch (NumberFormatException e) {
+                        logger.accept("전적 파싱 오류: " + line);
+                    }
+                }
+            }
+            logger.accept("전적 로드: " + stats.size() + "명");
+        } catch (NoSuchFileException e) {
+            logger.accept("전적 파일 없음: " + file);
+        } catch (IOException e) {
+            logger.accept("전적 로드 실패: " + e.getMessage());
+        }
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "stats-snapshot");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(this::snapshot, snapshotIntervalSeconds, snapshotIntervalSeconds, TimeUnit.SECONDS);
+    }
+
+    // 전적 조회 (없으면 0승 0패 0무)
+    public Stats get(String userId) {
+        return stats.getOrDefault(userId, EMPTY);
+    }
+
+    // 전체 전적 순회 (랭킹 초기 구성용)
+    public void forEach(BiConsumer<String, Stats> action) {
+        stats.forEach(action);
+    }
+
+    // 신규 가입자 전적 초기화
+    public void ensureUser(String userId) {
+        if (stats.putIfAbsent(userId, EMPTY) == null) {
+            dirty.set(true);
+        }
+    }
+
+    /**
+     * 게임 결과 반영 (승자/패자/무승부 참가자)
+     */
+    public void recordResult(Collection<String> winners, Collection<String> losers, Collection<String> drawers) {
+        for (String userId : winners) {
+            update(userId, 1, 0, 0);
+        }
+        for (String userId : losers) {
+            update(userId, 0, 1, 0);
+        }
+        for (String userId : drawers) {
+            update(userId, 0, 0, 1);
+        }
+    }
+
+    private void update(String userId, int wins, int losses, int draws) {
+        stats.compute(userId, (id, old) -> {
+            Stats s = (old != null) ? old : EMPTY;
+            return new Stats(s.wins + wins, s.losses + losses, s.draws + draws);
+        });
+        dirty.set(true);
+    }
+
+    /**
+     * 변경이 있으면 전체 스냅샷 기록 (임시 파일 → 원자적 교체)
+     */
+    public synchronized void snapshot() {
+        if (!dirty.getAndSet(false)) {
+            return;
+        }
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (BufferedWriter bw = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+            bw.write(HEADER);
+            for (Map.Entry<String, Stats> e : stats.entrySet()) {
+                Stats s = e.getValue();
+                bw.write(e.getKey() + "," + s.wins + "," + s.losses + "," + s.draws + "," + s.getWinRateText() + "\n");
+            }
+        } catch (IOException e) {
+            dirty.set(true);
+            logger.accept("전적 스냅샷 실패: " + e.getMessage());
+            return;
+        }
+        try {
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            dirty.set(true);
+            logger.accept("전적 파일 교체 실패: " + e.getMessage());
+        }
+    }
+
+    // 마지막 스냅샷 후 종료
+    public void close() {
+        if (scheduler != null) {
+            scheduler.shutdown();
+        }
+        snapshot();
+    }
+}
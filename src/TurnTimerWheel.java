@@ -0,0 +1,202 @@
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * 해시 타이머 휠 (모든 방이 공유하는 턴 제한 시간 타이머)
+ * 스레드 하나가 tick마다 슬롯 하나씩 돌면서 만료된 작업을 실행기로 넘긴다.
+ * - 등록/취소: O(1) (등록은 큐에 넣고, 취소는 상태만 바꾼 뒤 휠 스레드가 슬롯에서 떼어냄)
+ * - 휠 한 바퀴보다 긴 지연은 남은 바퀴 수(remainingRounds)로 처리
+ * 정밀도는 tick 단위이며, 턴 제한(초 단위)에는 충분하다.
+ */
+public final class TurnTimerWheel {
+
+    private static final int ST_WAITING = 0;
+    private static final int ST_CANCELLED = 1;
+    private static final int ST_EXPIRED = 2;
+
+    /**
+     * 등록된 작업 (cancel로 취소)
+     */
+    public final class Timeout {
+        private final Runnable task;
+        private final long deadlineNanos;
+        private final AtomicInteger state = new AtomicInteger(ST_WAITING);
+        private long remainingRounds;
+        private Slot slot;          // 휠 스레드 전용
+        private Timeout prev, next; // 휠 스레드 전용
+
+        private Timeout(Runnable task, long deadlineNanos) {
+            this.task = task;
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        // 아직 실행되지 않았으면 취소하고 true
+        public boolean cancel() {
+            if (!state.compareAndSet(ST_WAITING, ST_CANCELLED)) {
+                return false;
+            }
+            cancelled.add(this);
+            return true;
+        }
+
+        public boolean isCancelled() {
+            return state.get() == ST_CANCELLED;
+        }
+    }
+
+    // 슬롯 하나 (이중 연결 리스트 → 중간 삭제 O(1))
+    private static final class Slot {
+        Timeout head, tail;
+
+        void add(Timeout t) {
+            t.slot = this;
+            if (head == null) {
+                head = tail = t;
+            } else {
+                tail.next = t;
+                t.prev = tail;
+                tail = t;
+            }
+        }
+
+        void remove(Timeout t) {
+            if (t.prev != null) t.prev.next = t.next;
+            else head = t.next;
+            if (t.next != null) t.next.prev = t.prev;
+            else tail = t.prev;
+            t.prev = t.next = null;
+            t.slot = null;
+        }
+    }
+
+    private final long tickNanos;
+    private final int mask;
+    private final Slot[] wheel;
+    private final Executor executor;
+    private final Consumer<String> logger;
+
+    private final ConcurrentLinkedQueue<Timeout> added = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedQueue<Timeout> cancelled = new ConcurrentLinkedQueue<>();
+    private final AtomicLong pendingCount = new AtomicLong();
+    private final AtomicLong expiredCount = new AtomicLong();
+    private final Thread workerThread;
+    private volatile boolean running = true;
+    private final long startNanos;
+
+    /**
+     * @param tickMillis 슬롯 하나의 시간 간격
+     * @param wheelSize  슬롯 수 (2의 거듭제곱으로 올림)
+     * @param executor   만료된 작업을 실행할 실행기 (휠 스레드를 막지 않도록)
+     */
+    public TurnTimerWheel(long tickMillis, int wheelSize, Executor executor, Consumer<String> logger) {
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMillis);
+        int size = Integer.highestOneBit(Math.max(1, wheelSize - 1)) << 1;
+        this.mask = size - 1;
+        this.wheel = new Slot[size];
+        for (int i = 0; i < size; i++) {
+            wheel[i] = new Slot();
+        }
+        this.executor = executor;
+        this.logger = logger;
+        this.startNanos = System.nanoTime();
+
+        workerThread = new Thread(this::run, "turn-timer");
+        workerThread.setDaemon(true);
+        workerThread.start();
+    }
+
+    /**
+     * delayMillis 후 task 실행 예약 (스레드 안전)
+     */
+    public Timeout schedule(long delayMillis, Runnable task) {
+        Timeout timeout = new Timeout(task, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delayMillis));
+        pendingCount.incrementAndGet();
+        added.add(timeout);
+        return timeout;
+    }
+
+    public long getPendingCount() {
+        return pendingCount.get();
+    }
+
+    public long getExpiredCount() {
+        return expiredCount.get();
+    }
+
+    public void stop() {
+        running = false;
+        LockSupport.unpark(workerThread);
+    }
+
+    // 휠 스레드
+    private void run() {
+        long tick = 0;
+        while (running) {
+            long wakeAt = startNanos + (tick + 1) * tickNanos;
+            long sleep;
+            while (running && (sleep = wakeAt - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(this, sleep);
+            }
+
+            removeCancelled();
+            transferAdded(tick);
+            expire(wheel[(int) (tick & mask)]);
+            tick++;
+        }
+    }
+
+    private void removeCancelled() {
+        Timeout t;
+        while ((t = cancelled.poll()) != null) {
+            if (t.slot != null) {
+                t.slot.remove(t);
+                pendingCount.decrementAndGet();
+            }
+        }
+    }
+
+    // 새로 등록된 작업을 마감 시각에 맞는 슬롯에 배치
+    private void transferAdded(long currentTick) {
+        Timeout t;
+        while ((t = added.poll()) != null) {
+            if (t.state.get() == ST_CANCELLED) {
+                // 슬롯에 들어가기 전에 취소됨
+                pendingCount.decrementAndGet();
+                continue;
+            }
+            long targetTick = (t.deadlineNanos - startNanos + tickNanos - 1) / tickNanos;
+            if (targetTick < currentTick) {
+                targetTick = currentTick; // 이미 지난 마감은 이번 tick에 실행
+            }
+            t.remainingRounds = (targetTick - currentTick) / wheel.length;
+            wheel[(int) (targetTick & mask)].add(t);
+        }
+    }
+
+    private void expire(Slot slot) {
+        Timeout t = slot.head;
+        while (t != null) {
+            Timeout next = t.next;
+            if (t.remainingRounds <= 0) {
+                slot.remove(t);
+                pendingCount.decrementAndGet();
+                if (t.state.compareAndSet(ST_WAITING, ST_EXPIRED)) {
+                    expiredCount.incrementAndGet();
+                    try {
+                        executor.execute(t.task);
+                    } catch (RuntimeException e) {
+                        logger.accept("타이머 작업 실행 실패: " + e.getMessage());
+                    }
+                }
+            } else {
+                t.remainingRounds--;
+            }
+            t = next;
+        }
+    }
+}
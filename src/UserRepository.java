@@ -0,0 +1,172 @@
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Consumer;
+
+/**
+ * 회원 정보 저장소
+ * 시작 시 users.csv를 한 번만 읽어 해시 인덱스로 보관하고, 조회는 메모리에서 O(1)로 처리한다.
+ * 신규 가입은 전용 쓰기 스레드 하나가 모아서 파일 끝에 추가하고 디스크에 반영(force)한 뒤 완료를 알린다.
+ * 디스크에 반영되기 전의 가입은 ID만 선점해 두고 (중복 가입 차단) 인덱스에는 반영 후에 넣으므로,
+ * 저장에 실패한 계정으로 로그인되는 일이 없다.
+ */
+public class UserRepository {
+
+    // 회원 한 명의 정보
+    static final class UserRecord {
+        final String userId;
+        final String password;
+        final String character;
+
+        UserRecord(String userId, String password, String character) {
+            this.userId = userId;
+            this.password = password;
+            this.character = character;
+        }
+    }
+
+    // 디스크 반영 대기 중인 가입 요청
+    private static final class PendingWrite {
+        final UserRecord user;
+        final CompletableFuture<Boolean> result = new CompletableFuture<>();
+
+        PendingWrite(UserRecord user) {
+            this.user = user;
+        }
+    }
+
+    private final Path file;
+    private final Consumer<String> logger;
+    private final ConcurrentHashMap<String, UserRecord> users = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, UserRecord> reserved = new ConcurrentHashMap<>(); // 디스크 반영 대기 중인 ID
+    private final LinkedBlockingQueue<PendingWrite> writeQueue = new LinkedBlockingQueue<>();
+    private Thread writerThread;
+
+    public UserRepository(String filePath, Consumer<String> logger) {
+        this.file = Paths.get(filePath);
+        this.logger = logger;
+    }
+
+    /**
+     * users.csv 전체를 읽어 인덱스 구성 후 쓰기 스레드 시작
+     */
+    public void load() {
+        try (BufferedReader br = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            br.readLine(); // 헤더
+            String line;
+            while ((line = br.readLine()) != null) {
+                String[] parts = line.split(",");
+                if (parts.length >= 2) {
+                    String userId = parts[0].trim();
+                    String character = parts.length >= 3 ? parts[2].trim() : "";
+                    users.put(userId, new UserRecord(userId, parts[1].trim(), character));
+                }
+            }
+            logger.accept("회원 정보 로드: " + users.size() + "명");
+        } catch (NoSuchFileException e) {
+            logger.accept("회원 파일 없음: " + file);
+        } catch (IOException e) {
+            logger.accept("회원 정보 로드 실패: " + e.getMessage());
+        }
+
+        writerThread = new Thread(this::writeLoop, "user-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    public int size() {
+        return users.size();
+    }
+
+    // ID 존재 여부 (가입 처리 중인 ID 포함)
+    public boolean exists(String userId) {
+        return userId != null && (users.containsKey(userId) || reserved.containsKey(userId));
+    }
+
+    // 로그인 인증 (디스크에 반영된 계정만)
+    public boolean authenticate(String userId, String password) {
+        if (userId == null || password == null) return false;
+        UserRecord user = users.get(userId);
+        return user != null && user.password.equals(password);
+    }
+
+    /**
+     * 회원가입: ID를 먼저 선점(중복 가입 차단)하고 디스크 반영이 끝나면 인덱스에 넣은 뒤 true로 완료
+     * 이미 존재하거나 가입 처리 중인 ID이면 즉시 false로 완료, 저장에 실패하면 IOException으로 완료
+     */
+    public CompletableFuture<Boolean> register(String userId, String password, String character) {
+        UserRecord user = new UserRecord(userId, password, character);
+        if (userId == null || reserved.putIfAbsent(userId, user) != null) {
+            return CompletableFuture.completedFuture(false);
+        }
+        // 쓰기 스레드는 인덱스에 넣은 뒤 선점을 풀므로, 선점에 성공했으면 여기서 기존 계정을 확인하면 됨
+        if (users.containsKey(userId)) {
+            reserved.remove(userId, user);
+            return CompletableFuture.completedFuture(false);
+        }
+        PendingWrite pending = new PendingWrite(user);
+        writeQueue.add(pending);
+        return pending.result;
+    }
+
+    // 단일 쓰기 스레드: 대기 중인 가입을 한 번에 모아 기록 (group commit)
+    private void writeLoop() {
+        List<PendingWrite> batch = new ArrayList<>();
+        FileChannel channel = null;
+        while (true) {
+            try {
+                batch.add(writeQueue.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            writeQueue.drainTo(batch);
+
+            StringBuilder sb = new StringBuilder();
+            for (PendingWrite p : batch) {
+                sb.append(p.user.userId).append(',').append(p.user.password).append(',')
+                        .append(p.user.character).append('\n');
+            }
+
+            IOException failure = null;
+            try {
+                if (channel == null) {
+                    channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                            StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+                }
+                ByteBuffer buf = ByteBuffer.wrap(sb.toString().getBytes(StandardCharsets.UTF_8));
+                while (buf.hasRemaining()) {
+                    channel.write(buf);
+                }
+                channel.force(false);
+            } catch (IOException e) {
+                logger.accept("회원가입 저장 실패: " + e.getMessage());
+                failure = e;
+                try {
+                    if (channel != null) channel.close();
+                } catch (IOException ignored) {
+                }
+                channel = null; // 다음 배치에서 다시 열기
+            }
+
+            // 디스크에 반영된 가입만 인덱스에 넣고, 실패한 가입은 선점만 풀어서 다시 시도할 수 있게 함
+            for (PendingWrite p : batch) {
+                if (failure == null) {
+                    users.put(p.user.userId, p.user);
+                    reserved.remove(p.user.userId, p.user);
+                    p.result.complete(true);
+                } else {
+                    reserved.remove(p.user.userId, p.user);
+                    p.result.completeExceptionally(failure);
+                }
+            }
+            batch.clear();
+        }
+    }
+}